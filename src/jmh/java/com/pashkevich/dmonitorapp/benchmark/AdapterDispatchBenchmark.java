@@ -0,0 +1,50 @@
+package com.pashkevich.dmonitorapp.benchmark;
+
+import com.pashkevich.dmonitorapp.model.CheckType;
+import com.pashkevich.dmonitorapp.model.ServiceDefinition;
+import org.openjdk.jmh.annotations.*;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Накладные расходы конвейера проверки без сети: выбор адаптера, лимитер, обработчики результатов и буфер записи.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AdapterDispatchBenchmark {
+
+    @Param({"100", "1000"})
+    public int serviceCount;
+
+    private BenchmarkFixtures.Pipeline pipeline;
+    private List<ServiceDefinition> services;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        services = new ArrayList<>(BenchmarkFixtures.services(serviceCount / 2, CheckType.HTTP, "http://localhost"));
+        BenchmarkFixtures.services(serviceCount / 2, CheckType.DATABASE, "r2dbc:postgresql://localhost/db")
+                .forEach(service -> {
+                    service.setId(service.getId() + serviceCount);
+                    services.add(service);
+                });
+        pipeline = BenchmarkFixtures.pipeline(BenchmarkFixtures.stubHttpAdapter(),
+                BenchmarkFixtures.stubDatabaseAdapter(), services);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pipeline.writer().close();
+    }
+
+    /**
+     * Одна операция - полный цикл проверки serviceCount сервисов.
+     */
+    @Benchmark
+    public void checkServices() {
+        pipeline.monitoringService().checkServices(Flux.fromIterable(services)).block();
+    }
+}
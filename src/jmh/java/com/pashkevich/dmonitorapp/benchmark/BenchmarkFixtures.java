@@ -0,0 +1,140 @@
+package com.pashkevich.dmonitorapp.benchmark;
+
+import com.pashkevich.dmonitorapp.adapter.database.DatabaseHealthAdapter;
+import com.pashkevich.dmonitorapp.adapter.http.HttpHealthAdapter;
+import com.pashkevich.dmonitorapp.adapter.kafka.KafkaHealthAdapter;
+import com.pashkevich.dmonitorapp.adapter.tcp.TcpHealthAdapter;
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
+import com.pashkevich.dmonitorapp.config.WebClientConfig;
+import com.pashkevich.dmonitorapp.model.CheckType;
+import com.pashkevich.dmonitorapp.model.HealthCheckResult;
+import com.pashkevich.dmonitorapp.model.ServiceDefinition;
+import com.pashkevich.dmonitorapp.model.ServiceStatus;
+import com.pashkevich.dmonitorapp.repository.HealthCheckResultBatchRepository;
+import com.pashkevich.dmonitorapp.service.HealthCheckResultListener;
+import com.pashkevich.dmonitorapp.service.MonitoringService;
+import com.pashkevich.dmonitorapp.service.breaker.ServiceCircuitBreaker;
+import com.pashkevich.dmonitorapp.service.concurrency.CheckConcurrencyLimiter;
+import com.pashkevich.dmonitorapp.service.metrics.MonitoringMetrics;
+import com.pashkevich.dmonitorapp.service.persistence.HealthCheckResultWriter;
+import com.pashkevich.dmonitorapp.service.registry.ServiceRegistry;
+import com.pashkevich.dmonitorapp.service.rollup.HealthCheckRollupService;
+import com.pashkevich.dmonitorapp.service.status.ServiceStatusTracker;
+import com.pashkevich.dmonitorapp.service.stream.HealthCheckEventPublisher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.http.client.ReactorResourceFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.tcp.TcpClient;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Сборка MonitoringService без Spring-контекста: реальные лимитер, реестр, обработчики и буфер записи,
+ * запись в БД заменена заглушкой.
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static List<ServiceDefinition> services(int count, CheckType checkType, String url) {
+        List<ServiceDefinition> services = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            services.add(ServiceDefinition.builder()
+                    .id(id)
+                    .name("service-" + id)
+                    .url(url + "?id=" + id)
+                    .checkType(checkType)
+                    .databaseConfigId(checkType == CheckType.DATABASE ? id : null)
+                    .checkIntervalSeconds(30)
+                    .isActive(true)
+                    .build());
+        }
+        return services;
+    }
+
+    static HealthCheckResult upResult(ServiceDefinition service) {
+        return HealthCheckResult.builder()
+                .serviceDefinitionId(service.getId())
+                .checkedAt(LocalDateTime.now())
+                .status(ServiceStatus.UP)
+                .responseTimeMs(5L)
+                .build();
+    }
+
+    static Pipeline pipeline(HttpHealthAdapter httpAdapter, DatabaseHealthAdapter databaseAdapter,
+                             List<ServiceDefinition> services) {
+        MonitoringProperties properties = new MonitoringProperties();
+        properties.getConcurrency().setMaxPerTarget(properties.getConcurrency().getMaxConcurrentChecks());
+
+        ServiceRegistry registry = new ServiceRegistry(null);
+        registry.upsertAll(services);
+
+        HealthCheckResultWriter writer = new HealthCheckResultWriter(new DiscardingBatchRepository(), properties);
+        CheckConcurrencyLimiter limiter = new CheckConcurrencyLimiter(properties);
+        HealthCheckEventPublisher publisher = new HealthCheckEventPublisher(registry, properties);
+        MonitoringMetrics metrics = new MonitoringMetrics(new SimpleMeterRegistry(), registry, limiter, writer,
+                publisher, properties);
+        List<HealthCheckResultListener> listeners = List.of(
+                new ServiceStatusTracker(registry),
+                publisher,
+                new HealthCheckRollupService(null, null, properties),
+                metrics);
+
+        MonitoringService monitoringService = new MonitoringService(null, null, httpAdapter, databaseAdapter,
+                new TcpHealthAdapter(TcpClient.newConnection(), properties),
+                new KafkaHealthAdapter(properties, Schedulers.boundedElastic()),
+                writer, limiter, new ServiceCircuitBreaker(registry, properties), registry, listeners, metrics);
+        monitoringService.initAdapters();
+        return new Pipeline(monitoringService, writer);
+    }
+
+    /**
+     * HttpHealthAdapter с тем же клиентом, что в приложении: пул соединений, таймауты и event loop
+     * из {@link WebClientConfig}.
+     */
+    static HttpHealthAdapter httpAdapter(ConnectionProvider connectionProvider, MonitoringProperties properties) {
+        ReactorResourceFactory resourceFactory = new ReactorResourceFactory();
+        resourceFactory.afterPropertiesSet();
+        WebClient webClient = new WebClientConfig().webClient(connectionProvider, resourceFactory, properties);
+        return new HttpHealthAdapter(webClient, properties);
+    }
+
+    // Заглушка не обращается к сети, клиент ей не нужен
+    static HttpHealthAdapter stubHttpAdapter() {
+        return new HttpHealthAdapter(null, new MonitoringProperties()) {
+            @Override
+            public Mono<HealthCheckResult> checkHealth(ServiceDefinition service) {
+                return Mono.just(upResult(service));
+            }
+        };
+    }
+
+    static DatabaseHealthAdapter stubDatabaseAdapter() {
+        return new DatabaseHealthAdapter(null, new MonitoringProperties()) {
+            @Override
+            public Mono<HealthCheckResult> checkHealth(ServiceDefinition service) {
+                return Mono.just(upResult(service));
+            }
+        };
+    }
+
+    record Pipeline(MonitoringService monitoringService, HealthCheckResultWriter writer) {
+    }
+
+    private static final class DiscardingBatchRepository extends HealthCheckResultBatchRepository {
+        private DiscardingBatchRepository() {
+            super(null);
+        }
+
+        @Override
+        public Mono<Long> insertAll(List<HealthCheckResult> results) {
+            return Mono.just((long) results.size());
+        }
+    }
+}
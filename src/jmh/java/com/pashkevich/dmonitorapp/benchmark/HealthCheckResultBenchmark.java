@@ -0,0 +1,42 @@
+package com.pashkevich.dmonitorapp.benchmark;
+
+import com.pashkevich.dmonitorapp.model.CheckType;
+import com.pashkevich.dmonitorapp.model.HealthCheckResult;
+import com.pashkevich.dmonitorapp.model.ServiceDefinition;
+import com.pashkevich.dmonitorapp.model.ServiceStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость создания одного результата проверки: builder и LocalDateTime.now() на каждую проверку.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class HealthCheckResultBenchmark {
+
+    private ServiceDefinition service;
+
+    @Setup
+    public void setUp() {
+        service = BenchmarkFixtures.services(1, CheckType.HTTP, "http://localhost").get(0);
+    }
+
+    @Benchmark
+    public HealthCheckResult buildSuccessResult() {
+        return BenchmarkFixtures.upResult(service);
+    }
+
+    @Benchmark
+    public HealthCheckResult buildErrorResult() {
+        return HealthCheckResult.builder()
+                .serviceDefinitionId(service.getId())
+                .checkedAt(LocalDateTime.now())
+                .status(ServiceStatus.DOWN)
+                .responseTimeMs(10_000L)
+                .message("HTTP Error: 503 SERVICE_UNAVAILABLE")
+                .build();
+    }
+}
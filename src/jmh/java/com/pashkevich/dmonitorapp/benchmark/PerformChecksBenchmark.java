@@ -0,0 +1,73 @@
+package com.pashkevich.dmonitorapp.benchmark;
+
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
+import com.pashkevich.dmonitorapp.config.WebClientConfig;
+import com.pashkevich.dmonitorapp.model.CheckType;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.*;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Полный цикл performChecks() с настоящим HttpHealthAdapter против локального HTTP-сервера.
+ * Клиент собирается так же, как в приложении, поэтому настройки пула и таймаутов входят в замер.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PerformChecksBenchmark {
+
+    private static final byte[] BODY = "{\"status\":\"UP\"}".getBytes(StandardCharsets.UTF_8);
+
+    @Param({"50", "200"})
+    public int serviceCount;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private ConnectionProvider connectionProvider;
+    private BenchmarkFixtures.Pipeline pipeline;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        serverExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.createContext("/health", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, BODY.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(BODY);
+            }
+        });
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/health";
+        MonitoringProperties properties = new MonitoringProperties();
+        connectionProvider = new WebClientConfig().probeConnectionProvider(properties);
+        pipeline = BenchmarkFixtures.pipeline(BenchmarkFixtures.httpAdapter(connectionProvider, properties),
+                BenchmarkFixtures.stubDatabaseAdapter(), BenchmarkFixtures.services(serviceCount, CheckType.HTTP, url));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pipeline.writer().close();
+        connectionProvider.dispose();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    /**
+     * Одна операция - проверка всех serviceCount сервисов.
+     */
+    @Benchmark
+    public String performChecks() {
+        return pipeline.monitoringService().performChecks().block();
+    }
+}
@@ -0,0 +1,90 @@
+package com.pashkevich.dmonitorapp.benchmark;
+
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
+import com.pashkevich.dmonitorapp.model.CheckType;
+import com.pashkevich.dmonitorapp.model.HealthCheckResult;
+import com.pashkevich.dmonitorapp.model.ServiceDefinition;
+import com.pashkevich.dmonitorapp.repository.HealthCheckResultBatchRepository;
+import com.pashkevich.dmonitorapp.service.persistence.PartitionMaintenanceJob;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Многострочная вставка результатов в секционированную таблицу Postgres в контейнере (нужен Docker).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ResultPersistenceBenchmark {
+
+    @Param({"1", "100", "500"})
+    public int batchSize;
+
+    private PostgreSQLContainer<?> postgres;
+    private HealthCheckResultBatchRepository batchRepository;
+    private List<HealthCheckResult> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+        postgres.start();
+
+        ConnectionFactory connectionFactory = ConnectionFactories.get(ConnectionFactoryOptions.builder()
+                .option(ConnectionFactoryOptions.DRIVER, "postgresql")
+                .option(ConnectionFactoryOptions.HOST, postgres.getHost())
+                .option(ConnectionFactoryOptions.PORT, postgres.getFirstMappedPort())
+                .option(ConnectionFactoryOptions.DATABASE, postgres.getDatabaseName())
+                .option(ConnectionFactoryOptions.USER, postgres.getUsername())
+                .option(ConnectionFactoryOptions.PASSWORD, postgres.getPassword())
+                .build());
+        DatabaseClient databaseClient = DatabaseClient.create(connectionFactory);
+
+        String schema = new ClassPathResource("schema.sql").getContentAsString(StandardCharsets.UTF_8);
+        Flux.fromIterable(Arrays.asList(schema.split(";")))
+                .map(String::strip)
+                .filter(statement -> !statement.isEmpty())
+                .concatMap(statement -> databaseClient.sql(statement).then())
+                .blockLast();
+        // Как при старте приложения: строки пишутся в секцию текущего дня, а не в секцию по умолчанию
+        new PartitionMaintenanceJob(databaseClient, new MonitoringProperties()).maintain().block();
+
+        List<ServiceDefinition> services = BenchmarkFixtures.services(batchSize, CheckType.HTTP, "http://localhost");
+        Flux.fromIterable(services)
+                .concatMap(service -> databaseClient.sql("INSERT INTO service_definitions " +
+                                "(id, name, url, check_interval_seconds, check_type) VALUES " +
+                                "(:id, :name, :url, 30, 'HTTP')")
+                        .bind("id", service.getId())
+                        .bind("name", service.getName())
+                        .bind("url", service.getUrl())
+                        .then())
+                .blockLast();
+
+        batchRepository = new HealthCheckResultBatchRepository(databaseClient);
+        batch = services.stream().map(BenchmarkFixtures::upResult).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        postgres.stop();
+    }
+
+    /**
+     * Одна операция - одна пачка из batchSize строк.
+     */
+    @Benchmark
+    public Long insertBatch() {
+        return batchRepository.insertAll(batch).block();
+    }
+}
@@ -1,32 +1,51 @@
 package com.pashkevich.dmonitorapp.adapter.database;
 
 import com.pashkevich.dmonitorapp.adapter.HealthCheckAdapter;
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
 import com.pashkevich.dmonitorapp.model.*;
 import com.pashkevich.dmonitorapp.repository.DatabaseConnectionRepository;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
 import io.r2dbc.spi.ConnectionFactories;
-import io.r2dbc.spi.ConnectionFactory;
-import lombok.RequiredArgsConstructor;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class DatabaseHealthAdapter implements HealthCheckAdapter {
 
     private final DatabaseConnectionRepository databaseConnectionRepository;
-    private final Map<String, ConnectionFactory> connectionFactoryCache = new ConcurrentHashMap<>();
+    private final MonitoringProperties.Database properties;
+    private final Map<PoolKey, PooledDatabase> connectionPools = new ConcurrentHashMap<>();
+    private final Map<Long, Mono<DatabaseConnectionConfig>> configCache = new ConcurrentHashMap<>();
+    private final Map<Long, PoolKey> poolKeys = new ConcurrentHashMap<>();
+
+    public DatabaseHealthAdapter(DatabaseConnectionRepository databaseConnectionRepository,
+                                 MonitoringProperties monitoringProperties) {
+        this.databaseConnectionRepository = databaseConnectionRepository;
+        this.properties = monitoringProperties.getDatabase();
+    }
 
     @Override
     public Mono<HealthCheckResult> checkHealth(ServiceDefinition service) {
-        return databaseConnectionRepository.findById(service.getDatabaseConfigId())
+        if (service.getDatabaseConfigId() == null) {
+            return createErrorResult(service, new IllegalArgumentException("Database config id is not set"));
+        }
+        return findConfig(service.getDatabaseConfigId())
+                .switchIfEmpty(Mono.error(() ->
+                        new IllegalStateException("Config not found: " + service.getDatabaseConfigId())))
                 .flatMap(config -> testConnectionReactive(service, config))
                 .onErrorResume(error -> createErrorResult(service, error));
     }
@@ -36,22 +55,122 @@ public class DatabaseHealthAdapter implements HealthCheckAdapter {
         return CheckType.DATABASE;
     }
 
+    /**
+     * Сбрасывает кэш конфигурации и закрывает пул, созданный для нее. Пул ищется по ключу, с которым
+     * он был создан: после изменения или удаления конфигурации из базы старый ключ уже не получить.
+     */
+    public void evict(Long configId) {
+        configCache.remove(configId);
+        PoolKey key = poolKeys.remove(configId);
+        if (key != null) {
+            releasePool(key);
+        }
+    }
+
+    @PreDestroy
+    public void disposeAll() {
+        Flux.fromIterable(connectionPools.keySet())
+                .mapNotNull(connectionPools::remove)
+                .flatMap(pooled -> pooled.pool().disposeLater())
+                .blockLast(Duration.ofMillis(properties.getAcquireTimeoutMs()));
+    }
+
+    int getPoolCount() {
+        return connectionPools.size();
+    }
+
+    private Mono<DatabaseConnectionConfig> findConfig(Long configId) {
+        Duration ttl = Duration.ofMillis(properties.getConfigCacheTtlMs());
+        return configCache.computeIfAbsent(configId, id -> databaseConnectionRepository.findById(id)
+                .cache(config -> ttl, error -> Duration.ZERO, () -> Duration.ZERO));
+    }
+
     private Mono<HealthCheckResult> testConnectionReactive(ServiceDefinition service, DatabaseConnectionConfig config) {
+        DatabaseClient databaseClient = getDatabaseClient(config);
         Instant start = Instant.now();
 
-        DatabaseClient databaseClient = createDatabaseClient(config);
-
         return databaseClient.sql("SELECT 1")
                 .fetch()
                 .one()
                 .map(result -> createSuccessResult(service, start))
-                .timeout(Duration.ofSeconds(10))
+                .timeout(queryTimeout(service))
                 .onErrorResume(error -> createErrorResult(service, start, error));
     }
 
-    private DatabaseClient createDatabaseClient(DatabaseConnectionConfig config) {
-        return DatabaseClient.create(connectionFactoryCache.computeIfAbsent(config.getConnectionUrl(),
-                ConnectionFactories::get));
+    private Duration queryTimeout(ServiceDefinition service) {
+        Integer timeoutMs = service.getTimeoutMs();
+        return Duration.ofMillis(timeoutMs != null && timeoutMs > 0 ? timeoutMs : properties.getQueryTimeoutMs());
+    }
+
+    private DatabaseClient getDatabaseClient(DatabaseConnectionConfig config) {
+        PoolKey key = PoolKey.of(config);
+        if (config.getId() != null) {
+            PoolKey previous = poolKeys.put(config.getId(), key);
+            // URL или пользователь сменились без evict, например после истечения TTL кэша
+            if (previous != null && !previous.equals(key)) {
+                releasePool(previous);
+            }
+        }
+        PooledDatabase pooled = connectionPools.compute(key, (k, existing) -> {
+            if (existing != null && Objects.equals(existing.password(), config.getPassword())) {
+                return existing;
+            }
+            if (existing != null) {
+                log.info("Учетные данные подключения {} изменились, пул пересоздается", k.url());
+                dispose(existing.pool());
+            }
+            return createPool(config);
+        });
+        return pooled.databaseClient();
+    }
+
+    private PooledDatabase createPool(DatabaseConnectionConfig config) {
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(config.getConnectionUrl())
+                .mutate()
+                .option(ConnectionFactoryOptions.CONNECT_TIMEOUT,
+                        Duration.ofMillis(properties.getConnectTimeoutMs()));
+        if (config.getUsername() != null) {
+            options.option(ConnectionFactoryOptions.USER, config.getUsername());
+        }
+        if (config.getPassword() != null) {
+            options.option(ConnectionFactoryOptions.PASSWORD, config.getPassword());
+        }
+
+        ConnectionPool pool = new ConnectionPool(ConnectionPoolConfiguration
+                .builder(ConnectionFactories.get(options.build()))
+                .name("db-probe-" + config.getName())
+                .initialSize(0)
+                .minIdle(0)
+                .maxSize(properties.getPoolMaxSize())
+                .maxIdleTime(Duration.ofMillis(properties.getPoolMaxIdleMs()))
+                .maxLifeTime(Duration.ofMillis(properties.getPoolMaxLifeMs()))
+                .maxAcquireTime(Duration.ofMillis(properties.getAcquireTimeoutMs()))
+                .backgroundEvictionInterval(Duration.ofMillis(properties.getPoolMaxIdleMs() / 2))
+                .build());
+        log.info("Создан пул подключений к {} (до {} соединений)", config.getConnectionUrl(),
+                properties.getPoolMaxSize());
+        return new PooledDatabase(pool, DatabaseClient.create(pool), config.getPassword());
+    }
+
+    // Пул общий для конфигураций с одинаковыми URL и пользователем
+    private void releasePool(PoolKey key) {
+        if (!poolKeys.containsValue(key)) {
+            disposePool(key);
+        }
+    }
+
+    private void disposePool(PoolKey key) {
+        PooledDatabase pooled = connectionPools.remove(key);
+        if (pooled != null) {
+            dispose(pooled.pool());
+            log.info("Пул подключений к {} закрыт", key.url());
+        }
+    }
+
+    // ConnectionPool.dispose() блокирует вызывающий поток, а evict вызывается из обработчиков WebFlux
+    private void dispose(ConnectionPool pool) {
+        pool.disposeLater()
+                .subscribe(null, error -> log.warn("Ошибка при закрытии пула подключений: {}", error.getMessage()));
     }
 
     private HealthCheckResult createSuccessResult(ServiceDefinition service, Instant start) {
@@ -68,7 +187,7 @@ public class DatabaseHealthAdapter implements HealthCheckAdapter {
         long responseTime = Duration.between(start, Instant.now()).toMillis();
         return Mono.just(HealthCheckResult.builder()
                 .serviceDefinitionId(service.getId())
-                .status(ServiceStatus.DOWN)
+                .status(error instanceof TimeoutException ? ServiceStatus.TIMEOUT : ServiceStatus.DOWN)
                 .responseTimeMs(responseTime)
                 .message("Database error: " + error.getMessage())
                 .build());
@@ -81,4 +200,13 @@ public class DatabaseHealthAdapter implements HealthCheckAdapter {
                 .message("Database config error: " + error.getMessage())
                 .build());
     }
-}
\ No newline at end of file
+
+    private record PoolKey(String url, String username) {
+        private static PoolKey of(DatabaseConnectionConfig config) {
+            return new PoolKey(config.getConnectionUrl(), config.getUsername());
+        }
+    }
+
+    private record PooledDatabase(ConnectionPool pool, DatabaseClient databaseClient, String password) {
+    }
+}
@@ -1,43 +1,62 @@
 package com.pashkevich.dmonitorapp.adapter.http;
 
 import com.pashkevich.dmonitorapp.adapter.HealthCheckAdapter;
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
 import com.pashkevich.dmonitorapp.model.CheckType;
 import com.pashkevich.dmonitorapp.model.HealthCheckResult;
+import com.pashkevich.dmonitorapp.model.HttpProbeMethod;
 import com.pashkevich.dmonitorapp.model.ServiceDefinition;
 import com.pashkevich.dmonitorapp.model.ServiceStatus;
-import lombok.RequiredArgsConstructor;
-import org.springframework.http.HttpStatusCode;
+import io.netty.channel.ConnectTimeoutException;
+import io.netty.handler.timeout.ReadTimeoutException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClientRequest;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.concurrent.TimeoutException;
 
 @Component
-@RequiredArgsConstructor
 public class HttpHealthAdapter implements HealthCheckAdapter {
 
     private final WebClient webClient;
+    private final MonitoringProperties.Http properties;
+
+    public HttpHealthAdapter(WebClient webClient, MonitoringProperties monitoringProperties) {
+        this.webClient = webClient;
+        this.properties = monitoringProperties.getHttp();
+    }
 
     @Override
     public Mono<HealthCheckResult> checkHealth(ServiceDefinition serviceDefinition) {
         Instant start = Instant.now();
-        LocalDateTime checkTime = LocalDateTime.now();
+        HttpMethod method = serviceDefinition.getHttpMethod() == HttpProbeMethod.HEAD ? HttpMethod.HEAD : HttpMethod.GET;
+        Duration responseTimeout = responseTimeout(serviceDefinition);
 
-        return webClient.get()
+        return webClient.method(method)
                 .uri(serviceDefinition.getUrl())
-                .retrieve()
-                .onStatus(HttpStatusCode::isError, clientResponse ->
-                        Mono.error(new RuntimeException("Http Error: " + clientResponse.statusCode()))
-                )
-                .bodyToMono(String.class)
-                .map(response -> createSuccessResult(serviceDefinition, start, checkTime))
-                .timeout(Duration.ofSeconds(10))
+                .httpRequest(request -> {
+                    // Таймаут ответа на уровне Netty закрывает соединение, а не оставляет его в пуле
+                    if (request.getNativeRequest() instanceof HttpClientRequest nettyRequest) {
+                        nettyRequest.responseTimeout(responseTimeout);
+                    }
+                })
+                .exchangeToMono(response -> handleResponse(serviceDefinition, method, response, start))
+                // Страховка на случай зависания до отправки запроса (ожидание пула, соединение)
+                .timeout(responseTimeout.plusMillis(properties.getConnectTimeoutMs())
+                        .plusMillis(properties.getPendingAcquireTimeoutMs()))
                 .onErrorResume(throwable ->
-                        Mono.just(createErrorResult(serviceDefinition, start,checkTime, throwable))
+                        Mono.just(createErrorResult(serviceDefinition, start, throwable))
                 );
     }
 
@@ -46,44 +65,81 @@ public class HttpHealthAdapter implements HealthCheckAdapter {
        return CheckType.HTTP;
     }
 
-    private HealthCheckResult createSuccessResult(ServiceDefinition service,
-                                                  Instant startTime, LocalDateTime checkTime) {
-        long responseTime = calculateResponseTime(startTime);
-        return HealthCheckResult.builder()
-                .serviceDefinitionId(service.getId())
-                .checkedAt(LocalDateTime.now())
-                .status(ServiceStatus.UP)
-                .responseTimeMs(responseTime)
-                .message(null)
-                .build();
-
+    private Duration responseTimeout(ServiceDefinition service) {
+        Integer timeoutMs = service.getTimeoutMs();
+        return Duration.ofMillis(timeoutMs != null && timeoutMs > 0 ? timeoutMs : properties.getResponseTimeoutMs());
     }
 
+    private Mono<HealthCheckResult> handleResponse(ServiceDefinition service, HttpMethod method,
+                                                   ClientResponse response, Instant start) {
+        if (response.statusCode().isError()) {
+            return response.releaseBody()
+                    .then(Mono.fromSupplier(() -> createResult(service, start, ServiceStatus.DOWN,
+                            "HTTP Error: " + response.statusCode())));
+        }
+
+        String expectedContent = service.getExpectedContent();
+        if (method == HttpMethod.HEAD || !StringUtils.hasText(expectedContent)) {
+            // Тело не нужно: освобождаем буферы без декодирования
+            return response.releaseBody()
+                    .then(Mono.fromSupplier(() -> createResult(service, start, ServiceStatus.UP, null)));
+        }
 
+        return readBody(response)
+                .map(body -> body.contains(expectedContent)
+                        ? createResult(service, start, ServiceStatus.UP, null)
+                        : createResult(service, start, ServiceStatus.DOWN,
+                                "Expected content not found in first " + properties.getMaxBodyBytes() + " bytes"));
+    }
 
-    private HealthCheckResult createErrorResult(ServiceDefinition service, Instant startTime, LocalDateTime checkTime,
-                                                Throwable error) {
-        long responseTime = calculateResponseTime(startTime);
+    /**
+     * Читает не больше {@code maxBodyBytes} байт тела, остаток не загружается.
+     */
+    private Mono<String> readBody(ClientResponse response) {
+        int maxBytes = properties.getMaxBodyBytes();
+        ByteArrayOutputStream body = new ByteArrayOutputStream(Math.min(maxBytes, 8192));
+        return response.bodyToFlux(DataBuffer.class)
+                .doOnNext(buffer -> {
+                    try {
+                        int length = Math.min(buffer.readableByteCount(), maxBytes - body.size());
+                        byte[] bytes = new byte[length];
+                        buffer.read(bytes);
+                        body.write(bytes, 0, length);
+                    } finally {
+                        DataBufferUtils.release(buffer);
+                    }
+                })
+                .takeUntil(buffer -> body.size() >= maxBytes)
+                .then(Mono.fromSupplier(() -> body.toString(StandardCharsets.UTF_8)));
+    }
 
+    private HealthCheckResult createResult(ServiceDefinition service, Instant startTime, ServiceStatus status,
+                                           String message) {
         return HealthCheckResult.builder()
                 .serviceDefinitionId(service.getId())
                 .checkedAt(LocalDateTime.now())
-                .status(ServiceStatus.DOWN)
-                .responseTimeMs(responseTime)
-                .message(extractErrorMessage( error))
+                .status(status)
+                .responseTimeMs(calculateResponseTime(startTime))
+                .message(message)
                 .build();
     }
 
-    private long calculateResponseTime(Instant startTime) {
-        return Duration.between(startTime, Instant.now()).toMillis();
+    private HealthCheckResult createErrorResult(ServiceDefinition service, Instant startTime, Throwable error) {
+        ServiceStatus status = isTimeout(error) ? ServiceStatus.TIMEOUT : ServiceStatus.DOWN;
+        return createResult(service, startTime, status, error.getMessage());
     }
 
-    private String extractErrorMessage(Throwable error) {
-        if (error instanceof WebClientResponseException) {
-            return "HTTP Error: " + ((WebClientResponseException) error).getStatusCode();
+    private boolean isTimeout(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException || cause instanceof ReadTimeoutException
+                    || cause instanceof ConnectTimeoutException) {
+                return true;
+            }
         }
-        return error.getMessage();
+        return false;
     }
-}
-
 
+    private long calculateResponseTime(Instant startTime) {
+        return Duration.between(startTime, Instant.now()).toMillis();
+    }
+}
@@ -0,0 +1,322 @@
+package com.pashkevich.dmonitorapp.adapter.kafka;
+
+import com.pashkevich.dmonitorapp.adapter.HealthCheckAdapter;
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
+import com.pashkevich.dmonitorapp.model.CheckType;
+import com.pashkevich.dmonitorapp.model.HealthCheckResult;
+import com.pashkevich.dmonitorapp.model.ServiceDefinition;
+import com.pashkevich.dmonitorapp.model.ServiceStatus;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.DescribeClusterOptions;
+import org.apache.kafka.clients.admin.DescribeClusterResult;
+import org.apache.kafka.clients.admin.DescribeTopicsOptions;
+import org.apache.kafka.clients.admin.ListConsumerGroupOffsetsOptions;
+import org.apache.kafka.clients.admin.ListOffsetsOptions;
+import org.apache.kafka.clients.admin.ListTopicsOptions;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Проверка Kafka-кластера одним запросом: доступность брокеров, наличие контроллера, недореплицированные
+ * партиции и отставание consumer-групп.
+ * <p>
+ * Адрес задается как {@code kafka://host1:9092,host2:9092?groups=orders,billing&maxLag=1000}.
+ * На каждый кластер держится один долгоживущий {@link Admin}, результат кэшируется на
+ * {@code monitoring.kafka.cache-ttl-ms}, поэтому сервисы одного кластера не нагружают его повторно.
+ */
+@Component
+@Slf4j
+public class KafkaHealthAdapter implements HealthCheckAdapter {
+
+    private final MonitoringProperties.Kafka properties;
+    private final Scheduler blockingScheduler;
+    private final Map<String, KafkaCluster> clusters = new ConcurrentHashMap<>();
+    private final Map<KafkaTarget, Mono<ClusterHealth>> healthCache = new ConcurrentHashMap<>();
+
+    public KafkaHealthAdapter(MonitoringProperties monitoringProperties, Scheduler blockingScheduler) {
+        this.properties = monitoringProperties.getKafka();
+        this.blockingScheduler = blockingScheduler;
+    }
+
+    @Override
+    public Mono<HealthCheckResult> checkHealth(ServiceDefinition service) {
+        KafkaTarget target;
+        try {
+            target = KafkaTarget.parse(service.getUrl());
+        } catch (IllegalArgumentException e) {
+            return Mono.just(createResult(service, ServiceStatus.DOWN, null, "Invalid Kafka target: " + e.getMessage()));
+        }
+
+        Duration timeout = timeout(service);
+        long maxLag = target.maxLag() != null ? target.maxLag() : properties.getMaxConsumerLag();
+        return cachedHealth(target, timeout)
+                .map(health -> toResult(service, health, maxLag))
+                .timeout(timeout)
+                .onErrorResume(error -> Mono.just(createErrorResult(service, error)));
+    }
+
+    @Override
+    public CheckType getType() {
+        return CheckType.KAFKA;
+    }
+
+    /**
+     * Закрывает admin-клиенты кластеров, к которым давно не было проверок.
+     */
+    @Scheduled(fixedDelayString = "${monitoring.kafka.client-idle-timeout-ms:600000}")
+    public void evictIdleClients() {
+        long idleSince = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(properties.getClientIdleTimeoutMs());
+        clusters.values().stream()
+                .filter(cluster -> cluster.lastUsedNanos - idleSince < 0)
+                .toList()
+                .forEach(cluster -> close(cluster.bootstrapServers));
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        List.copyOf(clusters.keySet()).forEach(this::close);
+    }
+
+    int getClientCount() {
+        return clusters.size();
+    }
+
+    private Duration timeout(ServiceDefinition service) {
+        Integer timeoutMs = service.getTimeoutMs();
+        return Duration.ofMillis(timeoutMs != null && timeoutMs > 0 ? timeoutMs : properties.getTimeoutMs());
+    }
+
+    private Mono<ClusterHealth> cachedHealth(KafkaTarget target, Duration timeout) {
+        Duration ttl = Duration.ofMillis(properties.getCacheTtlMs());
+        return healthCache.computeIfAbsent(target, key -> cluster(key.bootstrapServers())
+                .flatMap(cluster -> probe(cluster, key.groups(), timeout))
+                .cache(health -> ttl, error -> Duration.ZERO, () -> Duration.ZERO));
+    }
+
+    private Mono<KafkaCluster> cluster(String bootstrapServers) {
+        return Mono.defer(() -> {
+            KafkaCluster cluster = clusters.get(bootstrapServers);
+            if (cluster != null) {
+                return Mono.just(cluster);
+            }
+            // Admin.create разрешает адреса брокеров синхронно, поэтому создается вне event loop
+            return Mono.fromCallable(() -> clusters.computeIfAbsent(bootstrapServers, this::createCluster))
+                    .subscribeOn(blockingScheduler);
+        }).doOnNext(cluster -> cluster.lastUsedNanos = System.nanoTime());
+    }
+
+    private KafkaCluster createCluster(String bootstrapServers) {
+        Properties config = new Properties();
+        config.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(AdminClientConfig.CLIENT_ID_CONFIG, "dmonitor-probe");
+        config.put(AdminClientConfig.REQUEST_TIMEOUT_MS_CONFIG, (int) properties.getTimeoutMs());
+        config.put(AdminClientConfig.DEFAULT_API_TIMEOUT_MS_CONFIG, (int) properties.getTimeoutMs());
+        log.info("Создан admin-клиент Kafka для кластера {}", bootstrapServers);
+        return new KafkaCluster(bootstrapServers, Admin.create(config));
+    }
+
+    private void close(String bootstrapServers) {
+        KafkaCluster cluster = clusters.remove(bootstrapServers);
+        healthCache.keySet().removeIf(target -> target.bootstrapServers().equals(bootstrapServers));
+        if (cluster != null) {
+            cluster.admin.close(Duration.ofMillis(properties.getTimeoutMs()));
+            log.info("Admin-клиент Kafka для кластера {} закрыт", bootstrapServers);
+        }
+    }
+
+    private Mono<ClusterHealth> probe(KafkaCluster cluster, List<String> groups, Duration timeout) {
+        Admin admin = cluster.admin;
+        int timeoutMs = (int) timeout.toMillis();
+        long start = System.nanoTime();
+
+        DescribeClusterResult description = admin.describeCluster(new DescribeClusterOptions().timeoutMs(timeoutMs));
+        Mono<Collection<Node>> nodes = toMono(description.nodes());
+        Mono<Integer> controller = toMono(description.controller())
+                .map(node -> node.isEmpty() ? -1 : node.id())
+                .defaultIfEmpty(-1);
+        Mono<PartitionStats> partitions = toMono(admin.listTopics(new ListTopicsOptions().listInternal(true)
+                        .timeoutMs(timeoutMs)).names())
+                .flatMap(topics -> toMono(admin.describeTopics(topics, new DescribeTopicsOptions().timeoutMs(timeoutMs))
+                        .allTopicNames()))
+                .map(PartitionStats::of);
+        Mono<Map<String, Long>> lags = Flux.fromIterable(groups)
+                .flatMapSequential(group -> consumerLag(admin, group, timeoutMs).map(lag -> Map.entry(group, lag)))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue, LinkedHashMap::new);
+
+        return Mono.zip(nodes, controller, partitions, lags)
+                .map(tuple -> new ClusterHealth(tuple.getT1().size(), tuple.getT2(),
+                        tuple.getT3().underReplicated(), tuple.getT3().offline(), tuple.getT4(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+    }
+
+    private Mono<Long> consumerLag(Admin admin, String group, int timeoutMs) {
+        return toMono(admin.listConsumerGroupOffsets(group, new ListConsumerGroupOffsetsOptions().timeoutMs(timeoutMs))
+                .partitionsToOffsetAndMetadata())
+                .flatMap(committed -> {
+                    Map<TopicPartition, Long> offsets = committed.entrySet().stream()
+                            .filter(entry -> entry.getValue() != null)
+                            .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().offset()));
+                    if (offsets.isEmpty()) {
+                        return Mono.just(0L);
+                    }
+                    Map<TopicPartition, OffsetSpec> latest = offsets.keySet().stream()
+                            .collect(Collectors.toMap(Function.identity(), partition -> OffsetSpec.latest()));
+                    return toMono(admin.listOffsets(latest, new ListOffsetsOptions().timeoutMs(timeoutMs)).all())
+                            .map(endOffsets -> endOffsets.entrySet().stream()
+                                    .mapToLong(entry -> Math.max(0,
+                                            entry.getValue().offset() - offsets.get(entry.getKey())))
+                                    .sum());
+                });
+    }
+
+    private HealthCheckResult toResult(ServiceDefinition service, ClusterHealth health, long maxLag) {
+        StringBuilder message = new StringBuilder()
+                .append("brokers=").append(health.brokers())
+                .append(" controller=").append(health.controllerId())
+                .append(" underReplicated=").append(health.underReplicatedPartitions())
+                .append(" offline=").append(health.offlinePartitions());
+        health.consumerLag().forEach((group, lag) -> message.append(" lag[").append(group).append("]=").append(lag));
+
+        ServiceStatus status;
+        if (health.brokers() == 0 || health.controllerId() < 0 || health.offlinePartitions() > 0) {
+            status = ServiceStatus.DOWN;
+        } else if (health.underReplicatedPartitions() > 0
+                || health.consumerLag().values().stream().anyMatch(lag -> lag > maxLag)) {
+            status = ServiceStatus.DEGRADED;
+        } else {
+            status = ServiceStatus.UP;
+        }
+        return createResult(service, status, health.probeTimeMs(), message.toString());
+    }
+
+    private HealthCheckResult createErrorResult(ServiceDefinition service, Throwable error) {
+        ServiceStatus status = isTimeout(error) ? ServiceStatus.TIMEOUT : ServiceStatus.DOWN;
+        return createResult(service, status, null, "Kafka error: " + error.getMessage());
+    }
+
+    private boolean isTimeout(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException || cause instanceof org.apache.kafka.common.errors.TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private HealthCheckResult createResult(ServiceDefinition service, ServiceStatus status, Long responseTimeMs,
+                                           String message) {
+        return HealthCheckResult.builder()
+                .serviceDefinitionId(service.getId())
+                .checkedAt(LocalDateTime.now())
+                .status(status)
+                .responseTimeMs(responseTimeMs)
+                .message(message)
+                .build();
+    }
+
+    private static <T> Mono<T> toMono(KafkaFuture<T> future) {
+        return Mono.fromCompletionStage(future.toCompletionStage());
+    }
+
+    private static final class KafkaCluster {
+        private final String bootstrapServers;
+        private final Admin admin;
+        private volatile long lastUsedNanos = System.nanoTime();
+
+        private KafkaCluster(String bootstrapServers, Admin admin) {
+            this.bootstrapServers = bootstrapServers;
+            this.admin = admin;
+        }
+    }
+
+    record ClusterHealth(int brokers, int controllerId, int underReplicatedPartitions, int offlinePartitions,
+                         Map<String, Long> consumerLag, long probeTimeMs) {
+    }
+
+    private record PartitionStats(int underReplicated, int offline) {
+
+        private static PartitionStats of(Map<String, TopicDescription> topics) {
+            int underReplicated = 0;
+            int offline = 0;
+            for (TopicDescription topic : topics.values()) {
+                for (TopicPartitionInfo partition : topic.partitions()) {
+                    if (partition.leader() == null || partition.leader().isEmpty()) {
+                        offline++;
+                    } else if (partition.isr().size() < partition.replicas().size()) {
+                        underReplicated++;
+                    }
+                }
+            }
+            return new PartitionStats(underReplicated, offline);
+        }
+    }
+
+    record KafkaTarget(String bootstrapServers, List<String> groups, Long maxLag) {
+
+        static KafkaTarget parse(String url) {
+            if (!StringUtils.hasText(url)) {
+                throw new IllegalArgumentException("address is empty");
+            }
+            String address = url.startsWith("kafka://") ? url.substring("kafka://".length()) : url;
+            int queryStart = address.indexOf('?');
+            String servers = queryStart < 0 ? address : address.substring(0, queryStart);
+            servers = Arrays.stream(servers.split(","))
+                    .map(String::trim)
+                    .filter(StringUtils::hasText)
+                    .sorted()
+                    .collect(Collectors.joining(","));
+            if (servers.isEmpty()) {
+                throw new IllegalArgumentException("expected kafka://host:port[,host:port], got " + url);
+            }
+
+            List<String> groups = List.of();
+            Long maxLag = null;
+            if (queryStart >= 0) {
+                for (String parameter : address.substring(queryStart + 1).split("&")) {
+                    int separator = parameter.indexOf('=');
+                    if (separator <= 0) {
+                        continue;
+                    }
+                    String value = parameter.substring(separator + 1);
+                    switch (parameter.substring(0, separator)) {
+                        case "groups" -> groups = Arrays.stream(value.split(","))
+                                .map(String::trim)
+                                .filter(StringUtils::hasText)
+                                .toList();
+                        case "maxLag" -> maxLag = Long.parseLong(value);
+                        default -> {
+                        }
+                    }
+                }
+            }
+            return new KafkaTarget(servers, groups, maxLag);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.pashkevich.dmonitorapp.adapter.tcp;
+
+import com.pashkevich.dmonitorapp.adapter.HealthCheckAdapter;
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
+import com.pashkevich.dmonitorapp.model.CheckType;
+import com.pashkevich.dmonitorapp.model.HealthCheckResult;
+import com.pashkevich.dmonitorapp.model.ServiceDefinition;
+import com.pashkevich.dmonitorapp.model.ServiceStatus;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.ConnectTimeoutException;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.tcp.TcpClient;
+
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Проверка TCP-порта: неблокирующее подключение, опционально отправка запроса и поиск ожидаемого ответа.
+ * <p>
+ * Адрес задается как {@code tcp://host:port?send=PING%0D%0A&expect=PONG}. Ожидаемый ответ можно задать
+ * и через {@code expectedContent} сервиса. Без send/expect время ответа — время установки соединения.
+ */
+@Component
+public class TcpHealthAdapter implements HealthCheckAdapter {
+
+    private final TcpClient tcpClient;
+    private final MonitoringProperties.Tcp properties;
+
+    public TcpHealthAdapter(TcpClient probeTcpClient, MonitoringProperties monitoringProperties) {
+        this.tcpClient = probeTcpClient;
+        this.properties = monitoringProperties.getTcp();
+    }
+
+    @Override
+    public Mono<HealthCheckResult> checkHealth(ServiceDefinition service) {
+        long start = System.nanoTime();
+        TcpTarget target;
+        try {
+            target = TcpTarget.parse(service.getUrl());
+        } catch (IllegalArgumentException e) {
+            return Mono.just(createResult(service, start, ServiceStatus.DOWN, "Invalid TCP target: " + e.getMessage()));
+        }
+
+        Duration timeout = timeout(service);
+        int connectTimeoutMs = (int) Math.min(properties.getConnectTimeoutMs(), timeout.toMillis());
+        String expect = StringUtils.hasText(service.getExpectedContent()) ? service.getExpectedContent() : target.expect();
+
+        return Mono.usingWhen(
+                        tcpClient.host(target.host())
+                                .port(target.port())
+                                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                                .connect(),
+                        connection -> probe(service, connection, target.send(), expect, start),
+                        connection -> Mono.fromRunnable(connection::dispose))
+                .timeout(timeout)
+                .onErrorResume(error -> Mono.just(createErrorResult(service, start, error)));
+    }
+
+    @Override
+    public CheckType getType() {
+        return CheckType.TCP;
+    }
+
+    private Duration timeout(ServiceDefinition service) {
+        Integer timeoutMs = service.getTimeoutMs();
+        return Duration.ofMillis(timeoutMs != null && timeoutMs > 0 ? timeoutMs : properties.getTimeoutMs());
+    }
+
+    private Mono<HealthCheckResult> probe(ServiceDefinition service, Connection connection, String send,
+                                          String expect, long start) {
+        if (send == null && expect == null) {
+            return Mono.just(createResult(service, start, ServiceStatus.UP, null));
+        }
+
+        Mono<Void> request = send == null
+                ? Mono.empty()
+                : connection.outbound().sendString(Mono.just(send), StandardCharsets.UTF_8).then();
+        if (expect == null) {
+            return request.then(Mono.fromSupplier(() -> createResult(service, start, ServiceStatus.UP, null)));
+        }
+
+        // Netty буферизует входящие данные до подписки, поэтому баннер, отправленный сразу, не теряется
+        int maxBytes = properties.getMaxResponseBytes();
+        StringBuilder received = new StringBuilder();
+        return request
+                .thenMany(connection.inbound().receive().asString(StandardCharsets.UTF_8))
+                .map(chunk -> {
+                    received.append(chunk, 0, Math.min(chunk.length(), maxBytes - received.length()));
+                    return received.indexOf(expect) >= 0;
+                })
+                .takeUntil(found -> found || received.length() >= maxBytes)
+                .any(Boolean::booleanValue)
+                .map(found -> found
+                        ? createResult(service, start, ServiceStatus.UP, null)
+                        : createResult(service, start, ServiceStatus.DOWN,
+                                "Expected response not found in first " + maxBytes + " bytes"));
+    }
+
+    private HealthCheckResult createErrorResult(ServiceDefinition service, long start, Throwable error) {
+        boolean timeout = error instanceof TimeoutException || error instanceof ConnectTimeoutException;
+        return createResult(service, start, timeout ? ServiceStatus.TIMEOUT : ServiceStatus.DOWN,
+                "TCP error: " + error.getMessage());
+    }
+
+    private HealthCheckResult createResult(ServiceDefinition service, long start, ServiceStatus status,
+                                           String message) {
+        return HealthCheckResult.builder()
+                .serviceDefinitionId(service.getId())
+                .checkedAt(LocalDateTime.now())
+                .status(status)
+                .responseTimeMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                .message(message)
+                .build();
+    }
+
+    record TcpTarget(String host, int port, String send, String expect) {
+
+        static TcpTarget parse(String url) {
+            if (!StringUtils.hasText(url)) {
+                throw new IllegalArgumentException("address is empty");
+            }
+            URI uri = URI.create(url.contains("://") ? url : "tcp://" + url);
+            if (uri.getHost() == null || uri.getPort() <= 0) {
+                throw new IllegalArgumentException("expected tcp://host:port, got " + url);
+            }
+
+            String send = null;
+            String expect = null;
+            if (uri.getRawQuery() != null) {
+                for (String parameter : uri.getRawQuery().split("&")) {
+                    int separator = parameter.indexOf('=');
+                    if (separator <= 0) {
+                        continue;
+                    }
+                    String value = URLDecoder.decode(parameter.substring(separator + 1), StandardCharsets.UTF_8);
+                    switch (parameter.substring(0, separator)) {
+                        case "send" -> send = value;
+                        case "expect" -> expect = value;
+                        default -> {
+                        }
+                    }
+                }
+            }
+            return new TcpTarget(uri.getHost(), uri.getPort(), emptyToNull(send), emptyToNull(expect));
+        }
+
+        private static String emptyToNull(String value) {
+            return StringUtils.hasLength(value) ? value : null;
+        }
+    }
+}
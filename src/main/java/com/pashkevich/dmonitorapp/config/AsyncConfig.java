@@ -1,27 +0,0 @@
-package com.pashkevich.dmonitorapp.config;
-
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.scheduling.annotation.EnableAsync;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
-
-import java.util.concurrent.Executor;
-
-@Configuration
-@EnableAsync
-public class AsyncConfig {
-
-    @Bean("virtualTaskExecutor")
-    public Executor virtualTaskExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(10);
-        executor.setMaxPoolSize(100);
-        executor.setQueueCapacity(1000);
-        executor.setThreadNamePrefix("virtual-");
-        executor.setTaskDecorator(runnable -> () -> {
-            Thread.ofVirtual().start(runnable);
-        });
-        executor.initialize();
-        return executor;
-    }
-}
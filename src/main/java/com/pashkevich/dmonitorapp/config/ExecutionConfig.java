@@ -0,0 +1,25 @@
+package com.pashkevich.dmonitorapp.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Проверки выполняются неблокирующе на потоках Reactor Netty. Блокирующие вызовы (клиенты без
+ * реактивного API) переносятся на {@code blockingScheduler}: виртуальные потоки с ограничением
+ * числа одновременных задач и размера очереди.
+ */
+@Configuration
+public class ExecutionConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler blockingScheduler(MonitoringProperties monitoringProperties) {
+        MonitoringProperties.Execution properties = monitoringProperties.getExecution();
+        return Schedulers.newBoundedElastic(
+                properties.getBlockingMaxThreads(),
+                properties.getBlockingQueueSize(),
+                Thread.ofVirtual().name("monitoring-blocking-", 0).factory(),
+                60);
+    }
+}
@@ -0,0 +1,205 @@
+package com.pashkevich.dmonitorapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "monitoring")
+public class MonitoringProperties {
+
+    private Scheduler scheduler = new Scheduler();
+    private Registry registry = new Registry();
+    private Persistence persistence = new Persistence();
+    private Concurrency concurrency = new Concurrency();
+    private Database database = new Database();
+    private Rollup rollup = new Rollup();
+    private Partitions partitions = new Partitions();
+    private Stream stream = new Stream();
+    private Metrics metrics = new Metrics();
+    private Execution execution = new Execution();
+    private Http http = new Http();
+    private Tcp tcp = new Tcp();
+    private Kafka kafka = new Kafka();
+    private Cluster cluster = new Cluster();
+    private Breaker breaker = new Breaker();
+    private History history = new History();
+    private Sla sla = new Sla();
+    private Bulk bulk = new Bulk();
+
+    @Data
+    public static class Scheduler {
+        private long tickMs = 100;
+        private int wheelSize = 512;
+        private int defaultIntervalSeconds = 30;
+        private Adaptive adaptive = new Adaptive();
+    }
+
+    @Data
+    public static class Adaptive {
+        private boolean enabled = false;
+        private int stableChecksToStretch = 5;
+        private int maxMultiplier = 4;
+        private long maxIntervalMs = 600000;
+        private int tightenDivisor = 3;
+        private long minIntervalMs = 5000;
+        private int flapThreshold = 4;
+    }
+
+    @Data
+    public static class Registry {
+        private long initialDelayMs = 5000;
+        private long reconcileIntervalMs = 60000;
+    }
+
+    @Data
+    public static class Persistence {
+        private int batchSize = 500;
+        private long flushIntervalMs = 1000;
+        private int bufferCapacity = 10000;
+        private long backpressureRetryMs = 50;
+        private long shutdownTimeoutMs = 10000;
+        private boolean changeOnly = false;
+        private long heartbeatIntervalMs = 300000;
+        private double latencyShiftRatio = 0.5;
+        private long latencyShiftMinMs = 50;
+        private long insertTimeoutMs = 5000;
+        private Spool spool = new Spool();
+    }
+
+    @Data
+    public static class Spool {
+        private boolean enabled = false;
+        private String directory = "spool";
+        private int segmentBytes = 64 * 1024 * 1024;
+        private long maxBytes = 1024L * 1024 * 1024;
+        private long replayIntervalMs = 5000;
+    }
+
+    @Data
+    public static class Concurrency {
+        private int maxConcurrentChecks = 256;
+        private int maxPerTarget = 8;
+        private Map<String, Integer> targetLimits = new HashMap<>();
+    }
+
+    @Data
+    public static class Database {
+        private int poolMaxSize = 2;
+        private long poolMaxIdleMs = 300000;
+        private long poolMaxLifeMs = 1800000;
+        private long acquireTimeoutMs = 5000;
+        private long connectTimeoutMs = 5000;
+        private long configCacheTtlMs = 60000;
+        private long queryTimeoutMs = 10000;
+    }
+
+    @Data
+    public static class Rollup {
+        private long flushIntervalMs = 15000;
+        private long lateArrivalMs = 5000;
+        private int batchSize = 500;
+        private long defaultHistoryHours = 24;
+        private long shutdownTimeoutMs = 10000;
+        private int maxUnsaved = 100000;
+        private int minuteRetentionDays = 7;
+        private long retentionIntervalMs = 3600000;
+    }
+
+    @Data
+    public static class Partitions {
+        private boolean enabled = true;
+        private int partitionDays = 1;
+        private int precreatePartitions = 7;
+        private int retentionDays = 30;
+        private long maintenanceIntervalMs = 3600000;
+        private long startupTimeoutMs = 30000;
+    }
+
+    @Data
+    public static class Stream {
+        private int clientBufferSize = 256;
+    }
+
+    @Data
+    public static class Metrics {
+        private int maxServiceTags = 200;
+    }
+
+    @Data
+    public static class Execution {
+        private int blockingMaxThreads = 64;
+        private int blockingQueueSize = 10000;
+    }
+
+    @Data
+    public static class Http {
+        private int maxBodyBytes = 65536;
+        private int maxConnectionsPerHost = 16;
+        private int pendingAcquireMaxCount = 256;
+        private long pendingAcquireTimeoutMs = 5000;
+        private long maxIdleTimeMs = 30000;
+        private long maxLifeTimeMs = 300000;
+        private long evictIntervalMs = 30000;
+        private int connectTimeoutMs = 3000;
+        private long responseTimeoutMs = 10000;
+    }
+
+    @Data
+    public static class Tcp {
+        private int connectTimeoutMs = 3000;
+        private long timeoutMs = 5000;
+        private int maxResponseBytes = 4096;
+    }
+
+    @Data
+    public static class Kafka {
+        private long timeoutMs = 10000;
+        private long cacheTtlMs = 10000;
+        private long maxConsumerLag = 10000;
+        private long clientIdleTimeoutMs = 600000;
+    }
+
+    @Data
+    public static class Cluster {
+        private boolean enabled = false;
+        private String nodeId;
+        private long heartbeatIntervalMs = 5000;
+        private long nodeTtlMs = 15000;
+    }
+
+    @Data
+    public static class Breaker {
+        private boolean enabled = true;
+        private int failureThreshold = 3;
+        private int probeTimeoutMs = 2000;
+        private long initialBackoffMs = 30000;
+        private long maxBackoffMs = 600000;
+    }
+
+    @Data
+    public static class History {
+        private int defaultPageSize = 1000;
+        private int maxPageSize = 10000;
+    }
+
+    @Data
+    public static class Sla {
+        private boolean enabled = true;
+        private long checkpointIntervalMs = 60000;
+        private int batchSize = 200;
+        private long maxGapMs = 600000;
+        private int recentDowntimes = 20;
+        private long shutdownTimeoutMs = 10000;
+        private long restoreRetryMs = 5000;
+    }
+
+    @Data
+    public static class Bulk {
+        private int batchSize = 500;
+        private int writeConcurrency = 4;
+        private int maxReportedErrors = 1000;
+    }
+}
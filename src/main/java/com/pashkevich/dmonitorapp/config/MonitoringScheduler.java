@@ -1,25 +1,192 @@
 package com.pashkevich.dmonitorapp.config;
 
+import com.pashkevich.dmonitorapp.model.ServiceDefinition;
 import com.pashkevich.dmonitorapp.service.MonitoringService;
-import lombok.RequiredArgsConstructor;
+import com.pashkevich.dmonitorapp.service.cluster.ClusterMembership;
+import com.pashkevich.dmonitorapp.service.metrics.MonitoringMetrics;
+import com.pashkevich.dmonitorapp.service.registry.ServiceRegistry;
+import com.pashkevich.dmonitorapp.service.registry.ServiceRegistryListener;
+import com.pashkevich.dmonitorapp.service.scheduler.CheckIntervalAdvisor;
+import com.pashkevich.dmonitorapp.service.scheduler.TimingWheel;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
 
-import java.util.concurrent.CompletableFuture;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 
 
 @Component
 @Slf4j
-@RequiredArgsConstructor
-public class MonitoringScheduler {
+public class MonitoringScheduler implements ServiceRegistryListener, CheckIntervalAdvisor.Listener {
     private final MonitoringService monitoringService;
+    private final ServiceRegistry serviceRegistry;
+    private final MonitoringMetrics monitoringMetrics;
+    private final ClusterMembership clusterMembership;
+    private final CheckIntervalAdvisor checkIntervalAdvisor;
+    private final MonitoringProperties.Scheduler properties;
+    private final LongSupplier clockMillis = () -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    private final TimingWheel<ScheduledCheck> timingWheel;
+    private final Map<Long, ScheduledCheck> scheduledChecks = new ConcurrentHashMap<>();
 
-    @Scheduled(fixedRate = 30000, initialDelay = 5000)
+    public MonitoringScheduler(MonitoringService monitoringService,
+                               ServiceRegistry serviceRegistry,
+                               MonitoringMetrics monitoringMetrics,
+                               ClusterMembership clusterMembership,
+                               CheckIntervalAdvisor checkIntervalAdvisor,
+                               MonitoringProperties monitoringProperties) {
+        this.monitoringService = monitoringService;
+        this.serviceRegistry = serviceRegistry;
+        this.monitoringMetrics = monitoringMetrics;
+        this.clusterMembership = clusterMembership;
+        this.checkIntervalAdvisor = checkIntervalAdvisor;
+        this.properties = monitoringProperties.getScheduler();
+        this.timingWheel = new TimingWheel<>(properties.getTickMs(), properties.getWheelSize(), clockMillis);
+    }
+
+    @PostConstruct
+    public void init() {
+        serviceRegistry.addListener(this);
+        checkIntervalAdvisor.addListener(this);
+        updateSchedule(serviceRegistry.getAll());
+    }
+
+    @Scheduled(fixedRateString = "${monitoring.scheduler.tick-ms:100}")
     public void runMonitoring() {
-        log.info("Запуск мониторинга через @Scheduled");
+        List<ServiceDefinition> dueServices = new ArrayList<>();
+        long now = clockMillis.getAsLong();
+        timingWheel.advance(timeout -> fire(timeout, dueServices, now));
+
+        if (dueServices.isEmpty()) {
+            return;
+        }
+
+        log.debug("Запуск проверок для {} сервисов по расписанию", dueServices.size());
+        long start = System.nanoTime();
+        monitoringService.checkServices(Flux.fromIterable(dueServices))
+                .doFinally(signal -> monitoringMetrics.recordSchedulerBatch(System.nanoTime() - start))
+                .subscribe(null, error -> log.error("Ошибка при выполнении проверок по расписанию: {}",
+                        error.getMessage()));
+    }
+
+    @Override
+    public void onServiceUpdated(ServiceDefinition service) {
+        schedule(service);
+    }
+
+    @Override
+    public void onServiceRemoved(Long serviceId) {
+        unschedule(serviceId);
+    }
+
+    /**
+     * После сбоя или смены статуса следующая проверка не должна ждать растянутый интервал.
+     */
+    @Override
+    public void onIntervalShortened(Long serviceId, long intervalMillis) {
+        ScheduledCheck check = scheduledChecks.get(serviceId);
+        if (check == null) {
+            return;
+        }
+        synchronized (check) {
+            if (check.timeout == null || check.dueAtMillis - clockMillis.getAsLong() <= intervalMillis) {
+                return;
+            }
+            check.timeout.cancel();
+            check.reschedule(intervalMillis);
+        }
+    }
+
+    public void updateSchedule(Collection<ServiceDefinition> activeServices) {
+        Set<Long> activeIds = new HashSet<>();
+        for (ServiceDefinition service : activeServices) {
+            activeIds.add(service.getId());
+            schedule(service);
+        }
+
+        scheduledChecks.keySet().stream()
+                .filter(id -> !activeIds.contains(id))
+                .toList()
+                .forEach(this::unschedule);
+
+        log.info("Расписание обновлено: {} активных сервисов", scheduledChecks.size());
+    }
+
+    public void schedule(ServiceDefinition service) {
+        ScheduledCheck check = scheduledChecks.computeIfAbsent(service.getId(), id -> new ScheduledCheck());
+        synchronized (check) {
+            long previousInterval = check.service == null ? -1 : intervalMillis(check.service);
+            check.service = service;
+            if (check.timeout != null && previousInterval == intervalMillis(service)) {
+                return;
+            }
+            if (check.timeout != null) {
+                check.timeout.cancel();
+            }
+            // Первый запуск размазываем по интервалу, чтобы сервисы не проверялись одной пачкой
+            long delay = ThreadLocalRandom.current().nextLong(intervalMillis(service));
+            check.reschedule(delay);
+        }
+    }
+
+    public void unschedule(Long serviceId) {
+        ScheduledCheck check = scheduledChecks.remove(serviceId);
+        if (check == null) {
+            return;
+        }
+        synchronized (check) {
+            if (check.timeout != null) {
+                check.timeout.cancel();
+            }
+            check.timeout = null;
+        }
+    }
+
+    public int getScheduledCount() {
+        return timingWheel.size();
+    }
+
+    private void fire(TimingWheel.Timeout<ScheduledCheck> timeout, List<ServiceDefinition> dueServices, long now) {
+        ScheduledCheck check = timeout.getTask();
+        synchronized (check) {
+            if (check.timeout != timeout) {
+                return;
+            }
+            monitoringMetrics.recordSchedulerLag(now - check.dueAtMillis);
+            // Расписание ведется на всех узлах, поэтому при смене владельца сервис не теряет интервал
+            if (clusterMembership.owns(check.service.getId())) {
+                dueServices.add(check.service);
+            }
+            check.reschedule(checkIntervalAdvisor.intervalMillis(check.service.getId(), intervalMillis(check.service)));
+        }
+    }
+
+    private long intervalMillis(ServiceDefinition service) {
+        Integer intervalSeconds = service.getCheckIntervalSeconds();
+        if (intervalSeconds == null || intervalSeconds <= 0) {
+            intervalSeconds = properties.getDefaultIntervalSeconds();
+        }
+        return TimeUnit.SECONDS.toMillis(intervalSeconds);
+    }
+
+    private final class ScheduledCheck {
+        private ServiceDefinition service;
+        private TimingWheel.Timeout<ScheduledCheck> timeout;
+        private long dueAtMillis;
 
-        CompletableFuture<String> future = monitoringService.performChecks();
-        future.join();
+        private void reschedule(long delayMillis) {
+            dueAtMillis = clockMillis.getAsLong() + delayMillis;
+            timeout = timingWheel.schedule(this, delayMillis);
+        }
     }
 }
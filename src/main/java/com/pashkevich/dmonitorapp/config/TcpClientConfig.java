@@ -0,0 +1,23 @@
+package com.pashkevich.dmonitorapp.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ReactorResourceFactory;
+import reactor.netty.tcp.TcpClient;
+
+/**
+ * TCP-клиент для проверок портов: без пула соединений, на общих с сервером event loop.
+ */
+@Configuration
+public class TcpClientConfig {
+
+    @Bean
+    public TcpClient probeTcpClient(ReactorResourceFactory reactorResourceFactory) {
+        return TcpClient.newConnection()
+                .runOn(reactorResourceFactory.getLoopResources())
+                .option(ChannelOption.TCP_NODELAY, true)
+                // Закрываем соединение через RST: тысячи проверок за цикл не копят сокеты в TIME_WAIT
+                .option(ChannelOption.SO_LINGER, 0);
+    }
+}
@@ -1,14 +1,49 @@
 package com.pashkevich.dmonitorapp.config;
 
+import io.netty.channel.ChannelOption;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ReactorResourceFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
+import java.time.Duration;
+
+/**
+ * HTTP-клиент для проверок: пул соединений на каждый хост с вытеснением простаивающих,
+ * таймауты на уровне Netty и общие с сервером event loop.
+ */
 @Configuration
 public class WebClientConfig {
 
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider probeConnectionProvider(MonitoringProperties monitoringProperties) {
+        MonitoringProperties.Http properties = monitoringProperties.getHttp();
+        return ConnectionProvider.builder("http-probe")
+                .maxConnections(properties.getMaxConnectionsPerHost())
+                .pendingAcquireMaxCount(properties.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(Duration.ofMillis(properties.getPendingAcquireTimeoutMs()))
+                .maxIdleTime(Duration.ofMillis(properties.getMaxIdleTimeMs()))
+                .maxLifeTime(Duration.ofMillis(properties.getMaxLifeTimeMs()))
+                .evictInBackground(Duration.ofMillis(properties.getEvictIntervalMs()))
+                .build();
+    }
+
     @Bean
-    public WebClient webClient() {
-        return WebClient.builder().build();
+    public WebClient webClient(ConnectionProvider probeConnectionProvider,
+                               ReactorResourceFactory reactorResourceFactory,
+                               MonitoringProperties monitoringProperties) {
+        MonitoringProperties.Http properties = monitoringProperties.getHttp();
+        HttpClient httpClient = HttpClient.create(probeConnectionProvider)
+                .runOn(reactorResourceFactory.getLoopResources())
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, properties.getConnectTimeoutMs())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(Duration.ofMillis(properties.getResponseTimeoutMs()))
+                .keepAlive(true);
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
     }
 }
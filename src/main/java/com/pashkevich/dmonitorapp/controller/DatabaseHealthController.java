@@ -1,26 +1,54 @@
 package com.pashkevich.dmonitorapp.controller;
 
+import com.pashkevich.dmonitorapp.adapter.database.DatabaseHealthAdapter;
+import com.pashkevich.dmonitorapp.model.BulkFormat;
+import com.pashkevich.dmonitorapp.model.BulkImportReport;
 import com.pashkevich.dmonitorapp.model.DatabaseConnectionConfig;
 import com.pashkevich.dmonitorapp.repository.DatabaseConnectionRepository;
 import com.pashkevich.dmonitorapp.service.MonitoringService;
+import com.pashkevich.dmonitorapp.service.bulk.BulkImportService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.nio.charset.StandardCharsets;
+
 @RestController
 @RequestMapping("/api/database")
 @RequiredArgsConstructor
 public class DatabaseHealthController {
     private final DatabaseConnectionRepository databaseConnectionRepository;
     private final MonitoringService monitoringService;
+    private final DatabaseHealthAdapter databaseHealthAdapter;
+    private final BulkImportService bulkImportService;
 
     @GetMapping("/connections")
     public Flux<DatabaseConnectionConfig> getAllConnections() {
         return databaseConnectionRepository.findAll();
     }
 
+    @PostMapping("/connections/import")
+    public Mono<BulkImportReport> importConnections(
+            @RequestBody Flux<DataBuffer> body,
+            @RequestParam(defaultValue = "NDJSON") BulkFormat format) {
+        return bulkImportService.importConnections(body, format);
+    }
+
+    @GetMapping("/connections/export")
+    public ResponseEntity<Flux<DataBuffer>> exportConnections(
+            @RequestParam(defaultValue = "NDJSON") BulkFormat format) {
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .body(bulkImportService.exportConnections(format)
+                        .map(line -> DefaultDataBufferFactory.sharedInstance.wrap(
+                                line.getBytes(StandardCharsets.UTF_8))));
+    }
+
     @GetMapping("/connections/{id}")
     public Mono<DatabaseConnectionConfig> getConnectionById(@PathVariable Long id) {
         return databaseConnectionRepository.findById(id);
@@ -36,12 +64,14 @@ public class DatabaseHealthController {
             @PathVariable Long id,
             @RequestBody DatabaseConnectionConfig connection) {
         connection.setId(id);
-        return databaseConnectionRepository.save(connection);
+        return databaseConnectionRepository.save(connection)
+                .doOnSuccess(saved -> databaseHealthAdapter.evict(id));
     }
 
     @DeleteMapping("/connections/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public Mono<Void> deleteConnection(@PathVariable Long id) {
-        return databaseConnectionRepository.deleteById(id);
+        return databaseConnectionRepository.deleteById(id)
+                .doOnSuccess(deleted -> databaseHealthAdapter.evict(id));
     }
 }
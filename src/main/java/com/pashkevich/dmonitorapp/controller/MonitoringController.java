@@ -1,16 +1,41 @@
 package com.pashkevich.dmonitorapp.controller;
 
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
+import com.pashkevich.dmonitorapp.model.BulkFormat;
+import com.pashkevich.dmonitorapp.model.BulkImportReport;
+import com.pashkevich.dmonitorapp.model.CheckType;
+import com.pashkevich.dmonitorapp.model.HealthCheckEvent;
+import com.pashkevich.dmonitorapp.model.HealthCheckResult;
+import com.pashkevich.dmonitorapp.model.HealthCheckResultQuery;
+import com.pashkevich.dmonitorapp.model.HealthCheckRollup;
+import com.pashkevich.dmonitorapp.model.RollupGranularity;
 import com.pashkevich.dmonitorapp.model.ServiceDefinition;
+import com.pashkevich.dmonitorapp.model.ServiceSla;
+import com.pashkevich.dmonitorapp.model.ServiceStatus;
+import com.pashkevich.dmonitorapp.model.ServiceStatusSnapshot;
+import com.pashkevich.dmonitorapp.repository.HealthCheckResultHistoryRepository;
 import com.pashkevich.dmonitorapp.service.MonitoringService;
+import com.pashkevich.dmonitorapp.service.bulk.BulkImportService;
+import com.pashkevich.dmonitorapp.service.rollup.HealthCheckRollupService;
+import com.pashkevich.dmonitorapp.service.sla.SlaCalculator;
+import com.pashkevich.dmonitorapp.service.status.ServiceStatusTracker;
+import com.pashkevich.dmonitorapp.service.stream.HealthCheckEventPublisher;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.concurrent.CompletableFuture;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/monitoring")
@@ -18,6 +43,13 @@ import java.util.concurrent.CompletableFuture;
 public class MonitoringController {
 
     private final MonitoringService monitoringService;
+    private final ServiceStatusTracker serviceStatusTracker;
+    private final HealthCheckRollupService healthCheckRollupService;
+    private final HealthCheckEventPublisher healthCheckEventPublisher;
+    private final HealthCheckResultHistoryRepository healthCheckResultHistoryRepository;
+    private final MonitoringProperties monitoringProperties;
+    private final SlaCalculator slaCalculator;
+    private final BulkImportService bulkImportService;
 
     @GetMapping("/status")
     public Mono<String> getStatus(){
@@ -25,17 +57,136 @@ public class MonitoringController {
     }
 
     @PostMapping("/checks")
-    public CompletableFuture<String> performChecks() {
+    public Mono<String> performChecks() {
         return monitoringService.performChecks();
     }
 
+    @GetMapping(value = "/stream", produces = {MediaType.TEXT_EVENT_STREAM_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<HealthCheckEvent> streamResults(
+            @RequestParam(required = false) List<Long> serviceId,
+            @RequestParam(required = false) List<CheckType> checkType,
+            @RequestParam(defaultValue = "false") boolean transitionsOnly) {
+        return healthCheckEventPublisher.stream(serviceId, checkType, transitionsOnly);
+    }
+
     @GetMapping("/services")
     public Flux<ServiceDefinition> getServices() {
         return monitoringService.getServiceDefinitions();
     }
 
+    /**
+     * Массовый импорт: тело в NDJSON или CSV с заголовком, upsert по name.
+     */
+    @PostMapping("/services/import")
+    public Mono<BulkImportReport> importServices(
+            @RequestBody Flux<DataBuffer> body,
+            @RequestParam(defaultValue = "NDJSON") BulkFormat format) {
+        return bulkImportService.importServices(body, format);
+    }
+
+    @GetMapping("/services/export")
+    public ResponseEntity<Flux<DataBuffer>> exportServices(
+            @RequestParam(defaultValue = "NDJSON") BulkFormat format) {
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .body(bulkImportService.exportServices(format)
+                        .map(line -> DefaultDataBufferFactory.sharedInstance.wrap(
+                                line.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @GetMapping("/services/status")
+    public Flux<ServiceStatusSnapshot> getServiceStatuses() {
+        return Flux.fromIterable(serviceStatusTracker.getStatuses());
+    }
+
+    @GetMapping("/services/{id}/status")
+    public Mono<ServiceStatusSnapshot> getServiceStatus(@PathVariable Long id) {
+        return Mono.justOrEmpty(serviceStatusTracker.getStatus(id));
+    }
+
+    @GetMapping("/services/{id}/history")
+    public Flux<HealthCheckRollup> getServiceHistory(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "MINUTE") RollupGranularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return healthCheckRollupService.getHistory(id, granularity, from, to);
+    }
+
+    /**
+     * Сырые результаты по возрастанию (checked_at, id). Следующая страница запрашивается с
+     * afterCheckedAt/afterId последней полученной строки.
+     */
+    @GetMapping(value = "/services/{id}/results", produces = {MediaType.APPLICATION_NDJSON_VALUE,
+            MediaType.APPLICATION_JSON_VALUE})
+    public Flux<HealthCheckResult> getServiceResults(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) List<ServiceStatus> status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime afterCheckedAt,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer limit) {
+        MonitoringProperties.History history = monitoringProperties.getHistory();
+        int pageSize = limit == null || limit <= 0 ? history.getDefaultPageSize()
+                : Math.min(limit, history.getMaxPageSize());
+        return healthCheckResultHistoryRepository.findPage(HealthCheckResultQuery.builder()
+                .serviceDefinitionId(id)
+                .from(from)
+                .to(to)
+                .statuses(status)
+                .afterCheckedAt(afterCheckedAt)
+                .afterId(afterId)
+                .limit(pageSize)
+                .build());
+    }
+
+    @GetMapping("/sla")
+    public Flux<ServiceSla> getSla() {
+        return Flux.fromIterable(slaCalculator.getSla());
+    }
+
+    @GetMapping("/services/{id}/sla")
+    public Mono<ServiceSla> getServiceSla(@PathVariable Long id) {
+        return Mono.justOrEmpty(slaCalculator.getSla(id));
+    }
+
+    @PostMapping("/services/{id}/check")
+    public Mono<HealthCheckResult> checkService(@PathVariable Long id) {
+        return monitoringService.checkService(id);
+    }
+
+    @GetMapping("/services/{id}")
+    public Mono<ServiceDefinition> getService(@PathVariable Long id) {
+        return monitoringService.getServiceDefinition(id);
+    }
+
+    @PostMapping("/services")
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<ServiceDefinition> createService(@Valid @RequestBody ServiceDefinition service) {
+        service.setId(null);
+        return monitoringService.saveServiceDefinition(service);
+    }
+
+    @PutMapping("/services/{id}")
+    public Mono<ServiceDefinition> updateService(
+            @PathVariable Long id,
+            @Valid @RequestBody ServiceDefinition service) {
+        service.setId(id);
+        return monitoringService.saveServiceDefinition(service)
+                .switchIfEmpty(Mono.error(() ->
+                        new ResponseStatusException(HttpStatus.NOT_FOUND, "Service not found: " + id)));
+    }
+
+    @DeleteMapping("/services/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> deleteService(@PathVariable Long id) {
+        return monitoringService.deactivateServiceDefinition(id);
+    }
+
     @GetMapping("/checks/run")
-    public CompletableFuture<String> runChecks() {
+    public Mono<String> runChecks() {
         return monitoringService.performChecks();
     }
 }
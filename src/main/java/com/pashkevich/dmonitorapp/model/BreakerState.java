@@ -0,0 +1,7 @@
+package com.pashkevich.dmonitorapp.model;
+
+public enum BreakerState {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+}
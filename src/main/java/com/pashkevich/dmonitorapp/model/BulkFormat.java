@@ -0,0 +1,18 @@
+package com.pashkevich.dmonitorapp.model;
+
+import org.springframework.http.MediaType;
+
+public enum BulkFormat {
+    NDJSON(MediaType.APPLICATION_NDJSON),
+    CSV(new MediaType("text", "csv"));
+
+    private final MediaType mediaType;
+
+    BulkFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+}
@@ -0,0 +1,31 @@
+package com.pashkevich.dmonitorapp.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+@Builder
+public class BulkImportReport {
+
+    long received;
+
+    long imported;
+
+    long failed;
+
+    /**
+     * Ошибки по записям, не больше monitoring.bulk.max-reported-errors.
+     */
+    List<RecordError> errors;
+
+    boolean errorsTruncated;
+
+    @Value
+    public static class RecordError {
+        long line;
+        String name;
+        String message;
+    }
+}
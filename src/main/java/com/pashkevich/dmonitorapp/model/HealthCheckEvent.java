@@ -0,0 +1,29 @@
+package com.pashkevich.dmonitorapp.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value
+@Builder
+public class HealthCheckEvent {
+
+    Long serviceDefinitionId;
+
+    String serviceName;
+
+    CheckType checkType;
+
+    ServiceStatus status;
+
+    ServiceStatus previousStatus;
+
+    boolean transition;
+
+    Long responseTimeMs;
+
+    String message;
+
+    LocalDateTime checkedAt;
+}
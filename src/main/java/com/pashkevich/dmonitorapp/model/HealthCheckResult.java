@@ -39,4 +39,16 @@ public class HealthCheckResult {
 
     @Column("additional_info")
     private String additionalInfo;
+
+    @Column("breaker_state")
+    private BreakerState breakerState;
+
+    /**
+     * Сколько проверок представляет строка в режиме записи только изменений (null - одна).
+     */
+    @Column("sample_count")
+    private Integer sampleCount;
+
+    @Column("up_count")
+    private Integer upCount;
 }
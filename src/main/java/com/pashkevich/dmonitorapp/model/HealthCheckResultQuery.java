@@ -0,0 +1,30 @@
+package com.pashkevich.dmonitorapp.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Страница истории результатов. Курсор - (checked_at, id) последней полученной строки:
+ * следующая страница начинается строго после него.
+ */
+@Value
+@Builder
+public class HealthCheckResultQuery {
+
+    Long serviceDefinitionId;
+
+    LocalDateTime from;
+
+    LocalDateTime to;
+
+    List<ServiceStatus> statuses;
+
+    LocalDateTime afterCheckedAt;
+
+    Long afterId;
+
+    int limit;
+}
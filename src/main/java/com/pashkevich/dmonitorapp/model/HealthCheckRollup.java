@@ -0,0 +1,70 @@
+package com.pashkevich.dmonitorapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table("health_check_rollups")
+public class HealthCheckRollup {
+
+    @Id
+    private Long id;
+
+    @Column("service_definition_id")
+    private Long serviceDefinitionId;
+
+    @Column("granularity")
+    private RollupGranularity granularity;
+
+    @Column("bucket_start")
+    private LocalDateTime bucketStart;
+
+    @Column("total_count")
+    private long totalCount;
+
+    @Column("up_count")
+    private long upCount;
+
+    @Column("down_count")
+    private long downCount;
+
+    @Column("degraded_count")
+    private long degradedCount;
+
+    @Column("timeout_count")
+    private long timeoutCount;
+
+    @Column("unknown_count")
+    private long unknownCount;
+
+    @Column("latency_count")
+    private long latencyCount;
+
+    @Column("min_response_time_ms")
+    private Long minResponseTimeMs;
+
+    @Column("max_response_time_ms")
+    private Long maxResponseTimeMs;
+
+    @Column("avg_response_time_ms")
+    private Double avgResponseTimeMs;
+
+    @Column("p50_response_time_ms")
+    private Long p50ResponseTimeMs;
+
+    @Column("p95_response_time_ms")
+    private Long p95ResponseTimeMs;
+
+    @Column("p99_response_time_ms")
+    private Long p99ResponseTimeMs;
+}
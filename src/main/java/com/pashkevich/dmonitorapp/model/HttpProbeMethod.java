@@ -0,0 +1,6 @@
+package com.pashkevich.dmonitorapp.model;
+
+public enum HttpProbeMethod {
+    GET,
+    HEAD
+}
@@ -2,6 +2,7 @@ package com.pashkevich.dmonitorapp.model;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -14,7 +15,7 @@ import java.time.LocalDateTime;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 @Table("service_definitions")
 public class ServiceDefinition {
 
@@ -37,6 +38,16 @@ public class ServiceDefinition {
     @Column("database_config_id")
     private Long databaseConfigId;
 
+    @Column("http_method")
+    private HttpProbeMethod httpMethod;
+
+    @Column("expected_content")
+    private String expectedContent;
+
+    @Column("timeout_ms")
+    @Positive(message = "Timeout must be positive")
+    private Integer timeoutMs;
+
     @Column("created_at")
     private LocalDateTime createdAT;
 
@@ -0,0 +1,47 @@
+package com.pashkevich.dmonitorapp.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Value
+@Builder
+public class ServiceSla {
+
+    Long serviceDefinitionId;
+
+    String serviceName;
+
+    /**
+     * Начало текущего простоя, null если сервис доступен.
+     */
+    LocalDateTime downSince;
+
+    /**
+     * Скользящие окна 24h/7d/30d, затем текущий и предыдущий календарные месяцы.
+     */
+    List<Period> periods;
+
+    List<Downtime> recentDowntimes;
+
+    @Value
+    @Builder
+    public static class Period {
+        String period;
+        LocalDateTime from;
+        LocalDateTime to;
+        long checks;
+        long upChecks;
+        Double availabilityPercent;
+        long downtimeMs;
+    }
+
+    @Value
+    public static class Downtime {
+        LocalDateTime from;
+        LocalDateTime to;
+        long durationMs;
+    }
+}
@@ -0,0 +1,29 @@
+package com.pashkevich.dmonitorapp.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value
+@Builder(toBuilder = true)
+public class ServiceStatusSnapshot {
+
+    Long serviceDefinitionId;
+
+    String serviceName;
+
+    CheckType checkType;
+
+    ServiceStatus status;
+
+    Long lastResponseTimeMs;
+
+    String lastMessage;
+
+    LocalDateTime lastCheckedAt;
+
+    LocalDateTime lastChangedAt;
+
+    int consecutiveFailures;
+}
@@ -0,0 +1,39 @@
+package com.pashkevich.dmonitorapp.model;
+
+import java.time.Duration;
+
+/**
+ * Скользящие окна SLA. Окно хранится кольцом интервалов длиной bucket, поэтому его граница
+ * сдвигается шагами по bucket.
+ */
+public enum SlaWindow {
+    DAY("24h", Duration.ofHours(24), Duration.ofMinutes(15)),
+    WEEK("7d", Duration.ofDays(7), Duration.ofHours(1)),
+    MONTH("30d", Duration.ofDays(30), Duration.ofHours(4));
+
+    private final String label;
+    private final Duration length;
+    private final Duration bucket;
+
+    SlaWindow(String label, Duration length, Duration bucket) {
+        this.label = label;
+        this.length = length;
+        this.bucket = bucket;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public Duration getLength() {
+        return length;
+    }
+
+    public Duration getBucket() {
+        return bucket;
+    }
+
+    public int getBucketCount() {
+        return (int) (length.toMillis() / bucket.toMillis());
+    }
+}
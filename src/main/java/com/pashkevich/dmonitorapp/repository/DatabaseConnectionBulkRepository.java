@@ -0,0 +1,67 @@
+package com.pashkevich.dmonitorapp.repository;
+
+import com.pashkevich.dmonitorapp.model.DatabaseConnectionConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+/**
+ * Многострочный upsert подключений к БД по name для массового импорта.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DatabaseConnectionBulkRepository {
+
+    private static final String INSERT_PREFIX = "INSERT INTO database_connection " +
+            "(name, connection_url, username, password, driver_class_name, is_active, created_at) VALUES ";
+
+    private static final String ON_CONFLICT = " ON CONFLICT (name) DO UPDATE SET " +
+            "connection_url = EXCLUDED.connection_url, " +
+            "username = EXCLUDED.username, " +
+            "password = EXCLUDED.password, " +
+            "driver_class_name = EXCLUDED.driver_class_name, " +
+            "is_active = EXCLUDED.is_active " +
+            "RETURNING id";
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * @return id сохраненных строк, в том числе обновленных
+     */
+    public Flux<Long> upsertAll(List<DatabaseConnectionConfig> connections) {
+        if (connections.isEmpty()) {
+            return Flux.empty();
+        }
+
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        for (int i = 0; i < connections.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(:name").append(i)
+                    .append(", :url").append(i)
+                    .append(", :username").append(i)
+                    .append(", :password").append(i)
+                    .append(", :driver").append(i)
+                    .append(", :active").append(i)
+                    .append(", NOW())");
+        }
+        sql.append(ON_CONFLICT);
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (int i = 0; i < connections.size(); i++) {
+            DatabaseConnectionConfig connection = connections.get(i);
+            spec = spec.bind("name" + i, connection.getName())
+                    .bind("url" + i, connection.getConnectionUrl())
+                    .bind("username" + i, connection.getUsername())
+                    .bind("password" + i, connection.getPassword())
+                    .bind("driver" + i, connection.getDriverClassName())
+                    .bind("active" + i, connection.getIsActive());
+        }
+
+        return spec.map(row -> row.get("id", Long.class)).all();
+    }
+}
@@ -0,0 +1,68 @@
+package com.pashkevich.dmonitorapp.repository;
+
+import com.pashkevich.dmonitorapp.model.HealthCheckResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class HealthCheckResultBatchRepository {
+
+    private static final String INSERT_PREFIX = "INSERT INTO health_check_results " +
+            "(service_definition_id, status, message, response_time_ms, checked_at, additional_info, breaker_state, " +
+            "sample_count, up_count) VALUES ";
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<Long> insertAll(List<HealthCheckResult> results) {
+        if (results.isEmpty()) {
+            return Mono.just(0L);
+        }
+
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        for (int i = 0; i < results.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(:serviceId").append(i)
+                    .append(", :status").append(i)
+                    .append(", :message").append(i)
+                    .append(", :responseTime").append(i)
+                    .append(", :checkedAt").append(i)
+                    .append(", :additionalInfo").append(i)
+                    .append(", :breakerState").append(i)
+                    .append(", :sampleCount").append(i)
+                    .append(", :upCount").append(i)
+                    .append(')');
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (int i = 0; i < results.size(); i++) {
+            HealthCheckResult result = results.get(i);
+            LocalDateTime checkedAt = result.getCheckedAt() != null ? result.getCheckedAt() : LocalDateTime.now();
+            spec = bind(spec, "serviceId" + i, result.getServiceDefinitionId(), Long.class);
+            spec = bind(spec, "status" + i, result.getStatus() != null ? result.getStatus().name() : null,
+                    String.class);
+            spec = bind(spec, "message" + i, result.getMessage(), String.class);
+            spec = bind(spec, "responseTime" + i, result.getResponseTimeMs(), Long.class);
+            spec = bind(spec, "checkedAt" + i, checkedAt, LocalDateTime.class);
+            spec = bind(spec, "additionalInfo" + i, result.getAdditionalInfo(), String.class);
+            spec = bind(spec, "breakerState" + i,
+                    result.getBreakerState() != null ? result.getBreakerState().name() : null, String.class);
+            spec = bind(spec, "sampleCount" + i, result.getSampleCount(), Integer.class);
+            spec = bind(spec, "upCount" + i, result.getUpCount(), Integer.class);
+        }
+
+        return spec.fetch().rowsUpdated();
+    }
+
+    private DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec, String name,
+                                                   Object value, Class<?> type) {
+        return value != null ? spec.bind(name, value) : spec.bindNull(name, type);
+    }
+}
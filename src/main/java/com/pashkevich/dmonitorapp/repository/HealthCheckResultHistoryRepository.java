@@ -0,0 +1,84 @@
+package com.pashkevich.dmonitorapp.repository;
+
+import com.pashkevich.dmonitorapp.model.BreakerState;
+import com.pashkevich.dmonitorapp.model.HealthCheckResult;
+import com.pashkevich.dmonitorapp.model.HealthCheckResultQuery;
+import com.pashkevich.dmonitorapp.model.ServiceStatus;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+/**
+ * Keyset-пагинация по (checked_at, id) через индекс idx_health_check_results_service_checked_at_id:
+ * стоимость страницы не зависит от ее номера, строки отдаются по мере чтения из курсора БД.
+ */
+@Repository
+@RequiredArgsConstructor
+public class HealthCheckResultHistoryRepository {
+
+    private static final String SELECT = "SELECT id, service_definition_id, status, message, response_time_ms, " +
+            "checked_at, additional_info, breaker_state, sample_count, up_count " +
+            "FROM health_check_results WHERE service_definition_id = :serviceId";
+
+    private static final int FETCH_SIZE = 500;
+
+    private final DatabaseClient databaseClient;
+
+    public Flux<HealthCheckResult> findPage(HealthCheckResultQuery query) {
+        StringBuilder sql = new StringBuilder(SELECT);
+        if (query.getFrom() != null) {
+            sql.append(" AND checked_at >= :from");
+        }
+        if (query.getTo() != null) {
+            sql.append(" AND checked_at < :to");
+        }
+        if (query.getStatuses() != null && !query.getStatuses().isEmpty()) {
+            sql.append(" AND status IN (:statuses)");
+        }
+        if (query.getAfterCheckedAt() != null) {
+            sql.append(" AND (checked_at, id) > (:afterCheckedAt, :afterId)");
+        }
+        sql.append(" ORDER BY checked_at, id LIMIT :limit");
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString())
+                .filter((statement, next) -> next.execute(statement.fetchSize(FETCH_SIZE)))
+                .bind("serviceId", query.getServiceDefinitionId())
+                .bind("limit", query.getLimit());
+        if (query.getFrom() != null) {
+            spec = spec.bind("from", query.getFrom());
+        }
+        if (query.getTo() != null) {
+            spec = spec.bind("to", query.getTo());
+        }
+        if (query.getStatuses() != null && !query.getStatuses().isEmpty()) {
+            spec = spec.bind("statuses", query.getStatuses().stream().map(Enum::name).toList());
+        }
+        if (query.getAfterCheckedAt() != null) {
+            // Без id курсора берутся строки строго позже указанного времени
+            spec = spec.bind("afterCheckedAt", query.getAfterCheckedAt())
+                    .bind("afterId", query.getAfterId() != null ? query.getAfterId() : Long.MAX_VALUE);
+        }
+        return spec.map(HealthCheckResultHistoryRepository::toResult).all();
+    }
+
+    private static HealthCheckResult toResult(Readable row) {
+        String status = row.get("status", String.class);
+        String breakerState = row.get("breaker_state", String.class);
+        return HealthCheckResult.builder()
+                .id(row.get("id", Long.class))
+                .serviceDefinitionId(row.get("service_definition_id", Long.class))
+                .status(status != null ? ServiceStatus.valueOf(status) : null)
+                .message(row.get("message", String.class))
+                .responseTimeMs(row.get("response_time_ms", Long.class))
+                .checkedAt(row.get("checked_at", LocalDateTime.class))
+                .additionalInfo(row.get("additional_info", String.class))
+                .breakerState(breakerState != null ? BreakerState.valueOf(breakerState) : null)
+                .sampleCount(row.get("sample_count", Integer.class))
+                .upCount(row.get("up_count", Integer.class))
+                .build();
+    }
+}
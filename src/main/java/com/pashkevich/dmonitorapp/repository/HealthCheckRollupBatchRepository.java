@@ -0,0 +1,113 @@
+package com.pashkevich.dmonitorapp.repository;
+
+import com.pashkevich.dmonitorapp.model.HealthCheckRollup;
+import com.pashkevich.dmonitorapp.model.RollupGranularity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class HealthCheckRollupBatchRepository {
+
+    private static final String INSERT_PREFIX = "INSERT INTO health_check_rollups AS r " +
+            "(service_definition_id, granularity, bucket_start, total_count, up_count, down_count, " +
+            "degraded_count, timeout_count, unknown_count, latency_count, min_response_time_ms, " +
+            "max_response_time_ms, avg_response_time_ms, p50_response_time_ms, p95_response_time_ms, " +
+            "p99_response_time_ms) VALUES ";
+
+    // Опоздавшие результаты досчитываются в уже сохраненный интервал. Перцентили объединить
+    // точно нельзя, поэтому берется верхняя оценка.
+    private static final String ON_CONFLICT = " ON CONFLICT (service_definition_id, granularity, bucket_start) " +
+            "DO UPDATE SET " +
+            "total_count = r.total_count + EXCLUDED.total_count, " +
+            "up_count = r.up_count + EXCLUDED.up_count, " +
+            "down_count = r.down_count + EXCLUDED.down_count, " +
+            "degraded_count = r.degraded_count + EXCLUDED.degraded_count, " +
+            "timeout_count = r.timeout_count + EXCLUDED.timeout_count, " +
+            "unknown_count = r.unknown_count + EXCLUDED.unknown_count, " +
+            "latency_count = r.latency_count + EXCLUDED.latency_count, " +
+            "min_response_time_ms = LEAST(r.min_response_time_ms, EXCLUDED.min_response_time_ms), " +
+            "max_response_time_ms = GREATEST(r.max_response_time_ms, EXCLUDED.max_response_time_ms), " +
+            "avg_response_time_ms = CASE WHEN r.latency_count + EXCLUDED.latency_count = 0 THEN NULL " +
+            "ELSE (COALESCE(r.avg_response_time_ms, 0) * r.latency_count " +
+            "+ COALESCE(EXCLUDED.avg_response_time_ms, 0) * EXCLUDED.latency_count) " +
+            "/ (r.latency_count + EXCLUDED.latency_count) END, " +
+            "p50_response_time_ms = GREATEST(r.p50_response_time_ms, EXCLUDED.p50_response_time_ms), " +
+            "p95_response_time_ms = GREATEST(r.p95_response_time_ms, EXCLUDED.p95_response_time_ms), " +
+            "p99_response_time_ms = GREATEST(r.p99_response_time_ms, EXCLUDED.p99_response_time_ms)";
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<Long> upsertAll(List<HealthCheckRollup> rollups) {
+        if (rollups.isEmpty()) {
+            return Mono.just(0L);
+        }
+
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        for (int i = 0; i < rollups.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(:serviceId").append(i)
+                    .append(", :granularity").append(i)
+                    .append(", :bucketStart").append(i)
+                    .append(", :total").append(i)
+                    .append(", :up").append(i)
+                    .append(", :down").append(i)
+                    .append(", :degraded").append(i)
+                    .append(", :timeout").append(i)
+                    .append(", :unknown").append(i)
+                    .append(", :latencyCount").append(i)
+                    .append(", :min").append(i)
+                    .append(", :max").append(i)
+                    .append(", :avg").append(i)
+                    .append(", :p50").append(i)
+                    .append(", :p95").append(i)
+                    .append(", :p99").append(i)
+                    .append(')');
+        }
+        sql.append(ON_CONFLICT);
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (int i = 0; i < rollups.size(); i++) {
+            HealthCheckRollup rollup = rollups.get(i);
+            spec = spec.bind("serviceId" + i, rollup.getServiceDefinitionId())
+                    .bind("granularity" + i, rollup.getGranularity().name())
+                    .bind("bucketStart" + i, rollup.getBucketStart())
+                    .bind("total" + i, rollup.getTotalCount())
+                    .bind("up" + i, rollup.getUpCount())
+                    .bind("down" + i, rollup.getDownCount())
+                    .bind("degraded" + i, rollup.getDegradedCount())
+                    .bind("timeout" + i, rollup.getTimeoutCount())
+                    .bind("unknown" + i, rollup.getUnknownCount())
+                    .bind("latencyCount" + i, rollup.getLatencyCount());
+            spec = bind(spec, "min" + i, rollup.getMinResponseTimeMs(), Long.class);
+            spec = bind(spec, "max" + i, rollup.getMaxResponseTimeMs(), Long.class);
+            spec = bind(spec, "avg" + i, rollup.getAvgResponseTimeMs(), Double.class);
+            spec = bind(spec, "p50" + i, rollup.getP50ResponseTimeMs(), Long.class);
+            spec = bind(spec, "p95" + i, rollup.getP95ResponseTimeMs(), Long.class);
+            spec = bind(spec, "p99" + i, rollup.getP99ResponseTimeMs(), Long.class);
+        }
+
+        return spec.fetch().rowsUpdated();
+    }
+
+    public Mono<Long> deleteOlderThan(RollupGranularity granularity, LocalDateTime cutoff) {
+        return databaseClient.sql("DELETE FROM health_check_rollups " +
+                        "WHERE granularity = :granularity AND bucket_start < :cutoff")
+                .bind("granularity", granularity.name())
+                .bind("cutoff", cutoff)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec, String name,
+                                                   Object value, Class<?> type) {
+        return value != null ? spec.bind(name, value) : spec.bindNull(name, type);
+    }
+}
@@ -0,0 +1,16 @@
+package com.pashkevich.dmonitorapp.repository;
+
+import com.pashkevich.dmonitorapp.model.HealthCheckRollup;
+import com.pashkevich.dmonitorapp.model.RollupGranularity;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface HealthCheckRollupRepository extends ReactiveCrudRepository<HealthCheckRollup, Long> {
+
+    Flux<HealthCheckRollup> findByServiceDefinitionIdAndGranularityAndBucketStartBetweenOrderByBucketStart(
+            Long serviceDefinitionId, RollupGranularity granularity, LocalDateTime from, LocalDateTime to);
+}
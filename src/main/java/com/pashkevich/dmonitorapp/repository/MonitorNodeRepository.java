@@ -0,0 +1,54 @@
+package com.pashkevich.dmonitorapp.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Heartbeat узлов кластера. Живость считается по часам БД, чтобы расхождение часов узлов не влияло.
+ */
+@Repository
+@RequiredArgsConstructor
+public class MonitorNodeRepository {
+
+    private static final String HEARTBEAT = "INSERT INTO monitor_nodes (node_id, host, started_at, last_heartbeat) " +
+            "VALUES (:nodeId, :host, NOW(), NOW()) " +
+            "ON CONFLICT (node_id) DO UPDATE SET host = EXCLUDED.host, last_heartbeat = NOW()";
+
+    private static final String FIND_LIVE = "SELECT node_id FROM monitor_nodes " +
+            "WHERE last_heartbeat > NOW() - :ttlMs * INTERVAL '1 millisecond'";
+
+    private static final String DELETE_STALE = "DELETE FROM monitor_nodes " +
+            "WHERE last_heartbeat < NOW() - :olderThanMs * INTERVAL '1 millisecond'";
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<Void> heartbeat(String nodeId, String host) {
+        return databaseClient.sql(HEARTBEAT)
+                .bind("nodeId", nodeId)
+                .bind("host", host)
+                .then();
+    }
+
+    public Flux<String> findLiveNodeIds(long ttlMs) {
+        return databaseClient.sql(FIND_LIVE)
+                .bind("ttlMs", ttlMs)
+                .map(row -> row.get("node_id", String.class))
+                .all();
+    }
+
+    public Mono<Long> deleteStale(long olderThanMs) {
+        return databaseClient.sql(DELETE_STALE)
+                .bind("olderThanMs", olderThanMs)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Void> delete(String nodeId) {
+        return databaseClient.sql("DELETE FROM monitor_nodes WHERE node_id = :nodeId")
+                .bind("nodeId", nodeId)
+                .then();
+    }
+}
@@ -0,0 +1,107 @@
+package com.pashkevich.dmonitorapp.repository;
+
+import com.pashkevich.dmonitorapp.model.CheckType;
+import com.pashkevich.dmonitorapp.model.HttpProbeMethod;
+import com.pashkevich.dmonitorapp.model.ServiceDefinition;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Многострочный upsert определений сервисов по name для массового импорта.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ServiceDefinitionBulkRepository {
+
+    private static final String INSERT_PREFIX = "INSERT INTO service_definitions " +
+            "(name, url, check_interval_seconds, check_type, database_config_id, http_method, expected_content, " +
+            "timeout_ms, is_active, created_at, updated_at) VALUES ";
+
+    private static final String ON_CONFLICT = " ON CONFLICT (name) DO UPDATE SET " +
+            "url = EXCLUDED.url, " +
+            "check_interval_seconds = EXCLUDED.check_interval_seconds, " +
+            "check_type = EXCLUDED.check_type, " +
+            "database_config_id = EXCLUDED.database_config_id, " +
+            "http_method = EXCLUDED.http_method, " +
+            "expected_content = EXCLUDED.expected_content, " +
+            "timeout_ms = EXCLUDED.timeout_ms, " +
+            "is_active = EXCLUDED.is_active, " +
+            "updated_at = EXCLUDED.updated_at " +
+            "RETURNING id, name, url, check_interval_seconds, check_type, database_config_id, http_method, " +
+            "expected_content, timeout_ms, created_at, updated_at, is_active";
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * @return сохраненные строки с id, в том числе обновленные
+     */
+    public Flux<ServiceDefinition> upsertAll(List<ServiceDefinition> services) {
+        if (services.isEmpty()) {
+            return Flux.empty();
+        }
+
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        for (int i = 0; i < services.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(:name").append(i)
+                    .append(", :url").append(i)
+                    .append(", :interval").append(i)
+                    .append(", :checkType").append(i)
+                    .append(", :databaseConfigId").append(i)
+                    .append(", :httpMethod").append(i)
+                    .append(", :expectedContent").append(i)
+                    .append(", :timeoutMs").append(i)
+                    .append(", :active").append(i)
+                    .append(", NOW(), NOW())");
+        }
+        sql.append(ON_CONFLICT);
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (int i = 0; i < services.size(); i++) {
+            ServiceDefinition service = services.get(i);
+            spec = spec.bind("name" + i, service.getName())
+                    .bind("url" + i, service.getUrl())
+                    .bind("interval" + i, service.getCheckIntervalSeconds())
+                    .bind("checkType" + i, service.getCheckType().name());
+            spec = bind(spec, "databaseConfigId" + i, service.getDatabaseConfigId(), Long.class);
+            spec = bind(spec, "httpMethod" + i,
+                    service.getHttpMethod() != null ? service.getHttpMethod().name() : null, String.class);
+            spec = bind(spec, "expectedContent" + i, service.getExpectedContent(), String.class);
+            spec = bind(spec, "timeoutMs" + i, service.getTimeoutMs(), Integer.class);
+            spec = spec.bind("active" + i, service.getIsActive() == null || service.getIsActive());
+        }
+
+        return spec.map(ServiceDefinitionBulkRepository::toService).all();
+    }
+
+    private static ServiceDefinition toService(Readable row) {
+        String httpMethod = row.get("http_method", String.class);
+        return ServiceDefinition.builder()
+                .id(row.get("id", Long.class))
+                .name(row.get("name", String.class))
+                .url(row.get("url", String.class))
+                .checkIntervalSeconds(row.get("check_interval_seconds", Integer.class))
+                .checkType(CheckType.valueOf(row.get("check_type", String.class)))
+                .databaseConfigId(row.get("database_config_id", Long.class))
+                .httpMethod(httpMethod != null ? HttpProbeMethod.valueOf(httpMethod) : null)
+                .expectedContent(row.get("expected_content", String.class))
+                .timeoutMs(row.get("timeout_ms", Integer.class))
+                .createdAT(row.get("created_at", LocalDateTime.class))
+                .updatedAt(row.get("updated_at", LocalDateTime.class))
+                .isActive(row.get("is_active", Boolean.class))
+                .build();
+    }
+
+    private DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec, String name,
+                                                   Object value, Class<?> type) {
+        return value != null ? spec.bind(name, value) : spec.bindNull(name, type);
+    }
+}
@@ -0,0 +1,78 @@
+package com.pashkevich.dmonitorapp.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Контрольные точки счетчиков SLA: одна строка с сериализованным состоянием на сервис.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SlaCheckpointRepository {
+
+    private static final String INSERT_PREFIX = "INSERT INTO sla_checkpoints " +
+            "(service_definition_id, state, updated_at) VALUES ";
+
+    private static final String ON_CONFLICT = " ON CONFLICT (service_definition_id) " +
+            "DO UPDATE SET state = EXCLUDED.state, updated_at = EXCLUDED.updated_at";
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<Long> upsertAll(Map<Long, byte[]> states) {
+        if (states.isEmpty()) {
+            return Mono.just(0L);
+        }
+
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        for (int i = 0; i < states.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(:serviceId").append(i).append(", :state").append(i).append(", NOW())");
+        }
+        sql.append(ON_CONFLICT);
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        int i = 0;
+        for (Map.Entry<Long, byte[]> entry : states.entrySet()) {
+            spec = spec.bind("serviceId" + i, entry.getKey())
+                    .bind("state" + i, entry.getValue());
+            i++;
+        }
+        return spec.fetch().rowsUpdated();
+    }
+
+    public Flux<Checkpoint> findAll() {
+        return databaseClient.sql("SELECT service_definition_id, state FROM sla_checkpoints")
+                .map(row -> new Checkpoint(row.get("service_definition_id", Long.class),
+                        row.get("state", byte[].class)))
+                .all();
+    }
+
+    public Flux<Checkpoint> findAll(Collection<Long> serviceIds) {
+        if (serviceIds.isEmpty()) {
+            return Flux.empty();
+        }
+        return databaseClient.sql("SELECT service_definition_id, state FROM sla_checkpoints " +
+                        "WHERE service_definition_id IN (:serviceIds)")
+                .bind("serviceIds", serviceIds)
+                .map(row -> new Checkpoint(row.get("service_definition_id", Long.class),
+                        row.get("state", byte[].class)))
+                .all();
+    }
+
+    public Mono<Void> delete(Long serviceId) {
+        return databaseClient.sql("DELETE FROM sla_checkpoints WHERE service_definition_id = :serviceId")
+                .bind("serviceId", serviceId)
+                .then();
+    }
+
+    public record Checkpoint(Long serviceDefinitionId, byte[] state) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.pashkevich.dmonitorapp.service;
+
+import com.pashkevich.dmonitorapp.model.HealthCheckResult;
+import com.pashkevich.dmonitorapp.model.ServiceDefinition;
+
+/**
+ * Получает каждый результат проверки сразу после выполнения адаптером.
+ * Вызывается в потоке проверки, поэтому реализация не должна блокировать.
+ */
+public interface HealthCheckResultListener {
+    void onResult(ServiceDefinition service, HealthCheckResult result);
+}
@@ -3,22 +3,30 @@ package com.pashkevich.dmonitorapp.service;
 import com.pashkevich.dmonitorapp.adapter.HealthCheckAdapter;
 import com.pashkevich.dmonitorapp.adapter.database.DatabaseHealthAdapter;
 import com.pashkevich.dmonitorapp.adapter.http.HttpHealthAdapter;
+import com.pashkevich.dmonitorapp.adapter.kafka.KafkaHealthAdapter;
+import com.pashkevich.dmonitorapp.adapter.tcp.TcpHealthAdapter;
 import com.pashkevich.dmonitorapp.model.CheckType;
 import com.pashkevich.dmonitorapp.model.HealthCheckResult;
 import com.pashkevich.dmonitorapp.model.ServiceDefinition;
 import com.pashkevich.dmonitorapp.repository.DatabaseConnectionRepository;
-import com.pashkevich.dmonitorapp.repository.HealthCheckResultRepository;
 import com.pashkevich.dmonitorapp.repository.ServiceDefinitionRepository;
+import com.pashkevich.dmonitorapp.service.breaker.ServiceCircuitBreaker;
+import com.pashkevich.dmonitorapp.service.concurrency.CheckConcurrencyLimiter;
+import com.pashkevich.dmonitorapp.service.metrics.MonitoringMetrics;
+import com.pashkevich.dmonitorapp.service.persistence.HealthCheckResultWriter;
+import com.pashkevich.dmonitorapp.service.registry.ServiceRegistry;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @RequiredArgsConstructor
@@ -26,10 +34,22 @@ import java.util.concurrent.CompletableFuture;
 public class MonitoringService {
 
     private final ServiceDefinitionRepository serviceDefinitionRepository;
-    private final HealthCheckResultRepository healthCheckResultRepository;
     private final DatabaseConnectionRepository databaseConnectionRepository;
     private final HttpHealthAdapter httpHealthAdapter;
     private final DatabaseHealthAdapter databaseHealthAdapter;
+    private final TcpHealthAdapter tcpHealthAdapter;
+    private final KafkaHealthAdapter kafkaHealthAdapter;
+    private final HealthCheckResultWriter healthCheckResultWriter;
+    private final CheckConcurrencyLimiter checkConcurrencyLimiter;
+    private final ServiceCircuitBreaker serviceCircuitBreaker;
+    private final ServiceRegistry serviceRegistry;
+    private final List<HealthCheckResultListener> resultListeners;
+    private final MonitoringMetrics monitoringMetrics;
+
+    private final Map<Long, Mono<HealthCheckResult>> inFlightChecks = new ConcurrentHashMap<>();
+    private final Object cycleLock = new Object();
+    private Sinks.One<String> runningCycle;
+    private Sinks.One<String> queuedCycle;
 
     private Map<CheckType, HealthCheckAdapter> adapters;
 
@@ -37,37 +57,177 @@ public class MonitoringService {
     public void initAdapters() {
         this.adapters = Map.of(
                 CheckType.HTTP, httpHealthAdapter,
-                CheckType.DATABASE, databaseHealthAdapter
+                CheckType.DATABASE, databaseHealthAdapter,
+                CheckType.TCP, tcpHealthAdapter,
+                CheckType.KAFKA, kafkaHealthAdapter
         );
         log.info("Инициализированы адаптеры для типов проверок: {}", adapters.keySet());
     }
 
-    @Async("virtualTaskExecutor")
-    public CompletableFuture<String> performChecks() {
-        log.info("Запуск проверок здоровья сервисов в виртуальном потоке...");
+    /**
+     * Запускает полный цикл проверок. Если цикл уже идет, вызов ставит в очередь не больше одного
+     * следующего цикла и присоединяется к нему. Отмена подписки не прерывает запущенный цикл.
+     */
+    public Mono<String> performChecks() {
+        return Mono.defer(() -> {
+            Sinks.One<String> cycle;
+            boolean start = false;
+            synchronized (cycleLock) {
+                if (runningCycle == null) {
+                    runningCycle = Sinks.one();
+                    cycle = runningCycle;
+                    start = true;
+                } else {
+                    if (queuedCycle == null) {
+                        queuedCycle = Sinks.one();
+                        log.info("Цикл проверок уже выполняется, следующий поставлен в очередь");
+                    }
+                    cycle = queuedCycle;
+                }
+            }
+            if (start) {
+                runCycle(cycle);
+            }
+            return cycle.asMono();
+        });
+    }
 
-        return serviceDefinitionRepository.findAll()
-                .flatMap(service -> {
-                    CheckType checkType = service.getCheckType();
-                    HealthCheckAdapter adapter = adapters.get(checkType);
+    /**
+     * Внеочередная проверка одного сервиса. Повторные запросы, пока проверка идет, получают тот же результат.
+     */
+    public Mono<HealthCheckResult> checkService(Long serviceId) {
+        return Mono.justOrEmpty(serviceRegistry.get(serviceId))
+                .switchIfEmpty(Mono.defer(() -> serviceDefinitionRepository.findById(serviceId)))
+                .flatMap(this::checkService);
+    }
 
-                    if (adapter == null) {
-                        log.warn("Не найден адаптер для типа проверки: {}", checkType);
-                        return Mono.empty();
-                    }
+    public Mono<Void> checkServices(Flux<ServiceDefinition> services) {
+        // Параллелизм ограничивает только limiter: подписка, ждущая разрешения занятой цели,
+        // не должна занимать место сервисов других целей
+        return services
+                .flatMap(this::checkService, Integer.MAX_VALUE)
+                .then();
+    }
 
-                    return adapter.checkHealth(service)
-                            .flatMap(healthCheckResultRepository::save)
-                            .onErrorResume(error -> {
-                                log.error("Ошибка при сохранении результата проверки: {}", error.getMessage());
-                                return Mono.empty();
-                            });
-                })
-                .then(Mono.just("Проверки успешно завершены"))
-                .toFuture();
+    private void runCycle(Sinks.One<String> cycle) {
+        log.info("Запуск проверок здоровья сервисов...");
+        long start = System.nanoTime();
+        checkServices(Flux.defer(() -> Flux.fromIterable(serviceRegistry.getAll())))
+                .doFinally(signal -> monitoringMetrics.recordCycle(System.nanoTime() - start))
+                .subscribe(null, error -> {
+                    finishCycle();
+                    cycle.tryEmitError(error);
+                }, () -> {
+                    finishCycle();
+                    cycle.tryEmitValue("Проверки успешно завершены");
+                });
+    }
+
+    private void finishCycle() {
+        Sinks.One<String> next;
+        synchronized (cycleLock) {
+            next = queuedCycle;
+            queuedCycle = null;
+            runningCycle = next;
+        }
+        if (next != null) {
+            runCycle(next);
+        }
+    }
+
+    private Mono<HealthCheckResult> checkService(ServiceDefinition service) {
+        if (service.getId() == null) {
+            return runCheck(service);
+        }
+        return Mono.defer(() -> {
+            Sinks.One<HealthCheckResult> sink = Sinks.one();
+            Mono<HealthCheckResult> check = sink.asMono();
+            Mono<HealthCheckResult> inFlight = inFlightChecks.putIfAbsent(service.getId(), check);
+            if (inFlight != null) {
+                return inFlight;
+            }
+            runCheck(service)
+                    .doOnTerminate(() -> inFlightChecks.remove(service.getId(), check))
+                    .subscribe(sink::tryEmitValue, sink::tryEmitError, sink::tryEmitEmpty);
+            return check;
+        });
+    }
+
+    private Mono<HealthCheckResult> runCheck(ServiceDefinition service) {
+        CheckType checkType = service.getCheckType();
+        HealthCheckAdapter adapter = adapters.get(checkType);
+
+        if (adapter == null) {
+            log.warn("Не найден адаптер для типа проверки: {}", checkType);
+            return Mono.empty();
+        }
+
+        return serviceCircuitBreaker.guard(service,
+                        probe -> checkConcurrencyLimiter.limit(probe, Mono.defer(() -> adapter.checkHealth(probe))))
+                .doOnNext(result -> notifyListeners(service, result))
+                .flatMap(result -> healthCheckResultWriter.write(result).thenReturn(result))
+                .onErrorResume(error -> {
+                    log.error("Ошибка при сохранении результата проверки: {}", error.getMessage());
+                    monitoringMetrics.recordPipelineError();
+                    return Mono.empty();
+                });
+    }
+
+    private void notifyListeners(ServiceDefinition service, HealthCheckResult result) {
+        for (HealthCheckResultListener listener : resultListeners) {
+            try {
+                listener.onResult(service, result);
+            } catch (RuntimeException e) {
+                log.error("Ошибка в обработчике результата {}: {}", listener.getClass().getSimpleName(),
+                        e.getMessage());
+            }
+        }
     }
 
     public Flux<ServiceDefinition> getServiceDefinitions() {
-        return serviceDefinitionRepository.findAll();
+        return Flux.fromIterable(serviceRegistry.getAll());
+    }
+
+    public Mono<ServiceDefinition> getServiceDefinition(Long id) {
+        return serviceDefinitionRepository.findById(id);
+    }
+
+    /**
+     * Создает сервис, если id не задан, иначе обновляет существующий, сохраняя его created_at.
+     * Для несуществующего id возвращает пустой результат.
+     */
+    public Mono<ServiceDefinition> saveServiceDefinition(ServiceDefinition service) {
+        if (service.getId() == null) {
+            if (service.getCreatedAT() == null) {
+                service.setCreatedAT(LocalDateTime.now());
+            }
+            return save(service);
+        }
+        return serviceDefinitionRepository.findById(service.getId())
+                .flatMap(existing -> {
+                    service.setCreatedAT(existing.getCreatedAT());
+                    return save(service);
+                });
+    }
+
+    private Mono<ServiceDefinition> save(ServiceDefinition service) {
+        if (service.getIsActive() == null) {
+            service.setIsActive(true);
+        }
+        service.setUpdatedAt(LocalDateTime.now());
+
+        return serviceDefinitionRepository.save(service)
+                .doOnNext(serviceRegistry::upsert);
+    }
+
+    public Mono<Void> deactivateServiceDefinition(Long id) {
+        return serviceDefinitionRepository.findById(id)
+                .flatMap(service -> {
+                    service.setIsActive(false);
+                    service.setUpdatedAt(LocalDateTime.now());
+                    return serviceDefinitionRepository.save(service);
+                })
+                .doOnSuccess(service -> serviceRegistry.remove(id))
+                .then();
     }
 }
\ No newline at end of file
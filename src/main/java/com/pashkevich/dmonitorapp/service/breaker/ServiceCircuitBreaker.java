@@ -0,0 +1,192 @@
+package com.pashkevich.dmonitorapp.service.breaker;
+
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
+import com.pashkevich.dmonitorapp.model.BreakerState;
+import com.pashkevich.dmonitorapp.model.HealthCheckResult;
+import com.pashkevich.dmonitorapp.model.ServiceDefinition;
+import com.pashkevich.dmonitorapp.model.ServiceStatus;
+import com.pashkevich.dmonitorapp.service.registry.ServiceRegistry;
+import com.pashkevich.dmonitorapp.service.registry.ServiceRegistryListener;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker на каждый сервис. После {@code failureThreshold} сбоев подряд полные проверки
+ * прекращаются: до окончания backoff возвращается результат без обращения к цели, затем выполняется
+ * одна пробная проверка с коротким таймаутом. Неудачная проба удваивает backoff, успешная
+ * возвращает обычные проверки.
+ */
+@Component
+@Slf4j
+public class ServiceCircuitBreaker implements ServiceRegistryListener {
+
+    private final ServiceRegistry serviceRegistry;
+    private final MonitoringProperties.Breaker properties;
+    private final LongSupplier clockNanos;
+    private final Map<Long, Breaker> breakers = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ServiceCircuitBreaker(ServiceRegistry serviceRegistry, MonitoringProperties monitoringProperties) {
+        this(serviceRegistry, monitoringProperties, System::nanoTime);
+    }
+
+    ServiceCircuitBreaker(ServiceRegistry serviceRegistry, MonitoringProperties monitoringProperties,
+                          LongSupplier clockNanos) {
+        this.serviceRegistry = serviceRegistry;
+        this.properties = monitoringProperties.getBreaker();
+        this.clockNanos = clockNanos;
+    }
+
+    @PostConstruct
+    public void init() {
+        serviceRegistry.addListener(this);
+    }
+
+    public Mono<HealthCheckResult> guard(ServiceDefinition service,
+                                         Function<ServiceDefinition, Mono<HealthCheckResult>> probe) {
+        if (!properties.isEnabled() || service.getId() == null) {
+            return probe.apply(service);
+        }
+
+        Breaker breaker = breakers.computeIfAbsent(service.getId(), id -> new Breaker());
+        BreakerState state;
+        synchronized (breaker) {
+            state = breaker.acquire(clockNanos.getAsLong());
+        }
+
+        return switch (state) {
+            case CLOSED -> probe.apply(service)
+                    .doOnNext(result -> onResult(service, breaker, BreakerState.CLOSED, result));
+            case OPEN -> Mono.fromSupplier(() -> openResult(service, breaker));
+            case HALF_OPEN -> probe.apply(shortProbe(service))
+                    .doOnNext(result -> onResult(service, breaker, BreakerState.HALF_OPEN, result))
+                    .doFinally(signal -> {
+                        synchronized (breaker) {
+                            breaker.abandonTrial(clockNanos.getAsLong());
+                        }
+                    });
+        };
+    }
+
+    public BreakerState getState(Long serviceId) {
+        Breaker breaker = breakers.get(serviceId);
+        if (breaker == null) {
+            return BreakerState.CLOSED;
+        }
+        synchronized (breaker) {
+            return breaker.state;
+        }
+    }
+
+    @Override
+    public void onServiceUpdated(ServiceDefinition service) {
+    }
+
+    @Override
+    public void onServiceRemoved(Long serviceId) {
+        breakers.remove(serviceId);
+    }
+
+    private void onResult(ServiceDefinition service, Breaker breaker, BreakerState executedIn,
+                          HealthCheckResult result) {
+        result.setBreakerState(executedIn);
+        boolean failure = result.getStatus() == ServiceStatus.DOWN || result.getStatus() == ServiceStatus.TIMEOUT;
+        long now = clockNanos.getAsLong();
+        synchronized (breaker) {
+            if (!failure) {
+                if (breaker.state != BreakerState.CLOSED) {
+                    log.info("Сервис {} восстановился, обычные проверки возобновлены", service.getName());
+                }
+                breaker.close();
+                return;
+            }
+
+            breaker.lastStatus = result.getStatus();
+            breaker.lastMessage = result.getMessage();
+            if (executedIn == BreakerState.HALF_OPEN) {
+                breaker.open(now, Math.min(breaker.backoffMs * 2, properties.getMaxBackoffMs()));
+                log.debug("Пробная проверка сервиса {} неудачна, следующая через {} мс", service.getName(),
+                        breaker.backoffMs);
+            } else if (++breaker.consecutiveFailures >= properties.getFailureThreshold()) {
+                breaker.open(now, properties.getInitialBackoffMs());
+                log.warn("Сервис {} недоступен {} проверок подряд, цепь разомкнута на {} мс", service.getName(),
+                        breaker.consecutiveFailures, breaker.backoffMs);
+            }
+        }
+    }
+
+    private ServiceDefinition shortProbe(ServiceDefinition service) {
+        Integer timeoutMs = service.getTimeoutMs();
+        int probeTimeoutMs = timeoutMs != null ? Math.min(timeoutMs, properties.getProbeTimeoutMs())
+                : properties.getProbeTimeoutMs();
+        return service.toBuilder().timeoutMs(probeTimeoutMs).build();
+    }
+
+    private HealthCheckResult openResult(ServiceDefinition service, Breaker breaker) {
+        ServiceStatus status;
+        long remainingMs;
+        String lastMessage;
+        synchronized (breaker) {
+            status = breaker.lastStatus;
+            remainingMs = Math.max(0, TimeUnit.NANOSECONDS.toMillis(breaker.openUntilNanos - clockNanos.getAsLong()));
+            lastMessage = breaker.lastMessage;
+        }
+        return HealthCheckResult.builder()
+                .serviceDefinitionId(service.getId())
+                .checkedAt(LocalDateTime.now())
+                .status(status)
+                .message("Circuit open, next probe in " + remainingMs + " ms"
+                        + (lastMessage != null ? ". Last error: " + lastMessage : ""))
+                .breakerState(BreakerState.OPEN)
+                .build();
+    }
+
+    private static final class Breaker {
+        private BreakerState state = BreakerState.CLOSED;
+        private int consecutiveFailures;
+        private long backoffMs;
+        private long openUntilNanos;
+        private ServiceStatus lastStatus = ServiceStatus.DOWN;
+        private String lastMessage;
+
+        private BreakerState acquire(long now) {
+            if (state == BreakerState.OPEN && now - openUntilNanos >= 0) {
+                state = BreakerState.HALF_OPEN;
+                return BreakerState.HALF_OPEN;
+            }
+            // Пробная проверка уже идет: остальные вызовы не должны нагружать цель
+            return state == BreakerState.HALF_OPEN ? BreakerState.OPEN : state;
+        }
+
+        private void open(long now, long backoffMs) {
+            this.state = BreakerState.OPEN;
+            this.backoffMs = backoffMs;
+            this.openUntilNanos = now + TimeUnit.MILLISECONDS.toNanos(backoffMs);
+        }
+
+        private void close() {
+            state = BreakerState.CLOSED;
+            consecutiveFailures = 0;
+            backoffMs = 0;
+        }
+
+        /**
+         * Проба завершилась без результата (отмена, ошибка): цепь снова размыкается на текущий backoff.
+         */
+        private void abandonTrial(long now) {
+            if (state == BreakerState.HALF_OPEN) {
+                open(now, backoffMs);
+            }
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package com.pashkevich.dmonitorapp.service.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pashkevich.dmonitorapp.adapter.database.DatabaseHealthAdapter;
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
+import com.pashkevich.dmonitorapp.model.BulkFormat;
+import com.pashkevich.dmonitorapp.model.BulkImportReport;
+import com.pashkevich.dmonitorapp.model.DatabaseConnectionConfig;
+import com.pashkevich.dmonitorapp.model.ServiceDefinition;
+import com.pashkevich.dmonitorapp.repository.DatabaseConnectionBulkRepository;
+import com.pashkevich.dmonitorapp.repository.DatabaseConnectionRepository;
+import com.pashkevich.dmonitorapp.repository.ServiceDefinitionBulkRepository;
+import com.pashkevich.dmonitorapp.repository.ServiceDefinitionRepository;
+import com.pashkevich.dmonitorapp.service.persistence.HealthCheckResultWriter;
+import com.pashkevich.dmonitorapp.service.registry.ServiceRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Массовый импорт и экспорт определений сервисов и подключений к БД в NDJSON и CSV.
+ * Вход читается построчно, каждая запись проверяется отдельно, корректные записи сохраняются пачками
+ * многострочным upsert по name. Ошибка одной записи не прерывает импорт, а попадает в отчет: пачка,
+ * отвергнутая БД (например, несуществующий databaseConfigId), делится пополам, пока ошибку не получат
+ * только отвергнутые записи.
+ */
+@Component
+@Slf4j
+public class BulkImportService {
+
+    static final List<String> SERVICE_COLUMNS = List.of("name", "url", "checkIntervalSeconds", "checkType",
+            "databaseConfigId", "httpMethod", "expectedContent", "timeoutMs", "isActive");
+
+    static final List<String> CONNECTION_COLUMNS = List.of("name", "connectionUrl", "username", "password",
+            "driverClassName", "isActive");
+
+    private final ServiceDefinitionRepository serviceDefinitionRepository;
+    private final ServiceDefinitionBulkRepository serviceDefinitionBulkRepository;
+    private final DatabaseConnectionRepository databaseConnectionRepository;
+    private final DatabaseConnectionBulkRepository databaseConnectionBulkRepository;
+    private final ServiceRegistry serviceRegistry;
+    private final DatabaseHealthAdapter databaseHealthAdapter;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final MonitoringProperties.Bulk properties;
+
+    public BulkImportService(ServiceDefinitionRepository serviceDefinitionRepository,
+                             ServiceDefinitionBulkRepository serviceDefinitionBulkRepository,
+                             DatabaseConnectionRepository databaseConnectionRepository,
+                             DatabaseConnectionBulkRepository databaseConnectionBulkRepository,
+                             ServiceRegistry serviceRegistry,
+                             DatabaseHealthAdapter databaseHealthAdapter,
+                             ObjectMapper objectMapper,
+                             Validator validator,
+                             MonitoringProperties monitoringProperties) {
+        this.serviceDefinitionRepository = serviceDefinitionRepository;
+        this.serviceDefinitionBulkRepository = serviceDefinitionBulkRepository;
+        this.databaseConnectionRepository = databaseConnectionRepository;
+        this.databaseConnectionBulkRepository = databaseConnectionBulkRepository;
+        this.serviceRegistry = serviceRegistry;
+        this.databaseHealthAdapter = databaseHealthAdapter;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.properties = monitoringProperties.getBulk();
+    }
+
+    public Mono<BulkImportReport> importServices(Flux<DataBuffer> body, BulkFormat format) {
+        return importRecords(body, format, ServiceDefinition.class, ServiceDefinition::getName,
+                batch -> serviceDefinitionBulkRepository.upsertAll(batch)
+                        .collectList()
+                        // Реестр обновляется сразу, не дожидаясь reconcile; неактивные сервисы из него удаляются
+                        .doOnNext(serviceRegistry::upsertAll)
+                        .map(List::size));
+    }
+
+    public Mono<BulkImportReport> importConnections(Flux<DataBuffer> body, BulkFormat format) {
+        return importRecords(body, format, DatabaseConnectionConfig.class, DatabaseConnectionConfig::getName,
+                batch -> databaseConnectionBulkRepository.upsertAll(batch)
+                        .doOnNext(databaseHealthAdapter::evict)
+                        .count()
+                        .map(Long::intValue));
+    }
+
+    public Flux<String> exportServices(BulkFormat format) {
+        return export(serviceDefinitionRepository.findAll(), format, SERVICE_COLUMNS);
+    }
+
+    public Flux<String> exportConnections(BulkFormat format) {
+        return export(databaseConnectionRepository.findAll(), format, CONNECTION_COLUMNS);
+    }
+
+    private <T> Mono<BulkImportReport> importRecords(Flux<DataBuffer> body, BulkFormat format, Class<T> type,
+                                                     Function<T, String> nameOf,
+                                                     Function<List<T>, Mono<Integer>> upsert) {
+        return Mono.defer(() -> {
+            ReportCollector report = new ReportCollector(properties.getMaxReportedErrors());
+            RecordParser<T> parser = new RecordParser<>(format, type);
+            Set<String> names = new HashSet<>();
+
+            return lines(body)
+                    .index()
+                    .<ParsedRecord<T>>handle((indexed, sink) -> {
+                        long line = indexed.getT1() + 1;
+                        String text = indexed.getT2();
+                        if (text.isBlank() || parser.consumeHeader(text)) {
+                            return;
+                        }
+                        report.received();
+                        T record;
+                        try {
+                            record = parser.parse(text);
+                        } catch (RuntimeException e) {
+                            report.error(line, null, errorMessage(e));
+                            return;
+                        }
+                        String name = nameOf.apply(record);
+                        String violations = validate(record);
+                        if (violations != null) {
+                            report.error(line, name, violations);
+                        } else if (!names.add(name)) {
+                            report.error(line, name, "Duplicate name in import");
+                        } else {
+                            sink.next(new ParsedRecord<>(line, name, record));
+                        }
+                    })
+                    .buffer(properties.getBatchSize())
+                    .flatMap(batch -> save(batch, upsert, report), properties.getWriteConcurrency())
+                    .then(Mono.fromSupplier(report::build))
+                    .doOnNext(result -> log.info("Импорт {}: получено {}, сохранено {}, с ошибками {}",
+                            type.getSimpleName(), result.getReceived(), result.getImported(), result.getFailed()));
+        });
+    }
+
+    private <T> Mono<Void> save(List<ParsedRecord<T>> batch, Function<List<T>, Mono<Integer>> upsert,
+                                ReportCollector report) {
+        return Mono.defer(() -> upsert.apply(batch.stream().map(ParsedRecord::value).toList()))
+                .doOnNext(report::imported)
+                .then()
+                .onErrorResume(error -> {
+                    if (batch.size() > 1 && !HealthCheckResultWriter.isTransient(error)) {
+                        int middle = batch.size() / 2;
+                        return save(batch.subList(0, middle), upsert, report)
+                                .then(save(batch.subList(middle, batch.size()), upsert, report));
+                    }
+                    log.error("Ошибка при массовом сохранении {} записей: {}", batch.size(), error.getMessage());
+                    batch.forEach(record -> report.error(record.line(), record.name(), errorMessage(error)));
+                    return Mono.empty();
+                });
+    }
+
+    private <T> Flux<String> export(Flux<T> records, BulkFormat format, List<String> columns) {
+        if (format == BulkFormat.NDJSON) {
+            return records.map(record -> {
+                try {
+                    return objectMapper.writeValueAsString(record) + "\n";
+                } catch (JsonProcessingException e) {
+                    throw new IllegalStateException("Cannot serialize " + record, e);
+                }
+            });
+        }
+        return Flux.just(CsvCodec.formatLine(columns))
+                .concatWith(records.map(record -> {
+                    Map<?, ?> values = objectMapper.convertValue(record, Map.class);
+                    return CsvCodec.formatLine(columns.stream().map(values::get).toList());
+                }));
+    }
+
+    private Flux<String> lines(Flux<DataBuffer> body) {
+        return StringDecoder.allMimeTypes()
+                .decode(body, ResolvableType.forClass(String.class), null, Map.of());
+    }
+
+    private String validate(Object record) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(record);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static String errorMessage(Throwable error) {
+        Throwable cause = error;
+        while (cause.getCause() != null && cause != cause.getCause()) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof JsonProcessingException jsonError) {
+            return jsonError.getOriginalMessage();
+        }
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+
+    private record ParsedRecord<T>(long line, String name, T value) {
+    }
+
+    /**
+     * Разбирает строку NDJSON или CSV. Для CSV первая непустая строка - заголовок с именами полей.
+     */
+    private final class RecordParser<T> {
+        private final BulkFormat format;
+        private final Class<T> type;
+        private List<String> header;
+
+        private RecordParser(BulkFormat format, Class<T> type) {
+            this.format = format;
+            this.type = type;
+        }
+
+        private boolean consumeHeader(String line) {
+            if (format != BulkFormat.CSV || header != null) {
+                return false;
+            }
+            header = CsvCodec.parseLine(line).stream().map(String::strip).toList();
+            return true;
+        }
+
+        private T parse(String line) {
+            if (format == BulkFormat.NDJSON) {
+                try {
+                    return objectMapper.readValue(line, type);
+                } catch (JsonProcessingException e) {
+                    throw new IllegalArgumentException(e);
+                }
+            }
+            List<String> fields = CsvCodec.parseLine(line);
+            if (fields.size() > header.size()) {
+                throw new IllegalArgumentException("Expected " + header.size() + " columns, got " + fields.size());
+            }
+            Map<String, String> values = new LinkedHashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                if (!fields.get(i).isEmpty()) {
+                    values.put(header.get(i), fields.get(i));
+                }
+            }
+            return objectMapper.convertValue(values, type);
+        }
+    }
+
+    private static final class ReportCollector {
+        private final int maxErrors;
+        private final List<BulkImportReport.RecordError> errors = new ArrayList<>();
+        private long received;
+        private long imported;
+        private long failed;
+
+        private ReportCollector(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        private synchronized void received() {
+            received++;
+        }
+
+        private synchronized void imported(int count) {
+            imported += count;
+        }
+
+        private synchronized void error(long line, String name, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new BulkImportReport.RecordError(line, name, message));
+            }
+        }
+
+        private synchronized BulkImportReport build() {
+            List<BulkImportReport.RecordError> sorted = new ArrayList<>(errors);
+            sorted.sort((left, right) -> Long.compare(left.getLine(), right.getLine()));
+            return BulkImportReport.builder()
+                    .received(received)
+                    .imported(imported)
+                    .failed(failed)
+                    .errors(sorted)
+                    .errorsTruncated(failed > errors.size())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.pashkevich.dmonitorapp.service.bulk;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Разбор и запись одной строки CSV (RFC 4180). Импорт читает вход построчно, поэтому перевод строки
+ * внутри кавычек записывается как {@code \n} ({@code \r}), а обратная косая черта - как {@code \\}.
+ * Значение с обратной косой чертой всегда берется в кавычки, вне кавычек она не экранирует.
+ */
+final class CsvCodec {
+
+    private CsvCodec() {
+    }
+
+    static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                char next = i + 1 < line.length() ? line.charAt(i + 1) : 0;
+                if (c == '"' && next == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '\\' && (next == '\\' || next == 'n' || next == 'r')) {
+                    field.append(next == 'n' ? '\n' : next == 'r' ? '\r' : '\\');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    static String formatLine(List<?> values) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            Object value = values.get(i);
+            if (value == null) {
+                continue;
+            }
+            String text = value.toString();
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0
+                    || text.indexOf('\r') >= 0 || text.indexOf('\\') >= 0) {
+                line.append('"')
+                        .append(text.replace("\\", "\\\\")
+                                .replace("\n", "\\n")
+                                .replace("\r", "\\r")
+                                .replace("\"", "\"\""))
+                        .append('"');
+            } else {
+                line.append(text);
+            }
+        }
+        return line.append('\n').toString();
+    }
+}
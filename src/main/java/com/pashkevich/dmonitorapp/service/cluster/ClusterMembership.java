@@ -0,0 +1,179 @@
+package com.pashkevich.dmonitorapp.service.cluster;
+
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
+import com.pashkevich.dmonitorapp.repository.MonitorNodeRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Mono;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Режим кластера: узлы пишут heartbeat в monitor_nodes, сервисы делятся между живыми узлами
+ * rendezvous-хешированием. При входе или падении узла переходят только сервисы этого узла,
+ * отдельная процедура перебалансировки не нужна.
+ * <p>
+ * Если узел дольше TTL не может записать heartbeat, он проверяет все сервисы: дубли лучше пропусков.
+ */
+@Component
+@Slf4j
+public class ClusterMembership {
+
+    private final MonitorNodeRepository monitorNodeRepository;
+    private final MonitoringProperties.Cluster properties;
+    private final LongSupplier clockMillis;
+    private final String nodeId;
+    private final String host;
+    private volatile Members members;
+    private volatile long lastHeartbeatMillis = Long.MIN_VALUE;
+
+    @Autowired
+    public ClusterMembership(MonitorNodeRepository monitorNodeRepository, MonitoringProperties monitoringProperties) {
+        this(monitorNodeRepository, monitoringProperties, () -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime()));
+    }
+
+    ClusterMembership(MonitorNodeRepository monitorNodeRepository, MonitoringProperties monitoringProperties,
+                      LongSupplier clockMillis) {
+        this.monitorNodeRepository = monitorNodeRepository;
+        this.properties = monitoringProperties.getCluster();
+        this.clockMillis = clockMillis;
+        this.host = resolveHost();
+        this.nodeId = StringUtils.hasText(properties.getNodeId())
+                ? properties.getNodeId()
+                : host + "-" + UUID.randomUUID().toString().substring(0, 8);
+        this.members = Members.of(List.of(nodeId));
+    }
+
+    @Scheduled(fixedDelayString = "${monitoring.cluster.heartbeat-interval-ms:5000}")
+    public void runHeartbeat() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        heartbeat().subscribe(null, error ->
+                log.warn("Не удалось обновить heartbeat узла {}: {}", nodeId, error.getMessage()));
+    }
+
+    public Mono<Void> heartbeat() {
+        long ttlMs = properties.getNodeTtlMs();
+        return monitorNodeRepository.heartbeat(nodeId, host)
+                .then(Mono.fromRunnable(() -> lastHeartbeatMillis = clockMillis.getAsLong()))
+                .thenMany(monitorNodeRepository.findLiveNodeIds(ttlMs))
+                .collectList()
+                .doOnNext(this::updateMembers)
+                .then(monitorNodeRepository.deleteStale(ttlMs * 10))
+                .then();
+    }
+
+    /**
+     * Должен ли этот узел проверять сервис. Без режима кластера узел владеет всеми сервисами.
+     */
+    public boolean owns(Long serviceId) {
+        if (!properties.isEnabled() || serviceId == null) {
+            return true;
+        }
+        if (clockMillis.getAsLong() - lastHeartbeatMillis > properties.getNodeTtlMs()) {
+            return true;
+        }
+        return nodeId.equals(members.ownerOf(serviceId));
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public List<String> getLiveNodes() {
+        return members.nodeIds();
+    }
+
+    @PreDestroy
+    public void leave() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        // Удаляем себя сразу, чтобы остальные узлы забрали сервисы, не дожидаясь TTL
+        monitorNodeRepository.delete(nodeId)
+                .doOnSuccess(ignored -> log.info("Узел {} вышел из кластера", nodeId))
+                .onErrorResume(error -> {
+                    log.warn("Не удалось удалить узел {} из кластера: {}", nodeId, error.getMessage());
+                    return Mono.empty();
+                })
+                .block(Duration.ofMillis(properties.getHeartbeatIntervalMs()));
+    }
+
+    void updateMembers(Collection<String> liveNodeIds) {
+        List<String> nodeIds = new ArrayList<>(liveNodeIds);
+        if (!nodeIds.contains(nodeId)) {
+            nodeIds.add(nodeId);
+        }
+        nodeIds.sort(null);
+        if (!nodeIds.equals(members.nodeIds())) {
+            log.info("Состав кластера изменился: {} (узел {})", nodeIds, nodeId);
+            members = Members.of(nodeIds);
+        }
+    }
+
+    private static String resolveHost() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+
+    /**
+     * Неизменяемый снимок живых узлов с заранее посчитанными seed для хеширования.
+     */
+    record Members(List<String> nodeIds, long[] seeds) {
+
+        static Members of(List<String> nodeIds) {
+            long[] seeds = new long[nodeIds.size()];
+            for (int i = 0; i < seeds.length; i++) {
+                seeds[i] = seed(nodeIds.get(i));
+            }
+            return new Members(List.copyOf(nodeIds), seeds);
+        }
+
+        /**
+         * Rendezvous (HRW): владелец — узел с максимальным весом для пары (узел, сервис).
+         */
+        String ownerOf(long serviceId) {
+            int owner = 0;
+            long best = Long.MIN_VALUE;
+            for (int i = 0; i < seeds.length; i++) {
+                long weight = mix(seeds[i] ^ (serviceId * 0x9E3779B97F4A7C15L));
+                if (weight > best) {
+                    best = weight;
+                    owner = i;
+                }
+            }
+            return nodeIds.get(owner);
+        }
+
+        private static long seed(String nodeId) {
+            long hash = 0xCBF29CE484222325L;
+            for (byte b : nodeId.getBytes(StandardCharsets.UTF_8)) {
+                hash = (hash ^ b) * 0x100000001B3L;
+            }
+            return hash;
+        }
+
+        private static long mix(long value) {
+            value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+            value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+            return value ^ (value >>> 33);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.pashkevich.dmonitorapp.service.concurrency;
+
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
+import com.pashkevich.dmonitorapp.model.ServiceDefinition;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Ограничивает число одновременных проверок: глобально и для каждой цели (host:port, база данных).
+ * Ожидание разрешения цели не занимает глобальное разрешение.
+ */
+@Component
+public class CheckConcurrencyLimiter {
+
+    private static final String GLOBAL_KEY = "*";
+
+    private final MonitoringProperties.Concurrency properties;
+    private final Slot globalSlot;
+    private final Map<String, Slot> targetSlots = new ConcurrentHashMap<>();
+
+    public CheckConcurrencyLimiter(MonitoringProperties monitoringProperties) {
+        this.properties = monitoringProperties.getConcurrency();
+        this.globalSlot = new Slot(GLOBAL_KEY, properties.getMaxConcurrentChecks());
+    }
+
+    public <T> Mono<T> limit(ServiceDefinition service, Mono<T> check) {
+        String targetKey = targetKey(service);
+        return Mono.usingWhen(acquire(() -> targetSlot(targetKey)),
+                targetPermit -> Mono.usingWhen(acquire(() -> globalSlot),
+                        globalPermit -> check,
+                        CheckConcurrencyLimiter::release),
+                CheckConcurrencyLimiter::release);
+    }
+
+    public int getMaxConcurrentChecks() {
+        return properties.getMaxConcurrentChecks();
+    }
+
+    public int getInFlight() {
+        synchronized (globalSlot) {
+            return globalSlot.inFlight;
+        }
+    }
+
+    public int getActiveTargets() {
+        return targetSlots.size();
+    }
+
+    public String targetKey(ServiceDefinition service) {
+        if (service.getCheckType() == null) {
+            return "service:" + service.getId();
+        }
+        return switch (service.getCheckType()) {
+            case DATABASE -> "database:" + service.getDatabaseConfigId();
+            case HTTP, TCP, KAFKA -> hostKey(service);
+            default -> "service:" + service.getId();
+        };
+    }
+
+    private String hostKey(ServiceDefinition service) {
+        try {
+            URI uri = URI.create(service.getUrl());
+            if (uri.getHost() == null) {
+                return "service:" + service.getId();
+            }
+            int port = uri.getPort();
+            if (port == -1) {
+                port = "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+            }
+            return uri.getHost().toLowerCase() + ":" + port;
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return "service:" + service.getId();
+        }
+    }
+
+    private Slot targetSlot(String targetKey) {
+        return targetSlots.computeIfAbsent(targetKey,
+                key -> new Slot(key, properties.getTargetLimits().getOrDefault(key, properties.getMaxPerTarget())));
+    }
+
+    private Mono<Permit> acquire(Supplier<Slot> slotSupplier) {
+        return Mono.create(sink -> {
+            Waiter waiter = null;
+            while (waiter == null) {
+                Slot slot = slotSupplier.get();
+                synchronized (slot) {
+                    if (slot.retired) {
+                        continue;
+                    }
+                    waiter = new Waiter(new Permit(this, slot), sink);
+                    if (slot.inFlight < slot.limit) {
+                        slot.inFlight++;
+                        waiter.granted = true;
+                    } else {
+                        slot.waiters.add(waiter);
+                    }
+                }
+            }
+
+            Waiter acquired = waiter;
+            sink.onCancel(() -> cancel(acquired));
+            if (acquired.granted) {
+                sink.success(acquired.permit);
+            }
+        });
+    }
+
+    private void cancel(Waiter waiter) {
+        boolean granted;
+        synchronized (waiter.permit.slot) {
+            waiter.cancelled = true;
+            granted = waiter.granted;
+        }
+        if (granted) {
+            waiter.permit.release();
+        }
+    }
+
+    private void releaseSlot(Slot slot) {
+        Waiter next;
+        synchronized (slot) {
+            do {
+                next = slot.waiters.poll();
+            } while (next != null && next.cancelled);
+
+            if (next != null) {
+                next.granted = true;
+            } else {
+                slot.inFlight--;
+                if (slot.inFlight == 0 && slot != globalSlot) {
+                    slot.retired = true;
+                    targetSlots.remove(slot.key, slot);
+                }
+            }
+        }
+        if (next != null) {
+            next.sink.success(next.permit);
+        }
+    }
+
+    private static Mono<Void> release(Permit permit) {
+        return Mono.fromRunnable(permit::release);
+    }
+
+    private static final class Slot {
+        private final String key;
+        private final int limit;
+        private final Queue<Waiter> waiters = new ArrayDeque<>();
+        private int inFlight;
+        private boolean retired;
+
+        private Slot(String key, int limit) {
+            this.key = key;
+            this.limit = Math.max(1, limit);
+        }
+    }
+
+    private static final class Waiter {
+        private final Permit permit;
+        private final MonoSink<Permit> sink;
+        private boolean granted;
+        private boolean cancelled;
+
+        private Waiter(Permit permit, MonoSink<Permit> sink) {
+            this.permit = permit;
+            this.sink = sink;
+        }
+    }
+
+    private static final class Permit {
+        private final CheckConcurrencyLimiter limiter;
+        private final Slot slot;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(CheckConcurrencyLimiter limiter, Slot slot) {
+            this.limiter = limiter;
+            this.slot = slot;
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                limiter.releaseSlot(slot);
+            }
+        }
+    }
+}
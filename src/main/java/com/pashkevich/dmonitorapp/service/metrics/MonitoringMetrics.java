@@ -0,0 +1,198 @@
+package com.pashkevich.dmonitorapp.service.metrics;
+
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
+import com.pashkevich.dmonitorapp.model.BreakerState;
+import com.pashkevich.dmonitorapp.model.CheckType;
+import com.pashkevich.dmonitorapp.model.HealthCheckResult;
+import com.pashkevich.dmonitorapp.model.ServiceDefinition;
+import com.pashkevich.dmonitorapp.model.ServiceStatus;
+import com.pashkevich.dmonitorapp.service.HealthCheckResultListener;
+import com.pashkevich.dmonitorapp.service.concurrency.CheckConcurrencyLimiter;
+import com.pashkevich.dmonitorapp.service.persistence.HealthCheckResultWriter;
+import com.pashkevich.dmonitorapp.service.registry.ServiceRegistry;
+import com.pashkevich.dmonitorapp.service.registry.ServiceRegistryListener;
+import com.pashkevich.dmonitorapp.service.stream.HealthCheckEventPublisher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Метрики самого мониторинга: время проверок, длительность циклов, загрузка и потери.
+ * Метка service ограничена {@code monitoring.metrics.max-service-tags}, остальные сервисы попадают в "other".
+ */
+@Component
+public class MonitoringMetrics implements HealthCheckResultListener, ServiceRegistryListener {
+
+    static final String OTHER_SERVICE = "other";
+
+    private final MeterRegistry meterRegistry;
+    private final ServiceRegistry serviceRegistry;
+    private final MonitoringProperties.Metrics properties;
+    private final Map<String, Timer> checkTimers = new ConcurrentHashMap<>();
+    private final Map<Long, Timer> serviceTimers = new ConcurrentHashMap<>();
+    private final Map<CheckType, Counter> timeoutCounters = new ConcurrentHashMap<>();
+    private final Map<CheckType, Counter> errorCounters = new ConcurrentHashMap<>();
+    private final Timer otherServiceTimer;
+    private final Timer cycleTimer;
+    private final Timer schedulerBatchTimer;
+    private final Timer schedulerLagTimer;
+    private final Counter pipelineErrors;
+
+    public MonitoringMetrics(MeterRegistry meterRegistry,
+                             ServiceRegistry serviceRegistry,
+                             CheckConcurrencyLimiter checkConcurrencyLimiter,
+                             HealthCheckResultWriter healthCheckResultWriter,
+                             HealthCheckEventPublisher healthCheckEventPublisher,
+                             MonitoringProperties monitoringProperties) {
+        this.meterRegistry = meterRegistry;
+        this.serviceRegistry = serviceRegistry;
+        this.properties = monitoringProperties.getMetrics();
+        this.otherServiceTimer = serviceTimer(OTHER_SERVICE);
+        this.cycleTimer = Timer.builder("monitoring.cycle.duration")
+                .description("Длительность полного цикла проверок всех сервисов")
+                .register(meterRegistry);
+        this.schedulerBatchTimer = Timer.builder("monitoring.scheduler.batch.duration")
+                .description("Длительность проверок, запущенных одним тиком планировщика")
+                .register(meterRegistry);
+        this.schedulerLagTimer = Timer.builder("monitoring.scheduler.lag")
+                .description("Опоздание запуска каждой проверки относительно расписания")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.pipelineErrors = Counter.builder("monitoring.check.pipeline.errors")
+                .description("Проверки, завершившиеся исключением вне адаптера")
+                .register(meterRegistry);
+
+        Gauge.builder("monitoring.checks.inflight", checkConcurrencyLimiter, CheckConcurrencyLimiter::getInFlight)
+                .description("Проверки, выполняющиеся сейчас")
+                .register(meterRegistry);
+        Gauge.builder("monitoring.persistence.buffer.depth", healthCheckResultWriter,
+                        HealthCheckResultWriter::getBufferDepth)
+                .description("Результаты в буфере записи")
+                .register(meterRegistry);
+        FunctionCounter.builder("monitoring.persistence.dropped", healthCheckResultWriter,
+                        HealthCheckResultWriter::getDroppedResults)
+                .description("Результаты, потерянные при ошибке записи")
+                .register(meterRegistry);
+        FunctionCounter.builder("monitoring.persistence.suppressed", healthCheckResultWriter,
+                        HealthCheckResultWriter::getSuppressedResults)
+                .description("Результаты, не сохраненные в режиме записи только изменений")
+                .register(meterRegistry);
+        FunctionCounter.builder("monitoring.persistence.rejected", healthCheckResultWriter,
+                        HealthCheckResultWriter::getRejectedResults)
+                .description("Результаты, отвергнутые БД и пропущенные")
+                .register(meterRegistry);
+        Gauge.builder("monitoring.persistence.spool.records", healthCheckResultWriter,
+                        HealthCheckResultWriter::getSpooledResults)
+                .description("Результаты в журнале, ожидающие сохранения в БД")
+                .register(meterRegistry);
+        Gauge.builder("monitoring.persistence.spool.size", healthCheckResultWriter,
+                        HealthCheckResultWriter::getSpoolBytes)
+                .description("Объем невоспроизведенной части журнала")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("monitoring.persistence.spool.lag", healthCheckResultWriter,
+                        HealthCheckResultWriter::getSpoolLagMillis)
+                .description("Сколько ждет самая старая запись журнала")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        FunctionCounter.builder("monitoring.stream.dropped", healthCheckEventPublisher,
+                        HealthCheckEventPublisher::getDroppedEvents)
+                .description("События, пропущенные медленными подписчиками потока")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        serviceRegistry.addListener(this);
+    }
+
+    @Override
+    public void onResult(ServiceDefinition service, HealthCheckResult result) {
+        CheckType checkType = service.getCheckType();
+        ServiceStatus status = result.getStatus() != null ? result.getStatus() : ServiceStatus.UNKNOWN;
+
+        if (result.getResponseTimeMs() != null) {
+            checkTimer(checkType, status).record(result.getResponseTimeMs(), TimeUnit.MILLISECONDS);
+            serviceTimer(service).record(result.getResponseTimeMs(), TimeUnit.MILLISECONDS);
+        }
+        // При разомкнутой цепи адаптер не вызывался, это не ошибка проверки
+        if (result.getBreakerState() == BreakerState.OPEN) {
+            return;
+        }
+        if (status == ServiceStatus.TIMEOUT) {
+            timeoutCounters.computeIfAbsent(checkType, type -> counter("monitoring.check.timeouts", type)).increment();
+        } else if (status == ServiceStatus.DOWN || status == ServiceStatus.UNKNOWN) {
+            errorCounters.computeIfAbsent(checkType, type -> counter("monitoring.check.errors", type)).increment();
+        }
+    }
+
+    @Override
+    public void onServiceUpdated(ServiceDefinition service) {
+    }
+
+    @Override
+    public void onServiceRemoved(Long serviceId) {
+        Timer timer = serviceTimers.remove(serviceId);
+        if (timer != null && timer != otherServiceTimer) {
+            meterRegistry.remove(timer);
+        }
+    }
+
+    public void recordCycle(long durationNanos) {
+        cycleTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordSchedulerBatch(long durationNanos) {
+        schedulerBatchTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordPipelineError() {
+        pipelineErrors.increment();
+    }
+
+    public void recordSchedulerLag(long lagMillis) {
+        schedulerLagTimer.record(Math.max(0, lagMillis), TimeUnit.MILLISECONDS);
+    }
+
+    private Timer checkTimer(CheckType checkType, ServiceStatus status) {
+        return checkTimers.computeIfAbsent(checkType + ":" + status, key -> Timer.builder("monitoring.check.duration")
+                .description("Время ответа проверяемого сервиса")
+                .tag("type", String.valueOf(checkType))
+                .tag("status", status.name())
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry));
+    }
+
+    private Timer serviceTimer(ServiceDefinition service) {
+        Timer timer = serviceTimers.get(service.getId());
+        if (timer != null) {
+            return timer;
+        }
+        if (service.getId() == null || serviceTimers.size() >= properties.getMaxServiceTags()) {
+            return otherServiceTimer;
+        }
+        String name = service.getName() != null ? service.getName() : String.valueOf(service.getId());
+        return serviceTimers.computeIfAbsent(service.getId(), id -> serviceTimer(name));
+    }
+
+    private Timer serviceTimer(String serviceName) {
+        return Timer.builder("monitoring.check.service.duration")
+                .description("Время ответа по сервисам")
+                .tag("service", serviceName)
+                .register(meterRegistry);
+    }
+
+    private Counter counter(String name, CheckType checkType) {
+        return Counter.builder(name)
+                .tag("type", String.valueOf(checkType))
+                .register(meterRegistry);
+    }
+}
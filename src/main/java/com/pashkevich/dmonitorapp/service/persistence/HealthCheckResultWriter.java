@@ -0,0 +1,285 @@
+package com.pashkevich.dmonitorapp.service.persistence;
+
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
+import com.pashkevich.dmonitorapp.model.HealthCheckResult;
+import com.pashkevich.dmonitorapp.repository.HealthCheckResultBatchRepository;
+import jakarta.annotation.PreDestroy;
+import io.r2dbc.spi.R2dbcNonTransientResourceException;
+import io.r2dbc.spi.R2dbcTransientException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+import reactor.util.retry.Retry;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Буферизует результаты проверок и сохраняет их пачками по размеру или по времени.
+ * Когда буфер заполнен, {@link #write} не завершается, пока запись не освободит место.
+ * В режиме {@code change-only} неизменившиеся результаты не сохраняются, см. {@link ResultCompactor}.
+ * Если включен журнал, пачки, которые не удалось сохранить из-за недоступности БД, пишутся на диск
+ * и позже воспроизводятся в том же порядке, см. {@link ResultSpool}. Пачка, отвергнутая самой БД
+ * (ограничения, некорректные данные), делится пополам, пока не найдутся записи, которые не сохранить;
+ * они пропускаются и учитываются в {@link #getRejectedResults()}.
+ * Создается после {@link PartitionMaintenanceJob}, чтобы первые результаты попадали в свои секции.
+ */
+@Component
+@DependsOn("partitionMaintenanceJob")
+@Slf4j
+public class HealthCheckResultWriter {
+
+    private final HealthCheckResultBatchRepository batchRepository;
+    private final MonitoringProperties.Persistence properties;
+    private final Sinks.Many<HealthCheckResult> sink;
+    private final AtomicInteger bufferDepth = new AtomicInteger();
+    private final AtomicLong droppedResults = new AtomicLong();
+    private final AtomicLong suppressedResults = new AtomicLong();
+    private final AtomicLong rejectedResults = new AtomicLong();
+    private final ResultCompactor compactor;
+    private final ResultSpool spool;
+    private final AtomicBoolean replaying = new AtomicBoolean();
+    private final Mono<Void> completion;
+
+    public HealthCheckResultWriter(HealthCheckResultBatchRepository batchRepository,
+                                   MonitoringProperties monitoringProperties) {
+        this.batchRepository = batchRepository;
+        this.properties = monitoringProperties.getPersistence();
+        this.compactor = new ResultCompactor(properties);
+        this.spool = properties.getSpool().isEnabled() ? openSpool(properties.getSpool()) : null;
+        this.sink = Sinks.many().unicast()
+                .onBackpressureBuffer(Queues.<HealthCheckResult>get(properties.getBufferCapacity()).get());
+        this.completion = sink.asFlux()
+                .bufferTimeout(properties.getBatchSize(), Duration.ofMillis(properties.getFlushIntervalMs()), true)
+                .concatMap(this::flush)
+                .then()
+                .cache();
+        this.completion.subscribe();
+    }
+
+    public Mono<Void> write(HealthCheckResult result) {
+        if (properties.isChangeOnly()) {
+            HealthCheckResult summary = compactor.offer(result);
+            if (summary == null) {
+                suppressedResults.incrementAndGet();
+                return Mono.empty();
+            }
+            return emit(summary);
+        }
+        return emit(result);
+    }
+
+    private Mono<Void> emit(HealthCheckResult result) {
+        return Mono.defer(() -> tryEmit(result))
+                .retryWhen(Retry.fixedDelay(Long.MAX_VALUE, Duration.ofMillis(properties.getBackpressureRetryMs()))
+                        .filter(BufferFullException.class::isInstance));
+    }
+
+    public int getBufferDepth() {
+        return bufferDepth.get();
+    }
+
+    public long getDroppedResults() {
+        return droppedResults.get();
+    }
+
+    public long getSuppressedResults() {
+        return suppressedResults.get();
+    }
+
+    public long getRejectedResults() {
+        return rejectedResults.get();
+    }
+
+    public long getSpooledResults() {
+        return spool != null ? spool.getPendingRecords() : 0;
+    }
+
+    public long getSpoolBytes() {
+        return spool != null ? spool.getPendingBytes() : 0;
+    }
+
+    public long getSpoolLagMillis() {
+        return spool != null ? spool.getLagMillis() : 0;
+    }
+
+    @Scheduled(fixedDelayString = "${monitoring.persistence.spool.replay-interval-ms:5000}")
+    public void replaySpool() {
+        if (spool == null || spool.getPendingRecords() == 0 || !replaying.compareAndSet(false, true)) {
+            return;
+        }
+        replay()
+                .doFinally(signal -> replaying.set(false))
+                .subscribe(null, error -> log.warn("Журнал результатов не воспроизведен, осталось {}: {}",
+                        spool.getPendingRecords(), error.getMessage()));
+    }
+
+    @PreDestroy
+    public void close() {
+        if (properties.isChangeOnly()) {
+            // Счетчики пропущенных проверок сохраняются, иначе доля UP за последний интервал потеряется
+            compactor.drain().forEach(summary -> tryEmit(summary).subscribe(null, error ->
+                    log.warn("Не удалось сохранить накопленные проверки сервиса {}: {}",
+                            summary.getServiceDefinitionId(), error.getMessage())));
+        }
+        Sinks.EmitResult emitResult;
+        synchronized (sink) {
+            emitResult = sink.tryEmitComplete();
+        }
+        if (emitResult.isFailure()) {
+            return;
+        }
+        log.info("Сохранение оставшихся в буфере результатов: {}", bufferDepth.get());
+        completion.block(Duration.ofMillis(properties.getShutdownTimeoutMs()));
+        if (spool != null) {
+            spool.close();
+        }
+    }
+
+    private Mono<Void> tryEmit(HealthCheckResult result) {
+        bufferDepth.incrementAndGet();
+        Sinks.EmitResult emitResult;
+        synchronized (sink) {
+            emitResult = sink.tryEmitNext(result);
+        }
+        if (emitResult.isSuccess()) {
+            return Mono.empty();
+        }
+
+        bufferDepth.decrementAndGet();
+        if (emitResult == Sinks.EmitResult.FAIL_OVERFLOW) {
+            return Mono.error(new BufferFullException());
+        }
+        return Mono.error(new IllegalStateException("Result writer is closed: " + emitResult));
+    }
+
+    private Mono<Void> flush(List<HealthCheckResult> batch) {
+        return save(batch)
+                .doOnNext(count -> log.debug("Сохранено результатов проверок: {}", count))
+                .doFinally(signal -> bufferDepth.addAndGet(-batch.size()))
+                .then();
+    }
+
+    private Mono<Long> save(List<HealthCheckResult> batch) {
+        return Mono.defer(() -> {
+            // Пока журнал не пуст, новые пачки встают за ним, иначе порядок результатов нарушится
+            if (spool != null && spool.getPendingRecords() > 0) {
+                return Mono.fromCallable(() -> spoolOrDrop(batch));
+            }
+            return insert(batch).onErrorResume(error -> {
+                if (isTransient(error)) {
+                    log.error("Ошибка при сохранении пачки из {} результатов: {}", batch.size(), error.getMessage());
+                    return Mono.fromCallable(() -> spoolOrDrop(batch));
+                }
+                if (batch.size() == 1) {
+                    reject(batch, error);
+                    return Mono.just(0L);
+                }
+                int middle = batch.size() / 2;
+                return save(batch.subList(0, middle))
+                        .concatWith(save(batch.subList(middle, batch.size())))
+                        .reduce(0L, Long::sum);
+            });
+        });
+    }
+
+    private Mono<Long> insert(List<HealthCheckResult> batch) {
+        return batchRepository.insertAll(batch)
+                .timeout(Duration.ofMillis(properties.getInsertTimeoutMs()));
+    }
+
+    /**
+     * Воспроизводит журнал с позиции чтения. Ошибка доступа к БД прерывает воспроизведение до следующего
+     * запуска. Если БД отвергает пачку, читаются все меньшие пачки с той же позиции, пока отвергнутой
+     * не окажется одна запись: она пропускается, и размер пачки восстанавливается. Позиция сдвигается
+     * только за сохраненными или пропущенными записями, поэтому повторов при сбое не бывает.
+     */
+    Mono<Void> replay() {
+        AtomicInteger readLimit = new AtomicInteger(properties.getBatchSize());
+        return Mono.defer(() -> {
+                    ResultSpool.Batch batch = spool.read(readLimit.get());
+                    if (batch.results().isEmpty()) {
+                        return Mono.just(0L);
+                    }
+                    return insert(batch.results())
+                            .doOnNext(count -> spool.commit(batch))
+                            .onErrorResume(error -> !isTransient(error), error -> {
+                                if (batch.results().size() > 1) {
+                                    readLimit.set(batch.results().size() / 2);
+                                    return Mono.just(0L);
+                                }
+                                reject(batch.results(), error);
+                                spool.commit(batch);
+                                readLimit.set(properties.getBatchSize());
+                                return Mono.just(0L);
+                            });
+                })
+                .repeat(() -> spool.getPendingRecords() > 0)
+                .reduce(0L, Long::sum)
+                .doOnNext(count -> log.info("Из журнала сохранено результатов: {}", count))
+                .then();
+    }
+
+    private long spoolOrDrop(List<HealthCheckResult> batch) {
+        try {
+            if (spool != null && spool.append(batch)) {
+                return batch.size();
+            }
+        } catch (RuntimeException e) {
+            log.error("Ошибка при записи пачки в журнал результатов: {}", e.getMessage());
+        }
+        droppedResults.addAndGet(batch.size());
+        return 0L;
+    }
+
+    private void reject(List<HealthCheckResult> results, Throwable error) {
+        rejectedResults.addAndGet(results.size());
+        results.forEach(result -> log.error("Результат проверки сервиса {} ({}, {}) отвергнут БД и пропущен: {}",
+                result.getServiceDefinitionId(), result.getStatus(), result.getCheckedAt(), error.getMessage()));
+    }
+
+    /**
+     * Ошибки недоступности БД, после которых пачку стоит повторить позже. Нарушения ограничений и
+     * некорректные данные к ним не относятся: повтор пачки их не исправит.
+     */
+    public static boolean isTransient(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof TimeoutException
+                    || cause instanceof TransientDataAccessException
+                    || cause instanceof DataAccessResourceFailureException
+                    || cause instanceof R2dbcTransientException
+                    || cause instanceof R2dbcNonTransientResourceException
+                    || cause instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ResultSpool openSpool(MonitoringProperties.Spool spoolProperties) {
+        Path directory = Path.of(spoolProperties.getDirectory());
+        try {
+            return new ResultSpool(directory, spoolProperties.getSegmentBytes(), spoolProperties.getMaxBytes());
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot open result spool " + directory.toAbsolutePath(), e);
+        }
+    }
+
+    private static final class BufferFullException extends RuntimeException {
+        private BufferFullException() {
+            super("Result buffer is full", null, false, false);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.pashkevich.dmonitorapp.service.persistence;
+
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Заранее создает секции health_check_results и удаляет секции старше срока хранения.
+ * Удаление старых данных сводится к DROP TABLE секции вместо DELETE по всей таблице.
+ * Первое обслуживание выполняется при старте, до создания {@link HealthCheckResultWriter}. Если строки
+ * все же попали в секцию по умолчанию, они переносятся в созданную для них секцию.
+ */
+@Component
+@DependsOnDatabaseInitialization
+@Slf4j
+public class PartitionMaintenanceJob {
+
+    static final String TABLE = "health_check_results";
+    static final String DEFAULT_PARTITION = TABLE + "_default";
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final DateTimeFormatter BOUND = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final Pattern UPPER_BOUND = Pattern.compile("TO \\('([^']+)'\\)");
+
+    private static final String LIST_PARTITIONS = "SELECT c.relname AS name, " +
+            "pg_get_expr(c.relpartbound, c.oid) AS bound " +
+            "FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "JOIN pg_class p ON p.oid = i.inhparent " +
+            "WHERE p.relname = '" + TABLE + "'";
+
+    private final DatabaseClient databaseClient;
+    private final MonitoringProperties.Partitions properties;
+    private final Clock clock;
+
+    @Autowired
+    public PartitionMaintenanceJob(DatabaseClient databaseClient, MonitoringProperties monitoringProperties) {
+        this(databaseClient, monitoringProperties, Clock.systemDefaultZone());
+    }
+
+    PartitionMaintenanceJob(DatabaseClient databaseClient, MonitoringProperties monitoringProperties, Clock clock) {
+        this.databaseClient = databaseClient;
+        this.properties = monitoringProperties.getPartitions();
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            maintain().block(Duration.ofMillis(properties.getStartupTimeoutMs()));
+        } catch (RuntimeException e) {
+            log.error("Ошибка при обслуживании секций {} при старте: {}", TABLE, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${monitoring.partitions.maintenance-interval-ms:3600000}")
+    public void runMaintenance() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        maintain().subscribe(null, error ->
+                log.error("Ошибка при обслуживании секций {}: {}", TABLE, error.getMessage()));
+    }
+
+    public Mono<Void> maintain() {
+        LocalDate today = LocalDate.now(clock);
+        return createPartitions(today).then(dropExpiredPartitions(today));
+    }
+
+    Mono<Void> createPartitions(LocalDate today) {
+        return Flux.fromIterable(plannedPartitions(today))
+                .concatMap(partition -> databaseClient.sql(partition.createSql())
+                        .then()
+                        .doOnSuccess(ignored -> log.debug("Секция {} готова", partition.name()))
+                        .onErrorResume(error -> {
+                            log.warn("Не удалось создать секцию {}, перенос строк из {}: {}",
+                                    partition.name(), DEFAULT_PARTITION, error.getMessage());
+                            return databaseClient.sql(partition.moveFromDefaultSql())
+                                    .then()
+                                    .doOnSuccess(ignored -> log.info("Секция {} создана, строки перенесены из {}",
+                                            partition.name(), DEFAULT_PARTITION))
+                                    .onErrorResume(moveError -> {
+                                        log.error("Не удалось создать секцию {}: {}",
+                                                partition.name(), moveError.getMessage());
+                                        return Mono.empty();
+                                    });
+                        }))
+                .then();
+    }
+
+    Mono<Void> dropExpiredPartitions(LocalDate today) {
+        return databaseClient.sql(LIST_PARTITIONS)
+                .map((row, metadata) -> new String[]{row.get("name", String.class), row.get("bound", String.class)})
+                .all()
+                .filter(partition -> isExpired(partition[1], today))
+                .concatMap(partition -> databaseClient.sql("DROP TABLE IF EXISTS " + partition[0])
+                        .then()
+                        .doOnSuccess(ignored -> log.info("Удалена устаревшая секция {}", partition[0])))
+                .then(pruneDefaultPartition(today));
+    }
+
+    /**
+     * Секция по умолчанию не удаляется целиком, поэтому устаревшие строки в ней удаляются отдельно.
+     * Обычно она пуста, и запрос ничего не делает.
+     */
+    Mono<Void> pruneDefaultPartition(LocalDate today) {
+        LocalDateTime cutoff = today.minusDays(properties.getRetentionDays()).atStartOfDay();
+        return databaseClient.sql("DELETE FROM " + DEFAULT_PARTITION + " WHERE checked_at < '" +
+                        cutoff.format(BOUND) + "'")
+                .fetch()
+                .rowsUpdated()
+                .filter(count -> count > 0)
+                .doOnNext(count -> log.info("Удалены устаревшие строки из {}: {}", DEFAULT_PARTITION, count))
+                .then();
+    }
+
+    List<Partition> plannedPartitions(LocalDate today) {
+        int days = Math.max(1, properties.getPartitionDays());
+        long epochDay = today.toEpochDay();
+        LocalDate start = LocalDate.ofEpochDay(epochDay - Math.floorMod(epochDay, days));
+
+        List<Partition> partitions = new ArrayList<>();
+        for (int i = 0; i <= properties.getPrecreatePartitions(); i++) {
+            LocalDate from = start.plusDays((long) i * days);
+            partitions.add(new Partition(TABLE + "_p" + from.format(SUFFIX), from, from.plusDays(days)));
+        }
+        return partitions;
+    }
+
+    boolean isExpired(String bound, LocalDate today) {
+        if (bound == null) {
+            return false;
+        }
+        Matcher matcher = UPPER_BOUND.matcher(bound);
+        if (!matcher.find()) {
+            // Секция по умолчанию не удаляется
+            return false;
+        }
+        LocalDateTime upperBound = LocalDateTime.parse(matcher.group(1), BOUND);
+        return !upperBound.isAfter(today.minusDays(properties.getRetentionDays()).atStartOfDay());
+    }
+
+    record Partition(String name, LocalDate from, LocalDate to) {
+        String createSql() {
+            return "CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF " + TABLE +
+                    " FOR VALUES FROM ('" + lower() + "') TO ('" + upper() + "')";
+        }
+
+        /**
+         * Секцию нельзя создать, пока в секции по умолчанию есть строки из ее диапазона. Секция по умолчанию
+         * отсоединяется, строки переносятся в новую секцию, и она присоединяется обратно. Блок DO выполняется
+         * в одной транзакции, вставки в таблицу на это время ждут блокировку.
+         */
+        String moveFromDefaultSql() {
+            String range = "checked_at >= '" + lower() + "' AND checked_at < '" + upper() + "'";
+            return "DO $$ BEGIN " +
+                    "ALTER TABLE " + TABLE + " DETACH PARTITION " + DEFAULT_PARTITION + "; " +
+                    createSql() + "; " +
+                    "INSERT INTO " + name + " SELECT * FROM " + DEFAULT_PARTITION + " WHERE " + range + "; " +
+                    "DELETE FROM " + DEFAULT_PARTITION + " WHERE " + range + "; " +
+                    "ALTER TABLE " + TABLE + " ATTACH PARTITION " + DEFAULT_PARTITION + " DEFAULT; " +
+                    "END $$";
+        }
+
+        private String lower() {
+            return from.atStartOfDay().format(BOUND);
+        }
+
+        private String upper() {
+            return to.atStartOfDay().format(BOUND);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.pashkevich.dmonitorapp.service.persistence;
+
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
+import com.pashkevich.dmonitorapp.model.BreakerState;
+import com.pashkevich.dmonitorapp.model.HealthCheckResult;
+import com.pashkevich.dmonitorapp.model.ServiceStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Режим записи только изменений: строка сохраняется при смене статуса или состояния breaker, заметном
+ * изменении задержки или по истечении heartbeat-интервала. Пропущенные проверки учитываются в счетчиках
+ * sample_count/up_count следующей сохраненной строки, поэтому доля UP по таблице остается точной.
+ */
+class ResultCompactor {
+
+    private static final double LATENCY_SMOOTHING = 0.2;
+
+    private final MonitoringProperties.Persistence properties;
+    private final Map<Long, ServiceState> states = new ConcurrentHashMap<>();
+
+    ResultCompactor(MonitoringProperties.Persistence properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * @return результат со счетчиками, если его нужно сохранить, иначе {@code null}
+     */
+    HealthCheckResult offer(HealthCheckResult result) {
+        Long serviceId = result.getServiceDefinitionId();
+        if (serviceId == null) {
+            return result;
+        }
+        LocalDateTime checkedAt = result.getCheckedAt() != null ? result.getCheckedAt() : LocalDateTime.now();
+        ServiceState state = states.computeIfAbsent(serviceId, id -> new ServiceState());
+        synchronized (state) {
+            state.samples++;
+            if (result.getStatus() == ServiceStatus.UP) {
+                state.upSamples++;
+            }
+            boolean latencyShift = state.latencyShifted(result.getResponseTimeMs(), properties);
+            boolean changed = state.lastWrittenAt == null
+                    || result.getStatus() != state.lastStatus
+                    || result.getBreakerState() != state.lastBreakerState
+                    || latencyShift
+                    || !checkedAt.isBefore(state.lastWrittenAt.plus(
+                    Duration.ofMillis(properties.getHeartbeatIntervalMs())));
+            if (!changed) {
+                state.pending = result;
+                return null;
+            }
+
+            state.lastStatus = result.getStatus();
+            state.lastBreakerState = result.getBreakerState();
+            state.lastWrittenAt = checkedAt;
+            return state.takeSummary(result);
+        }
+    }
+
+    /**
+     * Забирает накопленные, но не сохраненные проверки - при остановке, чтобы счетчики не потерялись.
+     */
+    List<HealthCheckResult> drain() {
+        List<HealthCheckResult> pending = new ArrayList<>();
+        for (ServiceState state : states.values()) {
+            synchronized (state) {
+                if (state.pending != null) {
+                    pending.add(state.takeSummary(state.pending));
+                }
+            }
+        }
+        return pending;
+    }
+
+    private static final class ServiceState {
+        private ServiceStatus lastStatus;
+        private BreakerState lastBreakerState;
+        private LocalDateTime lastWrittenAt;
+        private Double latencyBaseline;
+        private int samples;
+        private int upSamples;
+        private HealthCheckResult pending;
+
+        private boolean latencyShifted(Long responseTimeMs, MonitoringProperties.Persistence properties) {
+            if (responseTimeMs == null) {
+                return false;
+            }
+            Double baseline = latencyBaseline;
+            latencyBaseline = baseline == null
+                    ? responseTimeMs
+                    : baseline + LATENCY_SMOOTHING * (responseTimeMs - baseline);
+            if (baseline == null) {
+                return false;
+            }
+            double threshold = Math.max(properties.getLatencyShiftMinMs(), baseline * properties.getLatencyShiftRatio());
+            return Math.abs(responseTimeMs - baseline) > threshold;
+        }
+
+        private HealthCheckResult takeSummary(HealthCheckResult result) {
+            result.setSampleCount(samples);
+            result.setUpCount(upSamples);
+            samples = 0;
+            upSamples = 0;
+            pending = null;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,379 @@
+package com.pashkevich.dmonitorapp.service.persistence;
+
+import com.pashkevich.dmonitorapp.model.BreakerState;
+import com.pashkevich.dmonitorapp.model.HealthCheckResult;
+import com.pashkevich.dmonitorapp.model.ServiceStatus;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Журнал результатов на локальном диске на время недоступности БД. Записи добавляются в конец сегментов
+ * фиксированного размера, отображенных в память, позиция чтения хранится в отдельном файле, поэтому после
+ * перезапуска воспроизведение продолжается с места остановки. Полностью прочитанные сегменты удаляются.
+ * <p>
+ * Запись: длина, CRC32 данных, время добавления, данные. Длина пишется последней, поэтому оборванная
+ * запись при чтении выглядит как конец сегмента.
+ */
+@Slf4j
+class ResultSpool implements Closeable {
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String POSITION_FILE = "position";
+    private static final int HEADER_BYTES = Integer.BYTES * 2 + Long.BYTES;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final long maxBytes;
+    private final LongSupplier clockMillis;
+    private final TreeMap<Long, MappedByteBuffer> segments = new TreeMap<>();
+    private final MappedByteBuffer positionBuffer;
+    private long readSegment;
+    private int readOffset;
+    private long writeSegment;
+    private int writeOffset;
+    private long pendingRecords;
+    private long pendingBytes;
+    private long oldestAppendedAtMillis;
+    private boolean closed;
+
+    ResultSpool(Path directory, int segmentBytes, long maxBytes) throws IOException {
+        this(directory, segmentBytes, maxBytes, System::currentTimeMillis);
+    }
+
+    ResultSpool(Path directory, int segmentBytes, long maxBytes, LongSupplier clockMillis) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxBytes = maxBytes;
+        this.clockMillis = clockMillis;
+        Files.createDirectories(directory);
+        this.positionBuffer = map(directory.resolve(POSITION_FILE), Long.BYTES + Integer.BYTES);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(path -> path.toString().endsWith(SEGMENT_SUFFIX)).toList()) {
+                String name = file.getFileName().toString();
+                segments.put(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())),
+                        map(file, segmentBytes));
+            }
+        }
+        recover();
+    }
+
+    /**
+     * Добавляет пачку целиком или не добавляет ничего, если журнал превысит maxBytes.
+     */
+    synchronized boolean append(List<HealthCheckResult> results) {
+        if (closed) {
+            return false;
+        }
+        List<byte[]> records = new ArrayList<>(results.size());
+        long total = 0;
+        for (HealthCheckResult result : results) {
+            byte[] record = encode(result);
+            if (HEADER_BYTES + record.length > segmentBytes) {
+                return false;
+            }
+            records.add(record);
+            total += HEADER_BYTES + record.length;
+        }
+        if (pendingBytes + total > maxBytes) {
+            return false;
+        }
+
+        long appendedAt = clockMillis.getAsLong();
+        List<MappedByteBuffer> touched = new ArrayList<>(2);
+        for (byte[] record : records) {
+            if (writeOffset + HEADER_BYTES + record.length > segmentBytes) {
+                rollSegment();
+            }
+            MappedByteBuffer buffer = segments.get(writeSegment);
+            CRC32 crc = new CRC32();
+            crc.update(record);
+            buffer.putInt(writeOffset + Integer.BYTES, (int) crc.getValue());
+            buffer.putLong(writeOffset + Integer.BYTES * 2, appendedAt);
+            buffer.put(writeOffset + HEADER_BYTES, record);
+            buffer.putInt(writeOffset, record.length);
+            writeOffset += HEADER_BYTES + record.length;
+            if (!touched.contains(buffer)) {
+                touched.add(buffer);
+            }
+            if (pendingRecords == 0) {
+                oldestAppendedAtMillis = appendedAt;
+            }
+            pendingRecords++;
+            pendingBytes += HEADER_BYTES + record.length;
+        }
+        touched.forEach(MappedByteBuffer::force);
+        return true;
+    }
+
+    /**
+     * Читает до max записей с позиции чтения, не сдвигая ее. Позиция сдвигается {@link #commit}
+     * после успешного сохранения пачки.
+     */
+    synchronized Batch read(int max) {
+        List<HealthCheckResult> results = new ArrayList<>();
+        long segment = readSegment;
+        int offset = readOffset;
+        long bytes = 0;
+        while (!closed && results.size() < max) {
+            MappedByteBuffer buffer = segments.get(segment);
+            int length = recordLength(buffer, offset);
+            if (length < 0) {
+                Long next = segments.higherKey(segment);
+                if (next == null) {
+                    break;
+                }
+                segment = next;
+                offset = 0;
+                continue;
+            }
+            results.add(decode(buffer, offset + HEADER_BYTES, length));
+            offset += HEADER_BYTES + length;
+            bytes += HEADER_BYTES + length;
+        }
+        return new Batch(results, segment, offset, bytes);
+    }
+
+    synchronized void commit(Batch batch) {
+        if (closed || batch.results().isEmpty()) {
+            return;
+        }
+        readSegment = batch.segment();
+        readOffset = batch.offset();
+        pendingRecords -= batch.results().size();
+        pendingBytes -= batch.bytes();
+        positionBuffer.putLong(0, readSegment);
+        positionBuffer.putInt(Long.BYTES, readOffset);
+        positionBuffer.force();
+
+        for (Long segment : new ArrayList<>(segments.headMap(readSegment).keySet())) {
+            segments.remove(segment);
+            deleteSegment(segment);
+        }
+        Batch next = read(1);
+        if (!next.results().isEmpty()) {
+            oldestAppendedAtMillis = segments.get(next.segment())
+                    .getLong(next.offset() - (int) next.bytes() + Integer.BYTES * 2);
+        }
+    }
+
+    synchronized long getPendingRecords() {
+        return pendingRecords;
+    }
+
+    synchronized long getPendingBytes() {
+        return pendingBytes;
+    }
+
+    /**
+     * Сколько самая старая невоспроизведенная запись ждет в журнале.
+     */
+    synchronized long getLagMillis() {
+        return pendingRecords == 0 ? 0 : Math.max(0, clockMillis.getAsLong() - oldestAppendedAtMillis);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        segments.values().forEach(MappedByteBuffer::force);
+        positionBuffer.force();
+    }
+
+    private void recover() throws IOException {
+        readSegment = positionBuffer.getLong(0);
+        readOffset = positionBuffer.getInt(Long.BYTES);
+        if (!segments.containsKey(readSegment)) {
+            // Сегмент с позицией чтения уже удален, значит все до следующего сегмента прочитано
+            Long next = segments.higherKey(readSegment);
+            readSegment = next != null ? next : Math.max(readSegment, 0);
+            readOffset = 0;
+        }
+        if (segments.isEmpty()) {
+            segments.put(readSegment, map(segmentPath(readSegment), segmentBytes));
+        }
+        for (Long segment : new ArrayList<>(segments.headMap(readSegment).keySet())) {
+            segments.remove(segment);
+            deleteSegment(segment);
+        }
+
+        long segment = readSegment;
+        int offset = readOffset;
+        while (true) {
+            MappedByteBuffer buffer = segments.get(segment);
+            int length = recordLength(buffer, offset);
+            if (length >= 0) {
+                if (pendingRecords == 0) {
+                    oldestAppendedAtMillis = buffer.getLong(offset + Integer.BYTES * 2);
+                }
+                pendingRecords++;
+                pendingBytes += HEADER_BYTES + length;
+                offset += HEADER_BYTES + length;
+                continue;
+            }
+            Long next = segments.higherKey(segment);
+            if (next == null) {
+                break;
+            }
+            segment = next;
+            offset = 0;
+        }
+        writeSegment = segment;
+        writeOffset = offset;
+        // Оборванную при аварии запись затираем, чтобы новые записи не смешались с ее остатками
+        MappedByteBuffer tail = segments.get(writeSegment);
+        for (int i = writeOffset; i < segmentBytes && i < writeOffset + HEADER_BYTES; i++) {
+            tail.put(i, (byte) 0);
+        }
+        if (pendingRecords > 0) {
+            log.warn("В журнале результатов {} записей ожидают сохранения в БД", pendingRecords);
+        }
+    }
+
+    private int recordLength(MappedByteBuffer buffer, int offset) {
+        if (offset + HEADER_BYTES > segmentBytes) {
+            return -1;
+        }
+        int length = buffer.getInt(offset);
+        if (length <= 0 || offset + HEADER_BYTES + length > segmentBytes) {
+            return -1;
+        }
+        byte[] data = new byte[length];
+        buffer.get(offset + HEADER_BYTES, data);
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        return (int) crc.getValue() == buffer.getInt(offset + Integer.BYTES) ? length : -1;
+    }
+
+    private void rollSegment() {
+        writeSegment++;
+        writeOffset = 0;
+        try {
+            segments.put(writeSegment, map(segmentPath(writeSegment), segmentBytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void deleteSegment(long segment) {
+        try {
+            Files.deleteIfExists(segmentPath(segment));
+        } catch (IOException e) {
+            log.warn("Не удалось удалить сегмент журнала {}: {}", segment, e.getMessage());
+        }
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(String.format("%020d%s", segment, SEGMENT_SUFFIX));
+    }
+
+    private static MappedByteBuffer map(Path file, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    private static byte[] encode(HealthCheckResult result) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            LocalDateTime checkedAt = result.getCheckedAt() != null ? result.getCheckedAt() : LocalDateTime.now();
+            writeLong(out, result.getServiceDefinitionId());
+            out.writeLong(checkedAt.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(checkedAt.getNano());
+            writeString(out, result.getStatus() != null ? result.getStatus().name() : null);
+            writeLong(out, result.getResponseTimeMs());
+            writeString(out, result.getMessage());
+            writeString(out, result.getAdditionalInfo());
+            writeString(out, result.getBreakerState() != null ? result.getBreakerState().name() : null);
+            writeLong(out, result.getSampleCount() != null ? result.getSampleCount().longValue() : null);
+            writeLong(out, result.getUpCount() != null ? result.getUpCount().longValue() : null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static HealthCheckResult decode(MappedByteBuffer buffer, int offset, int length) {
+        byte[] data = new byte[length];
+        buffer.get(offset, data);
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            Long serviceId = readLong(in);
+            LocalDateTime checkedAt = LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+            String status = readString(in);
+            Long responseTime = readLong(in);
+            String message = readString(in);
+            String additionalInfo = readString(in);
+            String breakerState = readString(in);
+            Long sampleCount = readLong(in);
+            Long upCount = readLong(in);
+            return HealthCheckResult.builder()
+                    .serviceDefinitionId(serviceId)
+                    .checkedAt(checkedAt)
+                    .status(status != null ? ServiceStatus.valueOf(status) : null)
+                    .responseTimeMs(responseTime)
+                    .message(message)
+                    .additionalInfo(additionalInfo)
+                    .breakerState(breakerState != null ? BreakerState.valueOf(breakerState) : null)
+                    .sampleCount(sampleCount != null ? sampleCount.intValue() : null)
+                    .upCount(upCount != null ? upCount.intValue() : null)
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readLong(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        return new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+
+    record Batch(List<HealthCheckResult> results, long segment, int offset, long bytes) {
+    }
+}
@@ -0,0 +1,160 @@
+package com.pashkevich.dmonitorapp.service.registry;
+
+import com.pashkevich.dmonitorapp.model.CheckType;
+import com.pashkevich.dmonitorapp.model.ServiceDefinition;
+import com.pashkevich.dmonitorapp.repository.ServiceDefinitionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * Неизменяемый снимок активных сервисов, индексированный по id и типу проверки.
+ * Каждое изменение публикует новый снимок, поэтому читатели никогда не блокируются.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ServiceRegistry {
+
+    private final ServiceDefinitionRepository serviceDefinitionRepository;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
+    private final List<ServiceRegistryListener> listeners = new CopyOnWriteArrayList<>();
+
+    public void addListener(ServiceRegistryListener listener) {
+        listeners.add(listener);
+    }
+
+    public List<ServiceDefinition> getAll() {
+        return snapshot.get().all();
+    }
+
+    public Optional<ServiceDefinition> get(Long id) {
+        return Optional.ofNullable(snapshot.get().byId().get(id));
+    }
+
+    public List<ServiceDefinition> getByType(CheckType checkType) {
+        return snapshot.get().byType().getOrDefault(checkType, List.of());
+    }
+
+    public int size() {
+        return snapshot.get().all().size();
+    }
+
+    public void upsert(ServiceDefinition service) {
+        upsertAll(List.of(service));
+    }
+
+    public void upsertAll(Collection<ServiceDefinition> services) {
+        List<ServiceDefinition> updated = new ArrayList<>();
+        List<Long> removed = new ArrayList<>();
+        update(byId -> {
+            updated.clear();
+            removed.clear();
+            for (ServiceDefinition service : services) {
+                if (isActive(service)) {
+                    byId.put(service.getId(), service);
+                    updated.add(service);
+                } else if (byId.remove(service.getId()) != null) {
+                    removed.add(service.getId());
+                }
+            }
+            return byId;
+        });
+        notifyListeners(updated, removed);
+    }
+
+    public void remove(Long serviceId) {
+        Snapshot previous = update(byId -> {
+            byId.remove(serviceId);
+            return byId;
+        });
+        if (previous.byId().containsKey(serviceId)) {
+            notifyListeners(List.of(), List.of(serviceId));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${monitoring.registry.reconcile-interval-ms:60000}",
+            initialDelayString = "${monitoring.registry.initial-delay-ms:5000}")
+    public void reconcile() {
+        refresh().subscribe(null,
+                error -> log.error("Не удалось загрузить определения сервисов: {}", error.getMessage()));
+    }
+
+    public Mono<Void> refresh() {
+        return serviceDefinitionRepository.findAll()
+                .filter(ServiceRegistry::isActive)
+                .collectList()
+                .doOnNext(this::replaceAll)
+                .then();
+    }
+
+    private void replaceAll(List<ServiceDefinition> activeServices) {
+        Map<Long, ServiceDefinition> loaded = new HashMap<>();
+        activeServices.forEach(service -> loaded.put(service.getId(), service));
+        Snapshot previous = snapshot.getAndSet(Snapshot.of(loaded));
+
+        List<ServiceDefinition> updated = activeServices.stream()
+                .filter(service -> !service.equals(previous.byId().get(service.getId())))
+                .toList();
+        List<Long> removed = previous.byId().keySet().stream()
+                .filter(id -> !loaded.containsKey(id))
+                .toList();
+        notifyListeners(updated, removed);
+
+        if (!updated.isEmpty() || !removed.isEmpty()) {
+            log.info("Реестр сервисов синхронизирован: {} активных, изменено {}, удалено {}",
+                    loaded.size(), updated.size(), removed.size());
+        }
+    }
+
+    private Snapshot update(UnaryOperator<Map<Long, ServiceDefinition>> change) {
+        while (true) {
+            Snapshot current = snapshot.get();
+            Snapshot next = Snapshot.of(change.apply(new HashMap<>(current.byId())));
+            if (snapshot.compareAndSet(current, next)) {
+                return current;
+            }
+        }
+    }
+
+    private void notifyListeners(List<ServiceDefinition> updated, List<Long> removed) {
+        for (ServiceRegistryListener listener : listeners) {
+            updated.forEach(listener::onServiceUpdated);
+            removed.forEach(listener::onServiceRemoved);
+        }
+    }
+
+    private static boolean isActive(ServiceDefinition service) {
+        return !Boolean.FALSE.equals(service.getIsActive());
+    }
+
+    private record Snapshot(List<ServiceDefinition> all,
+                            Map<Long, ServiceDefinition> byId,
+                            Map<CheckType, List<ServiceDefinition>> byType) {
+
+        private static final Snapshot EMPTY = new Snapshot(List.of(), Map.of(), Map.of());
+
+        private static Snapshot of(Map<Long, ServiceDefinition> byId) {
+            List<ServiceDefinition> all = byId.values().stream()
+                    .sorted(Comparator.comparing(ServiceDefinition::getId))
+                    .toList();
+
+            Map<CheckType, List<ServiceDefinition>> byType = new EnumMap<>(CheckType.class);
+            for (ServiceDefinition service : all) {
+                if (service.getCheckType() != null) {
+                    byType.computeIfAbsent(service.getCheckType(), type -> new ArrayList<>()).add(service);
+                }
+            }
+            byType.replaceAll((type, services) -> List.copyOf(services));
+
+            return new Snapshot(all, Map.copyOf(byId), Collections.unmodifiableMap(byType));
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.pashkevich.dmonitorapp.service.registry;
+
+import com.pashkevich.dmonitorapp.model.ServiceDefinition;
+
+public interface ServiceRegistryListener {
+    void onServiceUpdated(ServiceDefinition service);
+
+    void onServiceRemoved(Long serviceId);
+}
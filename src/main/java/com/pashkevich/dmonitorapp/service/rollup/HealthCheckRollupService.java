@@ -0,0 +1,191 @@
+package com.pashkevich.dmonitorapp.service.rollup;
+
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
+import com.pashkevich.dmonitorapp.model.HealthCheckResult;
+import com.pashkevich.dmonitorapp.model.HealthCheckRollup;
+import com.pashkevich.dmonitorapp.model.RollupGranularity;
+import com.pashkevich.dmonitorapp.model.ServiceDefinition;
+import com.pashkevich.dmonitorapp.repository.HealthCheckRollupBatchRepository;
+import com.pashkevich.dmonitorapp.repository.HealthCheckRollupRepository;
+import com.pashkevich.dmonitorapp.service.HealthCheckResultListener;
+import com.pashkevich.dmonitorapp.service.persistence.HealthCheckResultWriter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Сворачивает результаты проверок в минутные и часовые интервалы по каждому сервису.
+ * Закрытые интервалы периодически сохраняются в health_check_rollups, откуда читается история.
+ * Интервалы, не сохраненные из-за недоступности БД, сохраняются при следующем сбросе; upsert досчитывает
+ * их в уже сохраненные строки. Минутные агрегаты хранятся {@code minute-retention-days} дней.
+ */
+@Component
+@Slf4j
+public class HealthCheckRollupService implements HealthCheckResultListener {
+
+    private final HealthCheckRollupRepository rollupRepository;
+    private final HealthCheckRollupBatchRepository batchRepository;
+    private final MonitoringProperties.Rollup properties;
+    private final Clock clock;
+    private final Map<BucketKey, RollupBucket> openBuckets = new ConcurrentHashMap<>();
+    private final List<HealthCheckRollup> unsaved = new ArrayList<>();
+
+    @Autowired
+    public HealthCheckRollupService(HealthCheckRollupRepository rollupRepository,
+                                    HealthCheckRollupBatchRepository batchRepository,
+                                    MonitoringProperties monitoringProperties) {
+        this(rollupRepository, batchRepository, monitoringProperties, Clock.systemDefaultZone());
+    }
+
+    HealthCheckRollupService(HealthCheckRollupRepository rollupRepository,
+                             HealthCheckRollupBatchRepository batchRepository,
+                             MonitoringProperties monitoringProperties,
+                             Clock clock) {
+        this.rollupRepository = rollupRepository;
+        this.batchRepository = batchRepository;
+        this.properties = monitoringProperties.getRollup();
+        this.clock = clock;
+    }
+
+    @Override
+    public void onResult(ServiceDefinition service, HealthCheckResult result) {
+        if (result.getServiceDefinitionId() == null) {
+            return;
+        }
+        LocalDateTime checkedAt = result.getCheckedAt() != null ? result.getCheckedAt() : LocalDateTime.now(clock);
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            BucketKey key = new BucketKey(result.getServiceDefinitionId(), granularity,
+                    granularity.bucketStart(checkedAt));
+            // Интервал мог закрыться между поиском и добавлением, тогда открываем новый
+            while (!openBuckets.computeIfAbsent(key, BucketKey::newBucket).add(result)) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    public Flux<HealthCheckRollup> getHistory(Long serviceId, RollupGranularity granularity,
+                                              LocalDateTime from, LocalDateTime to) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now(clock);
+        LocalDateTime start = from != null ? from : end.minusHours(properties.getDefaultHistoryHours());
+        return rollupRepository.findByServiceDefinitionIdAndGranularityAndBucketStartBetweenOrderByBucketStart(
+                serviceId, granularity, granularity.bucketStart(start), end);
+    }
+
+    @Scheduled(fixedDelayString = "${monitoring.rollup.flush-interval-ms:15000}")
+    public void flushClosedBuckets() {
+        LocalDateTime closedBefore = LocalDateTime.now(clock).minus(Duration.ofMillis(properties.getLateArrivalMs()));
+        flush(bucket -> !bucket.getBucketEnd().isAfter(closedBefore))
+                .subscribe(null, error -> log.error("Ошибка при сохранении агрегатов: {}", error.getMessage()));
+    }
+
+    @Scheduled(fixedDelayString = "${monitoring.rollup.retention-interval-ms:3600000}")
+    public void runRetention() {
+        prune().subscribe(null, error ->
+                log.error("Ошибка при удалении устаревших агрегатов: {}", error.getMessage()));
+    }
+
+    @PreDestroy
+    public void close() {
+        log.info("Сохранение открытых агрегатов: {}", openBuckets.size());
+        flush(bucket -> true).block(Duration.ofMillis(properties.getShutdownTimeoutMs()));
+    }
+
+    int getOpenBucketCount() {
+        return openBuckets.size();
+    }
+
+    int getUnsavedCount() {
+        synchronized (unsaved) {
+            return unsaved.size();
+        }
+    }
+
+    Mono<Void> prune() {
+        if (properties.getMinuteRetentionDays() <= 0) {
+            return Mono.empty();
+        }
+        LocalDateTime cutoff = LocalDateTime.now(clock).minusDays(properties.getMinuteRetentionDays());
+        return batchRepository.deleteOlderThan(RollupGranularity.MINUTE, cutoff)
+                .filter(count -> count > 0)
+                .doOnNext(count -> log.info("Удалены минутные агрегаты до {}: {}", cutoff, count))
+                .then();
+    }
+
+    Mono<Void> flush(Predicate<RollupBucket> filter) {
+        List<HealthCheckRollup> rollups;
+        synchronized (unsaved) {
+            rollups = new ArrayList<>(unsaved);
+            unsaved.clear();
+        }
+        openBuckets.forEach((key, bucket) -> {
+            if (filter.test(bucket) && openBuckets.remove(key, bucket)) {
+                rollups.add(bucket.close());
+            }
+        });
+        if (rollups.isEmpty()) {
+            return Mono.empty();
+        }
+
+        return Flux.fromIterable(rollups)
+                .buffer(properties.getBatchSize())
+                .concatMap(this::save)
+                .reduce(0L, Long::sum)
+                .doOnNext(count -> log.debug("Сохранено агрегатов: {}", count))
+                .then();
+    }
+
+    /**
+     * Пачка, отвергнутая самой БД, делится пополам, чтобы потерялись только отвергнутые агрегаты.
+     */
+    private Mono<Long> save(List<HealthCheckRollup> batch) {
+        return Mono.defer(() -> batchRepository.upsertAll(batch))
+                .onErrorResume(error -> {
+                    if (HealthCheckResultWriter.isTransient(error)) {
+                        log.error("Ошибка при сохранении пачки из {} агрегатов, повтор при следующем сбросе: {}",
+                                batch.size(), error.getMessage());
+                        retryLater(batch);
+                        return Mono.just(0L);
+                    }
+                    if (batch.size() == 1) {
+                        log.error("Агрегат сервиса {} за {} отвергнут БД: {}", batch.get(0).getServiceDefinitionId(),
+                                batch.get(0).getBucketStart(), error.getMessage());
+                        return Mono.just(0L);
+                    }
+                    int middle = batch.size() / 2;
+                    return save(batch.subList(0, middle))
+                            .concatWith(save(batch.subList(middle, batch.size())))
+                            .reduce(0L, Long::sum);
+                });
+    }
+
+    private void retryLater(List<HealthCheckRollup> batch) {
+        int dropped;
+        synchronized (unsaved) {
+            unsaved.addAll(batch);
+            dropped = Math.max(0, unsaved.size() - properties.getMaxUnsaved());
+            unsaved.subList(0, dropped).clear();
+        }
+        if (dropped > 0) {
+            log.warn("Очередь несохраненных агрегатов переполнена, потеряно самых старых: {}", dropped);
+        }
+    }
+
+    private record BucketKey(Long serviceId, RollupGranularity granularity, LocalDateTime bucketStart) {
+        private RollupBucket newBucket() {
+            return new RollupBucket(serviceId, granularity, bucketStart);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.pashkevich.dmonitorapp.service.rollup;
+
+/**
+ * Гистограмма времени ответа с логарифмическими корзинами: относительная ошибка перцентиля не больше 10%,
+ * размер не зависит от числа замеров.
+ */
+final class LatencyHistogram {
+
+    private static final double GROWTH = 1.1;
+    private static final double LOG_GROWTH = Math.log(GROWTH);
+    private static final int BUCKETS = 160;
+
+    private final long[] counts = new long[BUCKETS];
+    private long total;
+
+    void record(long value) {
+        counts[index(value)]++;
+        total++;
+    }
+
+    long getTotal() {
+        return total;
+    }
+
+    /**
+     * Верхняя граница корзины, в которую попал перцентиль; вызывающий ограничивает ее максимумом.
+     */
+    long percentile(double percentile) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile / 100.0 * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= Math.max(rank, 1)) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    private static int index(long value) {
+        if (value <= 0) {
+            return 0;
+        }
+        int index = 1 + (int) (Math.log(value) / LOG_GROWTH);
+        return Math.min(index, BUCKETS - 1);
+    }
+
+    private static long upperBound(int index) {
+        if (index == 0) {
+            return 0;
+        }
+        return (long) Math.ceil(Math.pow(GROWTH, index)) - 1;
+    }
+}
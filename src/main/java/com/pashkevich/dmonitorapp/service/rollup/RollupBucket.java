@@ -0,0 +1,99 @@
+package com.pashkevich.dmonitorapp.service.rollup;
+
+import com.pashkevich.dmonitorapp.model.HealthCheckResult;
+import com.pashkevich.dmonitorapp.model.HealthCheckRollup;
+import com.pashkevich.dmonitorapp.model.RollupGranularity;
+
+import java.time.LocalDateTime;
+
+/**
+ * Открытый интервал агрегации одного сервиса. После {@link #close()} новые результаты не принимаются.
+ */
+final class RollupBucket {
+
+    private final Long serviceDefinitionId;
+    private final RollupGranularity granularity;
+    private final LocalDateTime bucketStart;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    private long totalCount;
+    private long upCount;
+    private long downCount;
+    private long degradedCount;
+    private long timeoutCount;
+    private long unknownCount;
+    private long minResponseTime = Long.MAX_VALUE;
+    private long maxResponseTime = Long.MIN_VALUE;
+    private long sumResponseTime;
+    private boolean closed;
+
+    RollupBucket(Long serviceDefinitionId, RollupGranularity granularity, LocalDateTime bucketStart) {
+        this.serviceDefinitionId = serviceDefinitionId;
+        this.granularity = granularity;
+        this.bucketStart = bucketStart;
+    }
+
+    LocalDateTime getBucketEnd() {
+        return bucketStart.plus(granularity.getDuration());
+    }
+
+    synchronized boolean add(HealthCheckResult result) {
+        if (closed) {
+            return false;
+        }
+        totalCount++;
+        if (result.getStatus() == null) {
+            unknownCount++;
+        } else {
+            switch (result.getStatus()) {
+                case UP -> upCount++;
+                case DOWN -> downCount++;
+                case DEGRADED -> degradedCount++;
+                case TIMEOUT -> timeoutCount++;
+                case UNKNOWN -> unknownCount++;
+            }
+        }
+
+        Long responseTime = result.getResponseTimeMs();
+        if (responseTime != null) {
+            histogram.record(responseTime);
+            minResponseTime = Math.min(minResponseTime, responseTime);
+            maxResponseTime = Math.max(maxResponseTime, responseTime);
+            sumResponseTime += responseTime;
+        }
+        return true;
+    }
+
+    synchronized HealthCheckRollup close() {
+        closed = true;
+        return toRollup();
+    }
+
+    synchronized HealthCheckRollup toRollup() {
+        long latencyCount = histogram.getTotal();
+        HealthCheckRollup.HealthCheckRollupBuilder rollup = HealthCheckRollup.builder()
+                .serviceDefinitionId(serviceDefinitionId)
+                .granularity(granularity)
+                .bucketStart(bucketStart)
+                .totalCount(totalCount)
+                .upCount(upCount)
+                .downCount(downCount)
+                .degradedCount(degradedCount)
+                .timeoutCount(timeoutCount)
+                .unknownCount(unknownCount)
+                .latencyCount(latencyCount);
+        if (latencyCount > 0) {
+            rollup.minResponseTimeMs(minResponseTime)
+                    .maxResponseTimeMs(maxResponseTime)
+                    .avgResponseTimeMs((double) sumResponseTime / latencyCount)
+                    .p50ResponseTimeMs(percentile(50))
+                    .p95ResponseTimeMs(percentile(95))
+                    .p99ResponseTimeMs(percentile(99));
+        }
+        return rollup.build();
+    }
+
+    private long percentile(double percentile) {
+        return Math.max(minResponseTime, Math.min(maxResponseTime, histogram.percentile(percentile)));
+    }
+}
@@ -0,0 +1,77 @@
+package com.pashkevich.dmonitorapp.service.scheduler;
+
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
+import com.pashkevich.dmonitorapp.model.ServiceStatus;
+
+/**
+ * Подбирает интервал следующей проверки по истории результатов сервиса:
+ * <ul>
+ *     <li>стабильный UP - интервал удваивается каждые {@code stableChecksToStretch} проверок до потолка;</li>
+ *     <li>сбой или смена статуса - интервал сокращается, чтобы быстрее подтвердить инцидент или восстановление;</li>
+ *     <li>частые смены статуса (flapping) - базовый интервал, без растяжения и без учащения.</li>
+ * </ul>
+ * Не потокобезопасен: вызывающий синхронизирует доступ к {@link State}.
+ */
+public class AdaptiveIntervalPolicy {
+
+    static final int HISTORY_SIZE = 16;
+
+    private final MonitoringProperties.Adaptive properties;
+
+    public AdaptiveIntervalPolicy(MonitoringProperties.Adaptive properties) {
+        this.properties = properties;
+    }
+
+    public long nextIntervalMillis(State state, ServiceStatus status, long baseMillis) {
+        boolean up = status == ServiceStatus.UP;
+        boolean flipped = state.size > 0 && up != state.lastUp();
+        state.record(up);
+
+        state.flapping = state.flips() >= properties.getFlapThreshold();
+        if (state.flapping) {
+            state.stableCount = 0;
+            return baseMillis;
+        }
+        if (!up || flipped) {
+            state.stableCount = 0;
+            return Math.max(properties.getMinIntervalMs(), baseMillis / properties.getTightenDivisor());
+        }
+
+        state.stableCount++;
+        int steps = state.stableCount / properties.getStableChecksToStretch();
+        long multiplier = Math.min(properties.getMaxMultiplier(), 1L << Math.min(steps, 30));
+        long ceiling = Math.max(baseMillis, properties.getMaxIntervalMs());
+        return Math.min(baseMillis * multiplier, ceiling);
+    }
+
+    /**
+     * Последние {@value #HISTORY_SIZE} результатов сервиса, бит 1 - UP.
+     */
+    public static class State {
+        private long history;
+        private int size;
+        private int stableCount;
+        private boolean flapping;
+
+        public boolean isFlapping() {
+            return flapping;
+        }
+
+        private void record(boolean up) {
+            history = (history << 1 | (up ? 1 : 0)) & ((1L << HISTORY_SIZE) - 1);
+            size = Math.min(size + 1, HISTORY_SIZE);
+        }
+
+        private boolean lastUp() {
+            return (history & 1) == 1;
+        }
+
+        private int flips() {
+            if (size < 2) {
+                return 0;
+            }
+            long transitions = (history ^ (history >>> 1)) & ((1L << (size - 1)) - 1);
+            return Long.bitCount(transitions);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.pashkevich.dmonitorapp.service.scheduler;
+
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
+import com.pashkevich.dmonitorapp.model.BreakerState;
+import com.pashkevich.dmonitorapp.model.HealthCheckResult;
+import com.pashkevich.dmonitorapp.model.ServiceDefinition;
+import com.pashkevich.dmonitorapp.service.HealthCheckResultListener;
+import com.pashkevich.dmonitorapp.service.registry.ServiceRegistry;
+import com.pashkevich.dmonitorapp.service.registry.ServiceRegistryListener;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Адаптивная частота проверок: по каждому результату пересчитывает интервал сервиса через
+ * {@link AdaptiveIntervalPolicy}. Если интервал сократился, подписчики (планировщик) переносят
+ * уже запланированную проверку на более ранний срок. Пока цепь сервиса разомкнута, цель не проверяется
+ * и интервал остается базовым: частоту проб определяет backoff circuit breaker.
+ */
+@Component
+@Slf4j
+public class CheckIntervalAdvisor implements HealthCheckResultListener, ServiceRegistryListener {
+
+    private final ServiceRegistry serviceRegistry;
+    private final MonitoringProperties.Scheduler schedulerProperties;
+    private final MonitoringProperties.Adaptive properties;
+    private final AdaptiveIntervalPolicy policy;
+    private final Map<Long, Advice> advices = new ConcurrentHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    public CheckIntervalAdvisor(ServiceRegistry serviceRegistry, MonitoringProperties monitoringProperties) {
+        this.serviceRegistry = serviceRegistry;
+        this.schedulerProperties = monitoringProperties.getScheduler();
+        this.properties = schedulerProperties.getAdaptive();
+        this.policy = new AdaptiveIntervalPolicy(properties);
+    }
+
+    @PostConstruct
+    public void init() {
+        serviceRegistry.addListener(this);
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Интервал до следующей проверки. Без адаптивного режима или до первого результата - базовый.
+     */
+    public long intervalMillis(Long serviceId, long baseMillis) {
+        if (!properties.isEnabled()) {
+            return baseMillis;
+        }
+        Advice advice = advices.get(serviceId);
+        if (advice == null) {
+            return baseMillis;
+        }
+        synchronized (advice) {
+            return advice.baseMillis == baseMillis ? advice.intervalMillis : baseMillis;
+        }
+    }
+
+    public boolean isFlapping(Long serviceId) {
+        Advice advice = advices.get(serviceId);
+        if (advice == null) {
+            return false;
+        }
+        synchronized (advice) {
+            return advice.state.isFlapping();
+        }
+    }
+
+    @Override
+    public void onResult(ServiceDefinition service, HealthCheckResult result) {
+        if (!properties.isEnabled() || service.getId() == null) {
+            return;
+        }
+        long baseMillis = baseMillis(service);
+        Advice advice = advices.computeIfAbsent(service.getId(), id -> new Advice());
+        long previous;
+        long next;
+        boolean startedFlapping;
+        synchronized (advice) {
+            if (advice.baseMillis != baseMillis || result.getBreakerState() == BreakerState.OPEN) {
+                advice.baseMillis = baseMillis;
+                advice.intervalMillis = baseMillis;
+            }
+            if (result.getBreakerState() == BreakerState.OPEN) {
+                return;
+            }
+            boolean wasFlapping = advice.state.isFlapping();
+            previous = advice.intervalMillis;
+            next = policy.nextIntervalMillis(advice.state, result.getStatus(), baseMillis);
+            advice.intervalMillis = next;
+            startedFlapping = !wasFlapping && advice.state.isFlapping();
+        }
+
+        if (startedFlapping) {
+            log.warn("Сервис {} часто меняет статус (flapping), интервал проверок зафиксирован", service.getName());
+        }
+        if (next < previous) {
+            listeners.forEach(listener -> listener.onIntervalShortened(service.getId(), next));
+        }
+    }
+
+    @Override
+    public void onServiceUpdated(ServiceDefinition service) {
+    }
+
+    @Override
+    public void onServiceRemoved(Long serviceId) {
+        advices.remove(serviceId);
+    }
+
+    private long baseMillis(ServiceDefinition service) {
+        Integer intervalSeconds = service.getCheckIntervalSeconds();
+        if (intervalSeconds == null || intervalSeconds <= 0) {
+            intervalSeconds = schedulerProperties.getDefaultIntervalSeconds();
+        }
+        return TimeUnit.SECONDS.toMillis(intervalSeconds);
+    }
+
+    public interface Listener {
+        void onIntervalShortened(Long serviceId, long intervalMillis);
+    }
+
+    private static final class Advice {
+        private final AdaptiveIntervalPolicy.State state = new AdaptiveIntervalPolicy.State();
+        private long baseMillis;
+        private long intervalMillis;
+    }
+}
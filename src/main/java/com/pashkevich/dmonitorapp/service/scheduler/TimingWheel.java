@@ -0,0 +1,190 @@
+package com.pashkevich.dmonitorapp.service.scheduler;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Хешированное колесо таймеров: постановка и отмена задачи за O(1), продвижение - за O(истекших задач).
+ * <p>
+ * {@link #schedule} и {@link Timeout#cancel()} потокобезопасны, {@link #advance} должен вызываться из одного потока.
+ */
+public class TimingWheel<T> {
+
+    private final LongSupplier clockMillis;
+    private final long tickMillis;
+    private final int mask;
+    private final Bucket<T>[] wheel;
+    private final long startMillis;
+    private final Queue<Timeout<T>> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    private long tick;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, int wheelSize, LongSupplier clockMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive: " + tickMillis);
+        }
+        if (wheelSize <= 0) {
+            throw new IllegalArgumentException("wheelSize must be positive: " + wheelSize);
+        }
+        int normalizedSize = wheelSize == 1 ? 1 : Integer.highestOneBit(wheelSize - 1) << 1;
+        this.tickMillis = tickMillis;
+        this.mask = normalizedSize - 1;
+        this.wheel = new Bucket[normalizedSize];
+        for (int i = 0; i < normalizedSize; i++) {
+            wheel[i] = new Bucket<>();
+        }
+        this.clockMillis = clockMillis;
+        this.startMillis = clockMillis.getAsLong();
+    }
+
+    public Timeout<T> schedule(T task, long delayMillis) {
+        long deadline = clockMillis.getAsLong() + Math.max(0, delayMillis) - startMillis;
+        Timeout<T> timeout = new Timeout<>(this, task, deadline);
+        size.incrementAndGet();
+        pendingTimeouts.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Обрабатывает все тики, прошедшие с прошлого вызова, и передает истекшие таймауты в {@code expired}.
+     */
+    public void advance(Consumer<Timeout<T>> expired) {
+        long targetTick = (clockMillis.getAsLong() - startMillis) / tickMillis;
+        while (tick <= targetTick) {
+            transferPendingTimeouts();
+            long deadline = (tick + 1) * tickMillis;
+            wheel[(int) (tick & mask)].expireTimeouts(deadline, expired);
+            tick++;
+        }
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    private void transferPendingTimeouts() {
+        Timeout<T> timeout;
+        while ((timeout = pendingTimeouts.poll()) != null) {
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            long calculated = timeout.deadline / tickMillis;
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+            long ticks = Math.max(calculated, tick);
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    public static final class Timeout<T> {
+
+        private final TimingWheel<T> timingWheel;
+        private final T task;
+        private final long deadline;
+        private volatile boolean cancelled;
+        private boolean expired;
+
+        private long remainingRounds;
+        private Timeout<T> next;
+        private Timeout<T> prev;
+
+        private Timeout(TimingWheel<T> timingWheel, T task, long deadline) {
+            this.timingWheel = timingWheel;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        public T getTask() {
+            return task;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * Помечает таймаут отмененным; из корзины он удаляется лениво, при следующем проходе колеса.
+         */
+        public boolean cancel() {
+            synchronized (this) {
+                if (cancelled || expired) {
+                    return false;
+                }
+                cancelled = true;
+            }
+            timingWheel.size.decrementAndGet();
+            return true;
+        }
+
+        private boolean markExpired() {
+            synchronized (this) {
+                if (cancelled) {
+                    return false;
+                }
+                expired = true;
+            }
+            timingWheel.size.decrementAndGet();
+            return true;
+        }
+    }
+
+    private static final class Bucket<T> {
+
+        private Timeout<T> head;
+        private Timeout<T> tail;
+
+        private void add(Timeout<T> timeout) {
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        private void expireTimeouts(long deadline, Consumer<Timeout<T>> expired) {
+            Timeout<T> timeout = head;
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else if (timeout.remainingRounds <= 0 && timeout.deadline <= deadline) {
+                    remove(timeout);
+                    if (timeout.markExpired()) {
+                        expired.accept(timeout);
+                    }
+                } else if (timeout.remainingRounds > 0) {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        private void remove(Timeout<T> timeout) {
+            Timeout<T> next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (next != null) {
+                next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.pashkevich.dmonitorapp.service.sla;
+
+import com.pashkevich.dmonitorapp.model.SlaWindow;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Кольцо интервалов одного скользящего окна с текущими суммами. Сдвиг окна вычитает вытесненные
+ * интервалы, поэтому чтение итогов не зависит от длины окна. Не потокобезопасен.
+ */
+final class RollingCounter {
+
+    private static final long NO_BUCKET = Long.MIN_VALUE;
+
+    private final long bucketMillis;
+    private final int length;
+    private final int[] checks;
+    private final int[] upChecks;
+    private final long[] downtimeMs;
+    private long headBucket = NO_BUCKET;
+    private long totalChecks;
+    private long totalUpChecks;
+    private long totalDowntimeMs;
+
+    RollingCounter(SlaWindow window) {
+        this.bucketMillis = window.getBucket().toMillis();
+        this.length = window.getBucketCount();
+        this.checks = new int[length];
+        this.upChecks = new int[length];
+        this.downtimeMs = new long[length];
+    }
+
+    void addChecks(long epochMillis, int checkCount, int upCount) {
+        long bucket = Math.floorDiv(epochMillis, bucketMillis);
+        advance(bucket);
+        if (bucket <= headBucket - length) {
+            return;
+        }
+        int slot = slot(bucket);
+        checks[slot] += checkCount;
+        upChecks[slot] += upCount;
+        totalChecks += checkCount;
+        totalUpChecks += upCount;
+    }
+
+    /**
+     * Распределяет простой [fromMillis, toMillis) по интервалам, которые он покрывает.
+     */
+    void addDowntime(long fromMillis, long toMillis) {
+        if (toMillis <= fromMillis) {
+            return;
+        }
+        advance(Math.floorDiv(toMillis - 1, bucketMillis));
+        long start = Math.max(fromMillis, windowStartMillis());
+        while (start < toMillis) {
+            long bucket = Math.floorDiv(start, bucketMillis);
+            long end = Math.min(toMillis, (bucket + 1) * bucketMillis);
+            downtimeMs[slot(bucket)] += end - start;
+            totalDowntimeMs += end - start;
+            start = end;
+        }
+    }
+
+    /**
+     * Добавляет интервалы окна той же длины, которые попадают в текущее окно.
+     */
+    void merge(RollingCounter other) {
+        if (other.headBucket == NO_BUCKET || other.length != length) {
+            return;
+        }
+        advance(other.headBucket);
+        for (long bucket = headBucket - length + 1; bucket <= other.headBucket; bucket++) {
+            int slot = slot(bucket);
+            checks[slot] += other.checks[slot];
+            upChecks[slot] += other.upChecks[slot];
+            downtimeMs[slot] += other.downtimeMs[slot];
+            totalChecks += other.checks[slot];
+            totalUpChecks += other.upChecks[slot];
+            totalDowntimeMs += other.downtimeMs[slot];
+        }
+    }
+
+    void advanceTo(long epochMillis) {
+        advance(Math.floorDiv(epochMillis, bucketMillis));
+    }
+
+    long windowStartMillis() {
+        return headBucket == NO_BUCKET ? Long.MIN_VALUE : (headBucket - length + 1) * bucketMillis;
+    }
+
+    long getTotalChecks() {
+        return totalChecks;
+    }
+
+    long getTotalUpChecks() {
+        return totalUpChecks;
+    }
+
+    long getTotalDowntimeMs() {
+        return totalDowntimeMs;
+    }
+
+    void writeTo(ByteBuffer buffer) {
+        buffer.putLong(headBucket);
+        buffer.putInt(length);
+        for (int i = 0; i < length; i++) {
+            buffer.putInt(checks[i]);
+            buffer.putInt(upChecks[i]);
+            buffer.putLong(downtimeMs[i]);
+        }
+    }
+
+    /**
+     * Окно другой длины (после смены {@link SlaWindow}) пропускается и начинается с нуля.
+     */
+    void readFrom(ByteBuffer buffer) {
+        long head = buffer.getLong();
+        int storedLength = buffer.getInt();
+        if (storedLength != length) {
+            buffer.position(buffer.position() + storedLength * 16);
+            return;
+        }
+        headBucket = head;
+        for (int i = 0; i < length; i++) {
+            checks[i] = buffer.getInt();
+            upChecks[i] = buffer.getInt();
+            downtimeMs[i] = buffer.getLong();
+            totalChecks += checks[i];
+            totalUpChecks += upChecks[i];
+            totalDowntimeMs += downtimeMs[i];
+        }
+    }
+
+    int serializedSize() {
+        return Long.BYTES + Integer.BYTES + length * 16;
+    }
+
+    private void advance(long bucket) {
+        if (headBucket == NO_BUCKET) {
+            headBucket = bucket;
+            return;
+        }
+        if (bucket <= headBucket) {
+            return;
+        }
+        long first = Math.max(headBucket + 1, bucket - length + 1);
+        for (long b = first; b <= bucket; b++) {
+            clear(slot(b));
+        }
+        headBucket = bucket;
+    }
+
+    private void clear(int slot) {
+        totalChecks -= checks[slot];
+        totalUpChecks -= upChecks[slot];
+        totalDowntimeMs -= downtimeMs[slot];
+        checks[slot] = 0;
+        upChecks[slot] = 0;
+        downtimeMs[slot] = 0;
+    }
+
+    private int slot(long bucket) {
+        return (int) Math.floorMod(bucket, (long) length);
+    }
+}
@@ -0,0 +1,338 @@
+package com.pashkevich.dmonitorapp.service.sla;
+
+import com.pashkevich.dmonitorapp.model.ServiceSla;
+import com.pashkevich.dmonitorapp.model.SlaWindow;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Счетчики SLA одного сервиса: скользящие окна, текущий и предыдущий календарные месяцы и последние
+ * интервалы простоя. Простой между двумя результатами засчитывается, только если первый из них был сбоем,
+ * и не дольше maxGapMs, чтобы остановка проверок не превращалась в бесконечный простой.
+ */
+final class ServiceSlaState {
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final long NONE = Long.MIN_VALUE;
+
+    private final ZoneId zone;
+    private final long maxGapMs;
+    private final int maxRecentDowntimes;
+    private final RollingCounter[] windows = new RollingCounter[SlaWindow.values().length];
+    private final MonthCounter currentMonth = new MonthCounter();
+    private final MonthCounter previousMonth = new MonthCounter();
+    private final Deque<long[]> recentDowntimes = new ArrayDeque<>();
+    private long lastCheckedMillis = NONE;
+    private long downSinceMillis = NONE;
+    private boolean dirty;
+
+    ServiceSlaState(ZoneId zone, long maxGapMs, int maxRecentDowntimes) {
+        this.zone = zone;
+        this.maxGapMs = maxGapMs;
+        this.maxRecentDowntimes = maxRecentDowntimes;
+        for (SlaWindow window : SlaWindow.values()) {
+            windows[window.ordinal()] = new RollingCounter(window);
+        }
+    }
+
+    /**
+     * @param failure результат означает недоступность сервиса и открывает или продолжает простой
+     */
+    synchronized void record(LocalDateTime checkedAt, boolean failure, int checkCount, int upCount) {
+        long now = toMillis(checkedAt);
+        for (RollingCounter window : windows) {
+            window.addChecks(now, checkCount, upCount);
+        }
+        month(YearMonth.from(checkedAt)).add(checkCount, upCount, 0);
+        dirty = true;
+
+        // Опоздавший результат учитывается в счетчиках, но не меняет интервалы простоя
+        if (lastCheckedMillis != NONE && now < lastCheckedMillis) {
+            return;
+        }
+        if (downSinceMillis != NONE) {
+            long end = Math.min(now, lastCheckedMillis + maxGapMs);
+            addDowntime(lastCheckedMillis, end);
+            // После слишком долгого перерыва без результатов простой закрывается и при сбое открывается заново
+            if (!failure || end < now) {
+                closeDowntime(end);
+            }
+        }
+        if (failure && downSinceMillis == NONE) {
+            downSinceMillis = now;
+        }
+        lastCheckedMillis = now;
+    }
+
+    synchronized ServiceSla snapshot(Long serviceId, String serviceName, LocalDateTime now) {
+        long nowMillis = toMillis(now);
+        // Текущий простой досчитывается до момента запроса, но не сохраняется в счетчики
+        long ongoingFrom = downSinceMillis != NONE ? lastCheckedMillis : NONE;
+        long ongoingTo = ongoingFrom != NONE ? Math.min(nowMillis, ongoingFrom + maxGapMs) : NONE;
+
+        List<ServiceSla.Period> periods = new ArrayList<>(windows.length + 2);
+        for (SlaWindow window : SlaWindow.values()) {
+            RollingCounter counter = windows[window.ordinal()];
+            counter.advanceTo(nowMillis);
+            long from = Math.max(counter.windowStartMillis(), nowMillis - window.getLength().toMillis());
+            long downtime = counter.getTotalDowntimeMs() + overlap(ongoingFrom, ongoingTo, from, nowMillis);
+            periods.add(period(window.getLabel(), from, nowMillis, counter.getTotalChecks(),
+                    counter.getTotalUpChecks(), downtime));
+        }
+
+        YearMonth month = YearMonth.from(now);
+        month(month);
+        periods.add(monthPeriod(currentMonth, month, nowMillis, ongoingFrom, ongoingTo));
+        periods.add(monthPeriod(previousMonth, month.minusMonths(1), nowMillis, ongoingFrom, ongoingTo));
+
+        List<ServiceSla.Downtime> downtimes = new ArrayList<>(recentDowntimes.size());
+        for (long[] interval : recentDowntimes) {
+            downtimes.add(new ServiceSla.Downtime(toTime(interval[0]), toTime(interval[1]),
+                    interval[1] - interval[0]));
+        }
+
+        return ServiceSla.builder()
+                .serviceDefinitionId(serviceId)
+                .serviceName(serviceName)
+                .downSince(downSinceMillis != NONE ? toTime(downSinceMillis) : null)
+                .periods(periods)
+                .recentDowntimes(downtimes)
+                .build();
+    }
+
+    /**
+     * Сериализует состояние, если оно менялось с прошлого вызова, иначе возвращает null.
+     */
+    synchronized byte[] checkpoint() {
+        if (!dirty) {
+            return null;
+        }
+        dirty = false;
+        int size = 1 + Long.BYTES * 2 + Integer.BYTES + recentDowntimes.size() * Long.BYTES * 2
+                + 2 * MonthCounter.SERIALIZED_SIZE;
+        for (RollingCounter window : windows) {
+            size += window.serializedSize();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size + Integer.BYTES);
+        buffer.put(FORMAT_VERSION);
+        buffer.putLong(lastCheckedMillis);
+        buffer.putLong(downSinceMillis);
+        buffer.putInt(recentDowntimes.size());
+        for (long[] interval : recentDowntimes) {
+            buffer.putLong(interval[0]);
+            buffer.putLong(interval[1]);
+        }
+        currentMonth.writeTo(buffer);
+        previousMonth.writeTo(buffer);
+        buffer.putInt(windows.length);
+        for (RollingCounter window : windows) {
+            window.writeTo(buffer);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Возвращает состояние к несохраненному, если запись контрольной точки не удалась.
+     */
+    synchronized void markDirty() {
+        dirty = true;
+    }
+
+    synchronized boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Добавляет счетчики из контрольной точки к накопленным до ее загрузки. Контрольная точка старше
+     * текущих результатов, поэтому открытый простой и время последней проверки берутся из текущего
+     * состояния, если оно уже есть.
+     */
+    synchronized void merge(ServiceSlaState stored) {
+        for (int i = 0; i < windows.length; i++) {
+            windows[i].merge(stored.windows[i]);
+        }
+        mergeMonth(stored.previousMonth);
+        mergeMonth(stored.currentMonth);
+
+        List<long[]> downtimes = new ArrayList<>(stored.recentDowntimes);
+        downtimes.addAll(recentDowntimes);
+        recentDowntimes.clear();
+        for (long[] interval : downtimes.subList(Math.max(0, downtimes.size() - maxRecentDowntimes),
+                downtimes.size())) {
+            recentDowntimes.addLast(interval);
+        }
+        if (lastCheckedMillis == NONE) {
+            lastCheckedMillis = stored.lastCheckedMillis;
+            downSinceMillis = stored.downSinceMillis;
+        }
+        dirty = true;
+    }
+
+    synchronized boolean restore(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        if (buffer.get() != FORMAT_VERSION) {
+            return false;
+        }
+        lastCheckedMillis = buffer.getLong();
+        downSinceMillis = buffer.getLong();
+        int downtimeCount = buffer.getInt();
+        for (int i = 0; i < downtimeCount; i++) {
+            recentDowntimes.addLast(new long[]{buffer.getLong(), buffer.getLong()});
+        }
+        currentMonth.readFrom(buffer);
+        previousMonth.readFrom(buffer);
+        int windowCount = buffer.getInt();
+        for (int i = 0; i < windowCount && i < windows.length; i++) {
+            windows[i].readFrom(buffer);
+        }
+        return true;
+    }
+
+    private void addDowntime(long fromMillis, long toMillis) {
+        if (toMillis <= fromMillis) {
+            return;
+        }
+        for (RollingCounter window : windows) {
+            window.addDowntime(fromMillis, toMillis);
+        }
+        // Простой на границе месяцев делится между ними
+        long start = fromMillis;
+        while (start < toMillis) {
+            YearMonth month = YearMonth.from(toTime(start));
+            long end = Math.min(toMillis, toMillis(month.plusMonths(1).atDay(1).atStartOfDay()));
+            month(month).add(0, 0, end - start);
+            start = end;
+        }
+    }
+
+    private void mergeMonth(MonthCounter stored) {
+        if (stored.month == MonthCounter.NO_MONTH) {
+            return;
+        }
+        month(YearMonth.of(Math.floorDiv(stored.month, 12), Math.floorMod(stored.month, 12) + 1))
+                .add(stored.checks, stored.upChecks, stored.downtimeMs);
+    }
+
+    private void closeDowntime(long endMillis) {
+        recentDowntimes.addLast(new long[]{downSinceMillis, endMillis});
+        while (recentDowntimes.size() > maxRecentDowntimes) {
+            recentDowntimes.removeFirst();
+        }
+        downSinceMillis = NONE;
+    }
+
+    /**
+     * Счетчик месяца, при необходимости сдвигая текущий месяц. Для более старых месяцев возвращает
+     * счетчик-заглушку, изменения в который никуда не попадают.
+     */
+    private MonthCounter month(YearMonth month) {
+        int index = MonthCounter.index(month);
+        if (currentMonth.month == MonthCounter.NO_MONTH || index > currentMonth.month) {
+            if (currentMonth.month != MonthCounter.NO_MONTH && index == currentMonth.month + 1) {
+                previousMonth.copyFrom(currentMonth);
+            } else {
+                previousMonth.reset(index - 1);
+            }
+            currentMonth.reset(index);
+        }
+        if (index == currentMonth.month) {
+            return currentMonth;
+        }
+        if (index == previousMonth.month) {
+            return previousMonth;
+        }
+        return new MonthCounter();
+    }
+
+    private ServiceSla.Period monthPeriod(MonthCounter counter, YearMonth month, long nowMillis,
+                                          long ongoingFrom, long ongoingTo) {
+        long from = toMillis(month.atDay(1).atStartOfDay());
+        long to = Math.min(nowMillis, toMillis(month.plusMonths(1).atDay(1).atStartOfDay()));
+        return period(month.toString(), from, to, counter.checks, counter.upChecks,
+                counter.downtimeMs + overlap(ongoingFrom, ongoingTo, from, to));
+    }
+
+    private ServiceSla.Period period(String label, long from, long to, long checks, long upChecks,
+                                     long downtimeMs) {
+        return ServiceSla.Period.builder()
+                .period(label)
+                .from(toTime(from))
+                .to(toTime(to))
+                .checks(checks)
+                .upChecks(upChecks)
+                .availabilityPercent(checks == 0 ? null : upChecks * 100.0 / checks)
+                .downtimeMs(downtimeMs)
+                .build();
+    }
+
+    private static long overlap(long from, long to, long rangeFrom, long rangeTo) {
+        if (from == NONE) {
+            return 0;
+        }
+        return Math.max(0, Math.min(to, rangeTo) - Math.max(from, rangeFrom));
+    }
+
+    private long toMillis(LocalDateTime time) {
+        return time.atZone(zone).toInstant().toEpochMilli();
+    }
+
+    private LocalDateTime toTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), zone);
+    }
+
+    private static final class MonthCounter {
+        private static final int NO_MONTH = Integer.MIN_VALUE;
+        private static final int SERIALIZED_SIZE = Integer.BYTES + Long.BYTES * 3;
+
+        private int month = NO_MONTH;
+        private long checks;
+        private long upChecks;
+        private long downtimeMs;
+
+        private static int index(YearMonth month) {
+            return month.getYear() * 12 + month.getMonthValue() - 1;
+        }
+
+        private void add(long checkCount, long upCount, long downtime) {
+            checks += checkCount;
+            upChecks += upCount;
+            downtimeMs += downtime;
+        }
+
+        private void reset(int newMonth) {
+            month = newMonth;
+            checks = 0;
+            upChecks = 0;
+            downtimeMs = 0;
+        }
+
+        private void copyFrom(MonthCounter other) {
+            month = other.month;
+            checks = other.checks;
+            upChecks = other.upChecks;
+            downtimeMs = other.downtimeMs;
+        }
+
+        private void writeTo(ByteBuffer buffer) {
+            buffer.putInt(month);
+            buffer.putLong(checks);
+            buffer.putLong(upChecks);
+            buffer.putLong(downtimeMs);
+        }
+
+        private void readFrom(ByteBuffer buffer) {
+            month = buffer.getInt();
+            checks = buffer.getLong();
+            upChecks = buffer.getLong();
+            downtimeMs = buffer.getLong();
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.pashkevich.dmonitorapp.service.sla;
+
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
+import com.pashkevich.dmonitorapp.model.HealthCheckResult;
+import com.pashkevich.dmonitorapp.model.ServiceDefinition;
+import com.pashkevich.dmonitorapp.model.ServiceSla;
+import com.pashkevich.dmonitorapp.model.ServiceStatus;
+import com.pashkevich.dmonitorapp.repository.SlaCheckpointRepository;
+import com.pashkevich.dmonitorapp.service.HealthCheckResultListener;
+import com.pashkevich.dmonitorapp.service.cluster.ClusterMembership;
+import com.pashkevich.dmonitorapp.service.registry.ServiceRegistry;
+import com.pashkevich.dmonitorapp.service.registry.ServiceRegistryListener;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Доступность сервисов за 24h/7d/30d и календарные месяцы. Счетчики обновляются по каждому результату
+ * проверки, поэтому ответ не требует запросов к health_check_results. Измененные счетчики периодически
+ * сохраняются в sla_checkpoints и восстанавливаются при старте.
+ * <p>
+ * Пока контрольная точка сервиса не загружена, его счетчики не сохраняются и не отдаются: иначе неполные
+ * счетчики затерли бы сохраненные. В режиме кластера узел хранит и отдает только свои сервисы, а контрольную
+ * точку нового сервиса загружает на следующей итерации после смены владельца, чтобы прежний владелец успел
+ * сохранить свои счетчики.
+ */
+@Component
+@Slf4j
+public class SlaCalculator implements HealthCheckResultListener, ServiceRegistryListener {
+
+    private final ServiceRegistry serviceRegistry;
+    private final SlaCheckpointRepository checkpointRepository;
+    private final ClusterMembership clusterMembership;
+    private final MonitoringProperties.Sla properties;
+    private final boolean clusterEnabled;
+    private final Clock clock;
+    private final Map<Long, ServiceSlaState> states = new ConcurrentHashMap<>();
+    // Сервисы, контрольные точки которых уже слиты с текущими счетчиками
+    private final Set<Long> loaded = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean syncing = new AtomicBoolean();
+    private volatile boolean restored;
+    private volatile Set<Long> ownedAtLastSync = Set.of();
+    private volatile Disposable restoring;
+
+    @Autowired
+    public SlaCalculator(ServiceRegistry serviceRegistry,
+                         SlaCheckpointRepository checkpointRepository,
+                         ClusterMembership clusterMembership,
+                         MonitoringProperties monitoringProperties) {
+        this(serviceRegistry, checkpointRepository, clusterMembership, monitoringProperties,
+                Clock.systemDefaultZone());
+    }
+
+    SlaCalculator(ServiceRegistry serviceRegistry,
+                  SlaCheckpointRepository checkpointRepository,
+                  ClusterMembership clusterMembership,
+                  MonitoringProperties monitoringProperties,
+                  Clock clock) {
+        this.serviceRegistry = serviceRegistry;
+        this.checkpointRepository = checkpointRepository;
+        this.clusterMembership = clusterMembership;
+        this.properties = monitoringProperties.getSla();
+        this.clusterEnabled = monitoringProperties.getCluster().isEnabled();
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public void init() {
+        serviceRegistry.addListener(this);
+        // В режиме кластера контрольные точки загружаются по мере получения сервисов во владение
+        if (properties.isEnabled() && !clusterEnabled) {
+            restoring = restore()
+                    .retryWhen(Retry.fixedDelay(Long.MAX_VALUE, Duration.ofMillis(properties.getRestoreRetryMs()))
+                            .doBeforeRetry(signal -> log.warn(
+                                    "Не удалось восстановить счетчики SLA, повтор через {} мс: {}",
+                                    properties.getRestoreRetryMs(), signal.failure().getMessage())))
+                    .subscribe();
+        }
+    }
+
+    @Override
+    public void onResult(ServiceDefinition service, HealthCheckResult result) {
+        if (!properties.isEnabled() || result.getServiceDefinitionId() == null) {
+            return;
+        }
+        LocalDateTime checkedAt = result.getCheckedAt() != null ? result.getCheckedAt() : LocalDateTime.now(clock);
+        int checks = result.getSampleCount() != null ? result.getSampleCount() : 1;
+        int upChecks = result.getUpCount() != null ? result.getUpCount()
+                : result.getStatus() == ServiceStatus.UP ? 1 : 0;
+        states.computeIfAbsent(result.getServiceDefinitionId(), id -> newState())
+                .record(checkedAt, isFailure(result.getStatus()), checks, upChecks);
+    }
+
+    @Override
+    public void onServiceUpdated(ServiceDefinition service) {
+    }
+
+    @Override
+    public void onServiceRemoved(Long serviceId) {
+        loaded.remove(serviceId);
+        if (states.remove(serviceId) == null) {
+            return;
+        }
+        checkpointRepository.delete(serviceId)
+                .subscribe(null, error -> log.warn("Не удалось удалить счетчики SLA сервиса {}: {}",
+                        serviceId, error.getMessage()));
+    }
+
+    public Optional<ServiceSla> getSla(Long serviceId) {
+        ServiceSlaState state = states.get(serviceId);
+        if (state == null || !isServed(serviceId)) {
+            return Optional.empty();
+        }
+        String name = serviceRegistry.get(serviceId).map(ServiceDefinition::getName).orElse(null);
+        return Optional.of(state.snapshot(serviceId, name, LocalDateTime.now(clock)));
+    }
+
+    public List<ServiceSla> getSla() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<ServiceSla> result = new ArrayList<>();
+        for (ServiceDefinition service : serviceRegistry.getAll()) {
+            ServiceSlaState state = states.get(service.getId());
+            if (state != null && isServed(service.getId())) {
+                result.add(state.snapshot(service.getId(), service.getName(), now));
+            }
+        }
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${monitoring.sla.checkpoint-interval-ms:60000}")
+    public void runCheckpoint() {
+        if (!properties.isEnabled() || !syncing.compareAndSet(false, true)) {
+            return;
+        }
+        sync()
+                .doFinally(signal -> syncing.set(false))
+                .subscribe(null, error ->
+                        log.error("Ошибка при сохранении счетчиков SLA: {}", error.getMessage()));
+    }
+
+    @PreDestroy
+    public void close() {
+        Disposable current = restoring;
+        if (current != null) {
+            current.dispose();
+        }
+        if (properties.isEnabled()) {
+            checkpoint().block(Duration.ofMillis(properties.getShutdownTimeoutMs()));
+        }
+    }
+
+    int getStateCount() {
+        return states.size();
+    }
+
+    Mono<Void> restore() {
+        return checkpointRepository.findAll()
+                .doOnNext(this::load)
+                .count()
+                .doOnNext(count -> {
+                    restored = true;
+                    log.info("Восстановлены счетчики SLA: {} сервисов", count);
+                })
+                .then();
+    }
+
+    Mono<Void> sync() {
+        return clusterEnabled ? checkpoint().then(Mono.defer(this::rebalance)) : checkpoint();
+    }
+
+    /**
+     * Отпускает сервисы, перешедшие к другим узлам (их счетчики уже сохранены), и загружает контрольные
+     * точки сервисов, которыми узел владеет с прошлой итерации.
+     */
+    Mono<Void> rebalance() {
+        Set<Long> owned = new HashSet<>();
+        for (ServiceDefinition service : serviceRegistry.getAll()) {
+            if (clusterMembership.owns(service.getId())) {
+                owned.add(service.getId());
+            }
+        }
+        Set<Long> previous = ownedAtLastSync;
+        ownedAtLastSync = owned;
+
+        for (Long id : new ArrayList<>(states.keySet())) {
+            if (!owned.contains(id)) {
+                release(id);
+            }
+        }
+        loaded.removeIf(id -> !owned.contains(id) && !states.containsKey(id));
+
+        List<Long> acquired = owned.stream()
+                .filter(id -> previous.contains(id) && !loaded.contains(id))
+                .toList();
+        return Flux.fromIterable(acquired)
+                .buffer(properties.getBatchSize())
+                .concatMap(ids -> checkpointRepository.findAll(ids)
+                        .doOnNext(this::load)
+                        .then(Mono.fromRunnable(() -> loaded.addAll(ids))))
+                .then();
+    }
+
+    Mono<Void> checkpoint() {
+        Map<Long, byte[]> dirty = new LinkedHashMap<>();
+        states.forEach((id, state) -> {
+            if (!isLoaded(id)) {
+                return;
+            }
+            byte[] data = state.checkpoint();
+            if (data != null) {
+                dirty.put(id, data);
+            }
+        });
+        if (dirty.isEmpty()) {
+            return Mono.empty();
+        }
+
+        return Flux.fromIterable(dirty.entrySet())
+                .buffer(properties.getBatchSize())
+                .concatMap(batch -> {
+                    Map<Long, byte[]> chunk = new LinkedHashMap<>();
+                    batch.forEach(entry -> chunk.put(entry.getKey(), entry.getValue()));
+                    return checkpointRepository.upsertAll(chunk)
+                            .onErrorResume(error -> {
+                                log.error("Ошибка при сохранении счетчиков SLA для {} сервисов: {}",
+                                        chunk.size(), error.getMessage());
+                                chunk.keySet().forEach(this::markDirty);
+                                return Mono.empty();
+                            });
+                })
+                .reduce(0L, Long::sum)
+                .doOnNext(count -> log.debug("Сохранены счетчики SLA: {}", count))
+                .then();
+    }
+
+    /**
+     * Сливает контрольную точку с текущими счетчиками. Повторная загрузка после частичного сбоя
+     * пропускает уже слитые сервисы.
+     */
+    private void load(SlaCheckpointRepository.Checkpoint checkpoint) {
+        Long id = checkpoint.serviceDefinitionId();
+        ServiceSlaState stored = newState();
+        if (!stored.restore(checkpoint.state()) || !loaded.add(id)) {
+            return;
+        }
+        states.merge(id, stored, (current, ignored) -> {
+            current.merge(stored);
+            return current;
+        });
+    }
+
+    private void release(Long serviceId) {
+        ServiceSlaState state = states.get(serviceId);
+        // Несохраненные счетчики остаются до следующей итерации
+        if (state != null && isLoaded(serviceId) && state.isDirty()) {
+            return;
+        }
+        states.remove(serviceId);
+        loaded.remove(serviceId);
+    }
+
+    private boolean isLoaded(Long serviceId) {
+        return restored || loaded.contains(serviceId);
+    }
+
+    private boolean isServed(Long serviceId) {
+        return isLoaded(serviceId) && (!clusterEnabled || clusterMembership.owns(serviceId));
+    }
+
+    private void markDirty(Long serviceId) {
+        ServiceSlaState state = states.get(serviceId);
+        if (state != null) {
+            state.markDirty();
+        }
+    }
+
+    private ServiceSlaState newState() {
+        return new ServiceSlaState(clock.getZone(), properties.getMaxGapMs(), properties.getRecentDowntimes());
+    }
+
+    private static boolean isFailure(ServiceStatus status) {
+        return status != ServiceStatus.UP && status != ServiceStatus.DEGRADED;
+    }
+}
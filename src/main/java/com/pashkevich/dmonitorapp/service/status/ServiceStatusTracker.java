@@ -0,0 +1,105 @@
+package com.pashkevich.dmonitorapp.service.status;
+
+import com.pashkevich.dmonitorapp.model.HealthCheckResult;
+import com.pashkevich.dmonitorapp.model.ServiceDefinition;
+import com.pashkevich.dmonitorapp.model.ServiceStatus;
+import com.pashkevich.dmonitorapp.model.ServiceStatusSnapshot;
+import com.pashkevich.dmonitorapp.service.HealthCheckResultListener;
+import com.pashkevich.dmonitorapp.service.registry.ServiceRegistry;
+import com.pashkevich.dmonitorapp.service.registry.ServiceRegistryListener;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Последнее известное состояние каждого сервиса. Обновляется через CAS, чтение не блокируется.
+ */
+@Component
+@RequiredArgsConstructor
+public class ServiceStatusTracker implements HealthCheckResultListener, ServiceRegistryListener {
+
+    private final ServiceRegistry serviceRegistry;
+    private final Map<Long, AtomicReference<ServiceStatusSnapshot>> statuses = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        serviceRegistry.addListener(this);
+    }
+
+    @Override
+    public void onResult(ServiceDefinition service, HealthCheckResult result) {
+        Long serviceId = result.getServiceDefinitionId();
+        AtomicReference<ServiceStatusSnapshot> reference = statuses.get(serviceId);
+        if (reference == null) {
+            reference = statuses.computeIfAbsent(serviceId, id -> new AtomicReference<>());
+        }
+        reference.updateAndGet(previous -> next(previous, service, result));
+    }
+
+    @Override
+    public void onServiceUpdated(ServiceDefinition service) {
+    }
+
+    @Override
+    public void onServiceRemoved(Long serviceId) {
+        statuses.remove(serviceId);
+    }
+
+    public Optional<ServiceStatusSnapshot> getStatus(Long serviceId) {
+        AtomicReference<ServiceStatusSnapshot> reference = statuses.get(serviceId);
+        return reference == null ? Optional.empty() : Optional.ofNullable(reference.get());
+    }
+
+    public Collection<ServiceStatusSnapshot> getStatuses() {
+        return statuses.values().stream()
+                .map(AtomicReference::get)
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparing(ServiceStatusSnapshot::getServiceDefinitionId))
+                .toList();
+    }
+
+    private ServiceStatusSnapshot next(ServiceStatusSnapshot previous, ServiceDefinition service,
+                                       HealthCheckResult result) {
+        LocalDateTime checkedAt = result.getCheckedAt() != null ? result.getCheckedAt() : LocalDateTime.now();
+        boolean failed = isFailure(result.getStatus());
+
+        if (previous == null) {
+            return ServiceStatusSnapshot.builder()
+                    .serviceDefinitionId(result.getServiceDefinitionId())
+                    .serviceName(service.getName())
+                    .checkType(service.getCheckType())
+                    .status(result.getStatus())
+                    .lastResponseTimeMs(result.getResponseTimeMs())
+                    .lastMessage(result.getMessage())
+                    .lastCheckedAt(checkedAt)
+                    .lastChangedAt(checkedAt)
+                    .consecutiveFailures(failed ? 1 : 0)
+                    .build();
+        }
+
+        boolean changed = previous.getStatus() != result.getStatus();
+        return previous.toBuilder()
+                .serviceName(service.getName())
+                .checkType(service.getCheckType())
+                .status(result.getStatus())
+                .lastResponseTimeMs(result.getResponseTimeMs())
+                .lastMessage(result.getMessage())
+                .lastCheckedAt(checkedAt)
+                .lastChangedAt(changed ? checkedAt : previous.getLastChangedAt())
+                .consecutiveFailures(failed ? previous.getConsecutiveFailures() + 1 : 0)
+                .build();
+    }
+
+    private static boolean isFailure(ServiceStatus status) {
+        return status != ServiceStatus.UP && status != ServiceStatus.DEGRADED;
+    }
+}
@@ -0,0 +1,120 @@
+package com.pashkevich.dmonitorapp.service.stream;
+
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
+import com.pashkevich.dmonitorapp.model.CheckType;
+import com.pashkevich.dmonitorapp.model.HealthCheckEvent;
+import com.pashkevich.dmonitorapp.model.HealthCheckResult;
+import com.pashkevich.dmonitorapp.model.ServiceDefinition;
+import com.pashkevich.dmonitorapp.model.ServiceStatus;
+import com.pashkevich.dmonitorapp.service.HealthCheckResultListener;
+import com.pashkevich.dmonitorapp.service.registry.ServiceRegistry;
+import com.pashkevich.dmonitorapp.service.registry.ServiceRegistryListener;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Раздает результаты проверок подписчикам потока. Медленный клиент теряет самые старые события
+ * из своего буфера и никогда не тормозит проверки: поток проверки только кладет событие в буферы
+ * подписчиков, а доставка и кодирование для клиента выполняются на отдельном планировщике.
+ */
+@Component
+@Slf4j
+public class HealthCheckEventPublisher implements HealthCheckResultListener, ServiceRegistryListener {
+
+    private final ServiceRegistry serviceRegistry;
+    private final MonitoringProperties.Stream properties;
+    private final Sinks.Many<HealthCheckEvent> sink = Sinks.many().multicast().directBestEffort();
+    private final Map<Long, ServiceStatus> lastStatuses = new ConcurrentHashMap<>();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final Scheduler deliveryScheduler = Schedulers.newParallel("health-events");
+
+    public HealthCheckEventPublisher(ServiceRegistry serviceRegistry, MonitoringProperties monitoringProperties) {
+        this.serviceRegistry = serviceRegistry;
+        this.properties = monitoringProperties.getStream();
+    }
+
+    @PostConstruct
+    public void init() {
+        serviceRegistry.addListener(this);
+    }
+
+    @PreDestroy
+    public void close() {
+        deliveryScheduler.dispose();
+    }
+
+    @Override
+    public void onResult(ServiceDefinition service, HealthCheckResult result) {
+        Long serviceId = result.getServiceDefinitionId();
+        ServiceStatus previous = serviceId != null && result.getStatus() != null
+                ? lastStatuses.put(serviceId, result.getStatus())
+                : null;
+
+        HealthCheckEvent event = HealthCheckEvent.builder()
+                .serviceDefinitionId(serviceId)
+                .serviceName(service.getName())
+                .checkType(service.getCheckType())
+                .status(result.getStatus())
+                .previousStatus(previous)
+                .transition(previous != result.getStatus())
+                .responseTimeMs(result.getResponseTimeMs())
+                .message(result.getMessage())
+                .checkedAt(result.getCheckedAt() != null ? result.getCheckedAt() : LocalDateTime.now())
+                .build();
+
+        if (sink.currentSubscriberCount() == 0) {
+            return;
+        }
+        synchronized (sink) {
+            sink.tryEmitNext(event);
+        }
+    }
+
+    @Override
+    public void onServiceUpdated(ServiceDefinition service) {
+    }
+
+    @Override
+    public void onServiceRemoved(Long serviceId) {
+        lastStatuses.remove(serviceId);
+    }
+
+    /**
+     * Поток событий с фильтрами клиента; пустой набор фильтра пропускает все.
+     */
+    public Flux<HealthCheckEvent> stream(Collection<Long> serviceIds, Collection<CheckType> checkTypes,
+                                         boolean transitionsOnly) {
+        return sink.asFlux()
+                .filter(event -> serviceIds == null || serviceIds.isEmpty()
+                        || serviceIds.contains(event.getServiceDefinitionId()))
+                .filter(event -> checkTypes == null || checkTypes.isEmpty()
+                        || checkTypes.contains(event.getCheckType()))
+                .filter(event -> !transitionsOnly || event.isTransition())
+                .onBackpressureBuffer(properties.getClientBufferSize(),
+                        dropped -> droppedEvents.incrementAndGet(),
+                        BufferOverflowStrategy.DROP_OLDEST)
+                // Забираем по одному событию, чтобы медленный клиент терял события из своего буфера
+                .publishOn(deliveryScheduler, 1);
+    }
+
+    public int getSubscriberCount() {
+        return sink.currentSubscriberCount();
+    }
+
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+}
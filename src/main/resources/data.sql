@@ -1,43 +1,3 @@
--- Удаляем существующие таблицы (если есть)
-DROP TABLE IF EXISTS health_check_results CASCADE;
-DROP TABLE IF EXISTS service_definitions CASCADE;
-DROP TABLE IF EXISTS database_connection CASCADE;
-
--- Создаем таблицы
-CREATE TABLE service_definitions (
-    id BIGSERIAL PRIMARY KEY,
-    name VARCHAR(255) NOT NULL UNIQUE,
-    url VARCHAR(255) NOT NULL,
-    check_interval_seconds INTEGER NOT NULL,
-    check_type VARCHAR(50) NOT NULL,
-    database_config_id BIGINT,
-    created_at TIMESTAMP DEFAULT NOW(),
-    updated_at TIMESTAMP DEFAULT NOW(),
-    is_active BOOLEAN DEFAULT TRUE,
-    configuration TEXT
-);
-
-CREATE TABLE health_check_results (
-    id BIGSERIAL PRIMARY KEY,
-    service_definition_id BIGINT REFERENCES service_definitions(id),
-    status VARCHAR(50) NOT NULL,
-    message TEXT,
-    response_time_ms BIGINT,
-    checked_at TIMESTAMP DEFAULT NOW(),
-    additional_info TEXT
-);
-
-CREATE TABLE database_connection (
-    id BIGSERIAL PRIMARY KEY,
-    name VARCHAR(255) UNIQUE NOT NULL,
-    connection_url TEXT NOT NULL,
-    username VARCHAR(255),
-    password VARCHAR(255),
-    driver_class_name VARCHAR(255),
-    is_active BOOLEAN DEFAULT TRUE,
-    created_at TIMESTAMP DEFAULT NOW()
-);
-
 -- Вставляем тестовые данные
 INSERT INTO service_definitions (name, url, check_interval_seconds, check_type)
 VALUES
@@ -0,0 +1,97 @@
+-- Схема создается один раз и не пересоздается при перезапуске
+CREATE TABLE IF NOT EXISTS service_definitions (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL UNIQUE,
+    url VARCHAR(255) NOT NULL,
+    check_interval_seconds INTEGER NOT NULL,
+    check_type VARCHAR(50) NOT NULL,
+    database_config_id BIGINT,
+    created_at TIMESTAMP DEFAULT NOW(),
+    updated_at TIMESTAMP DEFAULT NOW(),
+    is_active BOOLEAN DEFAULT TRUE,
+    configuration TEXT
+);
+
+-- Колонки, добавленные после первой версии схемы
+ALTER TABLE service_definitions ADD COLUMN IF NOT EXISTS http_method VARCHAR(8);
+ALTER TABLE service_definitions ADD COLUMN IF NOT EXISTS expected_content TEXT;
+ALTER TABLE service_definitions ADD COLUMN IF NOT EXISTS timeout_ms INTEGER;
+
+-- Результаты секционированы по checked_at, секции создает и удаляет PartitionMaintenanceJob
+CREATE TABLE IF NOT EXISTS health_check_results (
+    id BIGSERIAL,
+    service_definition_id BIGINT REFERENCES service_definitions(id),
+    status VARCHAR(50) NOT NULL,
+    message TEXT,
+    response_time_ms BIGINT,
+    checked_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    additional_info TEXT,
+    PRIMARY KEY (id, checked_at)
+) PARTITION BY RANGE (checked_at);
+
+-- Сюда попадают строки, для которых секция еще не создана
+CREATE TABLE IF NOT EXISTS health_check_results_default PARTITION OF health_check_results DEFAULT;
+
+ALTER TABLE health_check_results ADD COLUMN IF NOT EXISTS breaker_state VARCHAR(16);
+-- В режиме записи только изменений строка суммирует пропущенные проверки: доля UP = SUM(up_count) / SUM(sample_count)
+ALTER TABLE health_check_results ADD COLUMN IF NOT EXISTS sample_count INTEGER;
+ALTER TABLE health_check_results ADD COLUMN IF NOT EXISTS up_count INTEGER;
+
+-- Индекс для keyset-пагинации истории: страница читается диапазоном по (checked_at, id), остальные
+-- колонки берутся из таблицы. Заменяет индекс по (service_definition_id, checked_at) и прежний
+-- вариант с INCLUDE, который только утяжелял вставку.
+DROP INDEX IF EXISTS idx_health_check_results_service_checked_at;
+DROP INDEX IF EXISTS idx_health_check_results_service_checked_id;
+CREATE INDEX IF NOT EXISTS idx_health_check_results_service_checked_at_id
+    ON health_check_results (service_definition_id, checked_at, id);
+
+CREATE TABLE IF NOT EXISTS health_check_rollups (
+    id BIGSERIAL PRIMARY KEY,
+    service_definition_id BIGINT NOT NULL REFERENCES service_definitions(id),
+    granularity VARCHAR(16) NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    total_count BIGINT NOT NULL,
+    up_count BIGINT NOT NULL,
+    down_count BIGINT NOT NULL,
+    degraded_count BIGINT NOT NULL,
+    timeout_count BIGINT NOT NULL,
+    unknown_count BIGINT NOT NULL,
+    latency_count BIGINT NOT NULL,
+    min_response_time_ms BIGINT,
+    max_response_time_ms BIGINT,
+    avg_response_time_ms DOUBLE PRECISION,
+    p50_response_time_ms BIGINT,
+    p95_response_time_ms BIGINT,
+    p99_response_time_ms BIGINT,
+    UNIQUE (service_definition_id, granularity, bucket_start)
+);
+
+-- Для удаления устаревших минутных агрегатов по всем сервисам сразу
+CREATE INDEX IF NOT EXISTS idx_health_check_rollups_granularity_bucket
+    ON health_check_rollups (granularity, bucket_start);
+
+-- Узлы кластера мониторинга, живость определяется по last_heartbeat
+CREATE TABLE IF NOT EXISTS monitor_nodes (
+    node_id VARCHAR(128) PRIMARY KEY,
+    host VARCHAR(255),
+    started_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    last_heartbeat TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+-- Контрольные точки счетчиков SLA, state - сериализованное состояние SlaCalculator
+CREATE TABLE IF NOT EXISTS sla_checkpoints (
+    service_definition_id BIGINT PRIMARY KEY REFERENCES service_definitions(id),
+    state BYTEA NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE TABLE IF NOT EXISTS database_connection (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(255) UNIQUE NOT NULL,
+    connection_url TEXT NOT NULL,
+    username VARCHAR(255),
+    password VARCHAR(255),
+    driver_class_name VARCHAR(255),
+    is_active BOOLEAN DEFAULT TRUE,
+    created_at TIMESTAMP DEFAULT NOW()
+);
@@ -1,5 +1,6 @@
 package com.pashkevich.dmonitorapp.adapter.database;
 
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
 import com.pashkevich.dmonitorapp.model.*;
 import com.pashkevich.dmonitorapp.repository.DatabaseConnectionRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,8 +11,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 import static org.mockito.ArgumentMatchers.anyLong;
-import static reactor.core.publisher.Mono.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class DatabaseHealthAdapterTest {
@@ -22,7 +25,7 @@ public class DatabaseHealthAdapterTest {
 
     @BeforeEach
     void sttUp() {
-        databaseHealthAdapter = new DatabaseHealthAdapter(databaseConnectionRepository);
+        databaseHealthAdapter = new DatabaseHealthAdapter(databaseConnectionRepository, new MonitoringProperties());
     }
 
     @Test
@@ -86,6 +89,160 @@ public class DatabaseHealthAdapterTest {
     void getTepe_ShouldReturnDatabase() {
         assert databaseHealthAdapter.getType() == CheckType.DATABASE;
     }
+
+    @Test
+    void checkHealth_ShouldCacheConfigLookup() {
+        // Arrange
+        ServiceDefinition service = databaseService(1L, 1L);
+        when(databaseConnectionRepository.findById(1L))
+                .thenReturn(Mono.just(invalidConfig(1L)));
+
+        // Act
+        databaseHealthAdapter.checkHealth(service).block();
+        databaseHealthAdapter.checkHealth(service).block();
+
+        // Assert
+        verify(databaseConnectionRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void evict_ShouldReloadConfigOnNextCheck() {
+        // Arrange
+        ServiceDefinition service = databaseService(1L, 1L);
+        when(databaseConnectionRepository.findById(1L))
+                .thenReturn(Mono.just(invalidConfig(1L)));
+        databaseHealthAdapter.checkHealth(service).block();
+
+        // Act
+        databaseHealthAdapter.evict(1L);
+        databaseHealthAdapter.checkHealth(service).block();
+
+        // Assert
+        verify(databaseConnectionRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void checkHealth_ShouldReuseConnectionPool_ForSameUrlAndUser() {
+        // Arrange
+        DatabaseConnectionConfig config = DatabaseConnectionConfig.builder()
+                .id(1L)
+                .name("Unreachable DB")
+                .connectionUrl("r2dbc:postgresql://127.0.0.1:1/test")
+                .username("user")
+                .password("pass")
+                .build();
+        when(databaseConnectionRepository.findById(1L)).thenReturn(Mono.just(config));
+
+        // Act
+        HealthCheckResult first = databaseHealthAdapter.checkHealth(databaseService(1L, 1L)).block();
+        HealthCheckResult second = databaseHealthAdapter.checkHealth(databaseService(2L, 1L)).block();
+
+        // Assert
+        assert first.getStatus() == ServiceStatus.DOWN;
+        assert second.getStatus() == ServiceStatus.DOWN;
+        assert databaseHealthAdapter.getPoolCount() == 1;
+
+        databaseHealthAdapter.evict(1L);
+        assert databaseHealthAdapter.getPoolCount() == 0;
+    }
+
+    @Test
+    void evict_ShouldDisposePool_WhenConfigDeleted() {
+        // Arrange
+        MonitoringProperties properties = new MonitoringProperties();
+        properties.getDatabase().setConfigCacheTtlMs(0);
+        databaseHealthAdapter = new DatabaseHealthAdapter(databaseConnectionRepository, properties);
+        AtomicReference<DatabaseConnectionConfig> row = new AtomicReference<>(unreachableConfig(1L, 1));
+        when(databaseConnectionRepository.findById(1L)).thenReturn(Mono.fromSupplier(row::get));
+        databaseHealthAdapter.checkHealth(databaseService(1L, 1L)).block();
+        assert databaseHealthAdapter.getPoolCount() == 1;
+
+        // Act
+        row.set(null);
+        databaseHealthAdapter.evict(1L);
+
+        // Assert
+        assert databaseHealthAdapter.getPoolCount() == 0;
+    }
+
+    @Test
+    void checkHealth_ShouldDisposeOldPool_WhenConfigUrlChanged() {
+        // Arrange
+        MonitoringProperties properties = new MonitoringProperties();
+        properties.getDatabase().setConfigCacheTtlMs(0);
+        databaseHealthAdapter = new DatabaseHealthAdapter(databaseConnectionRepository, properties);
+        AtomicReference<DatabaseConnectionConfig> row = new AtomicReference<>(unreachableConfig(1L, 1));
+        when(databaseConnectionRepository.findById(1L)).thenReturn(Mono.fromSupplier(row::get));
+
+        // Act
+        databaseHealthAdapter.checkHealth(databaseService(1L, 1L)).block();
+        row.set(unreachableConfig(1L, 2));
+        databaseHealthAdapter.checkHealth(databaseService(1L, 1L)).block();
+
+        // Assert
+        assert databaseHealthAdapter.getPoolCount() == 1;
+    }
+
+    @Test
+    void evict_ShouldKeepSharedPool_WhileOtherConfigUsesIt() {
+        // Arrange
+        when(databaseConnectionRepository.findById(1L)).thenReturn(Mono.just(unreachableConfig(1L, 1)));
+        when(databaseConnectionRepository.findById(2L)).thenReturn(Mono.just(unreachableConfig(2L, 1)));
+        databaseHealthAdapter.checkHealth(databaseService(1L, 1L)).block();
+        databaseHealthAdapter.checkHealth(databaseService(2L, 2L)).block();
+
+        // Act
+        databaseHealthAdapter.evict(1L);
+
+        // Assert
+        assert databaseHealthAdapter.getPoolCount() == 1;
+        databaseHealthAdapter.evict(2L);
+        assert databaseHealthAdapter.getPoolCount() == 0;
+    }
+
+    @Test
+    void checkHealth_ShouldReturnDown_WhenConfigIdMissing() {
+        // Arrange
+        ServiceDefinition service = databaseService(1L, null);
+
+        // Act & Assert
+        StepVerifier.create(databaseHealthAdapter.checkHealth(service))
+                .assertNext(healthCheckResult -> {
+                    assert healthCheckResult.getStatus() == ServiceStatus.DOWN;
+                    assert healthCheckResult.getMessage().contains("Database config error");
+                })
+                .verifyComplete();
+        verifyNoInteractions(databaseConnectionRepository);
+    }
+
+    private ServiceDefinition databaseService(Long id, Long configId) {
+        return ServiceDefinition.builder()
+                .id(id)
+                .name("Test DB Service " + id)
+                .databaseConfigId(configId)
+                .checkType(CheckType.DATABASE)
+                .build();
+    }
+
+    private DatabaseConnectionConfig unreachableConfig(Long id, int port) {
+        return DatabaseConnectionConfig.builder()
+                .id(id)
+                .name("Unreachable DB " + id)
+                .connectionUrl("r2dbc:postgresql://127.0.0.1:" + port + "/test")
+                .username("user")
+                .password("pass")
+                .build();
+    }
+
+    private DatabaseConnectionConfig invalidConfig(Long id) {
+        return DatabaseConnectionConfig.builder()
+                .id(id)
+                .name("Test DB")
+                .connectionUrl("r2dbc:invalid://localhost:9999/test")
+                .username("user")
+                .password("pass")
+                .build();
+    }
 }
 
 
@@ -1,5 +1,6 @@
 package com.pashkevich.dmonitorapp.adapter.http;
 
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
 import com.pashkevich.dmonitorapp.model.CheckType;
 import com.pashkevich.dmonitorapp.model.HealthCheckResult;
 import com.pashkevich.dmonitorapp.model.ServiceDefinition;
@@ -42,7 +43,7 @@ public class HttpHealthAdapterIntegrationTest {
         String baseUrl = "http://" + mockServer.getHost() + ":" + mockServer.getFirstMappedPort();
 
         WebClient webClient = webClientBuilder.baseUrl(baseUrl).build();
-        HttpHealthAdapter adapter = new HttpHealthAdapter(webClient);
+        HttpHealthAdapter adapter = new HttpHealthAdapter(webClient, new MonitoringProperties());
 
         ServiceDefinition service = ServiceDefinition.builder()
                 .id(1L)
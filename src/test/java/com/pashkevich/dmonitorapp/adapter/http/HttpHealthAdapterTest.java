@@ -1,7 +1,9 @@
 package com.pashkevich.dmonitorapp.adapter.http;
 
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
 import com.pashkevich.dmonitorapp.model.CheckType;
 import com.pashkevich.dmonitorapp.model.HealthCheckResult;
+import com.pashkevich.dmonitorapp.model.HttpProbeMethod;
 import com.pashkevich.dmonitorapp.model.ServiceDefinition;
 import com.pashkevich.dmonitorapp.model.ServiceStatus;
 import okhttp3.mockwebserver.MockResponse;
@@ -15,6 +17,8 @@ import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
 class HttpHealthAdapterTest {
 
@@ -37,7 +41,7 @@ class HttpHealthAdapterTest {
         WebClient webClient = WebClient.builder()
                 .baseUrl(mockWebServer.url("/").toString())
                 .build();
-        httpHealthAdapter = new HttpHealthAdapter(webClient);
+        httpHealthAdapter = new HttpHealthAdapter(webClient, new MonitoringProperties());
     }
 
     @Test
@@ -115,6 +119,102 @@ class HttpHealthAdapterTest {
                 .verifyComplete();
     }
 
+    @Test
+    void checkHealth_ShouldUseHeadMethod_WhenConfigured() throws IOException, InterruptedException {
+        try (MockWebServer server = new MockWebServer()) {
+            // Arrange
+            server.enqueue(new MockResponse().setResponseCode(204));
+            ServiceDefinition service = ServiceDefinition.builder()
+                    .id(1L)
+                    .url(server.url("/health").toString())
+                    .checkType(CheckType.HTTP)
+                    .httpMethod(HttpProbeMethod.HEAD)
+                    .build();
+
+            // Act & Assert
+            StepVerifier.create(httpHealthAdapter.checkHealth(service))
+                    .assertNext(healthCheckResult -> {
+                        assert healthCheckResult.getStatus() == ServiceStatus.UP;
+                    })
+                    .verifyComplete();
+            assert server.takeRequest().getMethod().equals("HEAD");
+        }
+    }
+
+    @Test
+    void checkHealth_ShouldReturnUp_WhenExpectedContentFound() {
+        // Arrange
+        mockWebServer.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setBody("{\"status\":\"UP\"}" + "x".repeat(200_000)));
+
+        ServiceDefinition service = ServiceDefinition.builder()
+                .id(1L)
+                .url(mockWebServer.url("/content").toString())
+                .checkType(CheckType.HTTP)
+                .expectedContent("\"status\":\"UP\"")
+                .build();
+
+        // Act & Assert
+        StepVerifier.create(httpHealthAdapter.checkHealth(service))
+                .assertNext(healthCheckResult -> {
+                    assert healthCheckResult.getStatus() == ServiceStatus.UP;
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void checkHealth_ShouldReturnDown_WhenExpectedContentBeyondLimit() {
+        // Arrange
+        MonitoringProperties properties = new MonitoringProperties();
+        properties.getHttp().setMaxBodyBytes(1024);
+        HttpHealthAdapter adapter = new HttpHealthAdapter(WebClient.create(), properties);
+        mockWebServer.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setBody("x".repeat(4096) + "READY"));
+
+        ServiceDefinition service = ServiceDefinition.builder()
+                .id(1L)
+                .url(mockWebServer.url("/large").toString())
+                .checkType(CheckType.HTTP)
+                .expectedContent("READY")
+                .build();
+
+        // Act & Assert
+        StepVerifier.create(adapter.checkHealth(service))
+                .assertNext(healthCheckResult -> {
+                    assert healthCheckResult.getStatus() == ServiceStatus.DOWN;
+                    assert healthCheckResult.getMessage().startsWith("Expected content not found");
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void checkHealth_ShouldReturnTimeout_WhenServiceTimeoutExceeded() throws IOException {
+        try (MockWebServer server = new MockWebServer()) {
+            // Arrange
+            server.enqueue(new MockResponse()
+                    .setResponseCode(200)
+                    .setHeadersDelay(2, TimeUnit.SECONDS));
+            server.start();
+            ServiceDefinition service = ServiceDefinition.builder()
+                    .id(1L)
+                    .url(server.url("/slow").toString())
+                    .checkType(CheckType.HTTP)
+                    .timeoutMs(200)
+                    .build();
+
+            // Act & Assert
+            StepVerifier.create(httpHealthAdapter.checkHealth(service))
+                    .assertNext(healthCheckResult -> {
+                        assert healthCheckResult.getStatus() == ServiceStatus.TIMEOUT;
+                        assert healthCheckResult.getResponseTimeMs() < 2000;
+                    })
+                    .expectComplete()
+                    .verify(Duration.ofSeconds(2));
+        }
+    }
+
     @Test
     void getType_ShouldReturnHttp() {
         assert httpHealthAdapter.getType() == CheckType.HTTP;
@@ -0,0 +1,158 @@
+package com.pashkevich.dmonitorapp.adapter.kafka;
+
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
+import com.pashkevich.dmonitorapp.model.CheckType;
+import com.pashkevich.dmonitorapp.model.ServiceDefinition;
+import com.pashkevich.dmonitorapp.model.ServiceStatus;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaZKBroker;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Map;
+
+class KafkaHealthAdapterTest {
+
+    private static EmbeddedKafkaBroker broker;
+    private KafkaHealthAdapter kafkaHealthAdapter;
+
+    @BeforeAll
+    static void startBroker() throws Exception {
+        broker = new EmbeddedKafkaZKBroker(1, true, 1, "orders");
+        broker.afterPropertiesSet();
+
+        try (KafkaProducer<String, String> producer = new KafkaProducer<>(Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class))) {
+            for (int i = 0; i < 5; i++) {
+                producer.send(new ProducerRecord<>("orders", 0, null, "order-" + i)).get();
+            }
+        }
+        try (Admin admin = Admin.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG,
+                broker.getBrokersAsString()))) {
+            admin.alterConsumerGroupOffsets("billing",
+                    Map.of(new TopicPartition("orders", 0), new OffsetAndMetadata(2))).all().get();
+        }
+    }
+
+    @AfterAll
+    static void stopBroker() {
+        broker.destroy();
+    }
+
+    @BeforeEach
+    void init() {
+        kafkaHealthAdapter = new KafkaHealthAdapter(new MonitoringProperties(), Schedulers.boundedElastic());
+    }
+
+    @AfterEach
+    void tearDown() {
+        kafkaHealthAdapter.closeAll();
+    }
+
+    @Test
+    void checkHealth_ShouldReturnUp_WhenClusterHealthy() {
+        // Arrange
+        ServiceDefinition service = service("kafka://" + broker.getBrokersAsString());
+
+        // Act & Assert
+        StepVerifier.create(kafkaHealthAdapter.checkHealth(service))
+                .assertNext(result -> {
+                    assert result.getStatus() == ServiceStatus.UP : result.getMessage();
+                    assert result.getMessage().contains("brokers=1");
+                    assert result.getMessage().contains("underReplicated=0");
+                    assert result.getResponseTimeMs() != null;
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void checkHealth_ShouldReportConsumerLag() {
+        // Arrange
+        ServiceDefinition withinLimit = service("kafka://" + broker.getBrokersAsString() + "?groups=billing");
+        ServiceDefinition overLimit = service("kafka://" + broker.getBrokersAsString() + "?groups=billing&maxLag=1");
+
+        // Act & Assert
+        StepVerifier.create(kafkaHealthAdapter.checkHealth(withinLimit))
+                .assertNext(result -> {
+                    assert result.getStatus() == ServiceStatus.UP : result.getMessage();
+                    assert result.getMessage().contains("lag[billing]=3");
+                })
+                .verifyComplete();
+        StepVerifier.create(kafkaHealthAdapter.checkHealth(overLimit))
+                .assertNext(result -> {
+                    assert result.getStatus() == ServiceStatus.DEGRADED;
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void checkHealth_ShouldReuseAdminClientPerCluster() {
+        // Arrange
+        ServiceDefinition first = service("kafka://" + broker.getBrokersAsString());
+        ServiceDefinition second = service(broker.getBrokersAsString() + "?groups=billing");
+
+        // Act
+        kafkaHealthAdapter.checkHealth(first).block();
+        kafkaHealthAdapter.checkHealth(first).block();
+        kafkaHealthAdapter.checkHealth(second).block();
+
+        // Assert
+        assert kafkaHealthAdapter.getClientCount() == 1;
+    }
+
+    @Test
+    void checkHealth_ShouldReturnFailure_WhenClusterUnreachable() {
+        // Arrange
+        ServiceDefinition service = service("kafka://localhost:1");
+        service.setTimeoutMs(500);
+
+        // Act & Assert
+        StepVerifier.create(kafkaHealthAdapter.checkHealth(service))
+                .assertNext(result -> {
+                    assert result.getStatus() == ServiceStatus.TIMEOUT || result.getStatus() == ServiceStatus.DOWN;
+                })
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void checkHealth_ShouldReturnDown_WhenAddressInvalid() {
+        // Act & Assert
+        StepVerifier.create(kafkaHealthAdapter.checkHealth(service("kafka://?groups=billing")))
+                .assertNext(result -> {
+                    assert result.getStatus() == ServiceStatus.DOWN;
+                    assert result.getMessage().startsWith("Invalid Kafka target");
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void getType_ShouldReturnKafka() {
+        assert kafkaHealthAdapter.getType() == CheckType.KAFKA;
+    }
+
+    private ServiceDefinition service(String url) {
+        return ServiceDefinition.builder()
+                .id(1L)
+                .name("Kafka")
+                .url(url)
+                .checkType(CheckType.KAFKA)
+                .build();
+    }
+}
@@ -0,0 +1,169 @@
+package com.pashkevich.dmonitorapp.adapter.tcp;
+
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
+import com.pashkevich.dmonitorapp.model.CheckType;
+import com.pashkevich.dmonitorapp.model.ServiceDefinition;
+import com.pashkevich.dmonitorapp.model.ServiceStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.netty.tcp.TcpClient;
+import reactor.test.StepVerifier;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+class TcpHealthAdapterTest {
+
+    private ServerSocket serverSocket;
+    private TcpHealthAdapter tcpHealthAdapter;
+
+    @BeforeEach
+    void init() throws IOException {
+        serverSocket = new ServerSocket(0);
+        tcpHealthAdapter = new TcpHealthAdapter(TcpClient.newConnection(), new MonitoringProperties());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        serverSocket.close();
+    }
+
+    @Test
+    void checkHealth_ShouldReturnUp_WhenPortAcceptsConnections() {
+        // Arrange
+        serve(socket -> {
+        });
+        ServiceDefinition service = service("tcp://localhost:" + serverSocket.getLocalPort());
+
+        // Act & Assert
+        StepVerifier.create(tcpHealthAdapter.checkHealth(service))
+                .assertNext(result -> {
+                    assert result.getServiceDefinitionId().equals(1L);
+                    assert result.getStatus() == ServiceStatus.UP;
+                    assert result.getResponseTimeMs() != null;
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void checkHealth_ShouldReturnDown_WhenConnectionRefused() throws IOException {
+        // Arrange
+        int port = serverSocket.getLocalPort();
+        serverSocket.close();
+
+        // Act & Assert
+        StepVerifier.create(tcpHealthAdapter.checkHealth(service("localhost:" + port)))
+                .assertNext(result -> {
+                    assert result.getStatus() == ServiceStatus.DOWN;
+                    assert result.getMessage().startsWith("TCP error");
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void checkHealth_ShouldReturnUp_WhenExpectedResponseReceived() {
+        // Arrange
+        serve(socket -> {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                    StandardCharsets.UTF_8));
+            if ("PING".equals(reader.readLine())) {
+                socket.getOutputStream().write("+PONG\r\n".getBytes(StandardCharsets.UTF_8));
+                socket.getOutputStream().flush();
+            }
+        });
+        ServiceDefinition service = service("tcp://localhost:" + serverSocket.getLocalPort()
+                + "?send=PING%0D%0A&expect=PONG");
+
+        // Act & Assert
+        StepVerifier.create(tcpHealthAdapter.checkHealth(service))
+                .assertNext(result -> {
+                    assert result.getStatus() == ServiceStatus.UP;
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void checkHealth_ShouldReturnDown_WhenBannerDoesNotMatch() {
+        // Arrange
+        serve(socket -> {
+            OutputStream output = socket.getOutputStream();
+            output.write("220 other-service ready\r\n".getBytes(StandardCharsets.UTF_8));
+            output.flush();
+        });
+        ServiceDefinition service = service("tcp://localhost:" + serverSocket.getLocalPort());
+        service.setExpectedContent("ESMTP");
+
+        // Act & Assert
+        StepVerifier.create(tcpHealthAdapter.checkHealth(service))
+                .assertNext(result -> {
+                    assert result.getStatus() == ServiceStatus.DOWN;
+                    assert result.getMessage().startsWith("Expected response not found");
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void checkHealth_ShouldReturnTimeout_WhenResponseNotReceivedInTime() {
+        // Arrange
+        serve(socket -> Thread.sleep(2000));
+        ServiceDefinition service = service("tcp://localhost:" + serverSocket.getLocalPort() + "?expect=READY");
+        service.setTimeoutMs(200);
+
+        // Act & Assert
+        StepVerifier.create(tcpHealthAdapter.checkHealth(service))
+                .assertNext(result -> {
+                    assert result.getStatus() == ServiceStatus.TIMEOUT;
+                })
+                .expectComplete()
+                .verify(Duration.ofSeconds(2));
+    }
+
+    @Test
+    void checkHealth_ShouldReturnDown_WhenAddressInvalid() {
+        // Act & Assert
+        StepVerifier.create(tcpHealthAdapter.checkHealth(service("tcp://localhost")))
+                .assertNext(result -> {
+                    assert result.getStatus() == ServiceStatus.DOWN;
+                    assert result.getMessage().startsWith("Invalid TCP target");
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void getType_ShouldReturnTcp() {
+        assert tcpHealthAdapter.getType() == CheckType.TCP;
+    }
+
+    private void serve(SocketHandler handler) {
+        Thread thread = new Thread(() -> {
+            try (Socket socket = serverSocket.accept()) {
+                handler.handle(socket);
+            } catch (Exception ignored) {
+                // Сервер закрывается в tearDown
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private ServiceDefinition service(String url) {
+        return ServiceDefinition.builder()
+                .id(1L)
+                .name("TCP Service")
+                .url(url)
+                .checkType(CheckType.TCP)
+                .build();
+    }
+
+    @FunctionalInterface
+    private interface SocketHandler {
+        void handle(Socket socket) throws Exception;
+    }
+}
@@ -1,6 +1,10 @@
 package com.pashkevich.dmonitorapp.config;
 
+import com.pashkevich.dmonitorapp.model.CheckType;
+import com.pashkevich.dmonitorapp.model.ServiceDefinition;
 import com.pashkevich.dmonitorapp.service.MonitoringService;
+import com.pashkevich.dmonitorapp.service.registry.ServiceRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,19 +15,20 @@ import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Mono;
 
 import java.time.Duration;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
 
 import static org.awaitility.Awaitility.await;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
-@SpringBootTest
+@SpringBootTest(properties = "monitoring.persistence.spool.enabled=false")
 @Testcontainers
 public class MonitoringSchedulerIntegrationTest {
 
+    private static final long SERVICE_ID = 1_000_000L;
+
     @Container
     static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
             .withDatabaseName("testdb")
@@ -49,113 +54,102 @@ public class MonitoringSchedulerIntegrationTest {
     @Autowired
     private MonitoringScheduler monitoringScheduler;
 
+    @Autowired
+    private ServiceRegistry serviceRegistry;
+
     @BeforeEach
     void setUp() {
         // Сброс счетчиков вызовов перед каждым тестом
         reset(monitoringService);
+        doReturn(Mono.empty()).when(monitoringService).checkServices(any());
     }
 
-    @Test
-    void runMonitoring_ShouldCallPerformChecks() {
-        // Arrange
-        CompletableFuture<String> expectedFuture = CompletableFuture.completedFuture("Checks completed");
-        doReturn(expectedFuture).when(monitoringService).performChecks();
+    @AfterEach
+    void tearDown() {
+        serviceRegistry.remove(SERVICE_ID);
+    }
 
+    @Test
+    void scheduledTicks_ShouldCheckService_AddedToRegistry() {
         // Act
-        monitoringScheduler.runMonitoring();
+        serviceRegistry.upsert(service(1));
 
         // Assert
         await()
                 .atMost(Duration.ofSeconds(5))
                 .pollInterval(Duration.ofMillis(100))
-                .untilAsserted(() -> {
-                    verify(monitoringService, times(1)).performChecks();
-                });
+                .untilAsserted(() -> verify(monitoringService, atLeast(2)).checkServices(any()));
     }
 
     @Test
-    void runMonitoring_ShouldHandleAsyncExecution() {
-        // Arrange
-        CompletableFuture<String> asyncFuture = CompletableFuture.supplyAsync(() -> {
-            try {
-                Thread.sleep(100); // Имитация асинхронной работы
-                return "Async completed";
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                return "Interrupted";
-            }
-        });
-
-        doReturn(asyncFuture).when(monitoringService).performChecks();
-
+    void registryRefresh_ShouldScheduleServicesFromDatabase() {
         // Act
-        monitoringScheduler.runMonitoring();
+        serviceRegistry.refresh().block(Duration.ofSeconds(5));
 
         // Assert
-        await()
-                .atMost(Duration.ofSeconds(3))
-                .untilAsserted(() -> {
-                    verify(monitoringService, times(1)).performChecks();
-                    assert asyncFuture.isDone();
-                });
+        assert monitoringScheduler.getScheduledCount() == serviceRegistry.size();
+        assert monitoringScheduler.getScheduledCount() >= 2 : "Сервисы из data.sql должны попасть в расписание";
     }
 
     @Test
-    void runMonitoring_ShouldHandleException() {
+    void registryRemove_ShouldUnscheduleService() {
         // Arrange
-        doThrow(new RuntimeException("Monitoring error"))
-                .when(monitoringService).performChecks();
+        serviceRegistry.upsert(service(1));
+        int scheduled = monitoringScheduler.getScheduledCount();
 
         // Act
-        monitoringScheduler.runMonitoring();
+        serviceRegistry.remove(SERVICE_ID);
 
         // Assert
-        await()
-                .atMost(Duration.ofSeconds(2))
-                .untilAsserted(() -> {
-                    verify(monitoringService, times(1)).performChecks();
-                });
-        // Тест проходит, так как исключение логируется и не пробрасывается дальше
+        assert monitoringScheduler.getScheduledCount() == scheduled - 1;
     }
 
     @Test
-    void runMonitoring_ShouldNotBlockWhenAsyncTaskLongRunning() {
+    void runMonitoring_ShouldHandleException() {
         // Arrange
-        CompletableFuture<String> longRunningFuture = new CompletableFuture<>();
-        doReturn(longRunningFuture).when(monitoringService).performChecks();
+        doReturn(Mono.error(new RuntimeException("Monitoring error")))
+                .when(monitoringService).checkServices(any());
 
         // Act
-        long startTime = System.currentTimeMillis();
-        monitoringScheduler.runMonitoring();
-        long duration = System.currentTimeMillis() - startTime;
+        serviceRegistry.upsert(service(1));
 
         // Assert
-        assert duration < 100 : "Метод должен вернуться немедленно, не дожидаясь завершения Future";
-
-        verify(monitoringService, times(1)).performChecks();
-
-        // Завершаем future чтобы не было утечек
-        longRunningFuture.complete("Completed");
+        // Ошибка логируется и не прерывает следующие тики
+        await()
+                .atMost(Duration.ofSeconds(5))
+                .pollInterval(Duration.ofMillis(100))
+                .untilAsserted(() -> verify(monitoringService, atLeast(2)).checkServices(any()));
     }
 
     @Test
-    void runMonitoring_ShouldExecuteWithVirtualThread() {
+    void runMonitoring_ShouldNotBlockWhenChecksLongRunning() {
         // Arrange
-        CompletableFuture<String> future = new CompletableFuture<>();
-        doReturn(future).when(monitoringService).performChecks();
-
-        // Получаем текущий поток до вызова
-        Thread callerThread = Thread.currentThread();
+        doReturn(Mono.never()).when(monitoringService).checkServices(any());
+        serviceRegistry.upsert(service(1));
+        await()
+                .atMost(Duration.ofSeconds(5))
+                .pollInterval(Duration.ofMillis(50))
+                .untilAsserted(() -> verify(monitoringService, atLeastOnce()).checkServices(any()));
 
         // Act
-        monitoringScheduler.runMonitoring();
+        long startTime = System.currentTimeMillis();
+        for (int i = 0; i < 20; i++) {
+            monitoringScheduler.runMonitoring();
+        }
+        long duration = System.currentTimeMillis() - startTime;
 
         // Assert
-        verify(monitoringService, times(1)).performChecks();
-
-        // Проверяем, что метод не заблокировал вызывающий поток
-        assert callerThread == Thread.currentThread() : "Поток не должен измениться";
+        assert duration < 100 : "Тик должен возвращаться сразу, не дожидаясь завершения проверок";
+    }
 
-        future.complete("Completed");
+    private ServiceDefinition service(int intervalSeconds) {
+        return ServiceDefinition.builder()
+                .id(SERVICE_ID)
+                .name("Scheduler integration")
+                .url("http://localhost:1/health")
+                .checkType(CheckType.HTTP)
+                .checkIntervalSeconds(intervalSeconds)
+                .isActive(true)
+                .build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,188 @@
+package com.pashkevich.dmonitorapp.config;
+
+import com.pashkevich.dmonitorapp.model.CheckType;
+import com.pashkevich.dmonitorapp.model.ServiceDefinition;
+import com.pashkevich.dmonitorapp.service.MonitoringService;
+import com.pashkevich.dmonitorapp.service.cluster.ClusterMembership;
+import com.pashkevich.dmonitorapp.service.metrics.MonitoringMetrics;
+import com.pashkevich.dmonitorapp.service.registry.ServiceRegistry;
+import com.pashkevich.dmonitorapp.service.scheduler.CheckIntervalAdvisor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MonitoringSchedulerTest {
+
+    @Mock
+    private MonitoringService monitoringService;
+
+    @Mock
+    private ServiceRegistry serviceRegistry;
+
+    @Mock
+    private MonitoringMetrics monitoringMetrics;
+
+    @Mock
+    private ClusterMembership clusterMembership;
+
+    @Mock
+    private CheckIntervalAdvisor checkIntervalAdvisor;
+
+    private MonitoringScheduler monitoringScheduler;
+
+    @BeforeEach
+    void setUp() {
+        MonitoringProperties properties = new MonitoringProperties();
+        properties.getScheduler().setTickMs(10);
+        properties.getScheduler().setWheelSize(64);
+        monitoringScheduler = new MonitoringScheduler(monitoringService, serviceRegistry, monitoringMetrics,
+                clusterMembership, checkIntervalAdvisor, properties);
+        lenient().when(clusterMembership.owns(anyLong())).thenReturn(true);
+        lenient().when(checkIntervalAdvisor.intervalMillis(anyLong(), anyLong()))
+                .thenAnswer(invocation -> invocation.getArgument(1));
+    }
+
+    @Test
+    void runMonitoring_ShouldNotCallService_WhenNothingScheduled() {
+        // Act
+        monitoringScheduler.runMonitoring();
+
+        // Assert
+        verify(monitoringService, never()).checkServices(any());
+        verify(monitoringMetrics, never()).recordSchedulerLag(anyLong());
+    }
+
+    @Test
+    void runMonitoring_ShouldCheckService_WhenIntervalElapsed() {
+        // Arrange
+        when(monitoringService.checkServices(any())).thenReturn(Mono.empty());
+        monitoringScheduler.schedule(service(1L, 1, true));
+
+        // Act & Assert
+        await()
+                .atMost(Duration.ofSeconds(3))
+                .pollInterval(Duration.ofMillis(20))
+                .untilAsserted(() -> {
+                    monitoringScheduler.runMonitoring();
+                    verify(monitoringService, atLeastOnce()).checkServices(any());
+                });
+        assert monitoringScheduler.getScheduledCount() == 1;
+        verify(monitoringMetrics, atLeastOnce()).recordSchedulerLag(anyLong());
+        verify(monitoringMetrics, atLeastOnce()).recordSchedulerBatch(anyLong());
+    }
+
+    @Test
+    void runMonitoring_ShouldSkipServices_OwnedByOtherNodes() throws InterruptedException {
+        // Arrange
+        when(clusterMembership.owns(1L)).thenReturn(false);
+        monitoringScheduler.schedule(service(1L, 1, true));
+
+        // Act
+        for (int i = 0; i < 60; i++) {
+            monitoringScheduler.runMonitoring();
+            Thread.sleep(20);
+        }
+
+        // Assert
+        verify(clusterMembership, atLeastOnce()).owns(1L);
+        verify(monitoringService, never()).checkServices(any());
+        assert monitoringScheduler.getScheduledCount() == 1;
+    }
+
+    @Test
+    void onIntervalShortened_ShouldBringNextCheckForward() {
+        // Arrange
+        when(monitoringService.checkServices(any())).thenReturn(Mono.empty());
+        monitoringScheduler.schedule(service(1L, 3600, true));
+
+        // Act
+        monitoringScheduler.onIntervalShortened(1L, 50);
+
+        // Assert
+        await()
+                .atMost(Duration.ofSeconds(3))
+                .pollInterval(Duration.ofMillis(20))
+                .untilAsserted(() -> {
+                    monitoringScheduler.runMonitoring();
+                    verify(monitoringService, atLeastOnce()).checkServices(any());
+                });
+        assert monitoringScheduler.getScheduledCount() == 1;
+    }
+
+    @Test
+    void init_ShouldScheduleServicesFromRegistry() {
+        // Arrange
+        when(serviceRegistry.getAll()).thenReturn(List.of(service(1L, 30, true), service(3L, 600, null)));
+
+        // Act
+        monitoringScheduler.init();
+
+        // Assert
+        verify(serviceRegistry).addListener(monitoringScheduler);
+        verify(checkIntervalAdvisor).addListener(monitoringScheduler);
+        assert monitoringScheduler.getScheduledCount() == 2;
+    }
+
+    @Test
+    void registryEvents_ShouldUpdateSchedule() {
+        // Act
+        monitoringScheduler.onServiceUpdated(service(1L, 30, true));
+        monitoringScheduler.onServiceUpdated(service(2L, 30, true));
+        monitoringScheduler.onServiceUpdated(service(2L, 60, true));
+        monitoringScheduler.onServiceRemoved(1L);
+
+        // Assert
+        assert monitoringScheduler.getScheduledCount() == 1;
+    }
+
+    @Test
+    void updateSchedule_ShouldUnscheduleRemovedServices() {
+        // Arrange
+        monitoringScheduler.updateSchedule(List.of(service(1L, 30, true), service(2L, 30, true)));
+
+        // Act
+        monitoringScheduler.updateSchedule(List.of(service(2L, 30, true)));
+
+        // Assert
+        assert monitoringScheduler.getScheduledCount() == 1;
+    }
+
+    @Test
+    void runMonitoring_ShouldNotFail_WhenChecksFail() {
+        // Arrange
+        when(monitoringService.checkServices(any())).thenReturn(Mono.error(new RuntimeException("Monitoring error")));
+        monitoringScheduler.schedule(service(1L, 1, true));
+
+        // Act & Assert
+        await()
+                .atMost(Duration.ofSeconds(3))
+                .pollInterval(Duration.ofMillis(20))
+                .untilAsserted(() -> {
+                    monitoringScheduler.runMonitoring();
+                    verify(monitoringService, atLeastOnce()).checkServices(any());
+                });
+    }
+
+    private ServiceDefinition service(Long id, int intervalSeconds, Boolean active) {
+        return ServiceDefinition.builder()
+                .id(id)
+                .name("Service " + id)
+                .url("http://service-" + id)
+                .checkType(CheckType.HTTP)
+                .checkIntervalSeconds(intervalSeconds)
+                .isActive(active)
+                .build();
+    }
+}
@@ -1,5 +1,6 @@
 package com.pashkevich.dmonitorapp.controller;
 
+import com.pashkevich.dmonitorapp.adapter.database.DatabaseHealthAdapter;
 import com.pashkevich.dmonitorapp.model.DatabaseConnectionConfig;
 import com.pashkevich.dmonitorapp.repository.DatabaseConnectionRepository;
 import com.pashkevich.dmonitorapp.service.MonitoringService;
@@ -15,6 +16,7 @@ import reactor.test.StepVerifier;
 import java.time.LocalDateTime;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;  // ИСПРАВЛЕНО: правильный импорт
 
 @ExtendWith(MockitoExtension.class)
@@ -26,6 +28,9 @@ public class DatabaseControllerTest {
     @Mock
     private MonitoringService monitoringService;
 
+    @Mock
+    private DatabaseHealthAdapter databaseHealthAdapter;
+
     @InjectMocks
     private DatabaseHealthController databaseHealthController;
 
@@ -210,6 +215,7 @@ public class DatabaseControllerTest {
         StepVerifier.create(result)
                 .expectNext(updatedConfig)
                 .verifyComplete();
+        verify(databaseHealthAdapter).evict(1L);
     }
 
     @Test
@@ -224,6 +230,7 @@ public class DatabaseControllerTest {
         // Assert
         StepVerifier.create(result)
                 .verifyComplete();
+        verify(databaseHealthAdapter).evict(1L);
     }
 
     @Test
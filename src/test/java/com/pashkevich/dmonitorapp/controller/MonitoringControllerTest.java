@@ -1,18 +1,46 @@
 package com.pashkevich.dmonitorapp.controller;
 
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
+import com.pashkevich.dmonitorapp.model.BulkFormat;
+import com.pashkevich.dmonitorapp.model.CheckType;
+import com.pashkevich.dmonitorapp.model.HealthCheckEvent;
+import com.pashkevich.dmonitorapp.model.HealthCheckResult;
+import com.pashkevich.dmonitorapp.model.HealthCheckResultQuery;
+import com.pashkevich.dmonitorapp.model.HealthCheckRollup;
+import com.pashkevich.dmonitorapp.model.RollupGranularity;
 import com.pashkevich.dmonitorapp.model.ServiceDefinition;
+import com.pashkevich.dmonitorapp.model.ServiceSla;
+import com.pashkevich.dmonitorapp.model.ServiceStatus;
+import com.pashkevich.dmonitorapp.model.ServiceStatusSnapshot;
+import com.pashkevich.dmonitorapp.repository.HealthCheckResultHistoryRepository;
 import com.pashkevich.dmonitorapp.service.MonitoringService;
+import com.pashkevich.dmonitorapp.service.bulk.BulkImportService;
+import com.pashkevich.dmonitorapp.service.rollup.HealthCheckRollupService;
+import com.pashkevich.dmonitorapp.service.sla.SlaCalculator;
+import com.pashkevich.dmonitorapp.service.status.ServiceStatusTracker;
+import com.pashkevich.dmonitorapp.service.stream.HealthCheckEventPublisher;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
-import java.util.concurrent.CompletableFuture;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -21,6 +49,27 @@ class MonitoringControllerTest {
     @Mock
     private MonitoringService monitoringService;
 
+    @Mock
+    private ServiceStatusTracker serviceStatusTracker;
+
+    @Mock
+    private HealthCheckRollupService healthCheckRollupService;
+
+    @Mock
+    private HealthCheckEventPublisher healthCheckEventPublisher;
+
+    @Mock
+    private HealthCheckResultHistoryRepository healthCheckResultHistoryRepository;
+
+    @Mock
+    private SlaCalculator slaCalculator;
+
+    @Mock
+    private BulkImportService bulkImportService;
+
+    @Spy
+    private MonitoringProperties monitoringProperties = new MonitoringProperties();
+
     @InjectMocks
     private MonitoringController monitoringController;
 
@@ -38,13 +87,12 @@ class MonitoringControllerTest {
     void performChecks_ShouldReturnResult() {
         // Arrange
         when(monitoringService.performChecks())
-                .thenReturn(CompletableFuture.completedFuture("Checks completed"));
-
-        // Act
-        CompletableFuture<String> result = monitoringController.performChecks();
+                .thenReturn(Mono.just("Checks completed"));
 
-        // Assert
-        assert result.join().equals("Checks completed");
+        // Act & Assert
+        StepVerifier.create(monitoringController.performChecks())
+                .expectNext("Checks completed")
+                .verifyComplete();
     }
 
     @Test
@@ -69,12 +117,213 @@ class MonitoringControllerTest {
     void runChecks_ShouldReturnResult() {
         // Arrange
         when(monitoringService.performChecks())
-                .thenReturn(CompletableFuture.completedFuture("Checks completed"));
+                .thenReturn(Mono.just("Checks completed"));
+
+        // Act & Assert
+        StepVerifier.create(monitoringController.runChecks())
+                .expectNext("Checks completed")
+                .verifyComplete();
+    }
+
+    @Test
+    void createService_ShouldSaveNewService() {
+        // Arrange
+        ServiceDefinition service = ServiceDefinition.builder()
+                .id(99L)
+                .name("New Service")
+                .url("http://new.com")
+                .checkIntervalSeconds(30)
+                .checkType(CheckType.HTTP)
+                .build();
+        ServiceDefinition saved = ServiceDefinition.builder().id(1L).name("New Service").build();
+
+        when(monitoringService.saveServiceDefinition(any(ServiceDefinition.class)))
+                .thenReturn(Mono.just(saved));
+
+        // Act
+        Mono<ServiceDefinition> result = monitoringController.createService(service);
+
+        // Assert
+        StepVerifier.create(result)
+                .expectNext(saved)
+                .verifyComplete();
+        assert service.getId() == null;
+    }
+
+    @Test
+    void updateService_ShouldReturnNotFound_WhenServiceMissing() {
+        // Arrange
+        ServiceDefinition service = ServiceDefinition.builder().name("Missing").build();
+        when(monitoringService.saveServiceDefinition(any(ServiceDefinition.class))).thenReturn(Mono.empty());
+
+        // Act
+        Mono<ServiceDefinition> result = monitoringController.updateService(42L, service);
+
+        // Assert
+        StepVerifier.create(result)
+                .expectErrorMatches(error -> error instanceof ResponseStatusException statusError
+                        && statusError.getStatusCode() == HttpStatus.NOT_FOUND)
+                .verify();
+        assert service.getId() == 42L;
+    }
+
+    @Test
+    void deleteService_ShouldDeactivateService() {
+        // Arrange
+        when(monitoringService.deactivateServiceDefinition(1L))
+                .thenReturn(Mono.empty());
+
+        // Act
+        Mono<Void> result = monitoringController.deleteService(1L);
+
+        // Assert
+        StepVerifier.create(result)
+                .verifyComplete();
+        verify(monitoringService).deactivateServiceDefinition(1L);
+    }
+
+    @Test
+    void getServiceStatuses_ShouldReturnTrackedStatuses() {
+        // Arrange
+        ServiceStatusSnapshot snapshot = ServiceStatusSnapshot.builder()
+                .serviceDefinitionId(1L)
+                .status(ServiceStatus.UP)
+                .build();
+
+        when(serviceStatusTracker.getStatuses()).thenReturn(List.of(snapshot));
+
+        // Act & Assert
+        StepVerifier.create(monitoringController.getServiceStatuses())
+                .expectNext(snapshot)
+                .verifyComplete();
+    }
+
+    @Test
+    void getServiceStatus_ShouldReturnEmpty_WhenServiceNotChecked() {
+        // Arrange
+        when(serviceStatusTracker.getStatus(1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        StepVerifier.create(monitoringController.getServiceStatus(1L))
+                .verifyComplete();
+    }
+
+    @Test
+    void getServiceHistory_ShouldReturnRollups() {
+        // Arrange
+        HealthCheckRollup rollup = HealthCheckRollup.builder()
+                .serviceDefinitionId(1L)
+                .granularity(RollupGranularity.HOUR)
+                .totalCount(120)
+                .build();
+
+        when(healthCheckRollupService.getHistory(1L, RollupGranularity.HOUR, null, null))
+                .thenReturn(Flux.just(rollup));
+
+        // Act & Assert
+        StepVerifier.create(monitoringController.getServiceHistory(1L, RollupGranularity.HOUR, null, null))
+                .expectNext(rollup)
+                .verifyComplete();
+    }
+
+    @Test
+    void streamResults_ShouldPassFiltersToPublisher() {
+        // Arrange
+        HealthCheckEvent event = HealthCheckEvent.builder()
+                .serviceDefinitionId(1L)
+                .checkType(CheckType.HTTP)
+                .status(ServiceStatus.DOWN)
+                .transition(true)
+                .build();
+
+        when(healthCheckEventPublisher.stream(List.of(1L), List.of(CheckType.HTTP), true))
+                .thenReturn(Flux.just(event));
+
+        // Act & Assert
+        StepVerifier.create(monitoringController.streamResults(List.of(1L), List.of(CheckType.HTTP), true))
+                .expectNext(event)
+                .verifyComplete();
+    }
+
+    @Test
+    void checkService_ShouldReturnFreshResult() {
+        // Arrange
+        HealthCheckResult result = HealthCheckResult.builder()
+                .serviceDefinitionId(1L)
+                .status(ServiceStatus.UP)
+                .build();
+
+        when(monitoringService.checkService(1L)).thenReturn(Mono.just(result));
+
+        // Act & Assert
+        StepVerifier.create(monitoringController.checkService(1L))
+                .expectNext(result)
+                .verifyComplete();
+    }
+
+    @Test
+    void getServiceResults_ShouldPassCursorAndFilters() {
+        // Arrange
+        LocalDateTime cursor = LocalDateTime.of(2024, 5, 1, 12, 0);
+        HealthCheckResult result = HealthCheckResult.builder().id(43L).serviceDefinitionId(1L).build();
+        when(healthCheckResultHistoryRepository.findPage(any())).thenReturn(Flux.just(result));
+
+        // Act & Assert
+        StepVerifier.create(monitoringController.getServiceResults(1L, null, null, List.of(ServiceStatus.DOWN),
+                        cursor, 42L, 50))
+                .expectNext(result)
+                .verifyComplete();
+        verify(healthCheckResultHistoryRepository).findPage(argThat((HealthCheckResultQuery query) ->
+                query.getServiceDefinitionId().equals(1L)
+                        && query.getStatuses().equals(List.of(ServiceStatus.DOWN))
+                        && query.getAfterCheckedAt().equals(cursor)
+                        && query.getAfterId().equals(42L)
+                        && query.getLimit() == 50));
+    }
+
+    @Test
+    void getServiceResults_ShouldLimitPageSize() {
+        // Arrange
+        when(healthCheckResultHistoryRepository.findPage(any())).thenReturn(Flux.empty());
 
         // Act
-        CompletableFuture<String> result = monitoringController.runChecks();
+        monitoringController.getServiceResults(1L, null, null, null, null, null, 1_000_000).blockLast();
+        monitoringController.getServiceResults(1L, null, null, null, null, null, null).blockLast();
 
         // Assert
-        assert result.join().equals("Checks completed");
+        verify(healthCheckResultHistoryRepository).findPage(argThat((HealthCheckResultQuery query) ->
+                query.getLimit() == 10000));
+        verify(healthCheckResultHistoryRepository).findPage(argThat((HealthCheckResultQuery query) ->
+                query.getLimit() == 1000));
+    }
+
+    @Test
+    void getServiceSla_ShouldReturnCalculatedSla() {
+        // Arrange
+        ServiceSla sla = ServiceSla.builder().serviceDefinitionId(1L).periods(List.of()).build();
+        when(slaCalculator.getSla(1L)).thenReturn(Optional.of(sla));
+        when(slaCalculator.getSla(2L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        StepVerifier.create(monitoringController.getServiceSla(1L))
+                .expectNext(sla)
+                .verifyComplete();
+        StepVerifier.create(monitoringController.getServiceSla(2L))
+                .verifyComplete();
+    }
+
+    @Test
+    void exportServices_ShouldStreamLinesWithFormatContentType() {
+        // Arrange
+        when(bulkImportService.exportServices(BulkFormat.CSV)).thenReturn(Flux.just("name,url\n", "a,http://a\n"));
+
+        // Act
+        ResponseEntity<Flux<DataBuffer>> response = monitoringController.exportServices(BulkFormat.CSV);
+
+        // Assert
+        assert BulkFormat.CSV.getMediaType().equals(response.getHeaders().getContentType());
+        StepVerifier.create(response.getBody().map(buffer -> buffer.toString(StandardCharsets.UTF_8)))
+                .expectNext("name,url\n", "a,http://a\n")
+                .verifyComplete();
     }
 }
@@ -3,26 +3,37 @@ package com.pashkevich.dmonitorapp.service;
 import com.pashkevich.dmonitorapp.adapter.HealthCheckAdapter;
 import com.pashkevich.dmonitorapp.adapter.database.DatabaseHealthAdapter;
 import com.pashkevich.dmonitorapp.adapter.http.HttpHealthAdapter;
+import com.pashkevich.dmonitorapp.adapter.kafka.KafkaHealthAdapter;
+import com.pashkevich.dmonitorapp.adapter.tcp.TcpHealthAdapter;
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
 import com.pashkevich.dmonitorapp.model.*;
 import com.pashkevich.dmonitorapp.repository.DatabaseConnectionRepository;
-import com.pashkevich.dmonitorapp.repository.HealthCheckResultRepository;
 import com.pashkevich.dmonitorapp.repository.ServiceDefinitionRepository;
+import com.pashkevich.dmonitorapp.service.breaker.ServiceCircuitBreaker;
+import com.pashkevich.dmonitorapp.service.concurrency.CheckConcurrencyLimiter;
+import com.pashkevich.dmonitorapp.service.metrics.MonitoringMetrics;
+import com.pashkevich.dmonitorapp.service.persistence.HealthCheckResultWriter;
+import com.pashkevich.dmonitorapp.service.registry.ServiceRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 import reactor.test.StepVerifier;
 
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
-import static reactor.core.publisher.Flux.just;
 
 @ExtendWith(MockitoExtension.class)
 class MonitoringServiceTest {
@@ -31,7 +42,7 @@ class MonitoringServiceTest {
     private ServiceDefinitionRepository serviceDefinitionRepository;
 
     @Mock
-    private HealthCheckResultRepository healthCheckResultRepository;
+    private HealthCheckResultWriter healthCheckResultWriter;
 
     @Mock
     private DatabaseConnectionRepository databaseConnectionRepository;
@@ -42,16 +53,41 @@ class MonitoringServiceTest {
     @Mock
     private DatabaseHealthAdapter databaseHealthAdapter;
 
+    @Mock
+    private TcpHealthAdapter tcpHealthAdapter;
+
+    @Mock
+    private KafkaHealthAdapter kafkaHealthAdapter;
+
+    @Mock
+    private ServiceRegistry serviceRegistry;
+
+    @Mock
+    private HealthCheckResultListener resultListener;
+
+    @Spy
+    private List<HealthCheckResultListener> resultListeners = new ArrayList<>();
+
+    @Mock
+    private MonitoringMetrics monitoringMetrics;
+
+    @Spy
+    private CheckConcurrencyLimiter checkConcurrencyLimiter = new CheckConcurrencyLimiter(new MonitoringProperties());
+
+    @Spy
+    private ServiceCircuitBreaker serviceCircuitBreaker = new ServiceCircuitBreaker(null, new MonitoringProperties());
+
     @InjectMocks
     private MonitoringService monitoringService;
 
     @BeforeEach
     void setUp() {
+        resultListeners.add(resultListener);
         monitoringService.initAdapters();
     }
 
     @Test
-    void performChecks_ShouldProcessAllServices() throws ExecutionException, InterruptedException {
+    void performChecks_ShouldProcessAllServices() {
         // Arrange
         ServiceDefinition httpService = ServiceDefinition.builder()
                 .id(1L)
@@ -81,8 +117,8 @@ class MonitoringServiceTest {
                 .responseTimeMs(200L)
                 .build();
 
-        when(serviceDefinitionRepository.findAll())
-                .thenReturn(just(httpService, dbService));
+        when(serviceRegistry.getAll())
+                .thenReturn(List.of(httpService, dbService));
 
         when(httpHealthAdapter.checkHealth(any(ServiceDefinition.class)))
                 .thenReturn(Mono.just(httpResult));
@@ -90,23 +126,24 @@ class MonitoringServiceTest {
         when(databaseHealthAdapter.checkHealth(any(ServiceDefinition.class)))
                 .thenReturn(Mono.just(dbResult));
 
-        when(healthCheckResultRepository.save(any(HealthCheckResult.class)))
-                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
-
-        // Act
-        CompletableFuture<String> future = monitoringService.performChecks();
-        String result = future.get();
+        when(healthCheckResultWriter.write(any(HealthCheckResult.class)))
+                .thenReturn(Mono.empty());
 
-        // Assert
-        assert result.equals("Проверки успешно завершены");
-        verify(serviceDefinitionRepository, times(1)).findAll();
+        // Act & Assert
+        StepVerifier.create(monitoringService.performChecks())
+                .expectNext("Проверки успешно завершены")
+                .verifyComplete();
+        verify(serviceRegistry, times(1)).getAll();
         verify(httpHealthAdapter, times(1)).checkHealth(httpService);
         verify(databaseHealthAdapter, times(1)).checkHealth(dbService);
-        verify(healthCheckResultRepository, times(2)).save(any(HealthCheckResult.class));
+        verify(healthCheckResultWriter, times(2)).write(any(HealthCheckResult.class));
+        verify(resultListener).onResult(httpService, httpResult);
+        verify(resultListener).onResult(dbService, dbResult);
+        verify(monitoringMetrics).recordCycle(anyLong());
     }
 
     @Test
-    void performChecks_ShouldSkipService_WhenAdapterNotFound() throws ExecutionException, InterruptedException {
+    void performChecks_ShouldSkipService_WhenAdapterNotFound() {
         // Arrange
         ServiceDefinition unknownService = ServiceDefinition.builder()
                 .id(1L)
@@ -115,20 +152,18 @@ class MonitoringServiceTest {
                 .isActive(true)
                 .build();
 
-        when(serviceDefinitionRepository.findAll())
-                .thenReturn(just(unknownService));
+        when(serviceRegistry.getAll())
+                .thenReturn(List.of(unknownService));
 
-        // Act
-        CompletableFuture<String> future = monitoringService.performChecks();
-        String result = future.get();
-
-        // Assert
-        assert result.equals("Проверки успешно завершены");
-        verify(healthCheckResultRepository, never()).save(any());
+        // Act & Assert
+        StepVerifier.create(monitoringService.performChecks())
+                .expectNext("Проверки успешно завершены")
+                .verifyComplete();
+        verify(healthCheckResultWriter, never()).write(any());
     }
 
     @Test
-    void performChecks_ShouldHandleErrors_WhenSevFails() throws ExecutionException, InterruptedException {
+    void performChecks_ShouldHandleErrors_WhenSevFails() {
         // Arrange
         ServiceDefinition httpService = ServiceDefinition.builder()
                 .id(1L)
@@ -143,22 +178,20 @@ class MonitoringServiceTest {
                 .status(ServiceStatus.UP)
                 .build();
 
-        when(serviceDefinitionRepository.findAll())
-                .thenReturn(just(httpService));
+        when(serviceRegistry.getAll())
+                .thenReturn(List.of(httpService));
 
         when(httpHealthAdapter.checkHealth(any(ServiceDefinition.class)))
                 .thenReturn(Mono.just(httpResult));
 
-        when(healthCheckResultRepository.save(any(HealthCheckResult.class)))
+        when(healthCheckResultWriter.write(any(HealthCheckResult.class)))
                 .thenReturn(Mono.error(new RuntimeException("Database error")));
 
-        // Act
-        CompletableFuture<String> future = monitoringService.performChecks();
-        String result = future.get();
-
-        // Assert
-        assert result.equals("Проверки успешно завершены");
-        verify(healthCheckResultRepository, times(1)).save(any());
+        // Act & Assert
+        StepVerifier.create(monitoringService.performChecks())
+                .expectNext("Проверки успешно завершены")
+                .verifyComplete();
+        verify(healthCheckResultWriter, times(1)).write(any());
     }
 
     @Test
@@ -167,8 +200,8 @@ class MonitoringServiceTest {
         ServiceDefinition service1 = ServiceDefinition.builder().id(1L).name("Service 1").build();
         ServiceDefinition service2 = ServiceDefinition.builder().id(2L).name("Service 2").build();
 
-        when(serviceDefinitionRepository.findAll())
-                .thenReturn(Flux.just(service1, service2));
+        when(serviceRegistry.getAll())
+                .thenReturn(List.of(service1, service2));
 
         // Act & Assert
         Flux<ServiceDefinition> result = monitoringService.getServiceDefinitions();
@@ -179,41 +212,219 @@ class MonitoringServiceTest {
                 .verifyComplete();
     }
 
-}
-
-
-
-
-
-
-
-
-
-
-
-
-
+    @Test
+    void saveServiceDefinition_ShouldUpdateRegistry() {
+        // Arrange
+        ServiceDefinition service = ServiceDefinition.builder()
+                .name("New Service")
+                .url("http://new.com")
+                .checkIntervalSeconds(30)
+                .checkType(CheckType.HTTP)
+                .build();
+        ServiceDefinition saved = ServiceDefinition.builder().id(5L).name("New Service").isActive(true).build();
 
+        when(serviceDefinitionRepository.save(any(ServiceDefinition.class)))
+                .thenReturn(Mono.just(saved));
 
+        // Act & Assert
+        StepVerifier.create(monitoringService.saveServiceDefinition(service))
+                .expectNext(saved)
+                .verifyComplete();
+        assert service.getIsActive();
+        assert service.getUpdatedAt() != null;
+        verify(serviceRegistry).upsert(saved);
+    }
 
+    @Test
+    void saveServiceDefinition_ShouldKeepCreatedAt_OnUpdate() {
+        // Arrange
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 12, 0);
+        ServiceDefinition existing = ServiceDefinition.builder().id(5L).name("Service").createdAT(createdAt).build();
+        ServiceDefinition update = ServiceDefinition.builder()
+                .id(5L)
+                .name("Service")
+                .url("http://updated.com")
+                .checkIntervalSeconds(60)
+                .checkType(CheckType.HTTP)
+                .build();
 
+        when(serviceDefinitionRepository.findById(5L)).thenReturn(Mono.just(existing));
+        when(serviceDefinitionRepository.save(any(ServiceDefinition.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
 
+        // Act & Assert
+        StepVerifier.create(monitoringService.saveServiceDefinition(update))
+                .assertNext(saved -> {
+                    assert saved.getCreatedAT().equals(createdAt);
+                    assert saved.getUpdatedAt().isAfter(createdAt);
+                })
+                .verifyComplete();
+        verify(serviceRegistry).upsert(update);
+    }
 
+    @Test
+    void saveServiceDefinition_ShouldReturnEmpty_WhenUpdatedServiceNotFound() {
+        // Arrange
+        ServiceDefinition update = ServiceDefinition.builder().id(42L).name("Missing").build();
+        when(serviceDefinitionRepository.findById(42L)).thenReturn(Mono.empty());
 
+        // Act & Assert
+        StepVerifier.create(monitoringService.saveServiceDefinition(update))
+                .verifyComplete();
+        verify(serviceDefinitionRepository, never()).save(any(ServiceDefinition.class));
+        verifyNoInteractions(serviceRegistry);
+    }
 
+    @Test
+    void deactivateServiceDefinition_ShouldRemoveFromRegistry() {
+        // Arrange
+        ServiceDefinition service = ServiceDefinition.builder().id(5L).name("Service").isActive(true).build();
 
+        when(serviceDefinitionRepository.findById(5L)).thenReturn(Mono.just(service));
+        when(serviceDefinitionRepository.save(any(ServiceDefinition.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
 
+        // Act & Assert
+        StepVerifier.create(monitoringService.deactivateServiceDefinition(5L))
+                .verifyComplete();
+        assert !service.getIsActive();
+        verify(serviceRegistry).remove(5L);
+    }
 
+    @Test
+    void performChecks_ShouldQueueSingleFollowUp_WhenCycleRunning() {
+        // Arrange
+        ServiceDefinition httpService = ServiceDefinition.builder()
+                .id(1L)
+                .name("HTTP Service")
+                .checkType(CheckType.HTTP)
+                .build();
+        HealthCheckResult httpResult = HealthCheckResult.builder()
+                .serviceDefinitionId(1L)
+                .status(ServiceStatus.UP)
+                .build();
+        Sinks.One<HealthCheckResult> probe = Sinks.one();
 
+        when(serviceRegistry.getAll()).thenReturn(List.of(httpService));
+        when(httpHealthAdapter.checkHealth(httpService)).thenReturn(probe.asMono());
+        when(healthCheckResultWriter.write(any(HealthCheckResult.class))).thenReturn(Mono.empty());
 
+        // Act
+        Mono<String> first = monitoringService.performChecks();
+        Mono<String> second = monitoringService.performChecks();
+        Mono<String> third = monitoringService.performChecks();
 
+        // Assert
+        StepVerifier.create(Mono.zip(first, second, third))
+                .then(() -> probe.tryEmitValue(httpResult))
+                .expectNextCount(1)
+                .verifyComplete();
+        verify(httpHealthAdapter, times(2)).checkHealth(httpService);
+        verify(serviceRegistry, times(2)).getAll();
+    }
 
+    @Test
+    void checkService_ShouldCoalesceConcurrentRequests() {
+        // Arrange
+        ServiceDefinition httpService = ServiceDefinition.builder()
+                .id(1L)
+                .name("HTTP Service")
+                .checkType(CheckType.HTTP)
+                .build();
+        HealthCheckResult httpResult = HealthCheckResult.builder()
+                .serviceDefinitionId(1L)
+                .status(ServiceStatus.UP)
+                .build();
+        Sinks.One<HealthCheckResult> probe = Sinks.one();
 
+        when(serviceRegistry.get(1L)).thenReturn(Optional.of(httpService));
+        when(httpHealthAdapter.checkHealth(httpService))
+                .thenReturn(probe.asMono())
+                .thenReturn(Mono.just(httpResult));
+        when(healthCheckResultWriter.write(any(HealthCheckResult.class))).thenReturn(Mono.empty());
 
+        // Act & Assert
+        StepVerifier.create(Mono.zip(monitoringService.checkService(1L), monitoringService.checkService(1L)))
+                .then(() -> probe.tryEmitValue(httpResult))
+                .assertNext(results -> {
+                    assert results.getT1() == httpResult;
+                    assert results.getT2() == httpResult;
+                })
+                .verifyComplete();
+        verify(httpHealthAdapter, times(1)).checkHealth(httpService);
 
+        StepVerifier.create(monitoringService.checkService(1L))
+                .expectNext(httpResult)
+                .verifyComplete();
+        verify(httpHealthAdapter, times(2)).checkHealth(httpService);
+    }
 
+    @Test
+    void checkService_ShouldReturnEmpty_WhenServiceNotFound() {
+        // Arrange
+        when(serviceRegistry.get(42L)).thenReturn(Optional.empty());
+        when(serviceDefinitionRepository.findById(42L)).thenReturn(Mono.empty());
 
+        // Act & Assert
+        StepVerifier.create(monitoringService.checkService(42L))
+                .verifyComplete();
+    }
 
+    @Test
+    void checkServices_ShouldCheckHealthyTarget_WhenOtherTargetSaturated() {
+        // Arrange
+        MonitoringProperties properties = new MonitoringProperties();
+        properties.getConcurrency().setMaxConcurrentChecks(2);
+        properties.getConcurrency().setMaxPerTarget(1);
+        MonitoringService service = new MonitoringService(serviceDefinitionRepository, databaseConnectionRepository,
+                httpHealthAdapter, databaseHealthAdapter, tcpHealthAdapter, kafkaHealthAdapter,
+                healthCheckResultWriter, new CheckConcurrencyLimiter(properties), serviceCircuitBreaker,
+                serviceRegistry, resultListeners, monitoringMetrics);
+        service.initAdapters();
+
+        List<ServiceDefinition> slowServices = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            slowServices.add(ServiceDefinition.builder()
+                    .id(id)
+                    .name("Slow " + id)
+                    .url("http://slow-host/health/" + id)
+                    .checkType(CheckType.HTTP)
+                    .build());
+        }
+        ServiceDefinition healthyService = ServiceDefinition.builder()
+                .id(10L)
+                .name("Healthy")
+                .url("http://healthy-host/health")
+                .checkType(CheckType.HTTP)
+                .build();
+        HealthCheckResult healthyResult = HealthCheckResult.builder()
+                .serviceDefinitionId(10L)
+                .status(ServiceStatus.UP)
+                .build();
+        Sinks.Empty<HealthCheckResult> slowTarget = Sinks.empty();
 
+        when(httpHealthAdapter.checkHealth(any(ServiceDefinition.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0) == healthyService
+                        ? Mono.just(healthyResult)
+                        : slowTarget.asMono());
+        when(healthCheckResultWriter.write(any(HealthCheckResult.class))).thenReturn(Mono.empty());
 
+        List<ServiceDefinition> services = new ArrayList<>(slowServices);
+        services.add(healthyService);
 
+        // Act & Assert
+        StepVerifier.create(service.checkServices(Flux.fromIterable(services)))
+                .then(() -> {
+                    // Цель slow-host занята одной проверкой, остальные ждут ее разрешения,
+                    // не мешая проверке другой цели
+                    verify(httpHealthAdapter, times(1)).checkHealth(slowServices.get(0));
+                    verify(httpHealthAdapter).checkHealth(healthyService);
+                    verify(resultListener).onResult(healthyService, healthyResult);
+                    slowTarget.tryEmitEmpty();
+                })
+                .verifyComplete();
+        verify(httpHealthAdapter, times(6)).checkHealth(any(ServiceDefinition.class));
+        // Длительность цикла пишет только полный цикл performChecks
+        verify(monitoringMetrics, never()).recordCycle(anyLong());
+    }
+}
@@ -0,0 +1,143 @@
+package com.pashkevich.dmonitorapp.service.breaker;
+
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
+import com.pashkevich.dmonitorapp.model.BreakerState;
+import com.pashkevich.dmonitorapp.model.CheckType;
+import com.pashkevich.dmonitorapp.model.HealthCheckResult;
+import com.pashkevich.dmonitorapp.model.ServiceDefinition;
+import com.pashkevich.dmonitorapp.model.ServiceStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+class ServiceCircuitBreakerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final List<ServiceDefinition> probed = new ArrayList<>();
+    private ServiceCircuitBreaker breaker;
+    private ServiceStatus targetStatus;
+
+    private final ServiceDefinition service = ServiceDefinition.builder()
+            .id(1L)
+            .name("Flaky")
+            .url("http://flaky")
+            .checkType(CheckType.HTTP)
+            .checkIntervalSeconds(30)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        MonitoringProperties properties = new MonitoringProperties();
+        properties.getBreaker().setFailureThreshold(3);
+        properties.getBreaker().setProbeTimeoutMs(1000);
+        properties.getBreaker().setInitialBackoffMs(10_000);
+        properties.getBreaker().setMaxBackoffMs(30_000);
+        breaker = new ServiceCircuitBreaker(null, properties, clock::get);
+        targetStatus = ServiceStatus.DOWN;
+    }
+
+    @Test
+    void guard_ShouldOpen_AfterConsecutiveFailures() {
+        // Act
+        List<HealthCheckResult> results = check(4);
+
+        // Assert
+        assert probed.size() == 3 : "После размыкания цель не должна проверяться";
+        assert results.get(2).getBreakerState() == BreakerState.CLOSED;
+        assert results.get(3).getBreakerState() == BreakerState.OPEN;
+        assert results.get(3).getStatus() == ServiceStatus.DOWN;
+        assert results.get(3).getMessage().startsWith("Circuit open");
+        assert breaker.getState(1L) == BreakerState.OPEN;
+    }
+
+    @Test
+    void guard_ShouldProbeWithShortTimeout_AfterBackoff() {
+        // Arrange
+        check(3);
+        advance(10_000);
+
+        // Act
+        HealthCheckResult result = check(1).get(0);
+
+        // Assert
+        assert result.getBreakerState() == BreakerState.HALF_OPEN;
+        assert probed.size() == 4;
+        assert probed.get(3).getTimeoutMs() == 1000;
+        assert service.getTimeoutMs() == null : "Исходное описание сервиса не должно меняться";
+    }
+
+    @Test
+    void guard_ShouldDoubleBackoff_WhenTrialFails() {
+        // Arrange
+        check(3);
+        advance(10_000);
+        check(1);
+
+        // Act
+        advance(10_000);
+        check(1);
+        advance(10_000);
+        check(1);
+
+        // Assert
+        assert probed.size() == 5 : "Backoff после неудачной пробы должен удвоиться: " + probed.size();
+        assert breaker.getState(1L) == BreakerState.OPEN;
+    }
+
+    @Test
+    void guard_ShouldClose_WhenTrialSucceeds() {
+        // Arrange
+        check(3);
+        advance(10_000);
+        targetStatus = ServiceStatus.UP;
+
+        // Act
+        check(1);
+        HealthCheckResult next = check(1).get(0);
+
+        // Assert
+        assert breaker.getState(1L) == BreakerState.CLOSED;
+        assert next.getBreakerState() == BreakerState.CLOSED;
+        assert probed.get(4).getTimeoutMs() == null;
+    }
+
+    @Test
+    void guard_ShouldResetFailures_WhenServiceRecovers() {
+        // Act
+        check(2);
+        targetStatus = ServiceStatus.UP;
+        check(1);
+        targetStatus = ServiceStatus.DOWN;
+        check(2);
+
+        // Assert
+        assert breaker.getState(1L) == BreakerState.CLOSED;
+        assert probed.size() == 5;
+    }
+
+    private List<HealthCheckResult> check(int times) {
+        Function<ServiceDefinition, Mono<HealthCheckResult>> probe = definition -> Mono.fromSupplier(() -> {
+            probed.add(definition);
+            return HealthCheckResult.builder()
+                    .serviceDefinitionId(definition.getId())
+                    .status(targetStatus)
+                    .message("Connection refused")
+                    .build();
+        });
+        List<HealthCheckResult> results = new ArrayList<>();
+        for (int i = 0; i < times; i++) {
+            results.add(breaker.guard(service, probe).block());
+        }
+        return results;
+    }
+
+    private void advance(long millis) {
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+}
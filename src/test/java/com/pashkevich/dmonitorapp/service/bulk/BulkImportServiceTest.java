@@ -0,0 +1,307 @@
+package com.pashkevich.dmonitorapp.service.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pashkevich.dmonitorapp.adapter.database.DatabaseHealthAdapter;
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
+import com.pashkevich.dmonitorapp.model.BulkFormat;
+import com.pashkevich.dmonitorapp.model.BulkImportReport;
+import com.pashkevich.dmonitorapp.model.CheckType;
+import com.pashkevich.dmonitorapp.model.HttpProbeMethod;
+import com.pashkevich.dmonitorapp.model.ServiceDefinition;
+import com.pashkevich.dmonitorapp.repository.DatabaseConnectionBulkRepository;
+import com.pashkevich.dmonitorapp.repository.DatabaseConnectionRepository;
+import com.pashkevich.dmonitorapp.repository.ServiceDefinitionBulkRepository;
+import com.pashkevich.dmonitorapp.repository.ServiceDefinitionRepository;
+import com.pashkevich.dmonitorapp.service.registry.ServiceRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkImportServiceTest {
+
+    @Mock
+    private ServiceDefinitionRepository serviceDefinitionRepository;
+
+    @Mock
+    private ServiceDefinitionBulkRepository serviceDefinitionBulkRepository;
+
+    @Mock
+    private DatabaseConnectionRepository databaseConnectionRepository;
+
+    @Mock
+    private DatabaseConnectionBulkRepository databaseConnectionBulkRepository;
+
+    @Mock
+    private ServiceRegistry serviceRegistry;
+
+    @Mock
+    private DatabaseHealthAdapter databaseHealthAdapter;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final AtomicLong ids = new AtomicLong();
+    private MonitoringProperties properties;
+    private BulkImportService bulkImportService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new MonitoringProperties();
+        properties.getBulk().setBatchSize(2);
+        properties.getBulk().setWriteConcurrency(1);
+        bulkImportService = new BulkImportService(serviceDefinitionRepository, serviceDefinitionBulkRepository,
+                databaseConnectionRepository, databaseConnectionBulkRepository, serviceRegistry,
+                databaseHealthAdapter, objectMapper, Validation.buildDefaultValidatorFactory().getValidator(),
+                properties);
+        lenient().when(serviceDefinitionBulkRepository.upsertAll(anyList())).thenAnswer(invocation -> {
+            List<ServiceDefinition> batch = invocation.getArgument(0);
+            return Flux.fromIterable(batch).map(service -> service.toBuilder().id(ids.incrementAndGet()).build());
+        });
+    }
+
+    @Test
+    void importServices_ShouldReportInvalidRecords_AndSaveValidOnesInBatches() {
+        // Arrange
+        String body = """
+                {"name":"a","url":"http://a","checkIntervalSeconds":30,"checkType":"HTTP"}
+                {"name":"b","url":"http://b","checkIntervalSeconds":30,"checkType":"HTTP","unknown":1}
+                {"name":"broken",
+                {"name":"c","checkIntervalSeconds":30,"checkType":"HTTP"}
+
+                {"name":"a","url":"http://a2","checkIntervalSeconds":60,"checkType":"HTTP"}
+                {"name":"d","url":"http://d","checkIntervalSeconds":30,"checkType":"TCP","isActive":false}
+                """;
+
+        // Act
+        BulkImportReport report = bulkImportService.importServices(chunks(body), BulkFormat.NDJSON).block();
+
+        // Assert
+        assert report.getReceived() == 6 : report;
+        assert report.getImported() == 3 : report;
+        assert report.getFailed() == 3 : report;
+        assert !report.isErrorsTruncated();
+        assert report.getErrors().stream().map(BulkImportReport.RecordError::getLine).toList()
+                .equals(List.of(3L, 4L, 6L)) : report.getErrors();
+        assert report.getErrors().get(1).getName().equals("c");
+        assert report.getErrors().get(1).getMessage().startsWith("url:");
+        assert report.getErrors().get(2).getMessage().equals("Duplicate name in import");
+        verify(serviceDefinitionBulkRepository, times(2)).upsertAll(anyList());
+        verify(serviceRegistry, times(2)).upsertAll(anyList());
+    }
+
+    @Test
+    void importServices_ShouldParseCsvWithHeader() {
+        // Arrange
+        String body = "name,url,checkIntervalSeconds,checkType,httpMethod,expectedContent,timeoutMs\n"
+                + "api,http://api/health,15,HTTP,GET,\"status,\"\"ok\"\"\",\n"
+                + "db,r2dbc:postgresql://db,60,DATABASE,,,2000\n"
+                + "bad,http://bad,often,HTTP\n";
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ServiceDefinition>> captor = ArgumentCaptor.forClass(List.class);
+
+        // Act
+        BulkImportReport report = bulkImportService.importServices(chunks(body), BulkFormat.CSV).block();
+
+        // Assert
+        assert report.getImported() == 2 : report;
+        assert report.getFailed() == 1 : report;
+        assert report.getErrors().get(0).getLine() == 4;
+        verify(serviceDefinitionBulkRepository).upsertAll(captor.capture());
+        ServiceDefinition api = captor.getValue().get(0);
+        assert api.getCheckIntervalSeconds() == 15;
+        assert api.getHttpMethod() == HttpProbeMethod.GET;
+        assert api.getExpectedContent().equals("status,\"ok\"");
+        assert api.getTimeoutMs() == null;
+        assert api.getIsActive();
+        ServiceDefinition db = captor.getValue().get(1);
+        assert db.getCheckType() == CheckType.DATABASE;
+        assert db.getTimeoutMs() == 2000;
+    }
+
+    @Test
+    void importServices_ShouldReportWholeBatch_WhenUpsertFails() {
+        // Arrange
+        when(serviceDefinitionBulkRepository.upsertAll(anyList()))
+                .thenReturn(Flux.error(new IllegalStateException("violates foreign key constraint")));
+        String body = """
+                {"name":"a","url":"http://a","checkIntervalSeconds":30,"checkType":"HTTP"}
+                {"name":"b","url":"http://b","checkIntervalSeconds":30,"checkType":"DATABASE","databaseConfigId":9}
+                """;
+
+        // Act & Assert
+        StepVerifier.create(bulkImportService.importServices(chunks(body), BulkFormat.NDJSON))
+                .assertNext(report -> {
+                    assert report.getImported() == 0;
+                    assert report.getFailed() == 2;
+                    assert report.getErrors().get(1).getMessage().equals("violates foreign key constraint");
+                })
+                .verifyComplete();
+        verifyNoInteractions(serviceRegistry);
+    }
+
+    @Test
+    void importServices_ShouldReportOnlyRejectedRecord_WhenBatchFails() {
+        // Arrange
+        properties.getBulk().setBatchSize(4);
+        when(serviceDefinitionBulkRepository.upsertAll(anyList())).thenAnswer(invocation -> {
+            List<ServiceDefinition> batch = invocation.getArgument(0);
+            if (batch.stream().anyMatch(service -> service.getDatabaseConfigId() != null)) {
+                return Flux.error(new DataIntegrityViolationException("violates foreign key constraint"));
+            }
+            return Flux.fromIterable(batch);
+        });
+        String body = """
+                {"name":"a","url":"http://a","checkIntervalSeconds":30,"checkType":"HTTP"}
+                {"name":"b","url":"http://b","checkIntervalSeconds":30,"checkType":"DATABASE","databaseConfigId":9}
+                {"name":"c","url":"http://c","checkIntervalSeconds":30,"checkType":"HTTP"}
+                {"name":"d","url":"http://d","checkIntervalSeconds":30,"checkType":"HTTP"}
+                """;
+
+        // Act
+        BulkImportReport report = bulkImportService.importServices(chunks(body), BulkFormat.NDJSON).block();
+
+        // Assert
+        assert report.getImported() == 3 : report;
+        assert report.getFailed() == 1 : report;
+        assert report.getErrors().get(0).getLine() == 2;
+        assert report.getErrors().get(0).getName().equals("b");
+    }
+
+    @Test
+    void importServices_ShouldNotSplitBatch_WhenDatabaseUnavailable() {
+        // Arrange
+        when(serviceDefinitionBulkRepository.upsertAll(anyList()))
+                .thenReturn(Flux.error(new DataAccessResourceFailureException("Connection refused")));
+        String body = """
+                {"name":"a","url":"http://a","checkIntervalSeconds":30,"checkType":"HTTP"}
+                {"name":"b","url":"http://b","checkIntervalSeconds":30,"checkType":"HTTP"}
+                """;
+
+        // Act
+        BulkImportReport report = bulkImportService.importServices(chunks(body), BulkFormat.NDJSON).block();
+
+        // Assert
+        assert report.getFailed() == 2 : report;
+        verify(serviceDefinitionBulkRepository, times(1)).upsertAll(anyList());
+    }
+
+    @Test
+    void importConnections_ShouldEvictCachedConfigs() {
+        // Arrange
+        when(databaseConnectionBulkRepository.upsertAll(anyList())).thenReturn(Flux.just(7L));
+        String body = "{\"name\":\"main\",\"connectionUrl\":\"r2dbc:postgresql://db/main\",\"username\":\"u\","
+                + "\"password\":\"p\",\"driverClassName\":\"org.postgresql.Driver\",\"isActive\":true}\n"
+                + "{\"name\":\"no-user\",\"connectionUrl\":\"r2dbc:postgresql://db/x\",\"isActive\":true}\n";
+
+        // Act
+        BulkImportReport report = bulkImportService.importConnections(chunks(body), BulkFormat.NDJSON).block();
+
+        // Assert
+        assert report.getImported() == 1 : report;
+        assert report.getFailed() == 1 : report;
+        verify(databaseHealthAdapter).evict(7L);
+    }
+
+    @Test
+    void exportServices_ShouldWriteCsvHeaderAndQuotedValues() {
+        // Arrange
+        when(serviceDefinitionRepository.findAll()).thenReturn(Flux.just(ServiceDefinition.builder()
+                .id(1L)
+                .name("api")
+                .url("http://api")
+                .checkIntervalSeconds(30)
+                .checkType(CheckType.HTTP)
+                .expectedContent("a,b")
+                .isActive(true)
+                .build()));
+
+        // Act & Assert
+        StepVerifier.create(bulkImportService.exportServices(BulkFormat.CSV))
+                .expectNext("name,url,checkIntervalSeconds,checkType,databaseConfigId,httpMethod,expectedContent,"
+                        + "timeoutMs,isActive\n")
+                .expectNext("api,http://api,30,HTTP,,,\"a,b\",,true\n")
+                .verifyComplete();
+    }
+
+    @Test
+    void exportServices_ShouldRoundTripThroughNdjsonImport() {
+        // Arrange
+        ServiceDefinition service = ServiceDefinition.builder()
+                .id(5L)
+                .name("api")
+                .url("http://api")
+                .checkIntervalSeconds(30)
+                .checkType(CheckType.HTTP)
+                .httpMethod(HttpProbeMethod.HEAD)
+                .isActive(true)
+                .build();
+        when(serviceDefinitionRepository.findAll()).thenReturn(Flux.just(service));
+        String exported = String.join("", bulkImportService.exportServices(BulkFormat.NDJSON).collectList().block());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ServiceDefinition>> captor = ArgumentCaptor.forClass(List.class);
+
+        // Act
+        BulkImportReport report = bulkImportService.importServices(chunks(exported), BulkFormat.NDJSON).block();
+
+        // Assert
+        assert report.getImported() == 1 : report;
+        verify(serviceDefinitionBulkRepository).upsertAll(captor.capture());
+        assert captor.getValue().get(0).equals(service);
+    }
+
+    @Test
+    void exportServices_ShouldRoundTripMultilineValuesThroughCsvImport() {
+        // Arrange
+        ServiceDefinition service = ServiceDefinition.builder()
+                .name("api")
+                .url("http://api")
+                .checkIntervalSeconds(30)
+                .checkType(CheckType.HTTP)
+                .expectedContent("{\"status\":\r\n  \"ok\"}\\n \\d+")
+                .isActive(true)
+                .build();
+        when(serviceDefinitionRepository.findAll()).thenReturn(Flux.just(service));
+        String exported = String.join("", bulkImportService.exportServices(BulkFormat.CSV).collectList().block());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ServiceDefinition>> captor = ArgumentCaptor.forClass(List.class);
+
+        // Act
+        BulkImportReport report = bulkImportService.importServices(chunks(exported), BulkFormat.CSV).block();
+
+        // Assert
+        assert exported.lines().count() == 2 : exported;
+        assert report.getImported() == 1 : report;
+        verify(serviceDefinitionBulkRepository).upsertAll(captor.capture());
+        assert captor.getValue().get(0).getExpectedContent().equals(service.getExpectedContent());
+    }
+
+    // Границы кусков не совпадают со строками, как при чтении тела запроса из сети
+    private Flux<DataBuffer> chunks(String body) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        List<DataBuffer> buffers = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += 7) {
+            byte[] chunk = new byte[Math.min(7, bytes.length - offset)];
+            System.arraycopy(bytes, offset, chunk, 0, chunk.length);
+            buffers.add(DefaultDataBufferFactory.sharedInstance.wrap(chunk));
+        }
+        return Flux.fromIterable(buffers);
+    }
+}
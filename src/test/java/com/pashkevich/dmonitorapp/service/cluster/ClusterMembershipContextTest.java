@@ -0,0 +1,36 @@
+package com.pashkevich.dmonitorapp.service.cluster;
+
+import com.pashkevich.dmonitorapp.config.MonitoringScheduler;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+/**
+ * Проверяет сборку контекста в режиме кластера без базы данных: ошибки связывания бинов
+ * (например, неоднозначный конструктор) должны падать здесь, а не при запуске приложения.
+ */
+@SpringBootTest(properties = {
+        "spring.sql.init.mode=never",
+        "monitoring.cluster.enabled=true",
+        "monitoring.cluster.node-id=context-test",
+        "monitoring.persistence.spool.enabled=false",
+        "monitoring.partitions.enabled=false"
+})
+class ClusterMembershipContextTest {
+
+    @Autowired
+    private ClusterMembership clusterMembership;
+
+    @Autowired
+    private MonitoringScheduler monitoringScheduler;
+
+    @Test
+    void contextLoads_WithClusterModeEnabled() {
+        // Assert
+        assert clusterMembership.getNodeId().equals("context-test");
+        assert clusterMembership.getLiveNodes().equals(List.of("context-test"));
+        assert monitoringScheduler.getScheduledCount() == 0;
+    }
+}
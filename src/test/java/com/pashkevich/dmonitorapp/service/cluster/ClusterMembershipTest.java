@@ -0,0 +1,123 @@
+package com.pashkevich.dmonitorapp.service.cluster;
+
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
+import com.pashkevich.dmonitorapp.repository.MonitorNodeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClusterMembershipTest {
+
+    @Mock
+    private MonitorNodeRepository monitorNodeRepository;
+
+    private MonitoringProperties properties;
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+
+    @BeforeEach
+    void setUp() {
+        properties = new MonitoringProperties();
+        properties.getCluster().setEnabled(true);
+        properties.getCluster().setNodeTtlMs(15000);
+    }
+
+    @Test
+    void owns_ShouldOwnEverything_WhenClusterDisabled() {
+        // Arrange
+        properties.getCluster().setEnabled(false);
+        ClusterMembership membership = membership("node-a");
+        membership.updateMembers(List.of("node-a", "node-b"));
+
+        // Act & Assert
+        for (long id = 1; id <= 100; id++) {
+            assert membership.owns(id);
+        }
+    }
+
+    @Test
+    void heartbeat_ShouldSplitServicesBetweenLiveNodes() {
+        // Arrange
+        ClusterMembership nodeA = membership("node-a");
+        ClusterMembership nodeB = membership("node-b");
+        when(monitorNodeRepository.heartbeat(anyString(), anyString())).thenReturn(Mono.empty());
+        when(monitorNodeRepository.findLiveNodeIds(15000)).thenReturn(Flux.just("node-b", "node-a"));
+        when(monitorNodeRepository.deleteStale(anyLong())).thenReturn(Mono.just(0L));
+
+        // Act
+        StepVerifier.create(nodeA.heartbeat()).verifyComplete();
+        StepVerifier.create(nodeB.heartbeat()).verifyComplete();
+
+        // Assert
+        int ownedByA = 0;
+        for (long id = 1; id <= 1000; id++) {
+            assert nodeA.owns(id) != nodeB.owns(id) : "Сервис " + id + " должен принадлежать ровно одному узлу";
+            if (nodeA.owns(id)) {
+                ownedByA++;
+            }
+        }
+        assert ownedByA > 400 && ownedByA < 600 : "Неравномерное распределение: " + ownedByA;
+        assert nodeA.getLiveNodes().equals(List.of("node-a", "node-b"));
+    }
+
+    @Test
+    void ownerOf_ShouldMoveOnlyServicesOfDeadNode() {
+        // Arrange
+        ClusterMembership.Members three = ClusterMembership.Members.of(List.of("node-a", "node-b", "node-c"));
+        ClusterMembership.Members two = ClusterMembership.Members.of(List.of("node-a", "node-b"));
+        Map<Long, String> before = new HashMap<>();
+        for (long id = 1; id <= 1000; id++) {
+            before.put(id, three.ownerOf(id));
+        }
+
+        // Act & Assert
+        for (long id = 1; id <= 1000; id++) {
+            if (!before.get(id).equals("node-c")) {
+                assert two.ownerOf(id).equals(before.get(id)) : "Сервис " + id + " переехал без необходимости";
+            }
+        }
+    }
+
+    @Test
+    void owns_ShouldOwnEverything_WhenHeartbeatStale() {
+        // Arrange
+        ClusterMembership membership = membership("node-a");
+        when(monitorNodeRepository.heartbeat(anyString(), anyString())).thenReturn(Mono.empty());
+        when(monitorNodeRepository.findLiveNodeIds(15000)).thenReturn(Flux.just("node-a", "node-b"));
+        when(monitorNodeRepository.deleteStale(anyLong())).thenReturn(Mono.just(0L));
+        membership.heartbeat().block();
+        long notOwned = LongStream.rangeClosed(1, 100).filter(id -> !membership.owns(id)).count();
+
+        // Act
+        clock.addAndGet(20000);
+
+        // Assert
+        assert notOwned > 0;
+        for (long id = 1; id <= 100; id++) {
+            assert membership.owns(id);
+        }
+    }
+
+    private ClusterMembership membership(String nodeId) {
+        MonitoringProperties nodeProperties = new MonitoringProperties();
+        nodeProperties.getCluster().setEnabled(properties.getCluster().isEnabled());
+        nodeProperties.getCluster().setNodeTtlMs(properties.getCluster().getNodeTtlMs());
+        nodeProperties.getCluster().setNodeId(nodeId);
+        return new ClusterMembership(monitorNodeRepository, nodeProperties, clock::get);
+    }
+}
@@ -0,0 +1,140 @@
+package com.pashkevich.dmonitorapp.service.concurrency;
+
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
+import com.pashkevich.dmonitorapp.model.CheckType;
+import com.pashkevich.dmonitorapp.model.ServiceDefinition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class CheckConcurrencyLimiterTest {
+
+    private MonitoringProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new MonitoringProperties();
+        properties.getConcurrency().setMaxConcurrentChecks(100);
+        properties.getConcurrency().setMaxPerTarget(2);
+    }
+
+    @Test
+    void limit_ShouldRespectPerTargetLimit() {
+        // Arrange
+        CheckConcurrencyLimiter limiter = new CheckConcurrencyLimiter(properties);
+        AtomicInteger current = new AtomicInteger();
+        AtomicInteger max = new AtomicInteger();
+
+        // Act
+        Flux<Integer> checks = Flux.range(1, 10)
+                .flatMap(i -> limiter.limit(http((long) i, "http://shared-host:8080/health" + i),
+                        trackedCheck(current, max, i)));
+
+        // Assert
+        StepVerifier.create(checks)
+                .expectNextCount(10)
+                .verifyComplete();
+        assert max.get() == 2 : "Превышен лимит на цель: " + max.get();
+        assert limiter.getActiveTargets() == 0;
+        assert limiter.getInFlight() == 0;
+    }
+
+    @Test
+    void limit_ShouldRespectGlobalLimit() {
+        // Arrange
+        properties.getConcurrency().setMaxConcurrentChecks(3);
+        CheckConcurrencyLimiter limiter = new CheckConcurrencyLimiter(properties);
+        AtomicInteger current = new AtomicInteger();
+        AtomicInteger max = new AtomicInteger();
+
+        // Act
+        Flux<Integer> checks = Flux.range(1, 12)
+                .flatMap(i -> limiter.limit(http((long) i, "http://host-" + i + ":8080/health"),
+                        trackedCheck(current, max, i)));
+
+        // Assert
+        StepVerifier.create(checks)
+                .expectNextCount(12)
+                .verifyComplete();
+        assert max.get() == 3 : "Превышен глобальный лимит: " + max.get();
+    }
+
+    @Test
+    void limit_ShouldUseConfiguredTargetLimit() {
+        // Arrange
+        properties.getConcurrency().getTargetLimits().put("slow-host:80", 1);
+        CheckConcurrencyLimiter limiter = new CheckConcurrencyLimiter(properties);
+        AtomicInteger current = new AtomicInteger();
+        AtomicInteger max = new AtomicInteger();
+
+        // Act
+        Flux<Integer> checks = Flux.range(1, 5)
+                .flatMap(i -> limiter.limit(http((long) i, "http://slow-host/health"),
+                        trackedCheck(current, max, i)));
+
+        // Assert
+        StepVerifier.create(checks)
+                .expectNextCount(5)
+                .verifyComplete();
+        assert max.get() == 1;
+    }
+
+    @Test
+    void limit_ShouldReleasePermit_WhenCheckCancelled() {
+        // Arrange
+        properties.getConcurrency().setMaxPerTarget(1);
+        CheckConcurrencyLimiter limiter = new CheckConcurrencyLimiter(properties);
+        ServiceDefinition service = http(1L, "http://host:8080/");
+
+        // Act
+        StepVerifier.create(limiter.limit(service, Mono.never()))
+                .expectSubscription()
+                .thenCancel()
+                .verify();
+
+        // Assert
+        StepVerifier.create(limiter.limit(service, Mono.just("ok")))
+                .expectNext("ok")
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void targetKey_ShouldGroupByHostAndDatabase() {
+        // Arrange
+        CheckConcurrencyLimiter limiter = new CheckConcurrencyLimiter(properties);
+        ServiceDefinition database = ServiceDefinition.builder()
+                .id(3L)
+                .checkType(CheckType.DATABASE)
+                .databaseConfigId(7L)
+                .build();
+
+        // Act & Assert
+        assert limiter.targetKey(http(1L, "https://Example.com/a")).equals("example.com:443");
+        assert limiter.targetKey(http(2L, "http://example.com:8080/b")).equals("example.com:8080");
+        assert limiter.targetKey(http(4L, "not a url")).equals("service:4");
+        assert limiter.targetKey(database).equals("database:7");
+    }
+
+    private Mono<Integer> trackedCheck(AtomicInteger current, AtomicInteger max, int value) {
+        return Mono.defer(() -> {
+            max.accumulateAndGet(current.incrementAndGet(), Math::max);
+            return Mono.delay(Duration.ofMillis(20))
+                    .doOnTerminate(current::decrementAndGet)
+                    .thenReturn(value);
+        });
+    }
+
+    private ServiceDefinition http(Long id, String url) {
+        return ServiceDefinition.builder()
+                .id(id)
+                .url(url)
+                .checkType(CheckType.HTTP)
+                .build();
+    }
+}
@@ -0,0 +1,149 @@
+package com.pashkevich.dmonitorapp.service.metrics;
+
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
+import com.pashkevich.dmonitorapp.model.*;
+import com.pashkevich.dmonitorapp.service.concurrency.CheckConcurrencyLimiter;
+import com.pashkevich.dmonitorapp.service.persistence.HealthCheckResultWriter;
+import com.pashkevich.dmonitorapp.service.registry.ServiceRegistry;
+import com.pashkevich.dmonitorapp.service.stream.HealthCheckEventPublisher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MonitoringMetricsTest {
+
+    @Mock
+    private ServiceRegistry serviceRegistry;
+
+    @Mock
+    private CheckConcurrencyLimiter checkConcurrencyLimiter;
+
+    @Mock
+    private HealthCheckResultWriter healthCheckResultWriter;
+
+    @Mock
+    private HealthCheckEventPublisher healthCheckEventPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MonitoringMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        MonitoringProperties properties = new MonitoringProperties();
+        properties.getMetrics().setMaxServiceTags(2);
+        meterRegistry = new SimpleMeterRegistry();
+        metrics = new MonitoringMetrics(meterRegistry, serviceRegistry, checkConcurrencyLimiter,
+                healthCheckResultWriter, healthCheckEventPublisher, properties);
+    }
+
+    @Test
+    void onResult_ShouldRecordLatencyByTypeAndService() {
+        // Act
+        metrics.onResult(service(1L), result(ServiceStatus.UP, 40L));
+        metrics.onResult(service(1L), result(ServiceStatus.UP, 60L));
+
+        // Assert
+        assert meterRegistry.get("monitoring.check.duration").tag("type", "HTTP").tag("status", "UP")
+                .timer().count() == 2;
+        assert meterRegistry.get("monitoring.check.service.duration").tag("service", "Service 1")
+                .timer().totalTime(TimeUnit.MILLISECONDS) == 100;
+    }
+
+    @Test
+    void onResult_ShouldBoundServiceTags() {
+        // Act
+        for (long id = 1; id <= 5; id++) {
+            metrics.onResult(service(id), result(ServiceStatus.UP, 10L));
+        }
+
+        // Assert
+        assert meterRegistry.find("monitoring.check.service.duration").timers().size() == 3;
+        assert meterRegistry.get("monitoring.check.service.duration").tag("service", MonitoringMetrics.OTHER_SERVICE)
+                .timer().count() == 3;
+    }
+
+    @Test
+    void onResult_ShouldCountTimeoutsAndErrors() {
+        // Act
+        metrics.onResult(service(1L), result(ServiceStatus.TIMEOUT, 10_000L));
+        metrics.onResult(service(1L), result(ServiceStatus.DOWN, 5L));
+        metrics.onResult(service(1L), result(ServiceStatus.DOWN, null));
+
+        // Assert
+        assert meterRegistry.get("monitoring.check.timeouts").tag("type", "HTTP").counter().count() == 1;
+        assert meterRegistry.get("monitoring.check.errors").tag("type", "HTTP").counter().count() == 2;
+    }
+
+    @Test
+    void onResult_ShouldNotCountErrors_WhenCircuitOpen() {
+        // Arrange
+        HealthCheckResult open = result(ServiceStatus.DOWN, null);
+        open.setBreakerState(BreakerState.OPEN);
+
+        // Act
+        metrics.onResult(service(1L), result(ServiceStatus.DOWN, 5L));
+        metrics.onResult(service(1L), open);
+
+        // Assert
+        assert meterRegistry.get("monitoring.check.errors").tag("type", "HTTP").counter().count() == 1;
+    }
+
+    @Test
+    void onServiceRemoved_ShouldReleaseServiceTag() {
+        // Arrange
+        metrics.onResult(service(1L), result(ServiceStatus.UP, 10L));
+
+        // Act
+        metrics.onServiceRemoved(1L);
+
+        // Assert
+        assert meterRegistry.find("monitoring.check.service.duration").tag("service", "Service 1").timer() == null;
+    }
+
+    @Test
+    void gauges_ShouldReadEngineState() {
+        // Arrange
+        when(checkConcurrencyLimiter.getInFlight()).thenReturn(7);
+        when(healthCheckResultWriter.getBufferDepth()).thenReturn(42);
+        when(healthCheckResultWriter.getDroppedResults()).thenReturn(3L);
+
+        // Act
+        metrics.recordSchedulerLag(150);
+        metrics.recordSchedulerLag(-5);
+        metrics.recordCycle(TimeUnit.MILLISECONDS.toNanos(20));
+        metrics.recordSchedulerBatch(TimeUnit.MILLISECONDS.toNanos(5));
+
+        // Assert
+        assert meterRegistry.get("monitoring.checks.inflight").gauge().value() == 7;
+        assert meterRegistry.get("monitoring.persistence.buffer.depth").gauge().value() == 42;
+        assert meterRegistry.get("monitoring.persistence.dropped").functionCounter().count() == 3;
+        assert meterRegistry.get("monitoring.scheduler.lag").timer().count() == 2;
+        assert meterRegistry.get("monitoring.scheduler.lag").timer().max(TimeUnit.MILLISECONDS) == 150;
+        assert meterRegistry.get("monitoring.cycle.duration").timer().count() == 1;
+        assert meterRegistry.get("monitoring.scheduler.batch.duration").timer().count() == 1;
+    }
+
+    private ServiceDefinition service(Long id) {
+        return ServiceDefinition.builder()
+                .id(id)
+                .name("Service " + id)
+                .checkType(CheckType.HTTP)
+                .build();
+    }
+
+    private HealthCheckResult result(ServiceStatus status, Long responseTime) {
+        return HealthCheckResult.builder()
+                .serviceDefinitionId(1L)
+                .status(status)
+                .responseTimeMs(responseTime)
+                .build();
+    }
+}
@@ -0,0 +1,325 @@
+package com.pashkevich.dmonitorapp.service.persistence;
+
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
+import com.pashkevich.dmonitorapp.model.HealthCheckResult;
+import com.pashkevich.dmonitorapp.model.ServiceStatus;
+import com.pashkevich.dmonitorapp.repository.HealthCheckResultBatchRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.net.ConnectException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeoutException;
+
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HealthCheckResultWriterTest {
+
+    @Mock
+    private HealthCheckResultBatchRepository batchRepository;
+
+    @TempDir
+    private Path spoolDirectory;
+
+    private MonitoringProperties properties;
+    private HealthCheckResultWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        properties = new MonitoringProperties();
+        properties.getPersistence().setBatchSize(3);
+        properties.getPersistence().setFlushIntervalMs(200);
+        properties.getPersistence().setBackpressureRetryMs(10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    @Test
+    void write_ShouldFlushBatch_WhenBatchSizeReached() {
+        // Arrange
+        properties.getPersistence().setFlushIntervalMs(60_000);
+        when(batchRepository.insertAll(anyList()))
+                .thenAnswer(invocation -> Mono.just((long) invocation.<List<?>>getArgument(0).size()));
+        writer = new HealthCheckResultWriter(batchRepository, properties);
+
+        // Act
+        for (long id = 1; id <= 3; id++) {
+            writer.write(result(id)).block();
+        }
+
+        // Assert
+        await()
+                .atMost(Duration.ofSeconds(2))
+                .untilAsserted(() -> verify(batchRepository).insertAll(argThat(batch -> batch.size() == 3)));
+        await()
+                .atMost(Duration.ofSeconds(2))
+                .untilAsserted(() -> {
+                    assert writer.getBufferDepth() == 0;
+                });
+    }
+
+    @Test
+    void write_ShouldFlushPartialBatch_WhenFlushIntervalElapsed() {
+        // Arrange
+        when(batchRepository.insertAll(anyList())).thenReturn(Mono.just(1L));
+        writer = new HealthCheckResultWriter(batchRepository, properties);
+
+        // Act
+        writer.write(result(1L)).block();
+
+        // Assert
+        await()
+                .atMost(Duration.ofSeconds(2))
+                .untilAsserted(() -> verify(batchRepository).insertAll(argThat(batch -> batch.size() == 1)));
+    }
+
+    @Test
+    void write_ShouldWait_WhenBufferIsFull() {
+        // Arrange
+        properties.getPersistence().setBatchSize(1);
+        properties.getPersistence().setBufferCapacity(1);
+        Sinks.Empty<Long> slowInsert = Sinks.empty();
+        when(batchRepository.insertAll(anyList()))
+                .thenReturn(slowInsert.asMono().thenReturn(1L))
+                .thenReturn(Mono.just(1L));
+        writer = new HealthCheckResultWriter(batchRepository, properties);
+
+        // Act
+        writer.write(result(1L)).block();
+        for (long id = 2; id <= 20; id++) {
+            writer.write(result(id)).subscribe();
+        }
+
+        // Assert
+        StepVerifier.create(writer.write(result(21L)))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(200))
+                .then(slowInsert::tryEmitEmpty)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void write_ShouldContinue_WhenBatchInsertFails() {
+        // Arrange
+        when(batchRepository.insertAll(anyList()))
+                .thenReturn(Mono.error(new DataAccessResourceFailureException("Database error")))
+                .thenReturn(Mono.just(3L));
+        writer = new HealthCheckResultWriter(batchRepository, properties);
+
+        // Act
+        for (long id = 1; id <= 6; id++) {
+            writer.write(result(id)).block();
+        }
+
+        // Assert
+        await()
+                .atMost(Duration.ofSeconds(2))
+                .untilAsserted(() -> verify(batchRepository, times(2)).insertAll(anyList()));
+        assert writer.getDroppedResults() == 3;
+    }
+
+    @Test
+    void close_ShouldFlushBufferedResults() {
+        // Arrange
+        properties.getPersistence().setFlushIntervalMs(60_000);
+        when(batchRepository.insertAll(anyList())).thenReturn(Mono.just(2L));
+        writer = new HealthCheckResultWriter(batchRepository, properties);
+        writer.write(result(1L)).block();
+        writer.write(result(2L)).block();
+
+        // Act
+        writer.close();
+
+        // Assert
+        verify(batchRepository).insertAll(argThat(batch -> batch.size() == 2));
+        StepVerifier.create(writer.write(result(3L)))
+                .expectError(IllegalStateException.class)
+                .verify();
+    }
+
+    @Test
+    void write_ShouldPersistOnlyChanges_WhenChangeOnlyEnabled() {
+        // Arrange
+        properties.getPersistence().setFlushIntervalMs(60_000);
+        properties.getPersistence().setChangeOnly(true);
+        when(batchRepository.insertAll(anyList()))
+                .thenAnswer(invocation -> Mono.just((long) invocation.<List<?>>getArgument(0).size()));
+        writer = new HealthCheckResultWriter(batchRepository, properties);
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            writer.write(result(1L)).block();
+        }
+        writer.close();
+
+        // Assert
+        assert writer.getSuppressedResults() == 4;
+        verify(batchRepository).insertAll(argThat(batch -> batch.size() == 2
+                && batch.get(0).getSampleCount() == 1
+                && batch.get(1).getSampleCount() == 4
+                && batch.get(1).getUpCount() == 4));
+    }
+
+    @Test
+    void write_ShouldSpoolAndReplayInOrder_WhenDatabaseUnavailable() {
+        // Arrange
+        properties.getPersistence().getSpool().setEnabled(true);
+        properties.getPersistence().getSpool().setDirectory(spoolDirectory.toString());
+        List<List<Long>> inserted = new CopyOnWriteArrayList<>();
+        when(batchRepository.insertAll(anyList()))
+                .thenReturn(Mono.error(new DataAccessResourceFailureException("Database error")))
+                .thenAnswer(invocation -> {
+                    List<HealthCheckResult> batch = invocation.getArgument(0);
+                    inserted.add(batch.stream().map(HealthCheckResult::getServiceDefinitionId).toList());
+                    return Mono.just((long) batch.size());
+                });
+        writer = new HealthCheckResultWriter(batchRepository, properties);
+
+        // Act
+        for (long id = 1; id <= 6; id++) {
+            writer.write(result(id)).block();
+        }
+        await()
+                .atMost(Duration.ofSeconds(2))
+                .untilAsserted(() -> {
+                    assert writer.getSpooledResults() == 6;
+                });
+        StepVerifier.create(writer.replay()).verifyComplete();
+
+        // Assert
+        verify(batchRepository, times(3)).insertAll(anyList());
+        assert inserted.equals(List.of(List.of(1L, 2L, 3L), List.of(4L, 5L, 6L))) : inserted;
+        assert writer.getSpooledResults() == 0;
+        assert writer.getSpoolBytes() == 0;
+        assert writer.getDroppedResults() == 0;
+    }
+
+    @Test
+    void replay_ShouldKeepResults_WhenDatabaseStillUnavailable() {
+        // Arrange
+        properties.getPersistence().getSpool().setEnabled(true);
+        properties.getPersistence().getSpool().setDirectory(spoolDirectory.toString());
+        when(batchRepository.insertAll(anyList())).thenReturn(Mono.error(new DataAccessResourceFailureException("Database error")));
+        writer = new HealthCheckResultWriter(batchRepository, properties);
+        for (long id = 1; id <= 3; id++) {
+            writer.write(result(id)).block();
+        }
+        await()
+                .atMost(Duration.ofSeconds(2))
+                .untilAsserted(() -> {
+                    assert writer.getSpooledResults() == 3;
+                });
+
+        // Act & Assert
+        StepVerifier.create(writer.replay())
+                .expectError(RuntimeException.class)
+                .verify();
+        assert writer.getSpooledResults() == 3;
+        assert writer.getDroppedResults() == 0;
+    }
+
+    @Test
+    void write_ShouldSkipOnlyRejectedRecord_WhenDatabaseRejectsBatch() {
+        // Arrange
+        properties.getPersistence().getSpool().setEnabled(true);
+        properties.getPersistence().getSpool().setDirectory(spoolDirectory.toString());
+        List<List<Long>> inserted = new CopyOnWriteArrayList<>();
+        when(batchRepository.insertAll(anyList()))
+                .thenAnswer(invocation -> insertRejecting(invocation.getArgument(0), 2L, inserted));
+        writer = new HealthCheckResultWriter(batchRepository, properties);
+
+        // Act
+        for (long id = 1; id <= 6; id++) {
+            writer.write(result(id)).block();
+        }
+
+        // Assert
+        await()
+                .atMost(Duration.ofSeconds(2))
+                .untilAsserted(() -> {
+                    assert writer.getRejectedResults() == 1;
+                    assert inserted.size() == 3 : inserted;
+                });
+        assert inserted.equals(List.of(List.of(1L), List.of(3L), List.of(4L, 5L, 6L))) : inserted;
+        assert writer.getSpooledResults() == 0 : "Отвергнутая БД пачка не должна попадать в журнал";
+        assert writer.getDroppedResults() == 0;
+    }
+
+    @Test
+    void replay_ShouldSkipRejectedRecord_AndReplayTheRestInOrder() {
+        // Arrange
+        properties.getPersistence().getSpool().setEnabled(true);
+        properties.getPersistence().getSpool().setDirectory(spoolDirectory.toString());
+        List<List<Long>> inserted = new CopyOnWriteArrayList<>();
+        when(batchRepository.insertAll(anyList()))
+                .thenReturn(Mono.error(new DataAccessResourceFailureException("Database error")))
+                .thenAnswer(invocation -> insertRejecting(invocation.getArgument(0), 5L, inserted));
+        writer = new HealthCheckResultWriter(batchRepository, properties);
+        for (long id = 1; id <= 6; id++) {
+            writer.write(result(id)).block();
+        }
+        await()
+                .atMost(Duration.ofSeconds(2))
+                .untilAsserted(() -> {
+                    assert writer.getSpooledResults() == 6;
+                });
+
+        // Act
+        StepVerifier.create(writer.replay()).verifyComplete();
+
+        // Assert
+        assert inserted.equals(List.of(List.of(1L, 2L, 3L), List.of(4L), List.of(6L))) : inserted;
+        assert writer.getRejectedResults() == 1;
+        assert writer.getSpooledResults() == 0;
+        assert writer.getDroppedResults() == 0;
+    }
+
+    @Test
+    void isTransient_ShouldSeparateConnectivityFromDataErrors() {
+        assert HealthCheckResultWriter.isTransient(new TimeoutException());
+        assert HealthCheckResultWriter.isTransient(new DataAccessResourceFailureException("Failed to obtain connection",
+                new ConnectException("Connection refused")));
+        assert !HealthCheckResultWriter.isTransient(new DataIntegrityViolationException("violates foreign key"));
+        assert !HealthCheckResultWriter.isTransient(new RuntimeException("bad data"));
+    }
+
+    private Mono<Long> insertRejecting(List<HealthCheckResult> batch, Long rejectedId, List<List<Long>> inserted) {
+        List<Long> ids = batch.stream().map(HealthCheckResult::getServiceDefinitionId).toList();
+        if (ids.contains(rejectedId)) {
+            return Mono.error(new DataIntegrityViolationException("violates foreign key constraint"));
+        }
+        inserted.add(ids);
+        return Mono.just((long) batch.size());
+    }
+
+    private HealthCheckResult result(Long serviceId) {
+        return HealthCheckResult.builder()
+                .serviceDefinitionId(serviceId)
+                .status(ServiceStatus.UP)
+                .responseTimeMs(10L)
+                .build();
+    }
+}
@@ -0,0 +1,136 @@
+package com.pashkevich.dmonitorapp.service.persistence;
+
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PartitionMaintenanceJobTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 15);
+
+    @Mock
+    private DatabaseClient databaseClient;
+
+    @Mock
+    private DatabaseClient.GenericExecuteSpec createSpec;
+
+    @Mock
+    private DatabaseClient.GenericExecuteSpec moveSpec;
+
+    private MonitoringProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new MonitoringProperties();
+        properties.getPartitions().setPrecreatePartitions(2);
+        properties.getPartitions().setRetentionDays(30);
+    }
+
+    @Test
+    void plannedPartitions_ShouldCoverTodayAndFutureDays() {
+        // Arrange
+        PartitionMaintenanceJob job = new PartitionMaintenanceJob(databaseClient, properties);
+
+        // Act
+        List<PartitionMaintenanceJob.Partition> partitions = job.plannedPartitions(TODAY);
+
+        // Assert
+        assert partitions.size() == 3;
+        assert partitions.get(0).name().equals("health_check_results_p20240315");
+        assert partitions.get(2).to().equals(LocalDate.of(2024, 3, 18));
+        assert partitions.get(0).createSql().equals("CREATE TABLE IF NOT EXISTS health_check_results_p20240315 " +
+                "PARTITION OF health_check_results " +
+                "FOR VALUES FROM ('2024-03-15 00:00:00') TO ('2024-03-16 00:00:00')");
+    }
+
+    @Test
+    void plannedPartitions_ShouldAlignWeeklyPartitions() {
+        // Arrange
+        properties.getPartitions().setPartitionDays(7);
+        PartitionMaintenanceJob job = new PartitionMaintenanceJob(databaseClient, properties);
+
+        // Act
+        List<PartitionMaintenanceJob.Partition> today = job.plannedPartitions(TODAY);
+        List<PartitionMaintenanceJob.Partition> tomorrow = job.plannedPartitions(TODAY.plusDays(1));
+
+        // Assert
+        PartitionMaintenanceJob.Partition current = today.get(0);
+        assert !current.from().isAfter(TODAY) && current.to().isAfter(TODAY);
+        assert current.from().plusDays(7).equals(current.to());
+        assert today.get(1).from().equals(current.to());
+        assert tomorrow.get(0).equals(current) || tomorrow.get(0).equals(today.get(1));
+    }
+
+    @Test
+    void isExpired_ShouldRespectRetentionAndSkipDefaultPartition() {
+        // Arrange
+        PartitionMaintenanceJob job = new PartitionMaintenanceJob(databaseClient, properties);
+
+        // Act & Assert
+        assert job.isExpired("FOR VALUES FROM ('2024-02-13 00:00:00') TO ('2024-02-14 00:00:00')", TODAY);
+        assert !job.isExpired("FOR VALUES FROM ('2024-02-14 00:00:00') TO ('2024-02-15 00:00:00')", TODAY);
+        assert !job.isExpired("DEFAULT", TODAY);
+        assert !job.isExpired(null, TODAY);
+    }
+
+    @Test
+    void createPartitions_ShouldMoveRows_WhenDefaultPartitionHasRowsForDay() {
+        // Arrange
+        properties.getPartitions().setPrecreatePartitions(0);
+        PartitionMaintenanceJob job = new PartitionMaintenanceJob(databaseClient, properties);
+        when(databaseClient.sql(startsWith("CREATE TABLE"))).thenReturn(createSpec);
+        when(createSpec.then()).thenReturn(Mono.error(new DataIntegrityViolationException(
+                "updated partition constraint for default partition would be violated by some row")));
+        when(databaseClient.sql(startsWith("DO $$"))).thenReturn(moveSpec);
+        when(moveSpec.then()).thenReturn(Mono.empty());
+
+        // Act
+        StepVerifier.create(job.createPartitions(TODAY)).verifyComplete();
+
+        // Assert
+        String range = "checked_at >= '2024-03-15 00:00:00' AND checked_at < '2024-03-16 00:00:00'";
+        verify(databaseClient).sql("DO $$ BEGIN " +
+                "ALTER TABLE health_check_results DETACH PARTITION health_check_results_default; " +
+                "CREATE TABLE IF NOT EXISTS health_check_results_p20240315 PARTITION OF health_check_results " +
+                "FOR VALUES FROM ('2024-03-15 00:00:00') TO ('2024-03-16 00:00:00'); " +
+                "INSERT INTO health_check_results_p20240315 SELECT * FROM health_check_results_default WHERE " +
+                range + "; " +
+                "DELETE FROM health_check_results_default WHERE " + range + "; " +
+                "ALTER TABLE health_check_results ATTACH PARTITION health_check_results_default DEFAULT; " +
+                "END $$");
+    }
+
+    @Test
+    void createPartitions_ShouldContinue_WhenMoveFails() {
+        // Arrange
+        properties.getPartitions().setPrecreatePartitions(1);
+        PartitionMaintenanceJob job = new PartitionMaintenanceJob(databaseClient, properties);
+        when(databaseClient.sql(startsWith("CREATE TABLE"))).thenReturn(createSpec);
+        when(createSpec.then())
+                .thenReturn(Mono.error(new DataIntegrityViolationException("default partition")))
+                .thenReturn(Mono.empty());
+        when(databaseClient.sql(startsWith("DO $$"))).thenReturn(moveSpec);
+        when(moveSpec.then()).thenReturn(Mono.error(new DataIntegrityViolationException("lock timeout")));
+
+        // Act
+        StepVerifier.create(job.createPartitions(TODAY)).verifyComplete();
+
+        // Assert
+        verify(databaseClient, times(2)).sql(startsWith("CREATE TABLE"));
+        verify(databaseClient, times(1)).sql(startsWith("DO $$"));
+    }
+}
@@ -0,0 +1,119 @@
+package com.pashkevich.dmonitorapp.service.persistence;
+
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
+import com.pashkevich.dmonitorapp.model.BreakerState;
+import com.pashkevich.dmonitorapp.model.HealthCheckResult;
+import com.pashkevich.dmonitorapp.model.ServiceStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+class ResultCompactorTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    private ResultCompactor compactor;
+
+    @BeforeEach
+    void setUp() {
+        MonitoringProperties.Persistence properties = new MonitoringProperties.Persistence();
+        properties.setHeartbeatIntervalMs(60_000);
+        properties.setLatencyShiftRatio(0.5);
+        properties.setLatencyShiftMinMs(50);
+        compactor = new ResultCompactor(properties);
+    }
+
+    @Test
+    void offer_ShouldSuppressUnchangedResults_UntilHeartbeat() {
+        // Act
+        List<HealthCheckResult> written = new ArrayList<>();
+        for (int second = 0; second <= 60; second += 10) {
+            offer(written, result(ServiceStatus.UP, 40, second));
+        }
+
+        // Assert
+        assert written.size() == 2 : written.size();
+        assert written.get(0).getSampleCount() == 1;
+        assert written.get(1).getSampleCount() == 6;
+        assert written.get(1).getUpCount() == 6;
+        assert written.get(1).getCheckedAt().equals(START.plusSeconds(60));
+    }
+
+    @Test
+    void offer_ShouldWrite_OnStatusTransition() {
+        // Arrange
+        List<HealthCheckResult> written = new ArrayList<>();
+        offer(written, result(ServiceStatus.UP, 40, 0));
+        offer(written, result(ServiceStatus.UP, 40, 10));
+
+        // Act
+        offer(written, result(ServiceStatus.DOWN, 40, 20));
+        offer(written, result(ServiceStatus.DOWN, 40, 30));
+        offer(written, result(ServiceStatus.UP, 40, 40));
+
+        // Assert
+        assert written.size() == 3;
+        assert written.get(1).getStatus() == ServiceStatus.DOWN;
+        assert written.get(1).getSampleCount() == 2 && written.get(1).getUpCount() == 1;
+        assert written.get(2).getSampleCount() == 2 && written.get(2).getUpCount() == 1;
+    }
+
+    @Test
+    void offer_ShouldWrite_OnLatencyShiftOrBreakerChange() {
+        // Arrange
+        List<HealthCheckResult> written = new ArrayList<>();
+        offer(written, result(ServiceStatus.UP, 40, 0));
+        offer(written, result(ServiceStatus.UP, 60, 10));
+
+        // Act
+        offer(written, result(ServiceStatus.UP, 400, 20));
+        HealthCheckResult halfOpen = result(ServiceStatus.UP, 40, 30);
+        halfOpen.setBreakerState(BreakerState.HALF_OPEN);
+        offer(written, halfOpen);
+
+        // Assert
+        assert written.size() == 3 : written.size();
+        assert written.get(1).getResponseTimeMs() == 400;
+        assert written.get(2).getBreakerState() == BreakerState.HALF_OPEN;
+    }
+
+    @Test
+    void drain_ShouldReturnPendingCounters_KeepingUptimeExact() {
+        // Arrange
+        List<HealthCheckResult> written = new ArrayList<>();
+        offer(written, result(ServiceStatus.UP, 40, 0));
+        offer(written, result(ServiceStatus.UP, 40, 10));
+        offer(written, result(ServiceStatus.DOWN, 40, 20));
+        offer(written, result(ServiceStatus.DOWN, 40, 30));
+        offer(written, result(ServiceStatus.DOWN, 40, 40));
+
+        // Act
+        written.addAll(compactor.drain());
+
+        // Assert
+        int samples = written.stream().mapToInt(HealthCheckResult::getSampleCount).sum();
+        int up = written.stream().mapToInt(HealthCheckResult::getUpCount).sum();
+        assert samples == 5;
+        assert up == 2;
+        assert compactor.drain().isEmpty();
+    }
+
+    private void offer(List<HealthCheckResult> written, HealthCheckResult result) {
+        HealthCheckResult summary = compactor.offer(result);
+        if (summary != null) {
+            written.add(summary);
+        }
+    }
+
+    private HealthCheckResult result(ServiceStatus status, long responseTimeMs, int second) {
+        return HealthCheckResult.builder()
+                .serviceDefinitionId(1L)
+                .status(status)
+                .responseTimeMs(responseTimeMs)
+                .checkedAt(START.plusSeconds(second))
+                .build();
+    }
+}
@@ -0,0 +1,174 @@
+package com.pashkevich.dmonitorapp.service.persistence;
+
+import com.pashkevich.dmonitorapp.model.BreakerState;
+import com.pashkevich.dmonitorapp.model.HealthCheckResult;
+import com.pashkevich.dmonitorapp.model.ServiceStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+class ResultSpoolTest {
+
+    private static final LocalDateTime CHECKED_AT = LocalDateTime.of(2024, 1, 1, 12, 0, 0, 123_456_789);
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void append_ShouldPreserveAllFields() throws IOException {
+        // Arrange
+        HealthCheckResult result = HealthCheckResult.builder()
+                .serviceDefinitionId(7L)
+                .checkedAt(CHECKED_AT)
+                .status(ServiceStatus.TIMEOUT)
+                .responseTimeMs(1500L)
+                .message("Таймаут")
+                .additionalInfo("{\"code\":504}")
+                .breakerState(BreakerState.HALF_OPEN)
+                .sampleCount(3)
+                .upCount(2)
+                .build();
+        HealthCheckResult empty = HealthCheckResult.builder().checkedAt(CHECKED_AT).build();
+
+        try (ResultSpool spool = new ResultSpool(directory, 4096, 1 << 20)) {
+            // Act
+            assert spool.append(List.of(result, empty));
+            List<HealthCheckResult> read = spool.read(10).results();
+
+            // Assert
+            assert read.equals(List.of(result, empty)) : read;
+        }
+    }
+
+    @Test
+    void commit_ShouldReplayInOrder_AcrossSegments() throws IOException {
+        try (ResultSpool spool = new ResultSpool(directory, 256, 1 << 20)) {
+            // Arrange
+            for (long id = 1; id <= 20; id++) {
+                assert spool.append(List.of(result(id)));
+            }
+
+            // Act
+            List<Long> replayed = new ArrayList<>();
+            while (spool.getPendingRecords() > 0) {
+                ResultSpool.Batch batch = spool.read(3);
+                batch.results().forEach(result -> replayed.add(result.getServiceDefinitionId()));
+                spool.commit(batch);
+            }
+
+            // Assert
+            assert replayed.equals(LongStream.rangeClosed(1, 20).boxed().toList()) : replayed;
+            assert spool.getPendingBytes() == 0;
+            assert segmentCount() == 1;
+        }
+    }
+
+    @Test
+    void reopen_ShouldContinueFromCommittedPosition() throws IOException {
+        // Arrange
+        try (ResultSpool spool = new ResultSpool(directory, 256, 1 << 20)) {
+            for (long id = 1; id <= 10; id++) {
+                spool.append(List.of(result(id)));
+            }
+            spool.commit(spool.read(4));
+        }
+
+        // Act
+        try (ResultSpool reopened = new ResultSpool(directory, 256, 1 << 20)) {
+            reopened.append(List.of(result(11L)));
+
+            // Assert
+            assert reopened.getPendingRecords() == 7;
+            List<Long> ids = reopened.read(100).results().stream()
+                    .map(HealthCheckResult::getServiceDefinitionId)
+                    .toList();
+            assert ids.equals(LongStream.rangeClosed(5, 11).boxed().toList()) : ids;
+        }
+    }
+
+    @Test
+    void reopen_ShouldIgnoreTornRecord() throws IOException {
+        // Arrange
+        try (ResultSpool spool = new ResultSpool(directory, 4096, 1 << 20)) {
+            spool.append(List.of(result(1L), result(2L)));
+        }
+        Path segment = segments().get(0);
+        byte[] data = Files.readAllBytes(segment);
+        int second = recordLength(data, 0) + 16;
+        data[second + 20] ^= 0x7F;
+        Files.write(segment, data);
+
+        // Act
+        try (ResultSpool reopened = new ResultSpool(directory, 4096, 1 << 20)) {
+            reopened.append(List.of(result(3L)));
+
+            // Assert
+            List<Long> ids = reopened.read(10).results().stream()
+                    .map(HealthCheckResult::getServiceDefinitionId)
+                    .toList();
+            assert ids.equals(List.of(1L, 3L)) : ids;
+        }
+    }
+
+    @Test
+    void append_ShouldRejectBatch_WhenSpoolIsFull() throws IOException {
+        try (ResultSpool spool = new ResultSpool(directory, 4096, 200)) {
+            // Act & Assert
+            assert spool.append(List.of(result(1L)));
+            assert !spool.append(List.of(result(2L), result(3L), result(4L)));
+            assert spool.getPendingRecords() == 1;
+        }
+    }
+
+    @Test
+    void getLagMillis_ShouldTrackOldestPendingRecord() throws IOException {
+        // Arrange
+        AtomicLong clock = new AtomicLong(1_000);
+        try (ResultSpool spool = new ResultSpool(directory, 4096, 1 << 20, clock::get)) {
+            spool.append(List.of(result(1L)));
+            clock.set(2_000);
+            spool.append(List.of(result(2L)));
+            clock.set(5_000);
+
+            // Act & Assert
+            assert spool.getLagMillis() == 4_000;
+            spool.commit(spool.read(1));
+            assert spool.getLagMillis() == 3_000;
+            spool.commit(spool.read(1));
+            assert spool.getLagMillis() == 0;
+        }
+    }
+
+    private int recordLength(byte[] data, int offset) {
+        return ((data[offset] & 0xFF) << 24) | ((data[offset + 1] & 0xFF) << 16)
+                | ((data[offset + 2] & 0xFF) << 8) | (data[offset + 3] & 0xFF);
+    }
+
+    private long segmentCount() throws IOException {
+        return segments().size();
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(".seg")).sorted().toList();
+        }
+    }
+
+    private HealthCheckResult result(Long serviceId) {
+        return HealthCheckResult.builder()
+                .serviceDefinitionId(serviceId)
+                .checkedAt(CHECKED_AT)
+                .status(ServiceStatus.UP)
+                .responseTimeMs(10L)
+                .build();
+    }
+}
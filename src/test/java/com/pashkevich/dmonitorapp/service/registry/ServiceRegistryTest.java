@@ -0,0 +1,126 @@
+package com.pashkevich.dmonitorapp.service.registry;
+
+import com.pashkevich.dmonitorapp.model.CheckType;
+import com.pashkevich.dmonitorapp.model.ServiceDefinition;
+import com.pashkevich.dmonitorapp.repository.ServiceDefinitionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceRegistryTest {
+
+    @Mock
+    private ServiceDefinitionRepository serviceDefinitionRepository;
+
+    @Mock
+    private ServiceRegistryListener listener;
+
+    private ServiceRegistry serviceRegistry;
+
+    @BeforeEach
+    void setUp() {
+        serviceRegistry = new ServiceRegistry(serviceDefinitionRepository);
+        serviceRegistry.addListener(listener);
+    }
+
+    @Test
+    void refresh_ShouldLoadOnlyActiveServices() {
+        // Arrange
+        ServiceDefinition http = service(1L, CheckType.HTTP, true);
+        ServiceDefinition inactive = service(2L, CheckType.HTTP, false);
+        ServiceDefinition database = service(3L, CheckType.DATABASE, null);
+        when(serviceDefinitionRepository.findAll()).thenReturn(Flux.just(database, inactive, http));
+
+        // Act
+        StepVerifier.create(serviceRegistry.refresh()).verifyComplete();
+
+        // Assert
+        assert serviceRegistry.getAll().equals(List.of(http, database));
+        assert serviceRegistry.getByType(CheckType.HTTP).equals(List.of(http));
+        assert serviceRegistry.getByType(CheckType.KAFKA).isEmpty();
+        assert serviceRegistry.get(2L).isEmpty();
+        verify(listener).onServiceUpdated(http);
+        verify(listener).onServiceUpdated(database);
+        verify(listener, never()).onServiceUpdated(inactive);
+    }
+
+    @Test
+    void refresh_ShouldNotifyOnlyAboutChanges() {
+        // Arrange
+        ServiceDefinition first = service(1L, CheckType.HTTP, true);
+        ServiceDefinition second = service(2L, CheckType.HTTP, true);
+        ServiceDefinition changed = service(2L, CheckType.HTTP, true);
+        changed.setCheckIntervalSeconds(5);
+        when(serviceDefinitionRepository.findAll())
+                .thenReturn(Flux.just(first, second))
+                .thenReturn(Flux.just(changed));
+        serviceRegistry.refresh().block();
+        clearInvocations(listener);
+
+        // Act
+        serviceRegistry.refresh().block();
+
+        // Assert
+        verify(listener).onServiceUpdated(changed);
+        verify(listener).onServiceRemoved(1L);
+        verifyNoMoreInteractions(listener);
+        assert serviceRegistry.size() == 1;
+    }
+
+    @Test
+    void upsert_ShouldPublishNewSnapshot() {
+        // Arrange
+        ServiceDefinition service = service(1L, CheckType.HTTP, true);
+        List<ServiceDefinition> before = serviceRegistry.getAll();
+
+        // Act
+        serviceRegistry.upsert(service);
+
+        // Assert
+        assert before.isEmpty();
+        assert serviceRegistry.get(1L).orElseThrow() == service;
+        verify(listener).onServiceUpdated(service);
+    }
+
+    @Test
+    void upsert_ShouldRemoveService_WhenDeactivated() {
+        // Arrange
+        serviceRegistry.upsert(service(1L, CheckType.HTTP, true));
+
+        // Act
+        serviceRegistry.upsert(service(1L, CheckType.HTTP, false));
+
+        // Assert
+        assert serviceRegistry.size() == 0;
+        verify(listener).onServiceRemoved(1L);
+    }
+
+    @Test
+    void remove_ShouldIgnoreUnknownService() {
+        // Act
+        serviceRegistry.remove(42L);
+
+        // Assert
+        verifyNoInteractions(listener);
+    }
+
+    private ServiceDefinition service(Long id, CheckType checkType, Boolean active) {
+        return ServiceDefinition.builder()
+                .id(id)
+                .name("Service " + id)
+                .url("http://service-" + id)
+                .checkIntervalSeconds(30)
+                .checkType(checkType)
+                .isActive(active)
+                .build();
+    }
+}
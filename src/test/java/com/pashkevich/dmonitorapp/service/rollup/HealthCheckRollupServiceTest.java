@@ -0,0 +1,172 @@
+package com.pashkevich.dmonitorapp.service.rollup;
+
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
+import com.pashkevich.dmonitorapp.model.*;
+import com.pashkevich.dmonitorapp.repository.HealthCheckRollupBatchRepository;
+import com.pashkevich.dmonitorapp.repository.HealthCheckRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HealthCheckRollupServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 30, 20);
+
+    @Mock
+    private HealthCheckRollupRepository rollupRepository;
+
+    @Mock
+    private HealthCheckRollupBatchRepository batchRepository;
+
+    private HealthCheckRollupService rollupService;
+    private ServiceDefinition service;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        rollupService = new HealthCheckRollupService(rollupRepository, batchRepository,
+                new MonitoringProperties(), clock);
+        service = ServiceDefinition.builder().id(1L).name("Service 1").checkType(CheckType.HTTP).build();
+    }
+
+    @Test
+    void flush_ShouldAggregateStatusCountsAndLatency() {
+        // Arrange
+        LocalDateTime minute = NOW.minusMinutes(5).withSecond(0);
+        for (int i = 1; i <= 100; i++) {
+            rollupService.onResult(service, result(ServiceStatus.UP, (long) i, minute.plusSeconds(i % 60)));
+        }
+        rollupService.onResult(service, result(ServiceStatus.DOWN, null, minute));
+        rollupService.onResult(service, result(ServiceStatus.TIMEOUT, 10_000L, minute));
+        when(batchRepository.upsertAll(any())).thenAnswer(invocation ->
+                Mono.just((long) invocation.<List<?>>getArgument(0).size()));
+
+        // Act
+        StepVerifier.create(rollupService.flush(bucket -> true)).verifyComplete();
+
+        // Assert
+        HealthCheckRollup rollup = captureRollups().stream()
+                .filter(r -> r.getGranularity() == RollupGranularity.MINUTE)
+                .findFirst()
+                .orElseThrow();
+        assert rollup.getBucketStart().equals(minute);
+        assert rollup.getTotalCount() == 102;
+        assert rollup.getUpCount() == 100;
+        assert rollup.getDownCount() == 1;
+        assert rollup.getTimeoutCount() == 1;
+        assert rollup.getLatencyCount() == 101;
+        assert rollup.getMinResponseTimeMs() == 1L;
+        assert rollup.getMaxResponseTimeMs() == 10_000L;
+        assert Math.abs(rollup.getP50ResponseTimeMs() - 51) <= 6 : "p50 = " + rollup.getP50ResponseTimeMs();
+        assert Math.abs(rollup.getP95ResponseTimeMs() - 96) <= 10 : "p95 = " + rollup.getP95ResponseTimeMs();
+        assert rollup.getP99ResponseTimeMs() >= 99;
+        assert rollupService.getOpenBucketCount() == 0;
+    }
+
+    @Test
+    void flushClosedBuckets_ShouldKeepOpenBuckets() {
+        // Arrange
+        rollupService.onResult(service, result(ServiceStatus.UP, 10L, NOW.minusMinutes(3)));
+        rollupService.onResult(service, result(ServiceStatus.UP, 20L, NOW));
+        when(batchRepository.upsertAll(any())).thenReturn(Mono.just(1L));
+
+        // Act
+        rollupService.flushClosedBuckets();
+
+        // Assert
+        List<HealthCheckRollup> rollups = captureRollups();
+        assert rollups.size() == 1;
+        assert rollups.get(0).getGranularity() == RollupGranularity.MINUTE;
+        assert rollups.get(0).getBucketStart().equals(NOW.minusMinutes(3).withSecond(0));
+        // Открыты текущая минута и текущий час
+        assert rollupService.getOpenBucketCount() == 2;
+    }
+
+    @Test
+    void flush_ShouldNotFail_WhenRepositoryFails() {
+        // Arrange
+        rollupService.onResult(service, result(ServiceStatus.UP, 10L, NOW.minusHours(2)));
+        when(batchRepository.upsertAll(any())).thenReturn(Mono.error(new RuntimeException("DB error")));
+
+        // Act & Assert
+        StepVerifier.create(rollupService.flush(bucket -> true)).verifyComplete();
+    }
+
+    @Test
+    void flush_ShouldRetryRollups_WhenDatabaseUnavailable() {
+        // Arrange
+        rollupService.onResult(service, result(ServiceStatus.UP, 10L, NOW.minusHours(2)));
+        when(batchRepository.upsertAll(any()))
+                .thenReturn(Mono.error(new DataAccessResourceFailureException("Connection refused")))
+                .thenAnswer(invocation -> Mono.just((long) invocation.<List<?>>getArgument(0).size()));
+        StepVerifier.create(rollupService.flush(bucket -> true)).verifyComplete();
+        rollupService.onResult(service, result(ServiceStatus.DOWN, 20L, NOW.minusHours(2)));
+
+        // Act
+        StepVerifier.create(rollupService.flush(bucket -> true)).verifyComplete();
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<HealthCheckRollup>> captor = ArgumentCaptor.forClass(List.class);
+        verify(batchRepository, times(2)).upsertAll(captor.capture());
+        List<HealthCheckRollup> retried = captor.getAllValues().get(1);
+        // Повторно отправленные и опоздавшие агрегаты суммируются upsert'ом в БД
+        assert retried.size() == 4;
+        assert retried.stream().mapToLong(HealthCheckRollup::getTotalCount).sum() == 4;
+        assert rollupService.getUnsavedCount() == 0;
+    }
+
+    @Test
+    void prune_ShouldDeleteMinuteRollupsOlderThanRetention() {
+        // Arrange
+        when(batchRepository.deleteOlderThan(RollupGranularity.MINUTE, NOW.minusDays(7))).thenReturn(Mono.just(3L));
+
+        // Act & Assert
+        StepVerifier.create(rollupService.prune()).verifyComplete();
+        verify(batchRepository, never()).deleteOlderThan(eq(RollupGranularity.HOUR), any());
+    }
+
+    @Test
+    void getHistory_ShouldUseDefaultRange() {
+        // Arrange
+        when(rollupRepository.findByServiceDefinitionIdAndGranularityAndBucketStartBetweenOrderByBucketStart(
+                1L, RollupGranularity.HOUR, NOW.minusHours(24).withMinute(0).withSecond(0), NOW))
+                .thenReturn(Flux.empty());
+
+        // Act & Assert
+        StepVerifier.create(rollupService.getHistory(1L, RollupGranularity.HOUR, null, null))
+                .verifyComplete();
+    }
+
+    private List<HealthCheckRollup> captureRollups() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<HealthCheckRollup>> captor = ArgumentCaptor.forClass(List.class);
+        verify(batchRepository).upsertAll(captor.capture());
+        return captor.getValue();
+    }
+
+    private HealthCheckResult result(ServiceStatus status, Long responseTime, LocalDateTime checkedAt) {
+        return HealthCheckResult.builder()
+                .serviceDefinitionId(1L)
+                .status(status)
+                .responseTimeMs(responseTime)
+                .checkedAt(checkedAt)
+                .build();
+    }
+}
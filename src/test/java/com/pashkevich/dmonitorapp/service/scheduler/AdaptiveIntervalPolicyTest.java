@@ -0,0 +1,114 @@
+package com.pashkevich.dmonitorapp.service.scheduler;
+
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
+import com.pashkevich.dmonitorapp.model.ServiceStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveIntervalPolicyTest {
+
+    private static final long BASE = 30_000;
+
+    private MonitoringProperties.Adaptive properties;
+    private AdaptiveIntervalPolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        properties = new MonitoringProperties.Adaptive();
+        properties.setStableChecksToStretch(3);
+        properties.setMaxMultiplier(8);
+        properties.setMaxIntervalMs(120_000);
+        properties.setTightenDivisor(3);
+        properties.setMinIntervalMs(5_000);
+        properties.setFlapThreshold(4);
+        policy = new AdaptiveIntervalPolicy(properties);
+    }
+
+    @Test
+    void nextInterval_ShouldStretchStableService_UpToCeiling() {
+        // Arrange
+        AdaptiveIntervalPolicy.State state = new AdaptiveIntervalPolicy.State();
+
+        // Act
+        long afterTwo = apply(state, ServiceStatus.UP, 2);
+        long afterThree = apply(state, ServiceStatus.UP, 1);
+        long afterSix = apply(state, ServiceStatus.UP, 3);
+        long afterMany = apply(state, ServiceStatus.UP, 30);
+
+        // Assert
+        assert afterTwo == BASE;
+        assert afterThree == 2 * BASE;
+        assert afterSix == 4 * BASE : afterSix;
+        assert afterMany == 120_000 : "Потолок интервала не соблюден: " + afterMany;
+    }
+
+    @Test
+    void nextInterval_ShouldTighten_AfterFailureAndRecovery() {
+        // Arrange
+        AdaptiveIntervalPolicy.State state = new AdaptiveIntervalPolicy.State();
+        apply(state, ServiceStatus.UP, 10);
+
+        // Act
+        long afterFailure = policy.nextIntervalMillis(state, ServiceStatus.DOWN, BASE);
+        long stillDown = policy.nextIntervalMillis(state, ServiceStatus.TIMEOUT, BASE);
+        long afterRecovery = policy.nextIntervalMillis(state, ServiceStatus.UP, BASE);
+        long stableAgain = policy.nextIntervalMillis(state, ServiceStatus.UP, BASE);
+
+        // Assert
+        assert afterFailure == 10_000;
+        assert stillDown == 10_000;
+        assert afterRecovery == 10_000;
+        assert stableAgain == BASE;
+    }
+
+    @Test
+    void nextInterval_ShouldNotGoBelowMinimum() {
+        // Act
+        long interval = policy.nextIntervalMillis(new AdaptiveIntervalPolicy.State(), ServiceStatus.DOWN, 6_000);
+
+        // Assert
+        assert interval == 5_000;
+    }
+
+    @Test
+    void nextInterval_ShouldUseBaseInterval_WhenFlapping() {
+        // Arrange
+        AdaptiveIntervalPolicy.State state = new AdaptiveIntervalPolicy.State();
+        ServiceStatus[] statuses = {ServiceStatus.UP, ServiceStatus.DOWN, ServiceStatus.UP, ServiceStatus.DOWN};
+        for (ServiceStatus status : statuses) {
+            policy.nextIntervalMillis(state, status, BASE);
+        }
+
+        // Act
+        long interval = policy.nextIntervalMillis(state, ServiceStatus.UP, BASE);
+
+        // Assert
+        assert state.isFlapping();
+        assert interval == BASE;
+    }
+
+    @Test
+    void nextInterval_ShouldStopFlapping_WhenHistoryStabilizes() {
+        // Arrange
+        AdaptiveIntervalPolicy.State state = new AdaptiveIntervalPolicy.State();
+        ServiceStatus[] statuses = {ServiceStatus.UP, ServiceStatus.DOWN, ServiceStatus.UP, ServiceStatus.DOWN,
+                ServiceStatus.UP};
+        for (ServiceStatus status : statuses) {
+            policy.nextIntervalMillis(state, status, BASE);
+        }
+
+        // Act
+        apply(state, ServiceStatus.UP, AdaptiveIntervalPolicy.HISTORY_SIZE);
+
+        // Assert
+        assert !state.isFlapping();
+    }
+
+    private long apply(AdaptiveIntervalPolicy.State state, ServiceStatus status, int times) {
+        long interval = 0;
+        for (int i = 0; i < times; i++) {
+            interval = policy.nextIntervalMillis(state, status, BASE);
+        }
+        return interval;
+    }
+}
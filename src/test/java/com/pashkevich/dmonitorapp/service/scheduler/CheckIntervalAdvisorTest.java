@@ -0,0 +1,126 @@
+package com.pashkevich.dmonitorapp.service.scheduler;
+
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
+import com.pashkevich.dmonitorapp.model.BreakerState;
+import com.pashkevich.dmonitorapp.model.CheckType;
+import com.pashkevich.dmonitorapp.model.HealthCheckResult;
+import com.pashkevich.dmonitorapp.model.ServiceDefinition;
+import com.pashkevich.dmonitorapp.model.ServiceStatus;
+import com.pashkevich.dmonitorapp.service.registry.ServiceRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CheckIntervalAdvisorTest {
+
+    @Mock
+    private ServiceRegistry serviceRegistry;
+
+    @Mock
+    private CheckIntervalAdvisor.Listener listener;
+
+    private MonitoringProperties properties;
+    private CheckIntervalAdvisor advisor;
+    private final ServiceDefinition service = ServiceDefinition.builder()
+            .id(1L)
+            .name("Service 1")
+            .checkType(CheckType.HTTP)
+            .checkIntervalSeconds(30)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        properties = new MonitoringProperties();
+        properties.getScheduler().getAdaptive().setEnabled(true);
+        properties.getScheduler().getAdaptive().setStableChecksToStretch(2);
+        advisor = new CheckIntervalAdvisor(serviceRegistry, properties);
+        advisor.addListener(listener);
+    }
+
+    @Test
+    void onResult_ShouldStretchInterval_WhenServiceStable() {
+        // Act
+        for (int i = 0; i < 4; i++) {
+            advisor.onResult(service, result(ServiceStatus.UP));
+        }
+
+        // Assert
+        assert advisor.intervalMillis(1L, 30_000) == 120_000;
+        assert advisor.intervalMillis(1L, 60_000) == 60_000 : "Смена базового интервала сбрасывает адаптацию";
+        verifyNoInteractions(listener);
+    }
+
+    @Test
+    void onResult_ShouldNotifyListeners_WhenIntervalShortened() {
+        // Arrange
+        for (int i = 0; i < 4; i++) {
+            advisor.onResult(service, result(ServiceStatus.UP));
+        }
+
+        // Act
+        advisor.onResult(service, result(ServiceStatus.DOWN));
+
+        // Assert
+        verify(listener).onIntervalShortened(1L, 10_000);
+        assert advisor.intervalMillis(1L, 30_000) == 10_000;
+    }
+
+    @Test
+    void onResult_ShouldKeepBaseInterval_WhenDisabled() {
+        // Arrange
+        properties.getScheduler().getAdaptive().setEnabled(false);
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            advisor.onResult(service, result(ServiceStatus.UP));
+        }
+        advisor.onResult(service, result(ServiceStatus.DOWN));
+
+        // Assert
+        assert advisor.intervalMillis(1L, 30_000) == 30_000;
+        verify(listener, never()).onIntervalShortened(anyLong(), anyLong());
+    }
+
+    @Test
+    void onResult_ShouldUseBaseInterval_WhenCircuitOpen() {
+        // Arrange
+        advisor.onResult(service, result(ServiceStatus.DOWN));
+        HealthCheckResult open = result(ServiceStatus.DOWN);
+        open.setBreakerState(BreakerState.OPEN);
+
+        // Act
+        advisor.onResult(service, open);
+        advisor.onResult(service, open);
+
+        // Assert
+        assert advisor.intervalMillis(1L, 30_000) == 30_000;
+        verify(listener, times(1)).onIntervalShortened(1L, 10_000);
+    }
+
+    @Test
+    void onServiceRemoved_ShouldForgetHistory() {
+        // Arrange
+        for (int i = 0; i < 4; i++) {
+            advisor.onResult(service, result(ServiceStatus.UP));
+        }
+
+        // Act
+        advisor.onServiceRemoved(1L);
+
+        // Assert
+        assert advisor.intervalMillis(1L, 30_000) == 30_000;
+    }
+
+    private HealthCheckResult result(ServiceStatus status) {
+        return HealthCheckResult.builder()
+                .serviceDefinitionId(1L)
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,98 @@
+package com.pashkevich.dmonitorapp.service.scheduler;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+class TimingWheelTest {
+
+    private AtomicLong clock;
+    private TimingWheel<String> timingWheel;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(1_000);
+        timingWheel = new TimingWheel<>(10, 8, clock::get);
+    }
+
+    @Test
+    void advance_ShouldExpireTask_WhenDelayElapsed() {
+        // Arrange
+        timingWheel.schedule("task", 50);
+        List<String> expired = new ArrayList<>();
+
+        // Act
+        clock.addAndGet(40);
+        timingWheel.advance(timeout -> expired.add(timeout.getTask()));
+        List<String> expiredEarly = new ArrayList<>(expired);
+
+        clock.addAndGet(20);
+        timingWheel.advance(timeout -> expired.add(timeout.getTask()));
+
+        // Assert
+        assert expiredEarly.isEmpty();
+        assert expired.equals(List.of("task"));
+        assert timingWheel.size() == 0;
+    }
+
+    @Test
+    void advance_ShouldHandleDelaysLongerThanOneRotation() {
+        // Arrange
+        timingWheel.schedule("short", 30);
+        timingWheel.schedule("long", 250);
+        List<String> expired = new ArrayList<>();
+
+        // Act
+        clock.addAndGet(100);
+        timingWheel.advance(timeout -> expired.add(timeout.getTask()));
+        List<String> afterFirstRotation = new ArrayList<>(expired);
+
+        clock.addAndGet(200);
+        timingWheel.advance(timeout -> expired.add(timeout.getTask()));
+
+        // Assert
+        assert afterFirstRotation.equals(List.of("short"));
+        assert expired.equals(List.of("short", "long"));
+    }
+
+    @Test
+    void cancel_ShouldPreventExpiration() {
+        // Arrange
+        TimingWheel.Timeout<String> timeout = timingWheel.schedule("task", 20);
+        List<String> expired = new ArrayList<>();
+
+        // Act
+        boolean cancelled = timeout.cancel();
+        clock.addAndGet(100);
+        timingWheel.advance(t -> expired.add(t.getTask()));
+
+        // Assert
+        assert cancelled;
+        assert !timeout.cancel();
+        assert expired.isEmpty();
+        assert timingWheel.size() == 0;
+    }
+
+    @Test
+    void schedule_ShouldAllowReschedulingFromExpirationCallback() {
+        // Arrange
+        timingWheel.schedule("periodic", 20);
+        List<String> expired = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            clock.addAndGet(10);
+            timingWheel.advance(timeout -> {
+                expired.add(timeout.getTask());
+                timingWheel.schedule(timeout.getTask(), 20);
+            });
+        }
+
+        // Assert
+        assert expired.size() == 5 : "Ожидалось 5 срабатываний, получено " + expired.size();
+        assert timingWheel.size() == 1;
+    }
+}
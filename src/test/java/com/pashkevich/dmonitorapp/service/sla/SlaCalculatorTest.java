@@ -0,0 +1,313 @@
+package com.pashkevich.dmonitorapp.service.sla;
+
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
+import com.pashkevich.dmonitorapp.model.CheckType;
+import com.pashkevich.dmonitorapp.model.HealthCheckResult;
+import com.pashkevich.dmonitorapp.model.ServiceDefinition;
+import com.pashkevich.dmonitorapp.model.ServiceSla;
+import com.pashkevich.dmonitorapp.model.ServiceStatus;
+import com.pashkevich.dmonitorapp.repository.SlaCheckpointRepository;
+import com.pashkevich.dmonitorapp.service.cluster.ClusterMembership;
+import com.pashkevich.dmonitorapp.service.registry.ServiceRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SlaCalculatorTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 3, 15, 12, 0);
+
+    @Mock
+    private ServiceRegistry serviceRegistry;
+
+    @Mock
+    private SlaCheckpointRepository checkpointRepository;
+
+    @Mock
+    private ClusterMembership clusterMembership;
+
+    private Clock clock;
+    private SlaCalculator slaCalculator;
+    private ServiceDefinition service;
+
+    @BeforeEach
+    void setUp() {
+        clock = Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        service = ServiceDefinition.builder().id(1L).name("Service 1").checkType(CheckType.HTTP).build();
+        lenient().when(serviceRegistry.get(1L)).thenReturn(Optional.of(service));
+        lenient().when(checkpointRepository.findAll()).thenReturn(Flux.empty());
+        slaCalculator = newCalculator(new MonitoringProperties());
+        StepVerifier.create(slaCalculator.restore()).verifyComplete();
+    }
+
+    @Test
+    void getSla_ShouldCountAvailabilityAndClosedDowntime() {
+        // Arrange
+        slaCalculator.onResult(service, result(ServiceStatus.UP, NOW.minusMinutes(60)));
+        slaCalculator.onResult(service, result(ServiceStatus.DOWN, NOW.minusMinutes(50)));
+        slaCalculator.onResult(service, result(ServiceStatus.TIMEOUT, NOW.minusMinutes(40)));
+        slaCalculator.onResult(service, result(ServiceStatus.UP, NOW.minusMinutes(30)));
+        slaCalculator.onResult(service, result(ServiceStatus.UP, NOW.minusMinutes(20)));
+
+        // Act
+        ServiceSla sla = slaCalculator.getSla(1L).orElseThrow();
+
+        // Assert
+        assert sla.getServiceName().equals("Service 1");
+        assert sla.getDownSince() == null;
+        assert sla.getPeriods().size() == 5;
+        for (ServiceSla.Period period : sla.getPeriods().subList(0, 4)) {
+            assert period.getChecks() == 5 : period;
+            assert period.getUpChecks() == 3 : period;
+            assert period.getAvailabilityPercent() == 60.0 : period;
+            assert period.getDowntimeMs() == 20 * 60_000L : period;
+        }
+        assert period(sla, "2024-03").getFrom().equals(LocalDateTime.of(2024, 3, 1, 0, 0));
+        assert period(sla, "2024-02").getChecks() == 0;
+        assert period(sla, "2024-02").getAvailabilityPercent() == null;
+        assert sla.getRecentDowntimes().size() == 1;
+        assert sla.getRecentDowntimes().get(0).getFrom().equals(NOW.minusMinutes(50));
+        assert sla.getRecentDowntimes().get(0).getDurationMs() == 20 * 60_000L;
+    }
+
+    @Test
+    void getSla_ShouldIncludeOngoingDowntime() {
+        // Arrange
+        slaCalculator.onResult(service, result(ServiceStatus.UP, NOW.minusMinutes(10)));
+        slaCalculator.onResult(service, result(ServiceStatus.DOWN, NOW.minusMinutes(5)));
+
+        // Act
+        ServiceSla sla = slaCalculator.getSla(1L).orElseThrow();
+
+        // Assert
+        assert sla.getDownSince().equals(NOW.minusMinutes(5));
+        assert period(sla, "24h").getDowntimeMs() == 5 * 60_000L;
+        assert sla.getRecentDowntimes().isEmpty();
+    }
+
+    @Test
+    void getSla_ShouldCapDowntime_WhenResultsStop() {
+        // Arrange
+        slaCalculator.onResult(service, result(ServiceStatus.DOWN, NOW.minusHours(5)));
+        slaCalculator.onResult(service, result(ServiceStatus.UP, NOW.minusHours(1)));
+
+        // Act
+        ServiceSla sla = slaCalculator.getSla(1L).orElseThrow();
+
+        // Assert
+        assert period(sla, "24h").getDowntimeMs() == 600_000L;
+        assert sla.getRecentDowntimes().get(0).getTo().equals(NOW.minusHours(5).plusMinutes(10));
+    }
+
+    @Test
+    void getSla_ShouldUseSampleCounts_OfCompactedRows() {
+        // Arrange
+        HealthCheckResult compacted = result(ServiceStatus.UP, NOW.minusMinutes(1));
+        compacted.setSampleCount(10);
+        compacted.setUpCount(9);
+
+        // Act
+        slaCalculator.onResult(service, compacted);
+
+        // Assert
+        ServiceSla.Period day = period(slaCalculator.getSla(1L).orElseThrow(), "24h");
+        assert day.getChecks() == 10;
+        assert day.getUpChecks() == 9;
+    }
+
+    @Test
+    void getSla_ShouldKeepOldResults_OnlyInLongerPeriods() {
+        // Arrange
+        slaCalculator.onResult(service, result(ServiceStatus.DOWN, LocalDateTime.of(2024, 2, 28, 10, 0)));
+        slaCalculator.onResult(service, result(ServiceStatus.UP, NOW.minusDays(3)));
+        slaCalculator.onResult(service, result(ServiceStatus.UP, NOW.minusHours(1)));
+
+        // Act
+        ServiceSla sla = slaCalculator.getSla(1L).orElseThrow();
+
+        // Assert
+        assert period(sla, "24h").getChecks() == 1;
+        assert period(sla, "7d").getChecks() == 2;
+        assert period(sla, "30d").getChecks() == 3;
+        assert period(sla, "2024-03").getChecks() == 2;
+        assert period(sla, "2024-02").getChecks() == 1;
+        assert period(sla, "2024-02").getDowntimeMs() == 600_000L;
+    }
+
+    @Test
+    void checkpoint_ShouldRestoreSameCounters() {
+        // Arrange
+        slaCalculator.onResult(service, result(ServiceStatus.UP, NOW.minusHours(30)));
+        slaCalculator.onResult(service, result(ServiceStatus.DOWN, NOW.minusMinutes(10)));
+        slaCalculator.onResult(service, result(ServiceStatus.UP, NOW.minusMinutes(5)));
+        when(checkpointRepository.upsertAll(any())).thenReturn(Mono.just(1L));
+        StepVerifier.create(slaCalculator.checkpoint()).verifyComplete();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<Long, byte[]>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(checkpointRepository).upsertAll(captor.capture());
+        byte[] state = captor.getValue().get(1L);
+        when(checkpointRepository.findAll()).thenReturn(Flux.just(new SlaCheckpointRepository.Checkpoint(1L, state)));
+        SlaCalculator restored = newCalculator(new MonitoringProperties());
+
+        // Act
+        StepVerifier.create(restored.restore()).verifyComplete();
+
+        // Assert
+        assert restored.getSla(1L).orElseThrow().equals(slaCalculator.getSla(1L).orElseThrow());
+        StepVerifier.create(slaCalculator.checkpoint()).verifyComplete();
+        verify(checkpointRepository, times(1)).upsertAll(any());
+    }
+
+    @Test
+    void checkpoint_ShouldRetry_WhenSaveFails() {
+        // Arrange
+        slaCalculator.onResult(service, result(ServiceStatus.UP, NOW.minusMinutes(1)));
+        when(checkpointRepository.upsertAll(any()))
+                .thenReturn(Mono.error(new RuntimeException("DB error")))
+                .thenReturn(Mono.just(1L));
+
+        // Act
+        StepVerifier.create(slaCalculator.checkpoint()).verifyComplete();
+        StepVerifier.create(slaCalculator.checkpoint()).verifyComplete();
+
+        // Assert
+        verify(checkpointRepository, times(2)).upsertAll(any());
+    }
+
+    @Test
+    void onServiceRemoved_ShouldDropCountersAndCheckpoint() {
+        // Arrange
+        slaCalculator.onResult(service, result(ServiceStatus.UP, NOW.minusMinutes(1)));
+        when(checkpointRepository.delete(1L)).thenReturn(Mono.empty());
+
+        // Act
+        slaCalculator.onServiceRemoved(1L);
+
+        // Assert
+        assert slaCalculator.getStateCount() == 0;
+        assert slaCalculator.getSla(1L).isEmpty();
+        verify(checkpointRepository).delete(1L);
+    }
+
+    @Test
+    void checkpoint_ShouldWaitForRestore_AndMergeEarlyResults() {
+        // Arrange
+        byte[] state = savedState();
+        SlaCalculator restarted = newCalculator(new MonitoringProperties());
+        restarted.onResult(service, result(ServiceStatus.UP, NOW.minusMinutes(1)));
+        when(checkpointRepository.findAll())
+                .thenReturn(Flux.error(new RuntimeException("DB error")))
+                .thenReturn(Flux.just(new SlaCheckpointRepository.Checkpoint(1L, state)));
+
+        // Act
+        StepVerifier.create(restarted.restore()).expectError().verify();
+        StepVerifier.create(restarted.checkpoint()).verifyComplete();
+        boolean servedBeforeRestore = restarted.getSla(1L).isPresent();
+        StepVerifier.create(restarted.restore()).verifyComplete();
+        StepVerifier.create(restarted.checkpoint()).verifyComplete();
+
+        // Assert
+        assert !servedBeforeRestore;
+        assert period(restarted.getSla(1L).orElseThrow(), "24h").getChecks() == 3;
+        verify(checkpointRepository, times(2)).upsertAll(any());
+    }
+
+    @Test
+    void restore_ShouldNotMergeTwice_WhenRetriedAfterPartialRead() {
+        // Arrange
+        byte[] state = savedState();
+        SlaCalculator restarted = newCalculator(new MonitoringProperties());
+        SlaCheckpointRepository.Checkpoint checkpoint = new SlaCheckpointRepository.Checkpoint(1L, state);
+        when(checkpointRepository.findAll())
+                .thenReturn(Flux.concat(Flux.just(checkpoint), Flux.error(new RuntimeException("DB error"))))
+                .thenReturn(Flux.just(checkpoint));
+
+        // Act
+        StepVerifier.create(restarted.restore()).expectError().verify();
+        StepVerifier.create(restarted.restore()).verifyComplete();
+
+        // Assert
+        assert period(restarted.getSla(1L).orElseThrow(), "24h").getChecks() == 2;
+    }
+
+    @Test
+    void sync_ShouldServeAndCheckpointOnlyOwnedServices_WhenClusterEnabled() {
+        // Arrange
+        byte[] state = savedState();
+        MonitoringProperties properties = new MonitoringProperties();
+        properties.getCluster().setEnabled(true);
+        SlaCalculator node = newCalculator(properties);
+        when(serviceRegistry.getAll()).thenReturn(List.of(service));
+        when(clusterMembership.owns(1L)).thenReturn(true);
+        when(checkpointRepository.findAll(List.of(1L)))
+                .thenReturn(Flux.just(new SlaCheckpointRepository.Checkpoint(1L, state)));
+        node.onResult(service, result(ServiceStatus.UP, NOW.minusMinutes(1)));
+
+        // Act & Assert: первая итерация только фиксирует владение, чтобы прежний владелец успел сохраниться
+        StepVerifier.create(node.sync()).verifyComplete();
+        assert node.getSla(1L).isEmpty();
+        verify(checkpointRepository, never()).findAll(any());
+
+        StepVerifier.create(node.sync()).verifyComplete();
+        assert period(node.getSla(1L).orElseThrow(), "24h").getChecks() == 3;
+
+        // Сервис перешел к другому узлу: счетчики сохраняются последний раз и освобождаются
+        when(clusterMembership.owns(1L)).thenReturn(false);
+        assert node.getSla().isEmpty();
+        StepVerifier.create(node.sync()).verifyComplete();
+        assert node.getStateCount() == 0;
+        verify(checkpointRepository, times(2)).upsertAll(any());
+    }
+
+    private SlaCalculator newCalculator(MonitoringProperties properties) {
+        return new SlaCalculator(serviceRegistry, checkpointRepository, clusterMembership, properties, clock);
+    }
+
+    /**
+     * Контрольная точка с двумя проверками за последние сутки.
+     */
+    private byte[] savedState() {
+        slaCalculator.onResult(service, result(ServiceStatus.UP, NOW.minusMinutes(10)));
+        slaCalculator.onResult(service, result(ServiceStatus.DOWN, NOW.minusMinutes(5)));
+        when(checkpointRepository.upsertAll(any())).thenReturn(Mono.just(1L));
+        StepVerifier.create(slaCalculator.checkpoint()).verifyComplete();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<Long, byte[]>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(checkpointRepository).upsertAll(captor.capture());
+        return captor.getValue().get(1L);
+    }
+
+    private ServiceSla.Period period(ServiceSla sla, String name) {
+        return sla.getPeriods().stream()
+                .filter(period -> period.getPeriod().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private HealthCheckResult result(ServiceStatus status, LocalDateTime checkedAt) {
+        return HealthCheckResult.builder()
+                .serviceDefinitionId(1L)
+                .status(status)
+                .checkedAt(checkedAt)
+                .build();
+    }
+}
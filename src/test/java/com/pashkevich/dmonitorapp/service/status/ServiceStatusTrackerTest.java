@@ -0,0 +1,104 @@
+package com.pashkevich.dmonitorapp.service.status;
+
+import com.pashkevich.dmonitorapp.model.*;
+import com.pashkevich.dmonitorapp.service.registry.ServiceRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.stream.IntStream;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceStatusTrackerTest {
+
+    @Mock
+    private ServiceRegistry serviceRegistry;
+
+    private ServiceStatusTracker tracker;
+    private ServiceDefinition service;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new ServiceStatusTracker(serviceRegistry);
+        service = ServiceDefinition.builder()
+                .id(1L)
+                .name("Service 1")
+                .checkType(CheckType.HTTP)
+                .build();
+    }
+
+    @Test
+    void onResult_ShouldTrackLatestStatus() {
+        // Arrange
+        LocalDateTime checkedAt = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+        // Act
+        tracker.onResult(service, result(ServiceStatus.UP, 40L, checkedAt));
+
+        // Assert
+        ServiceStatusSnapshot snapshot = tracker.getStatus(1L).orElseThrow();
+        assert snapshot.getStatus() == ServiceStatus.UP;
+        assert snapshot.getLastResponseTimeMs() == 40L;
+        assert snapshot.getLastCheckedAt().equals(checkedAt);
+        assert snapshot.getLastChangedAt().equals(checkedAt);
+        assert snapshot.getConsecutiveFailures() == 0;
+        assert snapshot.getServiceName().equals("Service 1");
+    }
+
+    @Test
+    void onResult_ShouldCountConsecutiveFailuresAndStatusChanges() {
+        // Arrange
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+        // Act
+        tracker.onResult(service, result(ServiceStatus.UP, 40L, start));
+        tracker.onResult(service, result(ServiceStatus.DOWN, 10L, start.plusSeconds(30)));
+        tracker.onResult(service, result(ServiceStatus.TIMEOUT, 10_000L, start.plusSeconds(60)));
+        ServiceStatusSnapshot failing = tracker.getStatus(1L).orElseThrow();
+        tracker.onResult(service, result(ServiceStatus.UP, 35L, start.plusSeconds(90)));
+        tracker.onResult(service, result(ServiceStatus.UP, 38L, start.plusSeconds(120)));
+
+        // Assert
+        assert failing.getConsecutiveFailures() == 2;
+        assert failing.getLastChangedAt().equals(start.plusSeconds(60));
+        ServiceStatusSnapshot recovered = tracker.getStatus(1L).orElseThrow();
+        assert recovered.getConsecutiveFailures() == 0;
+        assert recovered.getLastChangedAt().equals(start.plusSeconds(90));
+        assert recovered.getLastResponseTimeMs() == 38L;
+    }
+
+    @Test
+    void onResult_ShouldBeSafeUnderConcurrentUpdates() {
+        // Act
+        IntStream.range(0, 10_000).parallel()
+                .forEach(i -> tracker.onResult(service, result(ServiceStatus.DOWN, 1L, LocalDateTime.now())));
+
+        // Assert
+        assert tracker.getStatus(1L).orElseThrow().getConsecutiveFailures() == 10_000;
+    }
+
+    @Test
+    void onServiceRemoved_ShouldForgetStatus() {
+        // Arrange
+        tracker.onResult(service, result(ServiceStatus.UP, 40L, LocalDateTime.now()));
+
+        // Act
+        tracker.onServiceRemoved(1L);
+
+        // Assert
+        assert tracker.getStatus(1L).isEmpty();
+        assert tracker.getStatuses().isEmpty();
+    }
+
+    private HealthCheckResult result(ServiceStatus status, Long responseTime, LocalDateTime checkedAt) {
+        return HealthCheckResult.builder()
+                .serviceDefinitionId(1L)
+                .status(status)
+                .responseTimeMs(responseTime)
+                .checkedAt(checkedAt)
+                .build();
+    }
+}
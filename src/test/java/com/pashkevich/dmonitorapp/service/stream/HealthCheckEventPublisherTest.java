@@ -0,0 +1,139 @@
+package com.pashkevich.dmonitorapp.service.stream;
+
+import com.pashkevich.dmonitorapp.config.MonitoringProperties;
+import com.pashkevich.dmonitorapp.model.*;
+import com.pashkevich.dmonitorapp.service.registry.ServiceRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+class HealthCheckEventPublisherTest {
+
+    @Mock
+    private ServiceRegistry serviceRegistry;
+
+    private HealthCheckEventPublisher publisher;
+    private ServiceDefinition httpService;
+    private ServiceDefinition databaseService;
+
+    @BeforeEach
+    void setUp() {
+        MonitoringProperties properties = new MonitoringProperties();
+        properties.getStream().setClientBufferSize(2);
+        publisher = new HealthCheckEventPublisher(serviceRegistry, properties);
+        httpService = service(1L, CheckType.HTTP);
+        databaseService = service(2L, CheckType.DATABASE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        publisher.close();
+    }
+
+    @Test
+    void stream_ShouldFilterByServiceAndCheckType() {
+        // Act & Assert
+        StepVerifier.create(publisher.stream(List.of(1L), List.of(CheckType.HTTP), false))
+                .then(() -> {
+                    publisher.onResult(databaseService, result(2L, ServiceStatus.UP));
+                    publisher.onResult(httpService, result(1L, ServiceStatus.UP));
+                })
+                .assertNext(event -> {
+                    assert event.getServiceDefinitionId() == 1L;
+                    assert event.getCheckType() == CheckType.HTTP;
+                    assert event.getServiceName().equals("Service 1");
+                })
+                .thenCancel()
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void stream_ShouldEmitOnlyTransitions_WhenRequested() {
+        // Act & Assert
+        StepVerifier.create(publisher.stream(null, null, true))
+                .then(() -> {
+                    publisher.onResult(httpService, result(1L, ServiceStatus.UP));
+                    publisher.onResult(httpService, result(1L, ServiceStatus.UP));
+                    publisher.onResult(httpService, result(1L, ServiceStatus.DOWN));
+                })
+                .assertNext(event -> {
+                    assert event.getStatus() == ServiceStatus.UP;
+                    assert event.getPreviousStatus() == null;
+                })
+                .assertNext(event -> {
+                    assert event.getStatus() == ServiceStatus.DOWN;
+                    assert event.getPreviousStatus() == ServiceStatus.UP;
+                })
+                .thenCancel()
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void stream_ShouldDropOldestEvents_ForSlowConsumer() {
+        // Act & Assert: первое событие уже передано на доставку, из буфера на два события выпадают самые старые
+        StepVerifier.create(publisher.stream(null, null, false), 0)
+                .then(() -> {
+                    for (long i = 1; i <= 5; i++) {
+                        publisher.onResult(httpService, result(1L, ServiceStatus.UP, i));
+                    }
+                })
+                .thenRequest(3)
+                .assertNext(event -> {
+                    assert event.getResponseTimeMs() == 1L;
+                })
+                .assertNext(event -> {
+                    assert event.getResponseTimeMs() == 4L;
+                })
+                .assertNext(event -> {
+                    assert event.getResponseTimeMs() == 5L;
+                })
+                .thenCancel()
+                .verify(Duration.ofSeconds(1));
+        assert publisher.getDroppedEvents() == 2;
+        assert publisher.getSubscriberCount() == 0;
+    }
+
+    @Test
+    void stream_ShouldDeliverEvents_OffProbeThread() {
+        // Arrange
+        Thread probeThread = Thread.currentThread();
+
+        // Act & Assert
+        StepVerifier.create(publisher.stream(null, null, false))
+                .then(() -> publisher.onResult(httpService, result(1L, ServiceStatus.UP)))
+                .assertNext(event -> {
+                    assert Thread.currentThread() != probeThread;
+                    assert Thread.currentThread().getName().startsWith("health-events");
+                })
+                .thenCancel()
+                .verify(Duration.ofSeconds(1));
+    }
+
+    private ServiceDefinition service(Long id, CheckType checkType) {
+        return ServiceDefinition.builder()
+                .id(id)
+                .name("Service " + id)
+                .checkType(checkType)
+                .build();
+    }
+
+    private HealthCheckResult result(Long serviceId, ServiceStatus status) {
+        return result(serviceId, status, 10L);
+    }
+
+    private HealthCheckResult result(Long serviceId, ServiceStatus status, Long responseTime) {
+        return HealthCheckResult.builder()
+                .serviceDefinitionId(serviceId)
+                .status(status)
+                .responseTimeMs(responseTime)
+                .build();
+    }
+}